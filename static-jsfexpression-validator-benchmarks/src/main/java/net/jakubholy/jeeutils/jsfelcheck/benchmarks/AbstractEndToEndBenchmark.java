@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.jakubholy.jeeutils.jsfelcheck.benchmarks;
+
+import net.jakubholy.jeeutils.jsfelcheck.AbstractJsfStaticAnalyzer;
+import net.jakubholy.jeeutils.jsfelcheck.CollectedValidationResults;
+import net.jakubholy.jeeutils.jsfelcheck.benchmarks.SyntheticWebappGenerator.ViewType;
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Complete run of the analyzer of the JSF version on the class path over a generated webapp
+ * (see {@link SyntheticWebappGenerator}) of the given size, including the set-up of the analyzer.
+ * Subclasses create the analyzer and declare the supported view types as the parameter "viewType".
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public abstract class AbstractEndToEndBenchmark {
+
+    /** Number of the views in the generated webapp. */
+    @Param({"100", "1000"})
+    public int views;
+
+    /** Fraction of invalid expressions in the generated webapp. */
+    @Param({"0"})
+    public double invalidFraction;
+
+    private GeneratedWebapp webapp;
+
+    /** The technology of the generated views. */
+    protected abstract ViewType getViewType();
+
+    /**
+     * Create the analyzer for the view type.
+     * @param type (required)
+     * @return new analyzer (never null)
+     */
+    protected abstract AbstractJsfStaticAnalyzer<?> createAnalyzer(ViewType type);
+
+    @Setup(Level.Trial)
+    public void generateWebapp() throws IOException {
+        File webappRoot = File.createTempFile("jsfelcheck-benchmark", "");
+        if (!webappRoot.delete() || !webappRoot.mkdir()) {
+            throw new IOException("Failed to create the directory " + webappRoot);
+        }
+        webapp = new SyntheticWebappGenerator()
+                .withViewType(getViewType())
+                .withViews(views)
+                .withInvalidFraction(invalidFraction)
+                .generate(webappRoot);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteWebapp() throws IOException {
+        FileUtils.deleteDirectory(webapp.getWebappRoot());
+    }
+
+    @Benchmark
+    public CollectedValidationResults validateWebapp() {
+        AbstractJsfStaticAnalyzer<?> analyzer = createAnalyzer(getViewType());
+        analyzer.setSuppressOutput(true);
+        analyzer.withLocalVariablesConfiguration(webapp.getLocalVariableConfiguration());
+        analyzer.withManagedBeansAndVariablesConfiguration(webapp.getManagedBeansAndVariablesConfiguration());
+
+        CollectedValidationResults results = analyzer.validateElExpressions(webapp.getWebappRoot());
+        if (webapp.getInvalidExpressions() == 0 && results.failures().getTotalCount() > 0) {
+            // The benchmark would measure something else than intended
+            throw new IllegalStateException("The generated webapp should have no invalid expressions but there are "
+                    + results.failures().getTotalCount() + ", f.ex. " + results.failures().iterator().next());
+        }
+        return results;
+    }
+
+}
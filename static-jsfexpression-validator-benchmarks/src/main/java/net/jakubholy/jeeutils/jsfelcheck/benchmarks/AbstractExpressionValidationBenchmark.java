@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.jakubholy.jeeutils.jsfelcheck.benchmarks;
+
+import net.jakubholy.jeeutils.jsfelcheck.validator.AttributeInfo;
+import net.jakubholy.jeeutils.jsfelcheck.validator.FakeValueFactory;
+import net.jakubholy.jeeutils.jsfelcheck.validator.ValidatingElResolver;
+import net.jakubholy.jeeutils.jsfelcheck.validator.results.ValidationResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validation of a single EL expression by the resolver of the JSF version on the class path; subclasses
+ * only create the resolver.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public abstract class AbstractExpressionValidationBenchmark {
+
+    /** The validated expression - simple, nested, local variable, operators, method binding and invalid. */
+    @Param({
+            "#{bean.name}"
+            , "#{bean.address.city.name}"
+            , "#{item.name}"
+            , "#{not empty bean.name and item.price > 10}"
+            , "#{bean.save}"
+            , "#{bean.noSuchProperty}"
+    })
+    public String expression;
+
+    private ValidatingElResolver resolver;
+    private AttributeInfo attribute;
+
+    /**
+     * Create the resolver to benchmark.
+     * @return new resolver (never null)
+     */
+    protected abstract ValidatingElResolver createResolver();
+
+    @Setup
+    public void setUp() {
+        resolver = createResolver();
+        resolver.declareVariable("bean", FakeValueFactory.fakeValueOfType(BenchmarkBean.class, "bean"));
+        resolver.declareVariable("item", FakeValueFactory.fakeValueOfType(BenchmarkBean.Item.class, "item"));
+        boolean methodBinding = expression.endsWith(".save}");
+        attribute = methodBinding? new AttributeInfo("action", String.class) : new AttributeInfo("value", Object.class);
+    }
+
+    @Benchmark
+    public ValidationResult validateExpression() {
+        return resolver.validateElExpression(expression, attribute);
+    }
+
+}
@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.jakubholy.jeeutils.jsfelcheck.benchmarks;
+
+/**
+ * The managed bean referenced by the benchmarked expressions and views, with a nested property graph
+ * (bean - address - city), an arbitrarily deep one (bean - child - child ...) and an array of items, possibly
+ * with child items, for local variables.
+ */
+public class BenchmarkBean {
+
+    /** Nested property of the bean. */
+    public static class Address {
+        private City city;
+
+        public City getCity() {
+            return city;
+        }
+    }
+
+    /** Property of the nested property. */
+    public static class City {
+        private String name;
+
+        public String getName() {
+            return name;
+        }
+    }
+
+    /** Element of {@link BenchmarkBean#getItems()}, used as a local variable. */
+    public static class Item {
+        private String name;
+        private int price;
+        private Item[] children;
+
+        public String getName() {
+            return name;
+        }
+
+        public int getPrice() {
+            return price;
+        }
+
+        public Item[] getChildren() {
+            return children;
+        }
+    }
+
+    private String name;
+    private Address address;
+    private BenchmarkBean child;
+    private Item[] items;
+
+    public String getName() {
+        return name;
+    }
+
+    public Address getAddress() {
+        return address;
+    }
+
+    public BenchmarkBean getChild() {
+        return child;
+    }
+
+    public Item[] getItems() {
+        return items;
+    }
+
+    /** Action method. */
+    public String save() {
+        return "saved";
+    }
+
+}
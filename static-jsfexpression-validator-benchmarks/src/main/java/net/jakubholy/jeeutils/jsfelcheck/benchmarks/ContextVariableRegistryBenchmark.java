@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.jakubholy.jeeutils.jsfelcheck.benchmarks;
+
+import net.jakubholy.jeeutils.jsfelcheck.expressionfinder.impl.jasper.AttributesValidationResult;
+import net.jakubholy.jeeutils.jsfelcheck.expressionfinder.pagenodes.PageNode;
+import net.jakubholy.jeeutils.jsfelcheck.expressionfinder.variables.ContextVariableRegistry;
+import net.jakubholy.jeeutils.jsfelcheck.expressionfinder.variables.MissingLocalVariableTypeDeclarationException; // SUPPRESS CHECKSTYLE
+import net.jakubholy.jeeutils.jsfelcheck.expressionfinder.variables.TagJsfVariableResolver;
+import net.jakubholy.jeeutils.jsfelcheck.expressionfinder.variables.VariableInfo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookups of local variables in a {@link ContextVariableRegistry} when the current tag is nested in
+ * the given number of variable-declaring tags, and the cost of entering and leaving such tags.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ContextVariableRegistryBenchmark {
+
+    private static final String REPEAT_TAG = "ui:repeat";
+
+    /** Number of nested tags declaring a local variable. */
+    @Param({"1", "8", "32"})
+    public int depth;
+
+    private ContextVariableRegistry nestedRegistry;
+    private ContextVariableRegistry emptyRegistry;
+    private PageNode[] nestedTags;
+    private final AttributesValidationResult noResolvedExpressions = new AttributesValidationResult();
+    private String innermostVariable;
+    private String outermostVariable;
+
+    @Setup
+    public void setUp() throws MissingLocalVariableTypeDeclarationException {
+        emptyRegistry = new ContextVariableRegistry().registerResolverForTag(REPEAT_TAG, new TagJsfVariableResolver() {
+            public VariableInfo extractContextVariables(Map<String, String> tagAttributes,
+                    AttributesValidationResult resolvedJsfExpressions) {
+                return new VariableInfo(tagAttributes.get("var"), BenchmarkBean.Item.class);
+            }
+        });
+        nestedRegistry = emptyRegistry.copyWithEmptyContext();
+
+        nestedTags = new PageNode[depth];
+        for (int i = 0; i < depth; i++) {
+            nestedTags[i] = new PageNode(REPEAT_TAG, Object.class, i
+                    , Collections.singletonMap("var", "item" + i));
+            nestedRegistry.extractContextVariables(nestedTags[i], noResolvedExpressions);
+        }
+        innermostVariable = "item" + (depth - 1);
+        outermostVariable = "item0";
+    }
+
+    @Benchmark
+    public Class<?> resolveInnermostVariable() {
+        return nestedRegistry.resolveVariable(innermostVariable);
+    }
+
+    @Benchmark
+    public Class<?> resolveOutermostVariable() {
+        return nestedRegistry.resolveVariable(outermostVariable);
+    }
+
+    /** A global variable such as a managed bean is looked up in the whole context first. */
+    @Benchmark
+    public Class<?> resolveGlobalVariable() {
+        return nestedRegistry.resolveVariable("bean");
+    }
+
+    @Benchmark
+    public ContextVariableRegistry enterAndLeaveNestedTags() throws MissingLocalVariableTypeDeclarationException {
+        for (PageNode tag : nestedTags) {
+            emptyRegistry.extractContextVariables(tag, noResolvedExpressions);
+        }
+        for (int i = nestedTags.length - 1; i >= 0; i--) {
+            emptyRegistry.discardContextFor(nestedTags[i]);
+        }
+        return emptyRegistry;
+    }
+
+}
@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.jakubholy.jeeutils.jsfelcheck.benchmarks;
+
+import net.jakubholy.jeeutils.jsfelcheck.validator.FakeValueStrategy;
+import net.jakubholy.jeeutils.jsfelcheck.validator.LightweightFakeValueStrategy;
+import net.jakubholy.jeeutils.jsfelcheck.validator.MockObjectOfUnknownType;
+import net.jakubholy.jeeutils.jsfelcheck.validator.MockitoFakeValueStrategy;
+import net.jakubholy.jeeutils.jsfelcheck.validator.ParsedElExpression;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creation of fake values of the types typically found in beans by the available {@link FakeValueStrategy
+ * strategies}. Each strategy runs in its own JVM; run with <code>-prof cl</code> and <code>-prof gc</code> to
+ * compare also the classes they load and the memory they use, f.ex.
+ * <code>java -jar benchmarks.jar FakeValueStrategy -prof cl</code>.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+public class FakeValueStrategyBenchmark {
+
+    /** Interfaces, abstract and concrete classes as they appear in typical beans. */
+    private static final Class<?>[] TYPES = {
+            java.util.List.class, java.util.Map.class, java.util.Set.class, java.util.Collection.class,
+            java.util.Iterator.class, java.lang.Runnable.class, java.lang.Comparable.class,
+            java.lang.CharSequence.class, java.io.Serializable.class, java.util.concurrent.Callable.class,
+            java.util.ArrayList.class, java.util.HashMap.class, java.util.Date.class, java.math.BigDecimal.class,
+            java.util.AbstractList.class, BenchmarkBean.class, BenchmarkBean.Item.class,
+            BenchmarkBean.Address.class, MockObjectOfUnknownType.class, ParsedElExpression.class };
+
+    @Param({"mockito", "lightweight"})
+    public String strategyName;
+
+    private FakeValueStrategy strategy;
+
+    @Setup
+    public void setUp() {
+        strategy = "mockito".equals(strategyName)? new MockitoFakeValueStrategy() : new LightweightFakeValueStrategy();
+    }
+
+    /** Create a fake value of each of the types. */
+    @Benchmark
+    public void createFakeValues(Blackhole blackhole) {
+        for (Class<?> type : TYPES) {
+            blackhole.consume(strategy.createFakeValue(type, "property"));
+        }
+    }
+
+}
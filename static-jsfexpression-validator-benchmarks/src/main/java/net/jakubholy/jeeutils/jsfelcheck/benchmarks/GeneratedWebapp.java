@@ -0,0 +1,148 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.jakubholy.jeeutils.jsfelcheck.benchmarks;
+
+import net.jakubholy.jeeutils.jsfelcheck.benchmarks.SyntheticWebappGenerator.ViewType;
+import net.jakubholy.jeeutils.jsfelcheck.config.LocalVariableConfiguration;
+import net.jakubholy.jeeutils.jsfelcheck.config.ManagedBeansAndVariablesConfiguration;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.HashMap;
+
+import static net.jakubholy.jeeutils.jsfelcheck.config.ManagedBeansAndVariablesConfiguration.forExtraVariables;
+
+/**
+ * A webapp produced by {@link SyntheticWebappGenerator} together with the configuration the analyzer needs to
+ * validate it.
+ */
+public class GeneratedWebapp {
+
+    private final File webappRoot;
+    private final ViewType viewType;
+    private final int views;
+    private final int beans;
+    private final int nestingDepth;
+    private final boolean compositeComponents;
+    private final int expressions;
+    private final int invalidExpressions;
+
+    GeneratedWebapp(File webappRoot, ViewType viewType, int views, int beans, int nestingDepth  // SUPPRESS CHECKSTYLE
+            , boolean compositeComponents, int expressions, int invalidExpressions) {
+        this.webappRoot = webappRoot;
+        this.viewType = viewType;
+        this.views = views;
+        this.beans = beans;
+        this.nestingDepth = nestingDepth;
+        this.compositeComponents = compositeComponents;
+        this.expressions = expressions;
+        this.invalidExpressions = invalidExpressions;
+    }
+
+    static String beanName(int bean) {
+        return "bean" + bean;
+    }
+
+    static String itemName(int nestingLevel) {
+        return "item" + nestingLevel;
+    }
+
+    /**
+     * The managed beans used by the views; they are also declared in WEB-INF/faces-config.xml.
+     * @return new configuration (never null)
+     */
+    public ManagedBeansAndVariablesConfiguration getManagedBeansAndVariablesConfiguration() {
+        ManagedBeansAndVariablesConfiguration configuration = forExtraVariables();
+        for (int bean = 0; bean < beans; bean++) {
+            configuration.withExtraVariable(beanName(bean), BenchmarkBean.class);
+        }
+        if (compositeComponents) {
+            // The composite component itself is validated as a view too
+            configuration.withExtraVariable("cc", Collections.singletonMap("attrs", new HashMap<String, Object>()));
+        }
+        return configuration;
+    }
+
+    /**
+     * Types of the local variables declared by the nested loops.
+     * @return new configuration (never null)
+     */
+    public LocalVariableConfiguration getLocalVariableConfiguration() {
+        LocalVariableConfiguration configuration = new LocalVariableConfiguration();
+        for (int bean = 0; bean < beans; bean++) {
+            configuration.withLocalVariable(beanName(bean) + ".items", BenchmarkBean.Item.class);
+        }
+        for (int level = 0; level < nestingDepth - 1; level++) {
+            configuration.withLocalVariable(itemName(level) + ".children", BenchmarkBean.Item.class);
+        }
+        return configuration;
+    }
+
+    /**
+     * Arguments for the main method of the analyzer to validate this webapp.
+     * @return the arguments separated by spaces (never null)
+     */
+    public String toAnalyzerArguments() {
+        StringBuilder extraVariables = new StringBuilder();
+        StringBuilder localVariableTypes = new StringBuilder();
+        for (int bean = 0; bean < beans; bean++) {
+            String separator = (bean == 0)? "" : ",";
+            extraVariables.append(separator).append(beanName(bean)).append('=').append(BenchmarkBean.class.getName());
+            localVariableTypes.append(separator).append(beanName(bean)).append(".items=")
+                    .append(BenchmarkBean.Item.class.getName());
+        }
+        for (int level = 0; level < nestingDepth - 1; level++) {
+            localVariableTypes.append(',').append(itemName(level)).append(".children=")
+                    .append(BenchmarkBean.Item.class.getName());
+        }
+        return "--jspRoot " + webappRoot.getPath() + " --extraVariables " + extraVariables
+                + " --localVariableTypes " + localVariableTypes;
+    }
+
+    /** The directory containing WEB-INF and the views. */
+    public File getWebappRoot() {
+        return webappRoot;
+    }
+
+    public ViewType getViewType() {
+        return viewType;
+    }
+
+    /** Number of the generated views, not counting the included fragments and composite components. */
+    public int getViews() {
+        return views;
+    }
+
+    /**
+     * Number of the expressions written into all the generated files; included fragments are counted once even
+     * though an analyzer that follows includes will validate them for each including view.
+     */
+    public int getExpressions() {
+        return expressions;
+    }
+
+    /** How many of {@link #getExpressions()} reference a non-existent property. */
+    public int getInvalidExpressions() {
+        return invalidExpressions;
+    }
+
+    @Override
+    public String toString() {
+        return "GeneratedWebapp[" + viewType + " at " + webappRoot + ": views=" + views + ", beans=" + beans
+                + ", expressions=" + expressions + ", invalid=" + invalidExpressions + "]";
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.jakubholy.jeeutils.jsfelcheck.benchmarks;
+
+import net.jakubholy.jeeutils.jsfelcheck.expressionfinder.impl.regexp.JsfElMatcher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of scanning page source code for EL expressions with {@link JsfElMatcher}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class JsfElMatcherBenchmark {
+
+    /** Number of expressions on the scanned page. */
+    @Param({"10", "100", "1000"})
+    public int expressionsPerPage;
+
+    private String pageSource;
+
+    @Setup
+    public void setUp() {
+        StringBuilder page = new StringBuilder("<html><body>\n");
+        for (int i = 0; i < expressionsPerPage; i++) {
+            page.append("  <p class=\"text\">Some static text that contains no expression at all</p>\n");
+            if (i % 3 == 0) {
+                page.append("  <h:commandButton action=\"#{bean.action").append(i).append("}\" value=\"Go\"/>\n");
+            } else {
+                page.append("  <h:outputText value=\"#{bean.property").append(i).append(".nested}\"/>\n");
+            }
+        }
+        pageSource = page.append("</body></html>").toString();
+    }
+
+    /** @return number of expressions found so that the work isn't eliminated */
+    @Benchmark
+    public int scanPage() {
+        JsfElMatcher matcher = JsfElMatcher.forText(pageSource);
+        int found = 0;
+        while (matcher.findNext() != null) {
+            found++;
+        }
+        return found;
+    }
+
+}
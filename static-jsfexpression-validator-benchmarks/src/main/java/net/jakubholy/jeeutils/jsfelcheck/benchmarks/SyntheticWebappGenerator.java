@@ -0,0 +1,506 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.jakubholy.jeeutils.jsfelcheck.benchmarks;
+
+import org.apache.commons.io.FileUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+
+/**
+ * Generates a webapp of configurable size and shape to load-test the analyzer and to track its throughput and
+ * memory over releases. The views reference the managed beans bean0 .. beanN (all of the type
+ * {@link BenchmarkBean}) via property paths of random depth, iterate over their items in nested
+ * <code>ui:repeat</code>/<code>h:dataTable</code> tags, include shared fragments and optionally use a composite
+ * component (JSF 2.0 Facelets only). The given fraction of expressions references a non-existent property.
+ * <p>
+ *     The generation is deterministic for the same settings and seed. The result describes the configuration
+ * the analyzer needs, see {@link GeneratedWebapp}; the beans are also declared in WEB-INF/faces-config.xml.
+ * </p>
+ *
+ * <h3>Usage example</h3>
+ * <pre>{@code
+ * GeneratedWebapp webapp = new SyntheticWebappGenerator()
+ *      .withViews(5000).withBeans(200).withInvalidFraction(0.01)
+ *      .generate(new File("/tmp/webapp"));
+ * analyzer.withManagedBeansAndVariablesConfiguration(webapp.getManagedBeansAndVariablesConfiguration())
+ *      .withLocalVariablesConfiguration(webapp.getLocalVariableConfiguration())
+ *      .validateElExpressions(webapp.getWebappRoot());
+ * }</pre>
+ * Or from the command line, see {@link #main(String[])}.
+ */
+public class SyntheticWebappGenerator {
+
+    /** The technology of the generated views. */
+    public static enum ViewType {
+        FACELETS(".xhtml", ".xhtml"), JSP(".jsp", ".jspf");
+
+        private final String viewSuffix;
+        private final String includeSuffix;
+
+        private ViewType(String viewSuffix, String includeSuffix) {
+            this.viewSuffix = viewSuffix;
+            this.includeSuffix = includeSuffix;
+        }
+    }
+
+    private static final int VIEWS_PER_DIRECTORY = 100;
+    private static final int EXPRESSIONS_PER_INCLUDE = 3;
+    private static final String ENCODING = "UTF-8";
+    private static final String COMPOSITE_LIBRARY = "synthetic";
+
+    private static final String FACELETS_NAMESPACES = "xmlns=\"http://www.w3.org/1999/xhtml\"\n"
+            + "      xmlns:ui=\"http://java.sun.com/jsf/facelets\"\n"
+            + "      xmlns:f=\"http://java.sun.com/jsf/core\"\n"
+            + "      xmlns:h=\"http://java.sun.com/jsf/html\"";
+    private static final String JSP_TAGLIBS = "<%@ taglib uri=\"http://java.sun.com/jsf/html\" prefix=\"h\" %>\n"
+            + "<%@ taglib uri=\"http://java.sun.com/jsf/core\" prefix=\"f\" %>\n";
+
+    private ViewType viewType = ViewType.FACELETS;
+    private int views = 100;
+    private int beans = 10;
+    private int expressionsPerView = 10;
+    private int propertyDepth = 3;
+    private int nestingDepth = 2;
+    private int includes = 10;
+    private boolean compositeComponents = false;
+    private double invalidFraction = 0;
+    private long seed = 1;
+
+    private Random random;
+    private int expressionCount;
+    private int invalidExpressionCount;
+
+    /**
+     * Generate from the command line; run without arguments to see the options. Prints the arguments
+     * for the analyzer's main method matching the generated webapp.
+     */
+    public static void main(String[] args) throws IOException { // SUPPRESS CHECKSTYLE (no javadoc for args)
+        SyntheticWebappGenerator generator = new SyntheticWebappGenerator();
+        File webappRoot = null;
+
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            String option = args[i];
+            String value = args[i + 1];
+            if ("--output".equals(option)) {
+                webappRoot = new File(value);
+            } else if ("--viewType".equals(option)) {
+                generator.withViewType(ViewType.valueOf(value.toUpperCase()));
+            } else if ("--views".equals(option)) {
+                generator.withViews(Integer.parseInt(value));
+            } else if ("--beans".equals(option)) {
+                generator.withBeans(Integer.parseInt(value));
+            } else if ("--expressionsPerView".equals(option)) {
+                generator.withExpressionsPerView(Integer.parseInt(value));
+            } else if ("--propertyDepth".equals(option)) {
+                generator.withPropertyDepth(Integer.parseInt(value));
+            } else if ("--nestingDepth".equals(option)) {
+                generator.withNestingDepth(Integer.parseInt(value));
+            } else if ("--includes".equals(option)) {
+                generator.withIncludes(Integer.parseInt(value));
+            } else if ("--compositeComponents".equals(option)) {
+                generator.withCompositeComponents(Boolean.parseBoolean(value));
+            } else if ("--invalidFraction".equals(option)) {
+                generator.withInvalidFraction(Double.parseDouble(value));
+            } else if ("--seed".equals(option)) {
+                generator.withSeed(Long.parseLong(value));
+            } else {
+                throw new IllegalArgumentException("Unknown option " + option);
+            }
+        }
+
+        if (webappRoot == null) {
+            System.err.println("USAGE: java " + SyntheticWebappGenerator.class.getName() + " <options>; options are:\n"
+                    + " --output <directory> (required) where to generate the webapp\n"
+                    + " --viewType <facelets|jsp> (optional, default facelets)\n"
+                    + " --views <number> (optional, default 100)\n"
+                    + " --beans <number> (optional, default 10) number of managed beans\n"
+                    + " --expressionsPerView <number> (optional, default 10) besides those in loops, includes etc.\n"
+                    + " --propertyDepth <number> (optional, default 3) maximal length of property paths\n"
+                    + " --nestingDepth <number> (optional, default 2) of ui:repeat/h:dataTable, 0 for none\n"
+                    + " --includes <number> (optional, default 10) number of included fragments, 0 for none\n"
+                    + " --compositeComponents <true|false> (optional, default false) JSF 2.0 Facelets only\n"
+                    + " --invalidFraction <0..1> (optional, default 0) fraction of invalid expressions\n"
+                    + " --seed <number> (optional, default 1) for the random choices\n");
+            System.exit(-1);
+        }
+
+        GeneratedWebapp webapp = generator.generate(webappRoot);
+        System.out.println("Generated " + webapp);
+        System.out.println("Analyzer arguments: " + webapp.toAnalyzerArguments());
+    }
+
+    /**
+     * Generate the webapp, overwriting any files of the same names.
+     * @param webappRoot (required) the directory to generate into
+     * @return description of the generated webapp and the configuration it needs (never null)
+     * @throws IOException if writing the files fails
+     */
+    public GeneratedWebapp generate(File webappRoot) throws IOException {
+        random = new Random(seed);
+        expressionCount = 0;
+        invalidExpressionCount = 0;
+
+        write(new File(webappRoot, "WEB-INF/web.xml"), webXml());
+        write(new File(webappRoot, "WEB-INF/faces-config.xml"), facesConfigXml());
+        for (int include = 0; include < includes; include++) {
+            write(new File(webappRoot, includePath(include)), include());
+        }
+        if (isCompositeComponentsGenerated()) {
+            write(new File(webappRoot, "resources/" + COMPOSITE_LIBRARY + "/panel.xhtml"), compositeComponent());
+        }
+        for (int view = 0; view < views; view++) {
+            File viewFile = new File(webappRoot
+                    , "section" + (view / VIEWS_PER_DIRECTORY) + "/view" + view + viewType.viewSuffix);
+            write(viewFile, (viewType == ViewType.FACELETS)? faceletsView(view) : jspView(view));
+        }
+
+        return new GeneratedWebapp(webappRoot, viewType, views, beans, nestingDepth, isCompositeComponentsGenerated()
+                , expressionCount, invalidExpressionCount);
+    }
+
+    private boolean isCompositeComponentsGenerated() {
+        return compositeComponents && viewType == ViewType.FACELETS;
+    }
+
+    private static void write(File file, String content) throws IOException {
+        FileUtils.writeStringToFile(file, content, ENCODING);
+    }
+
+    private String includePath(int include) {
+        return "/includes/include" + include + viewType.includeSuffix;
+    }
+
+    private String webXml() {
+        return "<?xml version=\"1.0\"?>\n"
+            + "<web-app xmlns=\"http://java.sun.com/xml/ns/javaee\" version=\"2.5\">\n"
+            + "    <context-param>\n"
+            + "        <param-name>javax.faces.DEFAULT_SUFFIX</param-name>\n"
+            + "        <param-value>" + viewType.viewSuffix + "</param-value>\n"
+            + "    </context-param>\n"
+            + "</web-app>\n";
+    }
+
+    private String facesConfigXml() {
+        StringBuilder config = new StringBuilder("<?xml version=\"1.0\"?>\n"
+            + "<faces-config xmlns=\"http://java.sun.com/xml/ns/javaee\" version=\"1.2\">\n");
+        for (int bean = 0; bean < beans; bean++) {
+            config.append("    <managed-bean>\n")
+                .append("        <managed-bean-name>").append(GeneratedWebapp.beanName(bean))
+                .append("</managed-bean-name>\n")
+                .append("        <managed-bean-class>").append(BenchmarkBean.class.getName())
+                .append("</managed-bean-class>\n")
+                .append("        <managed-bean-scope>request</managed-bean-scope>\n")
+                .append("    </managed-bean>\n");
+        }
+        return config.append("</faces-config>\n").toString();
+    }
+
+    private String include() {
+        StringBuilder content = new StringBuilder((viewType == ViewType.FACELETS)
+                ? "<ui:composition " + FACELETS_NAMESPACES + ">\n"
+                : JSP_TAGLIBS);
+        for (int i = 0; i < EXPRESSIONS_PER_INCLUDE; i++) {
+            content.append("    <h:outputText value=\"").append(beanExpression()).append("\"/>\n");
+        }
+        if (viewType == ViewType.FACELETS) {
+            content.append("</ui:composition>\n");
+        }
+        return content.toString();
+    }
+
+    /** JSF 2.0 composite component; 'cc' is declared as an extra variable for validating it as a view. */
+    private String compositeComponent() {
+        return "<ui:composition " + FACELETS_NAMESPACES + "\n"
+            + "      xmlns:cc=\"http://java.sun.com/jsf/composite\">\n"
+            + "    <cc:interface>\n"
+            + "        <cc:attribute name=\"label\"/>\n"
+            + "    </cc:interface>\n"
+            + "    <cc:implementation>\n"
+            + "        <h:outputText value=\"#{cc.attrs.label}\"/>\n"
+            + "    </cc:implementation>\n"
+            + "</ui:composition>\n";
+    }
+
+    private String faceletsView(int view) {
+        StringBuilder content = new StringBuilder("<html ").append(FACELETS_NAMESPACES);
+        if (isCompositeComponentsGenerated()) {
+            content.append("\n      xmlns:syn=\"http://java.sun.com/jsf/composite/").append(COMPOSITE_LIBRARY)
+                .append('"');
+        }
+        content.append(">\n<body>\n    <h:form id=\"form").append(view).append("\">\n");
+
+        appendOutputs(content);
+        appendNestedLoops(content, "ui:repeat", null);
+        if (includes > 0) {
+            content.append("        <ui:include src=\"").append(includePath(view % includes)).append("\"/>\n");
+        }
+        if (isCompositeComponentsGenerated()) {
+            content.append("        <syn:panel label=\"").append(beanExpression()).append("\"/>\n");
+        }
+        appendAction(content);
+
+        return content.append("    </h:form>\n</body>\n</html>\n").toString();
+    }
+
+    private String jspView(int view) {
+        StringBuilder content = new StringBuilder(JSP_TAGLIBS)
+            .append("<html>\n<body>\n<f:view>\n    <h:form id=\"form").append(view).append("\">\n");
+
+        appendOutputs(content);
+        appendNestedLoops(content, "h:dataTable", "h:column");
+        if (includes > 0) {
+            content.append("        <%@ include file=\"").append(includePath(view % includes)).append("\" %>\n");
+        }
+        appendAction(content);
+
+        return content.append("    </h:form>\n</f:view>\n</body>\n</html>\n").toString();
+    }
+
+    private void appendOutputs(StringBuilder content) {
+        for (int i = 0; i < expressionsPerView; i++) {
+            content.append("        <h:outputText value=\"").append(beanExpression()).append("\"/>\n");
+        }
+    }
+
+    /**
+     * Loops over the items of a random bean nested to {@link #withNestingDepth(int)}, the inner ones iterating
+     * over the children of the outer item.
+     */
+    private void appendNestedLoops(StringBuilder content, String loopTag, String columnTag) {
+        if (nestingDepth <= 0) {
+            return;
+        }
+        StringBuilder indent = new StringBuilder("        ");
+        String source = expression(GeneratedWebapp.beanName(random.nextInt(beans)) + ".items");
+        for (int level = 0; level < nestingDepth; level++) {
+            content.append(indent).append('<').append(loopTag).append(" value=\"").append(source)
+                .append("\" var=\"").append(GeneratedWebapp.itemName(level)).append("\">\n");
+            indent.append("    ");
+            if (columnTag != null) {
+                content.append(indent).append('<').append(columnTag).append(">\n");
+                indent.append("    ");
+            }
+            source = expression(GeneratedWebapp.itemName(level) + ".children");
+        }
+
+        String innermostItem = GeneratedWebapp.itemName(nestingDepth - 1);
+        content.append(indent).append("<h:outputText value=\"")
+            .append(possiblyInvalidExpression(innermostItem, random.nextBoolean()? ".name" : ".price"))
+            .append("\"/>\n");
+
+        for (int level = nestingDepth - 1; level >= 0; level--) {
+            if (columnTag != null) {
+                indent.setLength(indent.length() - 4);
+                content.append(indent).append("</").append(columnTag).append(">\n");
+            }
+            indent.setLength(indent.length() - 4);
+            content.append(indent).append("</").append(loopTag).append(">\n");
+        }
+    }
+
+    private void appendAction(StringBuilder content) {
+        content.append("        <h:commandButton action=\"")
+            .append(expression(GeneratedWebapp.beanName(random.nextInt(beans)) + ".save"))
+            .append("\" value=\"Save\"/>\n");
+    }
+
+    /** Random bean followed by a random number of '.child' and a final property. */
+    private String beanExpression() {
+        StringBuilder path = new StringBuilder(GeneratedWebapp.beanName(random.nextInt(beans)));
+        int depth = random.nextInt(propertyDepth + 1);
+        for (int i = 0; i < depth; i++) {
+            path.append(".child");
+        }
+        return possiblyInvalidExpression(path.toString(), random.nextBoolean()? ".name" : ".address.city.name");
+    }
+
+    private String possiblyInvalidExpression(String path, String validEnding) {
+        if (random.nextDouble() < invalidFraction) {
+            invalidExpressionCount++;
+            return expression(path + ".noSuchProperty");
+        }
+        return expression(path + validEnding);
+    }
+
+    private String expression(String body) {
+        expressionCount++;
+        return "#{" + body + "}";
+    }
+
+    /**
+     * Type of the generated views. (Default: Facelets.)
+     * @param viewType (required)
+     * @return this
+     */
+    public SyntheticWebappGenerator withViewType(ViewType viewType) {
+        this.viewType = viewType;
+        return this;
+    }
+
+    /** @see #withViewType(ViewType) */
+    public ViewType getViewType() {
+        return viewType;
+    }
+
+    /**
+     * Number of views to generate, placed in subdirectories of at most 100 views each. (Default: 100.)
+     * @param views (required) a non-negative number
+     * @return this
+     */
+    public SyntheticWebappGenerator withViews(int views) {
+        this.views = views;
+        return this;
+    }
+
+    /** @see #withViews(int) */
+    public int getViews() {
+        return views;
+    }
+
+    /**
+     * Number of the managed beans bean0 .. beanN-1 referenced by the views. (Default: 10.)
+     * @param beans (required) a positive number
+     * @return this
+     */
+    public SyntheticWebappGenerator withBeans(int beans) {
+        if (beans <= 0) {
+            throw new IllegalArgumentException("beans: At least one bean is required; was: " + beans);
+        }
+        this.beans = beans;
+        return this;
+    }
+
+    /** @see #withBeans(int) */
+    public int getBeans() {
+        return beans;
+    }
+
+    /**
+     * Number of simple outputs in each view, besides those in loops, includes etc. (Default: 10.)
+     * @param expressionsPerView (required) a non-negative number
+     * @return this
+     */
+    public SyntheticWebappGenerator withExpressionsPerView(int expressionsPerView) {
+        this.expressionsPerView = expressionsPerView;
+        return this;
+    }
+
+    /** @see #withExpressionsPerView(int) */
+    public int getExpressionsPerView() {
+        return expressionsPerView;
+    }
+
+    /**
+     * The maximal number of properties traversed before the final one, f.ex. 2 for
+     * <code>#{bean0.child.child.name}</code>. (Default: 3.)
+     * @param propertyDepth (required) a non-negative number
+     * @return this
+     */
+    public SyntheticWebappGenerator withPropertyDepth(int propertyDepth) {
+        this.propertyDepth = propertyDepth;
+        return this;
+    }
+
+    /** @see #withPropertyDepth(int) */
+    public int getPropertyDepth() {
+        return propertyDepth;
+    }
+
+    /**
+     * How many <code>ui:repeat</code> (Facelets) or <code>h:dataTable</code> (JSP) tags are nested in each
+     * view. (Default: 2.)
+     * @param nestingDepth (required) a non-negative number, 0 for no loops
+     * @return this
+     */
+    public SyntheticWebappGenerator withNestingDepth(int nestingDepth) {
+        this.nestingDepth = nestingDepth;
+        return this;
+    }
+
+    /** @see #withNestingDepth(int) */
+    public int getNestingDepth() {
+        return nestingDepth;
+    }
+
+    /**
+     * Number of fragments under /includes; each view includes one of them. (Default: 10.)
+     * @param includes (required) a non-negative number, 0 for no includes
+     * @return this
+     */
+    public SyntheticWebappGenerator withIncludes(int includes) {
+        this.includes = includes;
+        return this;
+    }
+
+    /** @see #withIncludes(int) */
+    public int getIncludes() {
+        return includes;
+    }
+
+    /**
+     * Whether each view should use a composite component; ignored for JSP. Only supported by JSF 2.0.
+     * (Default: false.)
+     * @param compositeComponents (required)
+     * @return this
+     */
+    public SyntheticWebappGenerator withCompositeComponents(boolean compositeComponents) {
+        this.compositeComponents = compositeComponents;
+        return this;
+    }
+
+    /** @see #withCompositeComponents(boolean) */
+    public boolean isCompositeComponents() {
+        return compositeComponents;
+    }
+
+    /**
+     * Fraction of the output expressions that reference a non-existent property; the sources of loops and
+     * the actions are always valid. (Default: 0.)
+     * @param invalidFraction (required) between 0 and 1
+     * @return this
+     */
+    public SyntheticWebappGenerator withInvalidFraction(double invalidFraction) {
+        if (invalidFraction < 0 || invalidFraction > 1) {
+            throw new IllegalArgumentException("invalidFraction: Must be between 0 and 1; was: " + invalidFraction);
+        }
+        this.invalidFraction = invalidFraction;
+        return this;
+    }
+
+    /** @see #withInvalidFraction(double) */
+    public double getInvalidFraction() {
+        return invalidFraction;
+    }
+
+    /**
+     * Seed of the random choices of beans, property paths and invalid expressions. (Default: 1.)
+     * @param seed (required)
+     * @return this
+     */
+    public SyntheticWebappGenerator withSeed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    /** @see #withSeed(long) */
+    public long getSeed() {
+        return seed;
+    }
+
+}
@@ -0,0 +1,40 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.jakubholy.jeeutils.jsfelcheck.benchmarks;
+
+import net.jakubholy.jeeutils.jsfelcheck.AbstractJsfStaticAnalyzer;
+import net.jakubholy.jeeutils.jsfelcheck.JsfStaticAnalyzer;
+import net.jakubholy.jeeutils.jsfelcheck.benchmarks.SyntheticWebappGenerator.ViewType;
+import org.openjdk.jmh.annotations.Param;
+
+/** Complete run over a generated webapp with JSF 1.2 or 2.0, depending on the active profile. */
+public class EndToEndBenchmark extends AbstractEndToEndBenchmark {
+
+    @Param({"FACELETS", "JSP"})
+    public ViewType viewType;
+
+    @Override
+    protected ViewType getViewType() {
+        return viewType;
+    }
+
+    @Override
+    protected AbstractJsfStaticAnalyzer<?> createAnalyzer(ViewType type) {
+        return (type == ViewType.FACELETS)? JsfStaticAnalyzer.forFacelets() : JsfStaticAnalyzer.forJsp();
+    }
+
+}
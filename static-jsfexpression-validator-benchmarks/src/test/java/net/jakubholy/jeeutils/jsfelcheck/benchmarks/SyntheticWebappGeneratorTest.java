@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.jakubholy.jeeutils.jsfelcheck.benchmarks;
+
+import net.jakubholy.jeeutils.jsfelcheck.benchmarks.SyntheticWebappGenerator.ViewType;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+
+import static org.junit.Assert.*;
+
+public class SyntheticWebappGeneratorTest {
+
+    private File webappRoot;
+
+    @Before
+    public void setUp() throws Exception {
+        webappRoot = File.createTempFile("jsfelcheck-generated", "");
+        assertTrue(webappRoot.delete());
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        FileUtils.deleteDirectory(webappRoot);
+    }
+
+    @Test
+    public void should_generate_views_includes_and_configuration() throws Exception {
+        GeneratedWebapp webapp = new SyntheticWebappGenerator()
+                .withViews(150).withBeans(3).withIncludes(2).withNestingDepth(3)
+                .generate(webappRoot);
+
+        assertTrue(new File(webappRoot, "WEB-INF/faces-config.xml").isFile());
+        assertTrue(new File(webappRoot, "section1/view149.xhtml").isFile());
+        assertTrue(new File(webappRoot, "includes/include1.xhtml").isFile());
+        assertEquals(0, webapp.getInvalidExpressions());
+
+        String view = FileUtils.readFileToString(new File(webappRoot, "section0/view3.xhtml"), "UTF-8");
+        assertTrue(view, view.contains("<ui:include src=\"/includes/include1.xhtml\"/>"));
+        assertTrue(view, view.contains("value=\"#{item1.children}\" var=\"item2\""));
+
+        String arguments = webapp.toAnalyzerArguments();
+        assertTrue(arguments, arguments.contains("bean2=" + BenchmarkBean.class.getName()));
+        assertTrue(arguments, arguments.contains("item1.children=" + BenchmarkBean.Item.class.getName()));
+    }
+
+    @Test
+    public void should_generate_the_requested_fraction_of_invalid_expressions_reproducibly() throws Exception {
+        SyntheticWebappGenerator generator = new SyntheticWebappGenerator()
+                .withViewType(ViewType.JSP).withViews(200).withInvalidFraction(0.1);
+
+        GeneratedWebapp webapp = generator.generate(webappRoot);
+
+        // Loop sources and actions are always valid so the fraction of all expressions is a bit lower
+        double invalidFraction = (double) webapp.getInvalidExpressions() / webapp.getExpressions();
+        assertTrue("invalid fraction: " + invalidFraction, invalidFraction > 0.05 && invalidFraction < 0.1);
+        assertEquals(webapp.getInvalidExpressions(), generator.generate(webappRoot).getInvalidExpressions());
+        assertTrue(new File(webappRoot, "includes/include0.jspf").isFile());
+    }
+
+}
@@ -21,33 +21,65 @@ import net.jakubholy.jeeutils.jsfelcheck.beanfinder.InputResource;
 import net.jakubholy.jeeutils.jsfelcheck.beanfinder.ManagedBeanFinder;
 import net.jakubholy.jeeutils.jsfelcheck.beanfinder.ManagedBeanFinder.ManagedBeanDescriptor;
 import net.jakubholy.jeeutils.jsfelcheck.beanfinder.SpringContextBeanFinder;
+import net.jakubholy.jeeutils.jsfelcheck.cache.ConfigurationFingerprint;
+import net.jakubholy.jeeutils.jsfelcheck.cache.ViewResultCache;
 import net.jakubholy.jeeutils.jsfelcheck.config.LocalVariableConfiguration;
 import net.jakubholy.jeeutils.jsfelcheck.config.ManagedBeansAndVariablesConfiguration;
+import net.jakubholy.jeeutils.jsfelcheck.daemon.ValidationDaemon;
+import net.jakubholy.jeeutils.jsfelcheck.daemon.ViewWatcher;
+import net.jakubholy.jeeutils.jsfelcheck.expressionfinder.impl.ParallelViewValidationExecutor;
 import net.jakubholy.jeeutils.jsfelcheck.expressionfinder.impl.facelets.JsfElValidatingFaceletsParser;
 import net.jakubholy.jeeutils.jsfelcheck.expressionfinder.impl.facelets.ValidatingFaceletsParserExecutor;
 import net.jakubholy.jeeutils.jsfelcheck.expressionfinder.impl.jasper.CollectedValidationResultsImpl;
 import net.jakubholy.jeeutils.jsfelcheck.expressionfinder.impl.jasper.JsfElValidatingPageNodeListener;
 import net.jakubholy.jeeutils.jsfelcheck.expressionfinder.impl.jasper.JspCParsingToNodesOnly;
+import net.jakubholy.jeeutils.jsfelcheck.expressionfinder.impl.jasper.ValidatedViewListener;
 import net.jakubholy.jeeutils.jsfelcheck.expressionfinder.pagenodes.PageNodeListener;
 import net.jakubholy.jeeutils.jsfelcheck.expressionfinder.variables.ContextVariableRegistry;
+import net.jakubholy.jeeutils.jsfelcheck.expressionfinder.variables.MissingLocalVariableTypeDeclarationException; // SUPPRESS CHECKSTYLE
+import net.jakubholy.jeeutils.jsfelcheck.expressionfinder.variables.TagJsfVariableResolver;
+import net.jakubholy.jeeutils.jsfelcheck.report.JUnitXmlReportWriter;
+import net.jakubholy.jeeutils.jsfelcheck.report.JsonLinesReportWriter;
+import net.jakubholy.jeeutils.jsfelcheck.report.SarifReportWriter;
+import net.jakubholy.jeeutils.jsfelcheck.util.CacheStatisticsProvider;
+import net.jakubholy.jeeutils.jsfelcheck.util.Checksums;
+import net.jakubholy.jeeutils.jsfelcheck.util.LruCache;
+import net.jakubholy.jeeutils.jsfelcheck.util.MetricsRegistry;
+import net.jakubholy.jeeutils.jsfelcheck.validator.DeclarativeElExpressionFilter;
 import net.jakubholy.jeeutils.jsfelcheck.validator.ElExpressionFilter;
 import net.jakubholy.jeeutils.jsfelcheck.validator.FakeValueFactory;
+import net.jakubholy.jeeutils.jsfelcheck.validator.FakeValueStrategy;
 import net.jakubholy.jeeutils.jsfelcheck.validator.JsfElValidator;
+import net.jakubholy.jeeutils.jsfelcheck.validator.LightweightFakeValueStrategy;
+import net.jakubholy.jeeutils.jsfelcheck.validator.MemoizingElValidator;
+import net.jakubholy.jeeutils.jsfelcheck.validator.MockitoFakeValueStrategy;
 import net.jakubholy.jeeutils.jsfelcheck.validator.ValidatingElResolver;
+import net.jakubholy.jeeutils.jsfelcheck.validator.results.CompositeResultSink;
+import net.jakubholy.jeeutils.jsfelcheck.validator.results.FileWritingResultSink;
+import net.jakubholy.jeeutils.jsfelcheck.validator.results.MultipleValidationResults.Retention;
+import net.jakubholy.jeeutils.jsfelcheck.validator.results.ValidationResult;
+import net.jakubholy.jeeutils.jsfelcheck.validator.results.ValidationResultSink;
+import org.apache.commons.io.FileUtils;
 import org.apache.jasper.JasperException;
-import org.apache.jasper.compiler.JsfElCheckingVisitor;
 
 import javax.servlet.http.HttpServletRequest;
 import java.io.File;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Hashtable;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import static net.jakubholy.jeeutils.jsfelcheck.util.ArgumentAssert.assertNotNull;
-import static org.mockito.Mockito.*;
 
 /**
  * The validator analyses JSF pages implemented with Facelets or JSP and validates that all EL
@@ -115,6 +147,10 @@ import static org.mockito.Mockito.*;
  * {@link LocalVariableConfiguration#withLocalVariable(String, Class)}.
  * </p>
  * <p>
+ * The types of the variables of c:forEach, c:set and ui:param are inferred from their source expression where
+ * possible, see {@link LocalVariableConfiguration#withDefaultResolversForStandardTags()}.
+ * </p>
+ * <p>
  * If there are other tags than h:dataTable for JSP or ui:repeat for Facelets that can create local variables then you
  * must create and register an appropriate "resolver" (a class that can extract the local variable name and type from
  * the tag info) for them as is done with the
@@ -133,6 +169,15 @@ import static org.mockito.Mockito.*;
  *         experimental generics type extractor</a> based on the Java Compiler API.)
  * </p>
  *
+ * <h4>Performance</h4>
+ * <p>
+ *     Facelets views can be validated in multiple threads, see {@link #withWorkerThreads(int)}. Results
+ *     of unchanged views can be reused from a previous run, see {@link #withResultCache(java.io.File)}.
+ *     Results of expressions repeated on many views can be reused, see {@link #withExpressionResultMemoization(boolean)}.
+ *     To keep the memory constant for large applications, push the results to a sink and don't keep them all,
+ *     see {@link #withResultSink(ValidationResultSink)} and {@link #withResultRetention(Retention)}.
+ * </p>
+ *
  * <h3>How it works</h3>
  * We use "fake value resolversIn" for a real JSF resolver; those resolversIn do not retrieve
  * variables and property values from the context as JSF normally does but instead produce
@@ -158,13 +203,39 @@ public abstract class AbstractJsfStaticAnalyzer<T extends AbstractJsfStaticAnaly
 
 	protected static enum ViewType {JSP, FACELETS };
 
+    private static final int MEMOIZED_RESULTS_CACHE_SIZE = 50000;
+    private static final int SLOWEST_VIEWS_IN_METRICS_SUMMARY = 10;
+
     private final T self;
 	private final ViewType viewType;
 
-    private final ValidatingElResolver elValidator;
+    private ValidatingElResolver elValidator;
+    /** The registry of the elValidator, set when the validation subsystem is initialized. */
+    private ContextVariableRegistry contextVariableRegistry;
     private final ResultsReporter resultsReporter = new ResultsReporter();
 
     private String jspsToIncludeCommaSeparated = null;
+    private int workerThreads = 1;
+    private File resultCacheFile = null;
+    private boolean expressionResultMemoization = false;
+    private LruCache<String, ValidationResult> memoizedResults = null;
+    private ValidationResultSink resultSink = null;
+    /** The sinks of the current validation: the resultSink and any configured via system properties. */
+    private ValidationResultSink activeResultSink = null;
+    private Retention resultRetention = Retention.ALL;
+    private final MetricsRegistry metrics = new MetricsRegistry();
+    private boolean printMetricsSummary = false;
+
+    // Configuration applied to the elValidator, recorded to be able to create equally configured ones for workers
+    private final Map<String, Object> declaredVariables = new LinkedHashMap<String, Object>();
+    /** The implicit variables and managed beans declared by the last initialization of the validation subsystem. */
+    private final Set<String> discoveredVariables = new HashSet<String>();
+    private final Map<String, Class<?>> propertyTypeOverrides = new LinkedHashMap<String, Class<?>>();
+    private final List<ElExpressionFilter> elExpressionFilters = new LinkedList<ElExpressionFilter>();
+    private File filterRulesFile;
+    // Caches of the JSP/Facelets parsers, which are shared by all parsers in the JVM
+    private final Set<LruCache<?, ?>> viewParserCaches =
+            Collections.synchronizedSet(new LinkedHashSet<LruCache<?, ?>>());
 
     private LocalVariableConfiguration localVariableConfiguration = new LocalVariableConfiguration();
     private ManagedBeansAndVariablesConfiguration managedBeansConfiguration = new ManagedBeansAndVariablesConfiguration();
@@ -183,6 +254,20 @@ public abstract class AbstractJsfStaticAnalyzer<T extends AbstractJsfStaticAnaly
     /** Create the JSF-implementation specific valiator to use. */
     protected abstract ValidatingElResolver createValidatingElResolver();
 
+    /**
+     * Replace the validator with a new one from {@link #createValidatingElResolver()}, configured with all the
+     * variables, property type overrides and filters declared so far - f.ex. when a subclass supports multiple
+     * validator implementations and another one has been selected.
+     */
+    protected void recreateValidatingElResolver() {
+        ValidatingElResolver newValidator = createValidatingElResolver();
+        if (newValidator == null) {
+            throw new IllegalStateException("Implementation returned null elValidator: ValidatingElResolver");
+        }
+        applyRecordedConfiguration(newValidator);
+        elValidator = newValidator;
+    }
+
 	/**
      * Check expressions in all JSP files under the viewFilesRoot and print the failed (or all) ones
      * to System out.
@@ -224,26 +309,25 @@ public abstract class AbstractJsfStaticAnalyzer<T extends AbstractJsfStaticAnaly
 
         final long start = System.currentTimeMillis();
 
-        JsfElValidatingPageNodeListener pageNodeValidator = initializeValidationSubsystem();
-
         applyConfigurationFromSystemProperties();
+        activeResultSink = CompositeResultSink.combine(resultSink, createReportWritersFromSystemProperties());
+        MetricsRegistry previousFakeValueMetrics = FakeValueFactory.setMetricsRegistry(metrics);
 
-	    if (viewType.equals(ViewType.JSP)) {
-			// Run it
-			JspCParsingToNodesOnly jspc = createJsfElValidatingJspParser(viewFilesRoot.getPath(),
-					pageNodeValidator);
-			try {
-				jspc.execute();
-			} catch (JasperException e) {
-				throw new RuntimeException("Jasper failed to parse your JSP files", e);
-			}
-	    } else {
-		    JsfElValidatingFaceletsParser faceletsParser = createValidatingFaceletsParser(webappRoot, pageNodeValidator);
-		    new ValidatingFaceletsParserExecutor(viewFilesRoot, webappRoot, faceletsParser).execute();
-	    }
+        CollectedValidationResultsImpl results = null;
+        try {
+            JsfElValidatingPageNodeListener pageNodeValidator = initializeValidationSubsystem();
+            if (resultCacheFile == null) {
+                results = validateViews(webappRoot, viewFilesRoot, pageNodeValidator, null, null);
+            } else {
+                results = validateViewsIncrementally(webappRoot, viewFilesRoot, pageNodeValidator);
+            }
+        } finally {
+            FakeValueFactory.setMetricsRegistry(previousFakeValueMetrics);
+            // Also after a failure, so that the reports written so far are complete documents
+            finishResultSink(results != null);
+        }
 
         // Handle results
-        CollectedValidationResultsImpl results = pageNodeValidator.getValidationResults();
 
         resultsReporter.printValidationResults(results);
 
@@ -255,21 +339,664 @@ public abstract class AbstractJsfStaticAnalyzer<T extends AbstractJsfStaticAnaly
         // CHECKSTYLE:ON
 
         resultsReporter.printOut("\n\n>>> TOTAL EXPRESSIONS CHECKED: "
-                + (results.failures().size() + results.goodResults().size())
-                + " (FAILED: " + results.failures().size()
-                + ", IGNORED EXPRESSIONS: " + results.excluded().size()
+                + (results.failures().getTotalCount() + results.goodResults().getTotalCount())
+                + " (FAILED: " + results.failures().getTotalCount()
+                + ", IGNORED EXPRESSIONS: " + results.excluded().getTotalCount()
                 + ") IN " + minutes + "min " + seconds + "s");
+        printCacheStatistics();
+        printFilterRuleHits();
+        if (printMetricsSummary) {
+            resultsReporter.printOut("\n>>> METRICS (times of nested phases overlap)\n"
+                    + metrics.formatSummary(SLOWEST_VIEWS_IN_METRICS_SUMMARY));
+        }
 
         return results;
     }
 
+    /**
+     * Let the result sink, if any, finish its reports.
+     * @param validationSucceeded false not to hide the validation's failure by a failure of the sink
+     */
+    private void finishResultSink(boolean validationSucceeded) {
+        if (activeResultSink == null) {
+            return;
+        }
+        try {
+            activeResultSink.validationFinished();
+        } catch (RuntimeException e) {
+            if (validationSucceeded) {
+                throw e;
+            }
+            LOG.log(Level.WARNING, "Failed to finish the result sink after the validation failed", e);
+        }
+    }
+
+    /** Report the effectiveness of the validator's and parsers' caches, if any; they are shared in the JVM. */
+    private void printCacheStatistics() {
+        if (memoizedResults != null) {
+            resultsReporter.printOut(">>> CACHE " + memoizedResults
+                    + " (each hit is an expression validation saved)");
+        }
+        if (elValidator instanceof CacheStatisticsProvider) {
+            for (LruCache<?, ?> cache : ((CacheStatisticsProvider) elValidator).getCaches()) {
+                resultsReporter.printOut(">>> CACHE " + cache);
+            }
+        }
+        for (LruCache<?, ?> cache : viewParserCaches) {
+            resultsReporter.printOut(">>> CACHE " + cache);
+        }
+    }
+
+    /** Report how many expressions each declarative filter rule has excluded (since the filter was created). */
+    private void printFilterRuleHits() {
+        for (ElExpressionFilter filter : elExpressionFilters) {
+            if (filter instanceof DeclarativeElExpressionFilter) {
+                StringBuilder hits = new StringBuilder(">>> FILTER RULE HITS " + filter
+                        + (expressionResultMemoization? " (excluding memoized results)" : "") + ":");
+                for (Map.Entry<String, Long> rule
+                        : ((DeclarativeElExpressionFilter) filter).getRuleHits().entrySet()) {
+                    hits.append("\n    ").append(rule.getKey()).append(": ").append(rule.getValue())
+                            .append(rule.getValue() == 0? " (never matched, consider removing it)" : "");
+                }
+                resultsReporter.printOut(hits.toString());
+            }
+        }
+    }
+
+    /**
+     * Initialize the analyzer for validating views of the given webapp repeatedly, f.ex. those changed since the
+     * last validation. Bean discovery, fake value creation and (for Facelets) the JSF bootstrap happen only once,
+     * here, and not for every validation.
+     * <p>
+     *     The results are returned and sent to the {@link #withResultSink(ValidationResultSink) result sink}, if
+     *     any, but not printed. Don't change the analyzer's configuration while the session is open.
+     * </p>
+     *
+     * @param webappRoot (required) the root directory of the web application (containing WEB-INF)
+     * @param viewFilesRoot (required) where to search for the views
+     * @return the session, which should be closed when not needed anymore
+     * @see #validateElExpressions(File, File)
+     */
+    public ValidationSession openSession(File webappRoot, File viewFilesRoot) {
+        assertJspDirValid(webappRoot, "webappRoot (webapp root directory, containing WEB-INF)");
+        assertJspDirValid(viewFilesRoot, "viewFilesRoot (path of the directory with view files)");
+
+        applyConfigurationFromSystemProperties();
+        activeResultSink = resultSink;
+        MetricsRegistry previousFakeValueMetrics = FakeValueFactory.setMetricsRegistry(metrics);
+        try {
+            return new WarmValidationSession(webappRoot, viewFilesRoot, initializeValidationSubsystem());
+        } finally {
+            FakeValueFactory.setMetricsRegistry(previousFakeValueMetrics);
+        }
+    }
+
+    /**
+     * Session reusing the analyzer's validator and variable registry and, for Facelets, one parser
+     * for all the validations.
+     */
+    private class WarmValidationSession implements ValidationSession {
+
+        private final File webappRoot;
+        private final File viewFilesRoot;
+        private final JsfElValidatingPageNodeListener sessionListener;
+        private final ContextVariableRegistry contextVariableRegistry;
+        private JsfElValidatingFaceletsParser faceletsParser;
+
+        WarmValidationSession(File webappRoot, File viewFilesRoot, JsfElValidatingPageNodeListener sessionListener) {
+            this.webappRoot = webappRoot;
+            this.viewFilesRoot = viewFilesRoot;
+            this.sessionListener = sessionListener;
+            this.contextVariableRegistry = AbstractJsfStaticAnalyzer.this.contextVariableRegistry;
+        }
+
+        public CollectedValidationResults validateViews(Collection<File> views) {
+            return validateViews(views, null);
+        }
+
+        public synchronized CollectedValidationResults validateViews(Collection<File> views,
+                ValidatedViewListener viewListener) {
+            MetricsRegistry previousFakeValueMetrics = FakeValueFactory.setMetricsRegistry(metrics);
+            try {
+                return validateExistingViews(views, viewListener);
+            } finally {
+                FakeValueFactory.setMetricsRegistry(previousFakeValueMetrics);
+            }
+        }
+
+        private CollectedValidationResults validateExistingViews(Collection<File> views,
+                ValidatedViewListener viewListener) {
+            List<File> existingViews = new ArrayList<File>(views.size());
+            for (File view : views) {
+                if (view.isFile()) {
+                    existingViews.add(view);
+                }
+            }
+
+            // A new listener, sharing the validator and registry, so that only this validation's results are returned
+            JsfElValidatingPageNodeListener listener = new JsfElValidatingPageNodeListener(
+                    memoizingIfEnabled(elValidator, contextVariableRegistry), contextVariableRegistry);
+            configureResultHandling(listener);
+            listener.setValidatedViewListener(viewListener);
+            listener.setViewRootContextPath(toViewRootContextPath(webappRoot, viewFilesRoot));
+            if (existingViews.isEmpty()) {
+                return listener.getValidationResults();
+            }
+
+            if (viewType.equals(ViewType.JSP)) {
+                executeJspc(createJsfElValidatingJspParser(viewFilesRoot.getPath(), listener, existingViews));
+            } else {
+                if (faceletsParser == null) {
+                    faceletsParser = createMeasuredFaceletsParser(webappRoot, sessionListener);
+                }
+                new ValidatingFaceletsParserExecutor(viewFilesRoot, webappRoot, faceletsParser)
+                        .withMetricsRegistry(metrics)
+                        .withPageNodeListener(listener)
+                        .execute(existingViews);
+            }
+            listener.finishCurrentView();
+            return listener.getValidationResults();
+        }
+
+        public CollectedValidationResults validateAllViews() {
+            return validateAllViews(null);
+        }
+
+        public CollectedValidationResults validateAllViews(ValidatedViewListener viewListener) {
+            return validateViews(findAllViews(viewFilesRoot), viewListener);
+        }
+
+        public File resolveDependency(String dependency) {
+            return toDependencyFile(webappRoot, viewFilesRoot, dependency);
+        }
+
+        public File getWebappRoot() {
+            return webappRoot;
+        }
+
+        public File getViewFilesRoot() {
+            return viewFilesRoot;
+        }
+
+        public synchronized void close() {
+            if (activeResultSink != null) {
+                activeResultSink.validationFinished();
+            }
+            faceletsParser = null;
+        }
+    }
+
 	abstract protected JsfElValidatingFaceletsParser createValidatingFaceletsParser(File webappRoot, PageNodeListener pageNodeValidator);
 
+	/**
+	 * Validate the given views or all views.
+	 * @param views (optional) the views to validate, null to validate all (for JSP: all or those in
+	 * {@link #getJspsToIncludeCommaSeparated()})
+	 * @param viewListener (optional) notified about results of each view
+	 */
+	private CollectedValidationResultsImpl validateViews(File webappRoot, File viewFilesRoot,
+			JsfElValidatingPageNodeListener pageNodeValidator, List<File> views, ValidatedViewListener viewListener) {
+
+		pageNodeValidator.setValidatedViewListener(viewListener);
+		pageNodeValidator.setViewRootContextPath(toViewRootContextPath(webappRoot, viewFilesRoot));
+
+		if (views != null && views.isEmpty()) {
+			return pageNodeValidator.getValidationResults();
+		}
+
+	    if (viewType.equals(ViewType.JSP)) {
+		    if (workerThreads > 1) {
+			    List<File> jspViews = (views == null)? findAllViews(viewFilesRoot) : views;
+			    return validateJspsInParallel(webappRoot, viewFilesRoot, jspViews, viewListener);
+		    }
+			// Run it
+			JspCParsingToNodesOnly jspc = createJsfElValidatingJspParser(viewFilesRoot.getPath(),
+					pageNodeValidator, views);
+			executeJspc(jspc);
+			pageNodeValidator.finishCurrentView();
+			return pageNodeValidator.getValidationResults();
+	    }
+
+		List<File> faceletsViews = (views == null)? ValidatingFaceletsParserExecutor.findViewFiles(viewFilesRoot) : views;
+		if (workerThreads > 1) {
+		    return validateFaceletsInParallel(webappRoot, viewFilesRoot, faceletsViews, viewListener, pageNodeValidator);
+	    } else {
+		    JsfElValidatingFaceletsParser faceletsParser = createMeasuredFaceletsParser(webappRoot, pageNodeValidator);
+		    new ValidatingFaceletsParserExecutor(viewFilesRoot, webappRoot, faceletsParser)
+				    .withMetricsRegistry(metrics).execute(faceletsViews);
+		    pageNodeValidator.finishCurrentView();
+		    return pageNodeValidator.getValidationResults();
+	    }
+	}
+
+	/** Create the parser, recording the time it took and its caches, if any, for reporting. */
+	private JsfElValidatingFaceletsParser createMeasuredFaceletsParser(File webappRoot, PageNodeListener listener) {
+		long parserInitializationStart = metrics.startTimer();
+		JsfElValidatingFaceletsParser faceletsParser = createValidatingFaceletsParser(webappRoot, listener);
+		metrics.stopTimer(MetricsRegistry.FACELETS_PARSER_INITIALIZATION, parserInitializationStart);
+		if (faceletsParser instanceof CacheStatisticsProvider) {
+			viewParserCaches.addAll(((CacheStatisticsProvider) faceletsParser).getCaches());
+		}
+		return faceletsParser;
+	}
+
+	private String toCommaSeparatedPaths(List<File> views) {
+		StringBuilder paths = new StringBuilder();
+		for (File view : views) {
+			if (paths.length() > 0) {
+				paths.append(',');
+			}
+			paths.append(view.getAbsolutePath());
+		}
+		return paths.toString();
+	}
+
+	/**
+	 * Validate only views that have changed since the last run and take results of the others from the
+	 * {@link #withResultCache(java.io.File) result cache}.
+	 */
+	private CollectedValidationResultsImpl validateViewsIncrementally(File webappRoot, File viewFilesRoot,
+			JsfElValidatingPageNodeListener pageNodeValidator) {
+
+		ViewResultCache cache = ViewResultCache.open(resultCacheFile, computeConfigurationFingerprint(webappRoot));
+
+		final List<File> allViews = findAllViews(viewFilesRoot);
+		final Map<String, String> viewChecksums = new LinkedHashMap<String, String>();
+		for (File view : allViews) {
+			viewChecksums.put(toViewKey(viewFilesRoot, view), Checksums.checksumOf(view));
+		}
+
+		final File viewRoot = viewFilesRoot;
+		Set<String> viewsWithChangedDependencies = cache.invalidateDependentsOfChangedFiles(viewChecksums,
+				new ViewResultCache.ChecksumSource() {
+					public String currentChecksumOf(String fileKey) {
+						if (viewChecksums.containsKey(fileKey)) {
+							return viewChecksums.get(fileKey);
+						}
+						File file = fromDependencyKey(viewRoot, fileKey);
+						return file.isFile()? Checksums.checksumOf(file) : null;
+					}
+				});
+
+		final Map<String, CollectedValidationResultsImpl> resultsPerView =
+				Collections.synchronizedMap(new HashMap<String, CollectedValidationResultsImpl>());
+		List<File> changedViews = new ArrayList<File>();
+		for (File view : allViews) {
+			String viewKey = toViewKey(viewFilesRoot, view);
+			CollectedValidationResultsImpl cachedResults = cache.getResultsIfUpToDate(viewKey, viewChecksums.get(viewKey));
+			if (cachedResults == null) {
+				changedViews.add(view);
+			} else {
+				resultsPerView.put(viewKey, cachedResults);
+				pushToResultSink(cachedResults);
+			}
+		}
+
+		final Map<String, CollectedValidationResultsImpl> freshResultsPerView =
+				Collections.synchronizedMap(new LinkedHashMap<String, CollectedValidationResultsImpl>());
+		final Map<String, Collection<String>> freshDependenciesPerView =
+				Collections.synchronizedMap(new HashMap<String, Collection<String>>());
+		validateViews(webappRoot, viewFilesRoot, pageNodeValidator, changedViews, new ValidatedViewListener() {
+			public void viewValidated(String view, CollectedValidationResultsImpl viewResults,
+					Collection<String> viewDependencies) {
+				freshResultsPerView.put(ViewResultCache.toViewKey(view), viewResults);
+				freshDependenciesPerView.put(ViewResultCache.toViewKey(view), viewDependencies);
+			}
+		});
+
+		for (Map.Entry<String, CollectedValidationResultsImpl> freshViewResults : freshResultsPerView.entrySet()) {
+			String checksum = viewChecksums.get(freshViewResults.getKey());
+			if (checksum != null) {
+				Map<String, String> dependencyChecksums = new HashMap<String, String>();
+				for (String dependency : freshDependenciesPerView.get(freshViewResults.getKey())) {
+					if (dependency.length() == 0) {
+						continue;
+					}
+					File dependencyFile = toDependencyFile(webappRoot, viewFilesRoot, dependency);
+					dependencyChecksums.put(toDependencyKey(viewFilesRoot, dependencyFile),
+							dependencyFile.isFile()? Checksums.checksumOf(dependencyFile) : null);
+				}
+				cache.update(freshViewResults.getKey(), checksum, freshViewResults.getValue(), dependencyChecksums);
+			}
+			resultsPerView.put(freshViewResults.getKey(), freshViewResults.getValue());
+		}
+		cache.retainOnly(viewChecksums.keySet());
+		cache.save();
+
+		// Merge in the order of the views; views reported by the parser under an unexpected name come last
+		CollectedValidationResultsImpl results = new CollectedValidationResultsImpl();
+		results.setRetention(resultRetention);
+		for (String viewKey : viewChecksums.keySet()) {
+			CollectedValidationResultsImpl viewResults = resultsPerView.remove(viewKey);
+			if (viewResults != null) {
+				results.addAllFrom(viewResults);
+			}
+		}
+		for (CollectedValidationResultsImpl unexpectedViewResults : resultsPerView.values()) {
+			results.addAllFrom(unexpectedViewResults);
+		}
+
+		resultsReporter.printOut(">>> INCREMENTAL VALIDATION: validated " + changedViews.size()
+				+ " new or changed views (of which " + viewsWithChangedDependencies.size()
+				+ " because a file they depend on changed), reused cached results of " + cache.getHits()
+				+ " unchanged views");
+		return results;
+	}
+
+	/**
+	 * The file of a view's dependency, which is reported relative to the context root: the JSP root or the webapp
+	 * root for Facelets, usually with a leading '/'.
+	 */
+	private File toDependencyFile(File webappRoot, File viewFilesRoot, String dependency) {
+		File dependencyContextRoot = viewType.equals(ViewType.JSP)? viewFilesRoot : webappRoot;
+		return new File(dependencyContextRoot, dependency.startsWith("/")? dependency.substring(1) : dependency);
+	}
+
+	/** Push results restored from the result cache to the sink, if any, as if they have been just produced. */
+	private void pushToResultSink(CollectedValidationResultsImpl restoredResults) {
+		if (activeResultSink == null) {
+			return;
+		}
+		for (ValidationResult result : restoredResults) {
+			activeResultSink.resultProduced(result);
+		}
+		for (MissingLocalVariableTypeDeclarationException variable
+				: restoredResults.getVariablesNeedingTypeDeclaration()) {
+			activeResultSink.variableNeedingTypeDeclarationFound(variable);
+		}
+	}
+
+	/** All the views that would be validated by {@link #validateViews} when given no views. */
+	@SuppressWarnings("unchecked")
+	private List<File> findAllViews(File viewFilesRoot) {
+		if (viewType.equals(ViewType.FACELETS)) {
+			return ValidatingFaceletsParserExecutor.findViewFiles(viewFilesRoot);
+		} else if (jspsToIncludeCommaSeparated != null) {
+			List<File> views = new ArrayList<File>();
+			for (String jsp : jspsToIncludeCommaSeparated.split(",")) {
+				File view = new File(jsp.trim());
+				views.add(view.isAbsolute()? view : new File(viewFilesRoot, jsp.trim()));
+			}
+			return views;
+		} else {
+			return new ArrayList<File>(FileUtils.listFiles(viewFilesRoot, new String[] {"jsp", "jspx"}, true));
+		}
+	}
+
+	private String toViewKey(File viewFilesRoot, File view) {
+		return ViewResultCache.toViewKey(
+				view.getAbsolutePath().substring(viewFilesRoot.getAbsolutePath().length()));
+	}
+
+	/**
+	 * Key of a file a view depends on: the view key for files under the view root (as they may be views
+	 * themselves), otherwise "file:" + the absolute path.
+	 */
+	private String toDependencyKey(File viewFilesRoot, File dependency) {
+		String path = dependency.getAbsolutePath();
+		if (path.startsWith(viewFilesRoot.getAbsolutePath() + File.separator)) {
+			return toViewKey(viewFilesRoot, dependency);
+		}
+		return "file:" + path.replace('\\', '/');
+	}
+
+	/** Inverse of {@link #toDependencyKey(File, File)}. */
+	private static File fromDependencyKey(File viewFilesRoot, String dependencyKey) {
+		if (dependencyKey.startsWith("file:")) {
+			return new File(dependencyKey.substring("file:".length()));
+		}
+		return new File(viewFilesRoot, dependencyKey.substring(1));
+	}
+
+	/**
+	 * Path of the view root relative to the context root, used to resolve context-relative references in views.
+	 * For JSP the view root is the context root.
+	 */
+	private String toViewRootContextPath(File webappRoot, File viewFilesRoot) {
+		String webappPath = webappRoot.getAbsolutePath();
+		String viewRootPath = viewFilesRoot.getAbsolutePath();
+		if (viewType.equals(ViewType.FACELETS) && viewRootPath.startsWith(webappPath)) {
+			return viewRootPath.substring(webappPath.length()).replace('\\', '/');
+		}
+		return "";
+	}
+
+	/**
+	 * Summary of the configuration that influences validation results, used to invalidate the result cache.
+	 */
+	@SuppressWarnings("unchecked")
+	private String computeConfigurationFingerprint(File webappRoot) {
+		ConfigurationFingerprint fingerprint = new ConfigurationFingerprint()
+				.with("viewType", viewType)
+				.with("validator", elValidator.getClass().getName())
+				.withCodeSourceOf(AbstractJsfStaticAnalyzer.class)
+				.withCodeSourceOf(getClass())
+				.withCodeSourceOf(elValidator.getClass());
+
+		for (Map.Entry<String, Object> variable : declaredVariables.entrySet()) {
+			fingerprint.withType("variable:" + variable.getKey(), FakeValueFactory.typeOfFakeValue(variable.getValue()));
+		}
+		for (Map.Entry<String, Class<?>> override : propertyTypeOverrides.entrySet()) {
+			fingerprint.withType("propertyOverride:" + override.getKey(), override.getValue());
+		}
+		for (Map.Entry<String, Class<?>> localVariable
+				: localVariableConfiguration.getDeclaredLocalVariableTypes().entrySet()) {
+			fingerprint.withType("localVariable:" + localVariable.getKey(), localVariable.getValue());
+		}
+		for (Map.Entry<String, TagJsfVariableResolver> resolver
+				: localVariableConfiguration.toRegistry().getRegisteredResolvers().entrySet()) {
+			fingerprint.withType("localVariableResolver:" + resolver.getKey(), resolver.getValue().getClass());
+		}
+		int filterIndex = 0;
+		for (ElExpressionFilter filter : elExpressionFilters) {
+			fingerprint.withType("filter:" + filterIndex, filter.getClass());
+			if (filter instanceof DeclarativeElExpressionFilter) {
+				fingerprint.with("filterRules:" + filterIndex
+						, ((DeclarativeElExpressionFilter) filter).getRules().toString());
+			}
+			filterIndex++;
+		}
+
+		// Taglibs, faces-config etc.
+		File webInfDir = new File(webappRoot, "WEB-INF");
+		if (webInfDir.isDirectory()) {
+			for (File configFile : (Collection<File>) FileUtils.listFiles(webInfDir, new String[] {"xml", "tld"}, true)) {
+				fingerprint.with("webInf:" + toViewKey(webInfDir, configFile), Checksums.checksumOf(configFile));
+			}
+		}
+
+		return fingerprint.compute();
+	}
+
+	/**
+	 * Validate the JSP views in {@link #getWorkerThreads()} threads, each with its own validator, local
+	 * variable registry and JspC. The only state shared by the JspCs is the JVM-wide cache of parsed taglibs
+	 * (see {@link JspCParsingToNodesOnly#getCache()}), keyed by the webapp root, a fingerprint of its TLDs
+	 * and jars and the context class loader and held softly; it is safe to share as the lookup is synchronized, the taglib map is a synchronized one and
+	 * a parsed TagLibraryInfo is never modified.
+	 */
+	private CollectedValidationResultsImpl validateJspsInParallel(final File webappRoot, final File viewFilesRoot,
+			List<File> views, final ValidatedViewListener viewListener) {
+
+		return new ParallelViewValidationExecutor<File>(workerThreads).execute(views,
+				new ParallelViewValidationExecutor.ShardValidator<File>() {
+					public CollectedValidationResultsImpl validate(List<File> viewShard) {
+						MetricsRegistry previousFakeValueMetrics = FakeValueFactory.setMetricsRegistry(metrics);
+						try {
+							JsfElValidatingPageNodeListener workerListener = createWorkerPageNodeListener();
+							workerListener.setValidatedViewListener(viewListener);
+							workerListener.setViewRootContextPath(toViewRootContextPath(webappRoot, viewFilesRoot));
+							executeJspc(createJsfElValidatingJspParser(
+									viewFilesRoot.getPath(), workerListener, viewShard));
+							workerListener.finishCurrentView();
+							return workerListener.getValidationResults();
+						} finally {
+							FakeValueFactory.setMetricsRegistry(previousFakeValueMetrics);
+						}
+					}
+				});
+	}
+
+	private void executeJspc(JspCParsingToNodesOnly jspc) {
+		try {
+			jspc.execute();
+		} catch (JasperException e) {
+			throw new RuntimeException("Jasper failed to parse your JSP files", e);
+		}
+	}
+
+	/**
+	 * Validate the Facelets views in {@link #getWorkerThreads()} threads, each with its own validator and local
+	 * variable registry. The threads share a single parser so that JSF is bootstrapped and the tag libraries
+	 * loaded only once.
+	 */
+	private CollectedValidationResultsImpl validateFaceletsInParallel(final File webappRoot, final File viewFilesRoot,
+			List<File> views, final ValidatedViewListener viewListener, PageNodeListener defaultPageNodeListener) {
+
+		final JsfElValidatingFaceletsParser faceletsParser =
+				createMeasuredFaceletsParser(webappRoot, defaultPageNodeListener);
+
+		return new ParallelViewValidationExecutor<File>(workerThreads).execute(views,
+				new ParallelViewValidationExecutor.ShardValidator<File>() {
+					public CollectedValidationResultsImpl validate(List<File> viewShard) {
+						MetricsRegistry previousFakeValueMetrics = FakeValueFactory.setMetricsRegistry(metrics);
+						try {
+							JsfElValidatingPageNodeListener workerListener = createWorkerPageNodeListener();
+							workerListener.setValidatedViewListener(viewListener);
+							workerListener.setViewRootContextPath(toViewRootContextPath(webappRoot, viewFilesRoot));
+							new ValidatingFaceletsParserExecutor(viewFilesRoot, webappRoot, faceletsParser)
+									.withMetricsRegistry(metrics)
+									.withPageNodeListener(workerListener)
+									.execute(viewShard);
+							workerListener.finishCurrentView();
+							return workerListener.getValidationResults();
+						} finally {
+							FakeValueFactory.setMetricsRegistry(previousFakeValueMetrics);
+						}
+					}
+				});
+	}
+
+	/**
+	 * Create a listener for a worker thread with its own validator configured in the same way as the
+	 * main one and with its own local variable registry.
+	 */
+	private JsfElValidatingPageNodeListener createWorkerPageNodeListener() {
+		ContextVariableRegistry workerVariableRegistry = localVariableConfiguration.toRegistry().copyWithEmptyContext();
+
+		ValidatingElResolver workerValidator = createValidatingElResolver();
+		workerValidator.setUnknownVariableResolver(workerVariableRegistry);
+		workerValidator.setIncludeKnownVariablesInException(false);
+		applyRecordedConfiguration(workerValidator);
+
+		JsfElValidatingPageNodeListener workerListener = new JsfElValidatingPageNodeListener(
+				memoizingIfEnabled(workerValidator, workerVariableRegistry), workerVariableRegistry);
+		configureResultHandling(workerListener);
+		return workerListener;
+	}
+
+	/** Set the result sink, retention and metrics on the listener. */
+	private void configureResultHandling(JsfElValidatingPageNodeListener listener) {
+		listener.setValidationResultSink(activeResultSink);
+		listener.setMetricsRegistry(metrics);
+		listener.getValidationResults().setRetention(resultRetention);
+	}
+
+	/**
+	 * Put a {@link MemoizingElValidator} in front of the validator if memoization is enabled; all the validators
+	 * share the remembered results.
+	 */
+	private JsfElValidator memoizingIfEnabled(ValidatingElResolver validator, ContextVariableRegistry variableRegistry) {
+		if (memoizedResults == null) {
+			return validator;
+		}
+		return new MemoizingElValidator(validator, variableRegistry, memoizedResults)
+				.withAttributeNameSignificant(isAttributeNameSignificantForValidation());
+	}
+
+	/**
+	 * Whether the validator decides how to validate an expression based also on the name of the attribute
+	 * it is assigned to and not only on its type (needed for {@link #withExpressionResultMemoization(boolean)}).
+	 * @return false by default
+	 */
+	protected boolean isAttributeNameSignificantForValidation() {
+		return false;
+	}
+
+	/** Declare the variables, property type overrides and filters applied to the elValidator to another one. */
+	private void applyRecordedConfiguration(ValidatingElResolver validator) {
+		for (Map.Entry<String, Object> variable : declaredVariables.entrySet()) {
+			validator.declareVariable(variable.getKey(), variable.getValue());
+		}
+		for (Map.Entry<String, Class<?>> override : propertyTypeOverrides.entrySet()) {
+			validator.definePropertyTypeOverride(override.getKey(), override.getValue());
+		}
+		for (ElExpressionFilter filter : elExpressionFilters) {
+			validator.addElExpressionFilter(filter);
+		}
+	}
+
+	/** Declare a variable found by the initialization of the validation subsystem, see {@link #declareVariable}. */
+	private void declareDiscoveredVariable(String name, Object value) {
+		declareVariable(name, value);
+		discoveredVariables.add(name);
+	}
+
+	/** Declare the variable to the validator and remember it for worker validators. */
+	private void declareVariable(String name, Object value) {
+		declaredVariables.put(name, value);
+		elValidator.declareVariable(name, value);
+	}
+
     private void applyConfigurationFromSystemProperties() {
         setPrintCorrectExpressions(
                 Boolean.getBoolean("jsfelcheck.printCorrectExpressions") || isPrintCorrectExpressions());
         setSuppressOutput(
                 Boolean.getBoolean("jsfelcheck.suppressOutput") || isSuppressOutput());
+        withWorkerThreads(Integer.getInteger("jsfelcheck.workerThreads", getWorkerThreads()));
+        if (System.getProperty("jsfelcheck.resultCache") != null) {
+            withResultCache(new File(System.getProperty("jsfelcheck.resultCache")));
+        }
+        if ("lightweight".equals(System.getProperty("jsfelcheck.fakeValueStrategy"))) {
+            withFakeValueStrategy(new LightweightFakeValueStrategy());
+        } else if ("mockito".equals(System.getProperty("jsfelcheck.fakeValueStrategy"))) {
+            withFakeValueStrategy(new MockitoFakeValueStrategy());
+        }
+        if (System.getProperty("jsfelcheck.reuseFakeValues") != null) {
+            withFakeValueReuse(Boolean.getBoolean("jsfelcheck.reuseFakeValues"));
+        }
+        withExpressionResultMemoization(
+                Boolean.getBoolean("jsfelcheck.memoizeResults") || isExpressionResultMemoization());
+        withMetricsSummary(Boolean.getBoolean("jsfelcheck.printMetrics") || isMetricsSummary());
+        if (System.getProperty("jsfelcheck.resultRetention") != null) {
+            withResultRetention(Retention.valueOf(System.getProperty("jsfelcheck.resultRetention")));
+        }
+        if (System.getProperty("jsfelcheck.filterRules") != null && filterRulesFile == null) {
+            withElExpressionFilterRules(new File(System.getProperty("jsfelcheck.filterRules")));
+        }
+    }
+
+    /**
+     * Create new report writers for the report files requested via system properties; they are created for each
+     * validation as they are closed at its end.
+     */
+    private ValidationResultSink createReportWritersFromSystemProperties() {
+        List<ValidationResultSink> writers = new ArrayList<ValidationResultSink>();
+        if (System.getProperty("jsfelcheck.resultFile") != null) {
+            writers.add(new FileWritingResultSink(
+                    new File(System.getProperty("jsfelcheck.resultFile")), isPrintCorrectExpressions()));
+        }
+        if (System.getProperty("jsfelcheck.jsonLinesReport") != null) {
+            writers.add(new JsonLinesReportWriter(
+                    new File(System.getProperty("jsfelcheck.jsonLinesReport")), isPrintCorrectExpressions()));
+        }
+        if (System.getProperty("jsfelcheck.sarifReport") != null) {
+            writers.add(new SarifReportWriter(new File(System.getProperty("jsfelcheck.sarifReport"))));
+        }
+        if (System.getProperty("jsfelcheck.junitReport") != null) {
+            writers.add(new JUnitXmlReportWriter(new File(System.getProperty("jsfelcheck.junitReport")), true));
+        }
+        return CompositeResultSink.combine(writers.toArray(new ValidationResultSink[writers.size()]));
     }
 
 	/**
@@ -278,27 +1005,43 @@ public abstract class AbstractJsfStaticAnalyzer<T extends AbstractJsfStaticAnaly
 	 */
     private JsfElValidatingPageNodeListener initializeValidationSubsystem() {
 
+        // Initialized again (f.ex. a reopened session): the validator refuses to redeclare the beans, start afresh
+        if (!discoveredVariables.isEmpty()) {
+            declaredVariables.keySet().removeAll(discoveredVariables);
+            discoveredVariables.clear();
+            recreateValidatingElResolver();
+        }
+
 	    // Declare default local variable resolvers (h:dataTable declared in the localVar.Config)
 	    // ui:repeat is sufficiently similar to h:dataTable (in: value, out: var) to be reusable:
 	    localVariableConfiguration.withCustomDataTableTagAlias("ui:repeat");
+	    // c:forEach, c:set and ui:param infer the variable type from the validated source expression:
+	    localVariableConfiguration.withDefaultResolversForStandardTags();
         ContextVariableRegistry contextVariableRegistry = localVariableConfiguration.toRegistry();
-        
+        this.contextVariableRegistry = contextVariableRegistry;
+
         elValidator.setUnknownVariableResolver(contextVariableRegistry);
         elValidator.setIncludeKnownVariablesInException(false);
 
         // DEFAULT EXTRA VARIABLES
         declareImplicitVariables();
 
-        discoverAndRegisterDefinedManagedBeans(elValidator);
+        discoverAndRegisterDefinedManagedBeans();
+
+        // Remembered results are only valid for the current configuration
+        memoizedResults = expressionResultMemoization
+                ? new LruCache<String, ValidationResult>("memoized validation results", MEMOIZED_RESULTS_CACHE_SIZE)
+                : null;
 
         // Listener
         JsfElValidatingPageNodeListener pageNodeValidator = new JsfElValidatingPageNodeListener(
-                elValidator, contextVariableRegistry);
+                memoizingIfEnabled(elValidator, contextVariableRegistry), contextVariableRegistry);
+        configureResultHandling(pageNodeValidator);
         return pageNodeValidator;
     }
 
     private void declareImplicitVariables() {
-        elValidator.declareVariable("request", FakeValueFactory
+        declareDiscoveredVariable("request", FakeValueFactory
                 .fakeValueOfType(HttpServletRequest.class, "request"));
     }
 
@@ -317,14 +1060,20 @@ public abstract class AbstractJsfStaticAnalyzer<T extends AbstractJsfStaticAnaly
         }
     }
 
+    /**
+     * @param views (optional) the JSPs to process; if null then those set via
+     * {@link #setJspsToIncludeCommaSeparated(String)} or all
+     */
     private JspCParsingToNodesOnly createJsfElValidatingJspParser(
-            String jspDir, JsfElValidatingPageNodeListener tagJsfElValidator) {
-        JsfElCheckingVisitor.setNodeListener(tagJsfElValidator);
-
-        JspCParsingToNodesOnly jspc = new JspCParsingToNodesOnly();
+            String jspDir, JsfElValidatingPageNodeListener tagJsfElValidator, List<File> views) {
+        JspCParsingToNodesOnly jspc = new JspCParsingToNodesOnly(tagJsfElValidator);
+        viewParserCaches.add(JspCParsingToNodesOnly.getParsedTaglibsCache());
         jspc.setUriroot(jspDir);
         jspc.setVerbose(1); // 0 = false, 1 = true
-        if (jspsToIncludeCommaSeparated != null) {
+        // Beware: setJspFiles adds to the files set previously
+        if (views != null) {
+            jspc.setJspFiles(toCommaSeparatedPaths(views));
+        } else if (jspsToIncludeCommaSeparated != null) {
             jspc.setJspFiles(jspsToIncludeCommaSeparated); // leave unset to process all; comma-separated
         }
         return jspc;
@@ -366,10 +1115,8 @@ public abstract class AbstractJsfStaticAnalyzer<T extends AbstractJsfStaticAnaly
     /**
      * Find out what managed beans are defined in faces-context and perhaps
      * elsewhere and declare them to the validator.
-     *
-     * @param elValidator (required)
      */
-    private void discoverAndRegisterDefinedManagedBeans(JsfElValidator elValidator) {    // SUPPRESS CHECKSTYLE (param hides field)
+    private void discoverAndRegisterDefinedManagedBeans() {
         Collection<ManagedBeanDescriptor> allDefinedBeans = new LinkedList<ManagedBeanFinder.ManagedBeanDescriptor>();
 
         allDefinedBeans.addAll(findFacesManagedBeans());
@@ -377,15 +1124,14 @@ public abstract class AbstractJsfStaticAnalyzer<T extends AbstractJsfStaticAnaly
         allDefinedBeans.addAll(findSpringManagedBeans());
         int springBeans = allDefinedBeans.size() - facesBeans;
 
-        System.out.println(">>> KNOWN BEANS [total: " + allDefinedBeans.size()
+        // Not to the standard output, which belongs to the results (and to the daemon's protocol)
+        LOG.info(">>> KNOWN BEANS [total: " + allDefinedBeans.size()
                 + ", faces-config: " + facesBeans + ", Spring: " + springBeans
                 + "]: " + allDefinedBeans);
-        System.out
-                .println("#############################################################\n");
 
         for (ManagedBeanDescriptor beanDescriptor : allDefinedBeans) {
-            Object fakeValue = mock(beanDescriptor.getType());
-            elValidator.declareVariable(beanDescriptor.getName(), fakeValue);
+            Object fakeValue = FakeValueFactory.fakeValueOfType(beanDescriptor.getType(), beanDescriptor.getName());
+            declareDiscoveredVariable(beanDescriptor.getName(), fakeValue);
         }
     }
 
@@ -397,9 +1143,11 @@ public abstract class AbstractJsfStaticAnalyzer<T extends AbstractJsfStaticAnaly
 
         LOG.info("Loading faces-config managed beans from " + configStreams);
 
+        long start = metrics.startTimer();
         ManagedBeanFinder beanFinder = createManagedBeanFinder(configStreams);
         Collection<ManagedBeanDescriptor> facesConfigBeans = beanFinder
                 .findDefinedBackingBeans();
+        metrics.stopTimer(MetricsRegistry.BEAN_DISCOVERY_FACES_CONFIG, start);
         return facesConfigBeans;
     }
 
@@ -414,8 +1162,11 @@ public abstract class AbstractJsfStaticAnalyzer<T extends AbstractJsfStaticAnaly
 
         LOG.info("Loading Spring managed beans from " + configStreams);
 
+        long start = metrics.startTimer();
         ManagedBeanFinder beanFinder = SpringContextBeanFinder.forStreams(configStreams);
-        return beanFinder.findDefinedBackingBeans();
+        Collection<ManagedBeanDescriptor> springBeans = beanFinder.findDefinedBackingBeans();
+        metrics.stopTimer(MetricsRegistry.BEAN_DISCOVERY_SPRING, start);
+        return springBeans;
     }
 
     /**
@@ -427,11 +1178,33 @@ public abstract class AbstractJsfStaticAnalyzer<T extends AbstractJsfStaticAnaly
      */
     public void addElExpressionFilter(ElExpressionFilter elExpressionFilter) {
         elValidator.addElExpressionFilter(elExpressionFilter);
+        elExpressionFilters.add(elExpressionFilter);
+    }
+
+    /**
+     * Ignore the expressions matching the rules in the file, such as <code>cc.attrs.*</code> or
+     * <code>legacyBean</code>; the number of expressions excluded by each rule is printed at the end of the
+     * validation so that unused rules can be pruned.
+     * May also be set via the system property jsfelcheck.filterRules.
+     * @param filterRulesFile (required) see {@link DeclarativeElExpressionFilter} for the format
+     * @return this
+     */
+    public T withElExpressionFilterRules(File filterRulesFile) {
+        this.filterRulesFile = assertNotNull(filterRulesFile, "filterRulesFile", File.class);
+        addElExpressionFilter(DeclarativeElExpressionFilter.fromFile(filterRulesFile));
+        return self;
+    }
+
+    /** @see #withElExpressionFilterRules(File) */
+    public File getElExpressionFilterRules() {
+        return filterRulesFile;
     }
 
     protected static void main(AbstractJsfStaticAnalyzer analyzer, String[] args) throws Exception {
 
         String jspRoot = null;
+        String daemonMode = null;
+        String watchPollInterval = null;
         Map<String, Class<?>> componentTypeOverrides = new Hashtable<String, Class<?>>();
         Map<String, Class<?>> extraVariables = new Hashtable<String, Class<?>>();
         Map<String, Class<?>> propertyOverrides = new Hashtable<String, Class<?>>();
@@ -455,6 +1228,14 @@ public abstract class AbstractJsfStaticAnalyzer<T extends AbstractJsfStaticAnaly
                 jspRoot = args[i + 1];
             }
 
+            if ("--daemon".equals(argument)) {
+                daemonMode = args[i + 1];
+            }
+
+            if ("--watch".equals(argument)) {
+                watchPollInterval = args[i + 1];
+            }
+
         }
 
         if (jspRoot == null) {
@@ -466,10 +1247,26 @@ public abstract class AbstractJsfStaticAnalyzer<T extends AbstractJsfStaticAnaly
                             + " --extraVariables <bean1=SomeType1,bean2=AnotherType,...> (optional) - define managed "
                             + "beans not in faces-config\n"
                             + " --propertyOverrides bean1.property=package.SomeType,..> (optional) - types of objects "
-                            + "in collections used for iterating etc.\n");
+                            + "in collections used for iterating etc.\n"
+                            + " --daemon <stdio|port> (optional) - keep running and validate the views requested via "
+                            + "the standard input or a local socket, see ValidationDaemon\n"
+                            + " --watch <poll interval in ms> (optional) - keep running and re-validate the views "
+                            + "affected by changed files, see ViewWatcher\n");
             System.exit(-1);
         }
 
+        if (daemonMode != null) {
+            new ValidationDaemon(analyzer, new File(jspRoot), new File(jspRoot)).serve(daemonMode);
+            return;
+        }
+
+        if (watchPollInterval != null) {
+            new ViewWatcher(analyzer, new File(jspRoot), new File(jspRoot))
+                    .withPollInterval(Long.parseLong(watchPollInterval))
+                    .watch();
+            return;
+        }
+
         analyzer.validateElExpressions(new File(jspRoot));
     }
 
@@ -543,6 +1340,230 @@ public abstract class AbstractJsfStaticAnalyzer<T extends AbstractJsfStaticAnaly
         return resultsReporter.isSuppressOutput();
     }
 
+    /**
+     * Validate views in the given number of threads; each of them has its own copy of the validator,
+     * which is configured in the same way as this analyzer. The results are reported in the
+     * same order as if the views were validated sequentially. Default: 1 (i.e. no parallelism).
+     * <p>
+     *     It can be also set by setting the system property {@code jsfelcheck.workerThreads}.
+     * </p>
+     * <p>
+     *     Facelets views share a single parser. JSP views are split into contiguous shards, one per thread,
+     *     each processed by its own Jasper JspC; the JspCs share the parsed taglibs through a JVM-wide cache
+     *     keyed by the webapp root, a fingerprint of its TLDs and jars and the context class loader, so the TLDs
+     *     are parsed only once.
+     *     The JSPs to process are those set via {@link #setJspsToIncludeCommaSeparated(String)} or all *.jsp
+     *     and *.jspx files under the view root.
+     * </p>
+     *
+     * @param workerThreads (required) the number of threads to use, at least 1; typically the number of CPUs,
+     * see {@link Runtime#availableProcessors()}
+     * @return this
+     */
+    public T withWorkerThreads(int workerThreads) {
+        if (workerThreads < 1) {
+            throw new IllegalArgumentException("workerThreads: int must be at least 1, is " + workerThreads);
+        }
+        this.workerThreads = workerThreads;
+        return self;
+    }
+
+    /** @see #withWorkerThreads(int) */
+    public int getWorkerThreads() {
+        return workerThreads;
+    }
+
+    /**
+     * Reuse the mock created as the fake value of a type for all properties and variables of the same type
+     * instead of creating a new mock every time, which is significantly faster. Disable it if you want
+     * the mocks to be named after the property they are for, which shows in some error messages.
+     * Default: true.
+     * <p>
+     *     It is a global setting shared by all analyzers, see {@link FakeValueFactory#setFakeValueReuseEnabled(boolean)}.
+     *     It can be also set by setting the system property {@code jsfelcheck.reuseFakeValues} to true or false.
+     * </p>
+     *
+     * @param reuseFakeValues false to create a new mock for every faked value
+     * @return this
+     */
+    public T withFakeValueReuse(boolean reuseFakeValues) {
+        FakeValueFactory.setFakeValueReuseEnabled(reuseFakeValues);
+        return self;
+    }
+
+    /** @see #withFakeValueReuse(boolean) */
+    public boolean isFakeValueReuse() {
+        return FakeValueFactory.isFakeValueReuseEnabled();
+    }
+
+    /**
+     * Set how to create fake values of classes and interfaces (the values of variables and properties), default:
+     * {@link MockitoFakeValueStrategy}. The {@link LightweightFakeValueStrategy} avoids generating a class for each
+     * type, which is faster and uses less memory (Metaspace) when there are many bean types.
+     * <p>
+     *     It is a global setting shared by all analyzers, see
+     * {@link FakeValueFactory#setFakeValueStrategy(FakeValueStrategy)}; it only affects values created afterwards.
+     * It can be also set by setting the system property {@code jsfelcheck.fakeValueStrategy} to
+     * {@code lightweight} or {@code mockito}.
+     * </p>
+     *
+     * @param strategy (required)
+     * @return this
+     */
+    public T withFakeValueStrategy(FakeValueStrategy strategy) {
+        FakeValueFactory.setFakeValueStrategy(strategy);
+        return self;
+    }
+
+    /** @see #withFakeValueStrategy(FakeValueStrategy) */
+    public FakeValueStrategy getFakeValueStrategy() {
+        return FakeValueFactory.getFakeValueStrategy();
+    }
+
+    /**
+     * Print a table with the number and duration of the individual phases of the validation and the slowest views
+     * at the end of the validation. The metrics are always recorded, see {@link #getMetrics()}. Default: false.
+     * <p>
+     *     It can be also enabled by setting the system property {@code jsfelcheck.printMetrics} to true.
+     * </p>
+     * @param printMetricsSummary true to print the summary
+     * @return this
+     */
+    public T withMetricsSummary(boolean printMetricsSummary) {
+        this.printMetricsSummary = printMetricsSummary;
+        return self;
+    }
+
+    /** @see #withMetricsSummary(boolean) */
+    public boolean isMetricsSummary() {
+        return printMetricsSummary;
+    }
+
+    /**
+     * The number and duration of the individual phases of the validation (bean discovery, taglib registration,
+     * views, expressions, fake value creation) and of the individual views, accumulated over all the validations
+     * performed by this analyzer (use {@link MetricsRegistry#reset()} to start anew). JSP tag libraries are
+     * registered by Jasper while processing the views so their time is included in the views.
+     * @return the metrics (never null)
+     */
+    public MetricsRegistry getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Push all validation results to the given sink, in addition to any sinks added before, as soon as they are
+     * produced, while the views are being processed. Combined with {@link #withResultRetention(Retention)} it makes
+     * it possible to process the results of large applications without keeping them all in memory. The sink is
+     * notified when the validation is finished.
+     * <p>
+     *     Report files can be also requested by setting the following system properties to the path of the file:
+     *     {@code jsfelcheck.resultFile} ({@link FileWritingResultSink}),
+     *     {@code jsfelcheck.jsonLinesReport} ({@link JsonLinesReportWriter}),
+     *     {@code jsfelcheck.sarifReport} ({@link SarifReportWriter}) and
+     *     {@code jsfelcheck.junitReport} ({@link JUnitXmlReportWriter}).
+     * </p>
+     *
+     * @param resultSink (optional) f.ex. {@link net.jakubholy.jeeutils.jsfelcheck.validator.results.CountingResultSink},
+     * {@link net.jakubholy.jeeutils.jsfelcheck.validator.results.FailuresOnlyResultSink} or one of the report
+     * writers such as {@link JsonLinesReportWriter}; it must be thread-safe if {@link #withWorkerThreads(int)}
+     * is used; null to remove all the sinks added so far (the default is no sink)
+     * @return this
+     */
+    public T withResultSink(ValidationResultSink resultSink) {
+        this.resultSink = (resultSink == null)? null : CompositeResultSink.combine(this.resultSink, resultSink);
+        return self;
+    }
+
+    /** @see #withResultSink(ValidationResultSink) */
+    public ValidationResultSink getResultSink() {
+        return resultSink;
+    }
+
+    /**
+     * Which results to keep in the {@link CollectedValidationResults} returned from the validation and printed
+     * at the end; all of them are counted and passed to the result sink, if any. Default: {@link Retention#ALL}.
+     * Notice that with a retention other than ALL, the <code>size()</code> of the results not retained
+     * (f.ex. <code>goodResults().size()</code>) is 0 - use
+     * {@link net.jakubholy.jeeutils.jsfelcheck.validator.results.ResultsIterable#getTotalCount()} instead.
+     * <p>
+     *     It can be also set by setting the system property {@code jsfelcheck.resultRetention} to the name
+     * of the retention, f.ex. PROBLEMS_ONLY.
+     * </p>
+     * <p>
+     *     The result cache ({@link #withResultCache(java.io.File)}) needs the full results of each newly
+     * validated view, so they are kept until the end of the validation anyway.
+     * </p>
+     *
+     * @param resultRetention (required)
+     * @return this
+     * @see #withResultSink(ValidationResultSink)
+     */
+    public T withResultRetention(Retention resultRetention) {
+        this.resultRetention = assertNotNull(resultRetention, "resultRetention", Retention.class);
+        return self;
+    }
+
+    /** @see #withResultRetention(Retention) */
+    public Retention getResultRetention() {
+        return resultRetention;
+    }
+
+    /**
+     * Remember the result of validating an expression and reuse it when the same expression appears again in
+     * the same situation, i.e. assigned to an attribute of the same type and with the same types of the local
+     * variables (f.ex. from h:dataTable) it references. It pays off for applications where the same expressions are
+     * repeated on many views; the number of validations saved is printed at the end. Default: false.
+     * <p>
+     *     It can be also enabled by setting the system property {@code jsfelcheck.memoizeResults} to true.
+     * </p>
+     * <p>
+     *     The filters aren't invoked for reused results so the printed filter rule hits then count each
+     *     distinct expression only once.
+     * </p>
+     *
+     * @param expressionResultMemoization true to reuse the results of repeated expressions
+     * @return this
+     * @see MemoizingElValidator
+     */
+    public T withExpressionResultMemoization(boolean expressionResultMemoization) {
+        this.expressionResultMemoization = expressionResultMemoization;
+        return self;
+    }
+
+    /** @see #withExpressionResultMemoization(boolean) */
+    public boolean isExpressionResultMemoization() {
+        return expressionResultMemoization;
+    }
+
+    /**
+     * Enable incremental validation: results of individual views are stored in the given file and on the next
+     * run only views that have changed since then are validated while the results of the others are taken from
+     * the cache. The whole cache is discarded if the configuration of the analyzer (variables, their types,
+     * local variables, property overrides, filters), the classes of the beans or the files in WEB-INF change.
+     * <p>
+     *     It can be also set by setting the system property {@code jsfelcheck.resultCache} to the path of the file.
+     * </p>
+     * <p>
+     *     The files each view depends on - JSP static includes, Facelets includes and templates and composite
+     * components - are recorded as well and all the views depending, directly or transitively, on a changed file
+     * are re-validated too. References computed by EL expressions (f.ex. <code>&lt;ui:include src="#{page}"/&gt;</code>)
+     * cannot be tracked.
+     * </p>
+     *
+     * @param cacheFile (optional) where to store the cache, f.ex. <code>target/jsfelcheck-cache.ser</code>;
+     * null to disable the cache (default)
+     * @return this
+     */
+    public T withResultCache(File cacheFile) {
+        this.resultCacheFile = cacheFile;
+        return self;
+    }
+
+    /** @see #withResultCache(java.io.File) */
+    public File getResultCache() {
+        return resultCacheFile;
+    }
+
     /** For testing only */
     ContextVariableRegistry getContextVariableRegistry() {
         return localVariableConfiguration.toRegistry();
@@ -578,11 +1599,14 @@ public abstract class AbstractJsfStaticAnalyzer<T extends AbstractJsfStaticAnaly
         this.managedBeansConfiguration = configuration;
 
         for (Map.Entry<String, Object> extraVariable : configuration.getExtraVariables().entrySet()) {
-            elValidator.declareVariable(extraVariable.getKey(), extraVariable.getValue());
+            declareVariable(extraVariable.getKey(), extraVariable.getValue());
         }
 
-	    for (Map.Entry<String, Object> annotatedBean : configuration.getAnnotatedBeansFound().entrySet()) {
-		    elValidator.declareVariable(annotatedBean.getKey(), annotatedBean.getValue());
+        long annotatedBeansStart = metrics.startTimer();
+        Map<String, Object> annotatedBeans = configuration.getAnnotatedBeansFound();
+        metrics.stopTimer(MetricsRegistry.BEAN_DISCOVERY_ANNOTATED, annotatedBeansStart);
+	    for (Map.Entry<String, Object> annotatedBean : annotatedBeans.entrySet()) {
+		    declareVariable(annotatedBean.getKey(), annotatedBean.getValue());
 	    }
 
         return self;
@@ -608,6 +1632,7 @@ public abstract class AbstractJsfStaticAnalyzer<T extends AbstractJsfStaticAnaly
         assertNotNull(mapJsfExpression, "mapJsfExpression", String.class);
         assertNotNull(newType, "newType", Class.class);
         elValidator.definePropertyTypeOverride(mapJsfExpression, newType);
+        propertyTypeOverrides.put(mapJsfExpression, newType);
         return self;
     }
 
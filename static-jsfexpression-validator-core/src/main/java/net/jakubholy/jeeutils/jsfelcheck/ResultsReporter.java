@@ -105,26 +105,25 @@ public class ResultsReporter {
             CollectedValidationResults results) {
         if (printCorrectExpressions) {
             printOut("\n>>> CORRECT EXPRESSIONS ["
-                    + results.goodResults().size()
+                    + results.goodResults().getTotalCount()
             		+ "] #########################################");
         }
 
-        for (ValidationResult result : results
-                .goodResults()) {
-            if (printCorrectExpressions) {
-                System.out.println(result);
+        if (printCorrectExpressions) {
+            for (ValidationResult result : results.goodResults()) {
+                printOut(result.toString());
             }
         }
     }
 
     private void printExpressionsFilteredOut(CollectedValidationResults results) {
-        if (results.excluded().size() > 0) {
+        if (results.excluded().getTotalCount() > 0) {
             Set<ElExpressionFilter> filters = new HashSet<ElExpressionFilter>();
             for (ExpressionRejectedByFilterResult exclusionResult : results.excluded()) {
                 filters.add(exclusionResult.getFilter());
             }
             String filtersList = filters.isEmpty()? "" : " by filters: " + filters;
-            printErr(">>> TOTAL EXCLUDED EXPRESIONS: " + results.excluded().size() + filtersList);
+            printErr(">>> TOTAL EXCLUDED EXPRESIONS: " + results.excluded().getTotalCount() + filtersList);
         }
     }
 
@@ -146,7 +145,7 @@ public class ResultsReporter {
 
     private void printFailuresHeader(CollectedValidationResults results) {
         printErr("\n>>> FAILED JSF EL EXPRESSIONS ["
-                + results.failures().size()
+                + results.failures().getTotalCount()
         		+ "] #########################################");
         printErr("(Set logging to fine for the correspodning "
                 + ValidatingElResolver.class   // FIXME incorrect class in some cases
@@ -158,8 +157,8 @@ public class ResultsReporter {
             printErr(result.toString());
         }
 
-        if (results.failures().size() > 0) {
-            printErr("\n>>> TOTAL FAILED EXPRESIONS: " + results.failures().size());
+        if (results.failures().getTotalCount() > 0) {
+            printErr("\n>>> TOTAL FAILED EXPRESIONS: " + results.failures().getTotalCount());
         }
     }
 
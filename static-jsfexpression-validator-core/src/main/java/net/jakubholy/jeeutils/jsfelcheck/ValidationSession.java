@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.jakubholy.jeeutils.jsfelcheck;
+
+import net.jakubholy.jeeutils.jsfelcheck.expressionfinder.impl.jasper.ValidatedViewListener;
+
+import java.io.File;
+import java.util.Collection;
+
+/**
+ * A fully initialized analyzer - with the managed beans discovered, the variables declared and the view parser
+ * bootstrapped - that can validate selected views repeatedly, each time paying only for the views themselves.
+ * Intended for long-running processes such as IDE plugins or a validation daemon.
+ * <p>
+ *     Not thread-safe: the calls are serialized. Changes of the configuration (managed beans, taglibs, ...)
+ *     are not picked up, open a new session for that.
+ * </p>
+ *
+ * @see AbstractJsfStaticAnalyzer#openSession(File, File)
+ */
+public interface ValidationSession {
+
+    /**
+     * Validate the given views.
+     * @param views (required) the view files to validate, under the {@link #getViewFilesRoot() view root};
+     * missing files are ignored
+     * @return results of validating only the given views (never null)
+     */
+    CollectedValidationResults validateViews(Collection<File> views);
+
+    /**
+     * Validate the given views, reporting the results and dependencies of each of them to the listener.
+     * @param views (required) see {@link #validateViews(Collection)}
+     * @param viewListener (optional) notified of each validated view
+     * @return results of validating only the given views (never null)
+     * @see #resolveDependency(String)
+     */
+    CollectedValidationResults validateViews(Collection<File> views, ValidatedViewListener viewListener);
+
+    /**
+     * Validate all the views under the view root, as {@link AbstractJsfStaticAnalyzer#validateElExpressions(File, File)}
+     * would.
+     * @return the results (never null)
+     */
+    CollectedValidationResults validateAllViews();
+
+    /**
+     * Validate all the views, reporting the results and dependencies of each of them to the listener.
+     * @param viewListener (optional) notified of each validated view
+     * @return the results (never null)
+     */
+    CollectedValidationResults validateAllViews(ValidatedViewListener viewListener);
+
+    /**
+     * The file of a dependency reported to a {@link ValidatedViewListener}, which is relative to the context root.
+     * @param dependency (required) the dependency, f.ex. <code>/WEB-INF/templates/main.xhtml</code>
+     * @return the file, which may not exist
+     */
+    File resolveDependency(String dependency);
+
+    /** @return the root directory of the web application (containing WEB-INF) */
+    File getWebappRoot();
+
+    /** @return the directory with the views */
+    File getViewFilesRoot();
+
+    /** Release the session's resources and notify the result sink, if any, that the validation is finished. */
+    void close();
+}
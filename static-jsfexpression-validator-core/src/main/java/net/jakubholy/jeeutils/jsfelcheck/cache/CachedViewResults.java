@@ -0,0 +1,218 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.jakubholy.jeeutils.jsfelcheck.cache;
+
+import net.jakubholy.jeeutils.jsfelcheck.expressionfinder.impl.jasper.CollectedValidationResultsImpl;
+import net.jakubholy.jeeutils.jsfelcheck.expressionfinder.variables.MissingLocalVariableTypeDeclarationException; // SUPPRESS CHECKSTYLE
+import net.jakubholy.jeeutils.jsfelcheck.validator.ElExpressionFilter;
+import net.jakubholy.jeeutils.jsfelcheck.validator.ParsedElExpression;
+import net.jakubholy.jeeutils.jsfelcheck.validator.exception.ExpressionRejectedByFilterException;
+import net.jakubholy.jeeutils.jsfelcheck.validator.exception.InvalidExpressionException;
+import net.jakubholy.jeeutils.jsfelcheck.validator.results.ExpressionRejectedByFilterResult;
+import net.jakubholy.jeeutils.jsfelcheck.validator.results.FailedValidationResult;
+import net.jakubholy.jeeutils.jsfelcheck.validator.results.JsfExpressionDescriptor;
+import net.jakubholy.jeeutils.jsfelcheck.validator.results.SuccessfulValidationResult;
+import net.jakubholy.jeeutils.jsfelcheck.validator.results.ValidationResult;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Serializable snapshot of the results of validating a single view, together with the checksum of the view
+ * they are valid for.
+ * <p>
+ *     Only the information needed for reporting is kept - f.ex. the mocked values that successful expressions
+ * evaluated to are not, so {@link SuccessfulValidationResult#getExpressionResult()} is null for restored results.
+ * </p>
+ */
+class CachedViewResults implements Serializable {
+
+    private static final long serialVersionUID = 2L;
+
+    private static enum Kind { GOOD, FAILED, EXCLUDED }
+
+    /** Data of a single ValidationResult. */
+    private static class CachedResult implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private Kind kind;
+        private String elExpression;
+        private String descriptorExpression;
+        private String file;
+        private int line;
+        /** Failure message, filter description for exclusions. */
+        private String details;
+        private ArrayList<String> functions;
+
+        ValidationResult toResult() {
+            ValidationResult result;
+            switch (kind) {
+                case GOOD:
+                    result = new SuccessfulValidationResult(elExpression, null).withFunctionsInExpression(functions);
+                    break;
+                case FAILED:
+                    result = new FailedValidationResult(new InvalidExpressionException(elExpression, details));
+                    break;
+                default:
+                    result = new ExpressionRejectedByFilterResult(new ExpressionRejectedByFilterException(
+                            elExpression, new RestoredFilter(details)));
+            }
+            JsfExpressionDescriptor descriptor = new JsfExpressionDescriptor(descriptorExpression);
+            descriptor.setJspFile(file);
+            descriptor.setTagLineNumber(line);
+            result.setExpressionDescriptor(descriptor);
+            return result;
+        }
+    }
+
+    /** Data of a MissingLocalVariableTypeDeclarationException. */
+    private static class CachedMissingVariable implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private String variableName;
+        private String sourceExpression;
+        private String file;
+        private int line;
+    }
+
+    /**
+     * Stands for the filter that has originally rejected a restored expression; it is equal to any other
+     * restored filter with the same description so that they can be grouped when reporting.
+     */
+    private static class RestoredFilter implements ElExpressionFilter {
+
+        private final String description;
+
+        RestoredFilter(String description) {
+            this.description = description;
+        }
+
+        public boolean accept(ParsedElExpression expression) {
+            return false;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof RestoredFilter && description.equals(((RestoredFilter) other).description);
+        }
+
+        @Override
+        public int hashCode() {
+            return description.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return description;
+        }
+    }
+
+    private final String viewChecksum;
+    private final ArrayList<String> dependencies;
+    private final List<CachedResult> results = new ArrayList<CachedResult>();
+    private final List<CachedMissingVariable> missingVariables = new ArrayList<CachedMissingVariable>();
+
+    /**
+     * Snapshot of the given results.
+     * @param viewChecksum (required) checksum of the view the results are valid for
+     * @param viewResults (required) results of validating the view
+     * @param dependencies (required) keys of the files the view depends on, see {@link ViewResultCache}
+     */
+    CachedViewResults(String viewChecksum, CollectedValidationResultsImpl viewResults,
+            Collection<String> dependencies) {
+        this.viewChecksum = viewChecksum;
+        this.dependencies = new ArrayList<String>(dependencies);
+        for (ValidationResult result : viewResults) {
+            results.add(toCachedResult(result));
+        }
+        for (MissingLocalVariableTypeDeclarationException missing : viewResults.getVariablesNeedingTypeDeclaration()) {
+            CachedMissingVariable cachedMissing = new CachedMissingVariable();
+            cachedMissing.variableName = missing.getVariableName();
+            cachedMissing.sourceExpression = missing.getSourceExpression();
+            cachedMissing.file = missing.getJspFile();
+            cachedMissing.line = missing.getTagLineNumber();
+            missingVariables.add(cachedMissing);
+        }
+    }
+
+    private static CachedResult toCachedResult(ValidationResult result) {
+        CachedResult cached = new CachedResult();
+        if (result instanceof SuccessfulValidationResult) {
+            SuccessfulValidationResult good = (SuccessfulValidationResult) result;
+            cached.kind = Kind.GOOD;
+            cached.elExpression = good.getElExpression();
+            cached.functions = new ArrayList<String>(good.getFunctionsInExpression());
+        } else if (result instanceof ExpressionRejectedByFilterResult) {
+            ExpressionRejectedByFilterResult exclusion = (ExpressionRejectedByFilterResult) result;
+            cached.kind = Kind.EXCLUDED;
+            cached.details = String.valueOf(exclusion.getFilter());
+            cached.elExpression = (exclusion.getDetails() == null)? null : exclusion.getDetails().getExpression();
+        } else {
+            FailedValidationResult failure = (FailedValidationResult) result;
+            cached.kind = Kind.FAILED;
+            cached.elExpression = failure.getElExpression();
+            cached.details = (failure.getFailure() == null)? null : failure.getFailure().getMessage();
+        }
+
+        JsfExpressionDescriptor descriptor = result.getExpressionDescriptor();
+        if (descriptor != null) {
+            cached.descriptorExpression = descriptor.getExpression();
+            cached.file = descriptor.getJspFile();
+            cached.line = descriptor.getTagLineNumber();
+        }
+        return cached;
+    }
+
+    /** Checksum of the view these results are valid for. */
+    String getViewChecksum() {
+        return viewChecksum;
+    }
+
+    /** Keys of the files the view depends on. */
+    List<String> getDependencies() {
+        return dependencies;
+    }
+
+    /**
+     * Restore the cached results.
+     * @return new results equivalent to those originally cached (never null)
+     */
+    CollectedValidationResultsImpl toResults() {
+        List<ValidationResult> restored = new ArrayList<ValidationResult>(results.size());
+        for (CachedResult result : results) {
+            restored.add(result.toResult());
+        }
+
+        CollectedValidationResultsImpl viewResults = new CollectedValidationResultsImpl();
+        viewResults.addAllPreservingDescriptors(restored);
+
+        for (CachedMissingVariable missing : missingVariables) {
+            MissingLocalVariableTypeDeclarationException missingException =
+                    new MissingLocalVariableTypeDeclarationException(missing.variableName, missing.sourceExpression);
+            missingException.setJspFile(missing.file);
+            missingException.setTagLineNumber(missing.line);
+            viewResults.reportContextVariableNeedingTypeDeclaration(missingException);
+        }
+        return viewResults;
+    }
+
+}
@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.jakubholy.jeeutils.jsfelcheck.cache;
+
+import net.jakubholy.jeeutils.jsfelcheck.util.Checksums;
+
+import java.io.File;
+import java.net.MalformedURLException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.security.CodeSource;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Summary of everything besides the view file itself that influences the results of validating a view -
+ * the known variables and their types, property type overrides, local variable declarations and the
+ * classes (directories or jars) the types come from. Cached results are only valid for the same fingerprint.
+ * <p>
+ *     The class path entries are fingerprinted by size and modification time of the jar or of the
+ * files in the directory so that a recompiled bean invalidates the cache.
+ * </p>
+ */
+public class ConfigurationFingerprint {
+
+    private final Map<String, String> entries = new TreeMap<String, String>();
+    private final Set<String> codeSources = new TreeSet<String>();
+
+    /**
+     * Add a configuration entry.
+     * @param key (required) unique key, f.ex. "variable:myBean"
+     * @param value (optional) the value, f.ex. the type of the variable
+     * @return this
+     */
+    public ConfigurationFingerprint with(String key, Object value) {
+        entries.put(key, String.valueOf(value));
+        return this;
+    }
+
+    /**
+     * Add a configuration entry for a type and also include the class path entry the type comes from
+     * in the fingerprint.
+     * @param key (required) unique key, f.ex. "variable:myBean"
+     * @param type (optional) the type, f.ex. of the variable; JDK types don't contribute their code source
+     * @return this
+     */
+    public ConfigurationFingerprint withType(String key, Class<?> type) {
+        with(key, (type == null)? null : type.getName());
+        withCodeSourceOf(type);
+        return this;
+    }
+
+    /**
+     * Include the class path entry (directory or jar) of the given type in the fingerprint.
+     * @param type (optional) nothing is added for null or for JDK types
+     * @return this
+     */
+    public ConfigurationFingerprint withCodeSourceOf(Class<?> type) {
+        if (type == null || type.getProtectionDomain() == null) {
+            return this;
+        }
+        CodeSource codeSource = type.getProtectionDomain().getCodeSource();
+        if (codeSource != null && codeSource.getLocation() != null) {
+            codeSources.add(codeSource.getLocation().toExternalForm());
+        }
+        return this;
+    }
+
+    /**
+     * Compute the fingerprint; the class path entries are inspected now.
+     * @return checksum of the configuration (never null)
+     */
+    public String compute() {
+        StringBuilder summary = new StringBuilder();
+        for (Map.Entry<String, String> entry : entries.entrySet()) {
+            summary.append(entry.getKey()).append('=').append(entry.getValue()).append('\n');
+        }
+        for (String codeSource : codeSources) {
+            summary.append(codeSource).append('@').append(describeCodeSource(codeSource)).append('\n');
+        }
+        return Checksums.checksumOf(summary.toString());
+    }
+
+    private String describeCodeSource(String codeSourceUrl) {
+        File location;
+        try {
+            location = new File(new URL(codeSourceUrl).toURI());
+        } catch (URISyntaxException e) {
+            return "unknown";
+        } catch (MalformedURLException e) {
+            return "unknown";
+        } catch (IllegalArgumentException e) {
+            // Not a file: URL
+            return "unknown";
+        }
+
+        if (location.isDirectory()) {
+            long[] countAndSizeAndLastModified = new long[3];
+            describeDirectory(location, countAndSizeAndLastModified);
+            return countAndSizeAndLastModified[0] + "/" + countAndSizeAndLastModified[1]
+                    + "/" + countAndSizeAndLastModified[2];
+        } else {
+            return location.length() + "/" + location.lastModified();
+        }
+    }
+
+    private void describeDirectory(File directory, long[] countAndSizeAndLastModified) {
+        File[] children = directory.listFiles();
+        if (children == null) {
+            return;
+        }
+        for (File child : children) {
+            if (child.isDirectory()) {
+                describeDirectory(child, countAndSizeAndLastModified);
+            } else {
+                countAndSizeAndLastModified[0]++;
+                countAndSizeAndLastModified[1] += child.length();
+                countAndSizeAndLastModified[2] = Math.max(countAndSizeAndLastModified[2], child.lastModified());
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ConfigurationFingerprint[entries=" + entries + ", codeSources=" + codeSources + "]";
+    }
+}
@@ -0,0 +1,328 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.jakubholy.jeeutils.jsfelcheck.cache;
+
+import net.jakubholy.jeeutils.jsfelcheck.expressionfinder.impl.jasper.CollectedValidationResultsImpl;
+import org.apache.commons.io.IOUtils;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static net.jakubholy.jeeutils.jsfelcheck.util.ArgumentAssert.assertNotNull;
+
+/**
+ * Persistent cache of the results of validating individual views, used to skip views that haven't changed
+ * since the last run. An entry is valid only if the view's checksum is the same as when it was cached
+ * and the whole cache is discarded if the {@link ConfigurationFingerprint} of the validator has changed.
+ * <p>
+ *     Views are identified by their path relative to the view root, see {@link #toViewKey(String)}.
+ * </p>
+ * <p>
+ *     The cache also keeps the files each view depends on (included files, templates, composite components) and
+ * their checksums, indexed by the file, so that all views depending - directly or transitively, via other views -
+ * on a changed file can be found and re-validated, see {@link #invalidateDependentsOfChangedFiles(Map, ChecksumSource)}.
+ * Dependencies are identified by keys that must be the same as the view key if the dependency is a view itself.
+ * </p>
+ */
+public class ViewResultCache {
+
+    private static final Logger LOG = Logger.getLogger(ViewResultCache.class.getName());
+
+    /** Provides the current checksum of a view or another file the views depend on. */
+    public interface ChecksumSource {
+        /**
+         * @param fileKey (required) key of the file as used for the dependencies
+         * @return the checksum or null if the file doesn't exist
+         */
+        String currentChecksumOf(String fileKey);
+    }
+
+    /** What is actually stored on the disk. */
+    private static class Contents implements Serializable {
+
+        private static final long serialVersionUID = 2L;
+
+        private final String configurationFingerprint;
+        private final HashMap<String, CachedViewResults> views = new HashMap<String, CachedViewResults>();
+        /** Reverse dependency index: dependency key -> keys of the views that depend on it. */
+        private final HashMap<String, HashSet<String>> dependents = new HashMap<String, HashSet<String>>();
+        /** Dependency key -> its checksum when last recorded (null if the file didn't exist). */
+        private final HashMap<String, String> dependencyChecksums = new HashMap<String, String>();
+
+        Contents(String configurationFingerprint) {
+            this.configurationFingerprint = configurationFingerprint;
+        }
+    }
+
+    private final File cacheFile;
+    private final Contents contents;
+    private int hits = 0;
+    private int misses = 0;
+
+    private ViewResultCache(File cacheFile, Contents contents) {
+        this.cacheFile = cacheFile;
+        this.contents = contents;
+    }
+
+    /**
+     * Load the cache from the given file; start with an empty cache if it doesn't exist, cannot be read, or
+     * has been created for a different configuration.
+     * @param cacheFile (required) where the cache is stored; its parent directory will be created if needed
+     * @param configurationFingerprint (required) see {@link ConfigurationFingerprint#compute()}
+     * @return the cache (never null)
+     */
+    public static ViewResultCache open(File cacheFile, String configurationFingerprint) {
+        assertNotNull(cacheFile, "cacheFile", File.class);
+        assertNotNull(configurationFingerprint, "configurationFingerprint", String.class);
+
+        Contents stored = load(cacheFile);
+        if (stored != null && !configurationFingerprint.equals(stored.configurationFingerprint)) {
+            LOG.info("The validator configuration or bean classes have changed, discarding the cached results in "
+                    + cacheFile);
+            stored = null;
+        }
+        return new ViewResultCache(cacheFile, (stored == null)? new Contents(configurationFingerprint) : stored);
+    }
+
+    private static Contents load(File cacheFile) {
+        if (!cacheFile.isFile()) {
+            return null;
+        }
+        ObjectInputStream input = null;
+        try {
+            input = new ObjectInputStream(new BufferedInputStream(new FileInputStream(cacheFile)));
+            return (Contents) input.readObject();
+        } catch (Exception e) {
+            LOG.log(Level.WARNING, "Failed to read the view result cache " + cacheFile + ", ignoring it", e);
+            return null;
+        } finally {
+            IOUtils.closeQuietly(input);
+        }
+    }
+
+    /**
+     * Normalize a view path into the form used as the cache key: root-relative, with forward slashes
+     * and a leading slash.
+     * @param viewPath (required) ex.: <code>\dir\page.xhtml</code>, <code>dir/page.jsp</code>
+     * @return ex.: <code>/dir/page.xhtml</code>
+     */
+    public static String toViewKey(String viewPath) {
+        String key = viewPath.replace('\\', '/');
+        return key.startsWith("/")? key : "/" + key;
+    }
+
+    /**
+     * Get the cached results of the view if it hasn't changed since they were cached.
+     * @param view (required) the view path, see {@link #toViewKey(String)}
+     * @param viewChecksum (required) the current checksum of the view file
+     * @return copy of the cached results or null if there are none or they are outdated
+     */
+    public CollectedValidationResultsImpl getResultsIfUpToDate(String view, String viewChecksum) {
+        CachedViewResults cached = contents.views.get(toViewKey(view));
+        if (cached != null && cached.getViewChecksum().equals(viewChecksum)) {
+            hits++;
+            return cached.toResults();
+        }
+        misses++;
+        return null;
+    }
+
+    /**
+     * Forget the cached results of all views that depend, directly or transitively, on a file that has changed
+     * since they were cached. The changed files are the cached views whose checksum differs from the current one
+     * (or that don't exist anymore) and the recorded dependencies whose checksum differs.
+     * Call this before {@link #getResultsIfUpToDate(String, String)}.
+     * @param currentViewChecksums (required) view key -> the current checksum of all the existing views
+     * @param currentChecksums (required) provides the current checksums of the dependencies
+     * @return keys of the views that have been invalidated even though they themselves haven't changed (never null)
+     */
+    public Set<String> invalidateDependentsOfChangedFiles(Map<String, String> currentViewChecksums,
+            ChecksumSource currentChecksums) {
+        LinkedList<String> changedFiles = new LinkedList<String>();
+        for (Map.Entry<String, CachedViewResults> cachedView : contents.views.entrySet()) {
+            if (!cachedView.getValue().getViewChecksum().equals(currentViewChecksums.get(cachedView.getKey()))) {
+                changedFiles.add(cachedView.getKey());
+            }
+        }
+        for (Map.Entry<String, String> dependency : contents.dependencyChecksums.entrySet()) {
+            String currentChecksum = currentChecksums.currentChecksumOf(dependency.getKey());
+            if ((currentChecksum == null)? dependency.getValue() != null : !currentChecksum.equals(dependency.getValue())) {
+                changedFiles.add(dependency.getKey());
+            }
+        }
+
+        Set<String> affectedFiles = new HashSet<String>(changedFiles);
+        Set<String> invalidatedViews = new HashSet<String>();
+        while (!changedFiles.isEmpty()) {
+            Set<String> dependentViews = contents.dependents.get(changedFiles.removeFirst());
+            if (dependentViews == null) {
+                continue;
+            }
+            for (String dependentView : dependentViews) {
+                if (affectedFiles.add(dependentView)) {
+                    changedFiles.add(dependentView);
+                    invalidatedViews.add(dependentView);
+                }
+            }
+        }
+
+        for (String invalidatedView : invalidatedViews) {
+            removeDependencies(invalidatedView);
+            contents.views.remove(invalidatedView);
+        }
+        return invalidatedViews;
+    }
+
+    /**
+     * Store fresh results of validating a view that has no dependencies.
+     * @see #update(String, String, CollectedValidationResultsImpl, Map)
+     */
+    public void update(String view, String viewChecksum, CollectedValidationResultsImpl viewResults) {
+        update(view, viewChecksum, viewResults, Collections.<String, String>emptyMap());
+    }
+
+    /**
+     * Store fresh results of validating the view together with the files it depends on.
+     * @param view (required) the view path, see {@link #toViewKey(String)}
+     * @param viewChecksum (required) the checksum of the view file that has been validated
+     * @param viewResults (required) the results of validating just this view
+     * @param dependencyChecksums (required) key -> current checksum (null if the file doesn't exist) of the files
+     * the view depends on; the key of a dependency that is a view itself must be its view key
+     */
+    public void update(String view, String viewChecksum, CollectedValidationResultsImpl viewResults,
+            Map<String, String> dependencyChecksums) {
+        String viewKey = toViewKey(view);
+        removeDependencies(viewKey);
+        contents.views.put(viewKey, new CachedViewResults(viewChecksum, viewResults, dependencyChecksums.keySet()));
+
+        for (Map.Entry<String, String> dependency : dependencyChecksums.entrySet()) {
+            HashSet<String> dependentViews = contents.dependents.get(dependency.getKey());
+            if (dependentViews == null) {
+                dependentViews = new HashSet<String>();
+                contents.dependents.put(dependency.getKey(), dependentViews);
+            }
+            dependentViews.add(viewKey);
+            contents.dependencyChecksums.put(dependency.getKey(), dependency.getValue());
+        }
+    }
+
+    /**
+     * Forget all views except the given ones, i.e. those that do not exist anymore.
+     * @param existingViews (required) paths of views, see {@link #toViewKey(String)}
+     */
+    public void retainOnly(Collection<String> existingViews) {
+        Set<String> keys = new HashSet<String>();
+        for (String view : existingViews) {
+            keys.add(toViewKey(view));
+        }
+        for (String cachedView : new ArrayList<String>(contents.views.keySet())) {
+            if (!keys.contains(cachedView)) {
+                removeDependencies(cachedView);
+                contents.views.remove(cachedView);
+            }
+        }
+    }
+
+    /** Remove the view from the reverse dependency index, forgetting dependencies no other view uses. */
+    private void removeDependencies(String viewKey) {
+        CachedViewResults previous = contents.views.get(viewKey);
+        if (previous == null) {
+            return;
+        }
+        for (String dependency : previous.getDependencies()) {
+            Set<String> dependentViews = contents.dependents.get(dependency);
+            if (dependentViews != null) {
+                dependentViews.remove(viewKey);
+                if (dependentViews.isEmpty()) {
+                    contents.dependents.remove(dependency);
+                    contents.dependencyChecksums.remove(dependency);
+                }
+            }
+        }
+    }
+
+    /**
+     * Write the cache to its file. Failures are only logged as the cache is only an optimization.
+     */
+    public void save() {
+        File parent = cacheFile.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+            LOG.warning("Failed to create the directory for the view result cache " + cacheFile);
+            return;
+        }
+
+        File temporaryFile = new File(cacheFile.getPath() + ".tmp");
+        ObjectOutputStream output = null;
+        try {
+            output = new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(temporaryFile)));
+            output.writeObject(contents);
+            output.close();
+            output = null;
+            if (cacheFile.exists() && !cacheFile.delete() || !temporaryFile.renameTo(cacheFile)) {
+                LOG.warning("Failed to replace the view result cache " + cacheFile + " with " + temporaryFile);
+            }
+        } catch (IOException e) {
+            LOG.log(Level.WARNING, "Failed to write the view result cache " + cacheFile, e);
+        } finally {
+            IOUtils.closeQuietly(output);
+        }
+    }
+
+    /** Number of views whose results have been found up-to-date in the cache. */
+    public int getHits() {
+        return hits;
+    }
+
+    /** Number of views that have been looked up but not found up-to-date in the cache. */
+    public int getMisses() {
+        return misses;
+    }
+
+    /** *For testing* */
+    Map<String, CachedViewResults> getCachedViews() {
+        return contents.views;
+    }
+
+    /** *For testing* */
+    Map<String, ? extends Set<String>> getDependents() {
+        return contents.dependents;
+    }
+
+    @Override
+    public String toString() {
+        return "ViewResultCache[" + cacheFile + ", views: " + contents.views.size()
+                + ", hits: " + hits + ", misses: " + misses + "]";
+    }
+}
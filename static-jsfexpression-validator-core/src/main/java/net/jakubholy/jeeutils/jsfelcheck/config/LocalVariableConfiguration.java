@@ -19,7 +19,11 @@ package net.jakubholy.jeeutils.jsfelcheck.config;
 
 import net.jakubholy.jeeutils.jsfelcheck.expressionfinder.variables.ContextVariableRegistry;
 import net.jakubholy.jeeutils.jsfelcheck.expressionfinder.variables.DataTableVariableResolver;
+import net.jakubholy.jeeutils.jsfelcheck.expressionfinder.variables.ForEachVariableResolver;
 import net.jakubholy.jeeutils.jsfelcheck.expressionfinder.variables.TagJsfVariableResolver;
+import net.jakubholy.jeeutils.jsfelcheck.expressionfinder.variables.ValueVariableResolver;
+
+import java.util.Map;
 
 /**
  * Declaration of local variables in JSF pages and optionally
@@ -136,6 +140,32 @@ public class LocalVariableConfiguration {
         return this;
     }
 
+    /**
+     * Register the built-in resolvers for the standard JSTL and Facelets tags that define variables, unless
+     * a resolver has already been registered for the tag:
+     * <ul>
+     *     <li><code>c:forEach</code> - the element type of <code>items</code> is inferred from its generic type
+     *     or value, falling back to the types declared via {@link #withLocalVariable(String, Class)}</li>
+     *     <li><code>c:set</code> - the type of <code>value</code>, available until the end of the page</li>
+     *     <li><code>ui:param</code> - the type of <code>value</code>, available in the enclosing tag</li>
+     * </ul>
+     * Immediate <code>${..}</code> expressions aren't validated, the type of the variables they produce must thus
+     * be declared via {@link #withLocalVariable(String, Class)}, the expression being without the <code>${}</code>.
+     * @return this
+     */
+    public LocalVariableConfiguration withDefaultResolversForStandardTags() {
+        registerUnlessPresent("c:forEach", new ForEachVariableResolver(getDeclaredLocalVariableTypes()));
+        registerUnlessPresent("c:set", ValueVariableResolver.forJstlSet(getDeclaredLocalVariableTypes()));
+        registerUnlessPresent("ui:param", ValueVariableResolver.forFaceletsParam(getDeclaredLocalVariableTypes()));
+        return this;
+    }
+
+    private void registerUnlessPresent(String tagQName, TagJsfVariableResolver resolver) {
+        if (!contextVariableRegistry.getRegisteredResolvers().containsKey(tagQName)) {
+            contextVariableRegistry.registerResolverForTag(tagQName, resolver);
+        }
+    }
+
     private void assertQNameValid(String tagQName) {
         if (tagQName == null || tagQName.trim().length() == 0) {
             throw new IllegalArgumentException("tagQName: String must be fully qualified JSF tag name " +
@@ -143,6 +173,14 @@ public class LocalVariableConfiguration {
         }
     }
 
+    /**
+     * The local variable types declared via {@link #withLocalVariable(String, Class)}.
+     * @return unmodifiable map of source EL expressions to types
+     */
+    public Map<String, Class<?>> getDeclaredLocalVariableTypes() {
+        return dataTableVariableResolver.getDeclaredTypes();
+    }
+
     /** *For internal use only* */
     public ContextVariableRegistry toRegistry() {
         contextVariableRegistry.registerResolverForTag("h:dataTable", dataTableVariableResolver);
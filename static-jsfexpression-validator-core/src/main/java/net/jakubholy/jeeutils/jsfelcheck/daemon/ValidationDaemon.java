@@ -0,0 +1,302 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.jakubholy.jeeutils.jsfelcheck.daemon;
+
+import net.jakubholy.jeeutils.jsfelcheck.AbstractJsfStaticAnalyzer;
+import net.jakubholy.jeeutils.jsfelcheck.CollectedValidationResults;
+import net.jakubholy.jeeutils.jsfelcheck.ValidationSession;
+import net.jakubholy.jeeutils.jsfelcheck.expressionfinder.variables.MissingLocalVariableTypeDeclarationException; // SUPPRESS CHECKSTYLE
+import net.jakubholy.jeeutils.jsfelcheck.report.JsonLinesReportWriter;
+import net.jakubholy.jeeutils.jsfelcheck.validator.results.ExpressionRejectedByFilterResult;
+import net.jakubholy.jeeutils.jsfelcheck.validator.results.FailedValidationResult;
+import net.jakubholy.jeeutils.jsfelcheck.validator.results.SuccessfulValidationResult;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static net.jakubholy.jeeutils.jsfelcheck.util.ArgumentAssert.assertNotNull;
+
+/**
+ * Long-running process keeping a fully initialized analyzer (see {@link ValidationSession}) and validating the
+ * views it is asked for, so that only the views themselves and not the JVM startup, bean discovery etc. are paid
+ * for - fast enough for validating on save in an editor or in a git hook.
+ * <p>
+ *     The requests are read from the standard input or from a socket on the loopback interface, one per line
+ *     (UTF-8):
+ * </p>
+ * <ul>
+ *     <li><code>validate &lt;view&gt;[,&lt;view&gt;...]</code> - validate the views, given as absolute paths or
+ *     relative to the view root</li>
+ *     <li><code>validate-all</code> - validate all the views</li>
+ *     <li><code>reload</code> - re-initialize the analyzer, f.ex. after faces-config or a taglib has changed</li>
+ *     <li><code>quit</code> - close the connection (or stop, when reading the standard input)</li>
+ *     <li><code>shutdown</code> - stop the daemon</li>
+ * </ul>
+ * <p>
+ *     The response is in the JSON Lines format of {@link JsonLinesReportWriter}, one line per invalid
+ *     or excluded expression and local variable without a declared type, terminated by a line with the kind
+ *     DONE or ERROR, for example:
+ * </p>
+ * <pre>
+ * {"kind":"FAILED","file":"/page.xhtml","line":5,"expression":"#{bean.wrong}","message":"Invalid EL ..."}
+ * {"kind":"DONE","expressions":12,"failed":1,"millis":35}
+ * </pre>
+ * <p>
+ *     Connections are served one at a time, the requests are thus never processed concurrently.
+ * </p>
+ */
+public class ValidationDaemon {
+
+    private static final Logger LOG = Logger.getLogger(ValidationDaemon.class.getName());
+
+    private static final String ENCODING = "UTF-8";
+    private static final String VALIDATE_COMMAND = "validate ";
+
+    /** Writes results and the terminating lines of responses. */
+    private static class ResponseWriter extends JsonLinesReportWriter {
+
+        private final Writer output;
+
+        ResponseWriter(Writer output, boolean includeCorrectExpressions) {
+            super(output, includeCorrectExpressions);
+            this.output = output;
+        }
+
+        void writeDone(long expressions, long failed, long millis) throws IOException {
+            output.write("{\"kind\":\"DONE\",\"expressions\":" + expressions + ",\"failed\":" + failed
+                    + ",\"millis\":" + millis + "}\n");
+            output.flush();
+        }
+
+        void writeDone(CollectedValidationResults results, long millis) throws IOException {
+            writeDone(results.goodResults().getTotalCount() + results.failures().getTotalCount()
+                    , results.failures().getTotalCount(), millis);
+        }
+
+        void writeError(String message) throws IOException {
+            output.write("{\"kind\":\"ERROR\",\"message\":" + toJsonString(message) + "}\n");
+            output.flush();
+        }
+    }
+
+    private final AbstractJsfStaticAnalyzer<?> analyzer;
+    private final File webappRoot;
+    private final File viewFilesRoot;
+    private boolean includeCorrectExpressions = false;
+    private ValidationSession session;
+
+    /**
+     * @param analyzer (required) the configured analyzer to use
+     * @param webappRoot (required) the root directory of the web application (containing WEB-INF)
+     * @param viewFilesRoot (required) where to search for the views
+     */
+    public ValidationDaemon(AbstractJsfStaticAnalyzer<?> analyzer, File webappRoot, File viewFilesRoot) {
+        this.analyzer = assertNotNull(analyzer, "analyzer", AbstractJsfStaticAnalyzer.class);
+        this.webappRoot = assertNotNull(webappRoot, "webappRoot", File.class);
+        this.viewFilesRoot = assertNotNull(viewFilesRoot, "viewFilesRoot", File.class);
+    }
+
+    /**
+     * Report also the successfully validated expressions (kind VALID). Default: false.
+     * @param includeCorrectExpressions (required)
+     * @return this
+     */
+    public ValidationDaemon withCorrectExpressionsIncluded(boolean includeCorrectExpressions) {
+        this.includeCorrectExpressions = includeCorrectExpressions;
+        return this;
+    }
+
+    /** @see #withCorrectExpressionsIncluded(boolean) */
+    public boolean isCorrectExpressionsIncluded() {
+        return includeCorrectExpressions;
+    }
+
+    /**
+     * Serve requests until shut down.
+     * @param mode (required) "stdio" to read the standard input and write to the standard output or the number
+     * of the port to listen on (loopback interface only)
+     * @throws IOException communication failed
+     */
+    public void serve(String mode) throws IOException {
+        if ("stdio".equals(mode)) {
+            serveStandardStreams();
+        } else {
+            int port;
+            try {
+                port = Integer.parseInt(mode);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("The daemon mode must be 'stdio' or a port number, is: " + mode);
+            }
+            serveSocket(port);
+        }
+    }
+
+    /**
+     * Serve requests read from the standard input until shut down or the end of the input.
+     * Nothing else may write to the standard output, anything printed to System.out meanwhile is thus
+     * redirected to the standard error.
+     * @throws IOException communication failed
+     */
+    public void serveStandardStreams() throws IOException {
+        PrintStream standardOutput = System.out;
+        System.setOut(System.err);
+        try {
+            getSession();
+            serve(new BufferedReader(new InputStreamReader(System.in, ENCODING)),
+                    new BufferedWriter(new OutputStreamWriter(standardOutput, ENCODING)));
+        } finally {
+            closeSession();
+            System.setOut(standardOutput);
+        }
+    }
+
+    /**
+     * Serve connections to the given port on the loopback interface, one at a time, until shut down.
+     * @param port (required) the port to listen on
+     * @throws IOException communication failed
+     */
+    public void serveSocket(int port) throws IOException {
+        getSession();
+        ServerSocket serverSocket = new ServerSocket(port, 0, InetAddress.getByName(null));
+        LOG.info("Validation daemon listening on " + serverSocket.getLocalSocketAddress());
+        try {
+            boolean shutdown = false;
+            while (!shutdown) {
+                Socket connection = serverSocket.accept();
+                try {
+                    shutdown = serve(new BufferedReader(new InputStreamReader(connection.getInputStream(), ENCODING)),
+                            new BufferedWriter(new OutputStreamWriter(connection.getOutputStream(), ENCODING)));
+                } catch (IOException e) {
+                    LOG.log(Level.WARNING, "Communication with a client failed", e);
+                } finally {
+                    connection.close();
+                }
+            }
+        } finally {
+            serverSocket.close();
+            closeSession();
+        }
+    }
+
+    /**
+     * Process requests from the input until its end or until a quit or shutdown request.
+     * @param requests (required)
+     * @param responses (required)
+     * @return true if the daemon shall shut down
+     * @throws IOException communication failed
+     */
+    boolean serve(BufferedReader requests, Writer responses) throws IOException {
+        String request;
+        while ((request = requests.readLine()) != null) {
+            request = request.trim();
+            if (request.length() == 0) {
+                continue;
+            } else if ("quit".equals(request)) {
+                return false;
+            } else if ("shutdown".equals(request)) {
+                return true;
+            }
+            handle(request, new ResponseWriter(responses, includeCorrectExpressions));
+        }
+        return false;
+    }
+
+    private void handle(String request, ResponseWriter response) throws IOException {
+        long start = System.currentTimeMillis();
+        try {
+            if ("reload".equals(request)) {
+                closeSession();
+                getSession();
+                response.writeDone(0, 0, System.currentTimeMillis() - start);
+            } else if ("validate-all".equals(request)) {
+                CollectedValidationResults results = getSession().validateAllViews();
+                report(results, response);
+                response.writeDone(results, System.currentTimeMillis() - start);
+            } else if (request.startsWith(VALIDATE_COMMAND)) {
+                CollectedValidationResults results = getSession().validateViews(
+                        toViewFiles(request.substring(VALIDATE_COMMAND.length())));
+                report(results, response);
+                response.writeDone(results, System.currentTimeMillis() - start);
+            } else {
+                response.writeError("Unknown request '" + request + "'; expected: validate <view>[,<view>...], "
+                        + "validate-all, reload, quit, shutdown");
+            }
+        } catch (RuntimeException e) {
+            LOG.log(Level.WARNING, "Processing of the request '" + request + "' failed", e);
+            response.writeError(String.valueOf(e));
+        }
+    }
+
+    private void report(CollectedValidationResults results, ResponseWriter response) {
+        for (FailedValidationResult failure : results.failures()) {
+            response.resultProduced(failure);
+        }
+        for (ExpressionRejectedByFilterResult exclusion : results.excluded()) {
+            response.resultProduced(exclusion);
+        }
+        if (includeCorrectExpressions) {
+            for (SuccessfulValidationResult good : results.goodResults()) {
+                response.resultProduced(good);
+            }
+        }
+        for (MissingLocalVariableTypeDeclarationException variable : results.getVariablesNeedingTypeDeclaration()) {
+            response.variableNeedingTypeDeclarationFound(variable);
+        }
+        response.validationFinished();
+    }
+
+    private List<File> toViewFiles(String commaSeparatedViews) {
+        List<File> views = new ArrayList<File>();
+        for (String view : commaSeparatedViews.split(",")) {
+            String path = view.trim();
+            if (path.length() > 0) {
+                File viewFile = new File(path);
+                views.add(viewFile.isAbsolute()? viewFile : new File(viewFilesRoot, path));
+            }
+        }
+        return views;
+    }
+
+    private ValidationSession getSession() {
+        if (session == null) {
+            long start = System.currentTimeMillis();
+            session = analyzer.openSession(webappRoot, viewFilesRoot);
+            LOG.info("Validation session opened in " + (System.currentTimeMillis() - start) + "ms");
+        }
+        return session;
+    }
+
+    private void closeSession() {
+        if (session != null) {
+            session.close();
+            session = null;
+        }
+    }
+}
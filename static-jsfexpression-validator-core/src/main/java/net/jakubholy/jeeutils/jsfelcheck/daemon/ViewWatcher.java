@@ -0,0 +1,368 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.jakubholy.jeeutils.jsfelcheck.daemon;
+
+import net.jakubholy.jeeutils.jsfelcheck.AbstractJsfStaticAnalyzer;
+import net.jakubholy.jeeutils.jsfelcheck.ValidationSession;
+import net.jakubholy.jeeutils.jsfelcheck.expressionfinder.impl.jasper.CollectedValidationResultsImpl;
+import net.jakubholy.jeeutils.jsfelcheck.expressionfinder.impl.jasper.ValidatedViewListener;
+import net.jakubholy.jeeutils.jsfelcheck.validator.results.FailedValidationResult;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.FilenameUtils;
+
+import java.io.File;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static net.jakubholy.jeeutils.jsfelcheck.util.ArgumentAssert.assertNotNull;
+
+/**
+ * Watches the views and the configuration of a web application and re-validates the affected views whenever
+ * some of them change, printing only what has changed: the newly failing and the fixed expressions.
+ * <p>
+ *     The files are polled (Java 6 has no file system notifications) and a burst of changes, such as a save of
+ *     several files by an IDE or a VCS checkout, is only processed once nothing has changed for the quiet period.
+ *     A changed view is re-validated together with all the views that include it or use it as a template or a
+ *     composite component. A change of a file under WEB-INF that is not a view or a fragment (faces-config,
+ *     Spring context, taglib or TLD) re-initializes the analyzer and re-validates all the views.
+ * </p>
+ * <p>
+ *     A failure to process a change, f.ex. due to an invalid faces-config, is reported and watching continues;
+ *     a failed re-initialization is retried with the next change.
+ * </p>
+ */
+public class ViewWatcher {
+
+    private static final Logger LOG = Logger.getLogger(ViewWatcher.class.getName());
+
+    private static final String[] VIEW_EXTENSIONS = {"xhtml", "jsp", "jspx"};
+    private static final String[] WATCHED_EXTENSIONS = {"xhtml", "jsp", "jspx", "jspf", "tag", "tagx", "xml", "tld"};
+
+    private final AbstractJsfStaticAnalyzer<?> analyzer;
+    private final File webappRoot;
+    private final File viewFilesRoot;
+    private final File webInfDir;
+    private long pollIntervalMs = 1000;
+    private long quietPeriodMs = 300;
+    private PrintStream output = System.out;
+
+    private ValidationSession session;
+    private Map<File, String> lastSnapshot = new HashMap<File, String>();
+    /** The configuration changed but re-initialization has not succeeded yet. */
+    private boolean reloadPending = false;
+    /** Failures of each known view, keyed by a line-independent signature. */
+    private final Map<File, Map<String, String>> failuresPerView = new HashMap<File, Map<String, String>>();
+    private final Map<File, Collection<File>> dependenciesPerView = new HashMap<File, Collection<File>>();
+
+    /**
+     * @param analyzer (required) the configured analyzer to use
+     * @param webappRoot (required) the root directory of the web application (containing WEB-INF)
+     * @param viewFilesRoot (required) where to search for the views
+     */
+    public ViewWatcher(AbstractJsfStaticAnalyzer<?> analyzer, File webappRoot, File viewFilesRoot) {
+        this.analyzer = assertNotNull(analyzer, "analyzer", AbstractJsfStaticAnalyzer.class);
+        this.webappRoot = assertNotNull(webappRoot, "webappRoot", File.class);
+        this.viewFilesRoot = assertNotNull(viewFilesRoot, "viewFilesRoot", File.class);
+        this.webInfDir = new File(webappRoot, "WEB-INF");
+    }
+
+    /**
+     * How often to check the files for changes. Default: 1000.
+     * @param pollIntervalMs (required) milliseconds, positive
+     * @return this
+     */
+    public ViewWatcher withPollInterval(long pollIntervalMs) {
+        if (pollIntervalMs <= 0) {
+            throw new IllegalArgumentException("The poll interval must be positive, is " + pollIntervalMs);
+        }
+        this.pollIntervalMs = pollIntervalMs;
+        return this;
+    }
+
+    /** @see #withPollInterval(long) */
+    public long getPollInterval() {
+        return pollIntervalMs;
+    }
+
+    /**
+     * How long no further change must be detected before a burst of changes is processed. Default: 300.
+     * @param quietPeriodMs (required) milliseconds, 0 to process the changes as soon as they are detected
+     * @return this
+     */
+    public ViewWatcher withQuietPeriod(long quietPeriodMs) {
+        this.quietPeriodMs = quietPeriodMs;
+        return this;
+    }
+
+    /** @see #withQuietPeriod(long) */
+    public long getQuietPeriod() {
+        return quietPeriodMs;
+    }
+
+    /**
+     * Where to print the delta reports. Default: standard output.
+     * @param output (required)
+     * @return this
+     */
+    public ViewWatcher withOutput(PrintStream output) {
+        this.output = assertNotNull(output, "output", PrintStream.class);
+        return this;
+    }
+
+    /** @see #withOutput(PrintStream) */
+    public PrintStream getOutput() {
+        return output;
+    }
+
+    /**
+     * Validate all the views and then keep re-validating the affected ones whenever a watched file changes,
+     * until the thread is interrupted.
+     */
+    public void watch() {
+        validateAll();
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                Thread.sleep(pollIntervalMs);
+                Map<File, String> snapshot = takeSnapshot();
+                if (snapshot.equals(lastSnapshot)) {
+                    continue;
+                }
+                Map<File, String> settledSnapshot = snapshot;
+                do {
+                    snapshot = settledSnapshot;
+                    Thread.sleep(quietPeriodMs);
+                    settledSnapshot = takeSnapshot();
+                } while (!settledSnapshot.equals(snapshot));
+                processChanges(settledSnapshot);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (session != null) {
+                session.close();
+            }
+        }
+    }
+
+    /** Validate all the views and remember their failures and dependencies as the baseline for future changes. */
+    void validateAll() {
+        lastSnapshot = takeSnapshot();
+        failuresPerView.clear();
+        dependenciesPerView.clear();
+        long start = System.currentTimeMillis();
+        DeltaCollector delta = new DeltaCollector();
+        getSession().validateAllViews(delta);
+        output.println(">>> WATCH: validated " + delta.validatedViews.size() + " views in "
+                + (System.currentTimeMillis() - start) + "ms, " + countFailures() + " failures; watching "
+                + lastSnapshot.size() + " files for changes");
+    }
+
+    /**
+     * Re-validate the views affected by the differences between the last and the given snapshot and print the
+     * resulting delta report. A failure is reported, not thrown, so that watching can continue.
+     * @param snapshot (required) the current state of the watched files, see {@link #takeSnapshot()}
+     */
+    void processChanges(Map<File, String> snapshot) {
+        try {
+            revalidateChanged(snapshot);
+        } catch (RuntimeException e) {
+            LOG.log(Level.WARNING, "Processing of the changed files failed", e);
+            output.println(">>> WATCH: processing the changes failed, watching continues: " + e);
+        }
+    }
+
+    private void revalidateChanged(Map<File, String> snapshot) {
+        Set<File> changedFiles = new HashSet<File>();
+        for (Map.Entry<File, String> file : snapshot.entrySet()) {
+            if (!file.getValue().equals(lastSnapshot.get(file.getKey()))) {
+                changedFiles.add(file.getKey());
+            }
+        }
+        Set<File> deletedFiles = new HashSet<File>(lastSnapshot.keySet());
+        deletedFiles.removeAll(snapshot.keySet());
+        changedFiles.addAll(deletedFiles);
+        lastSnapshot = snapshot;
+
+        for (File changedFile : changedFiles) {
+            if (isConfiguration(changedFile)) {
+                output.println(">>> WATCH: " + changedFile + " changed, reloading the configuration");
+                reloadPending = true;
+            }
+        }
+        if (reloadPending) {
+            if (session != null) {
+                session.close();
+                session = null;
+            }
+            revalidate(new ArrayList<File>(), true);
+            reloadPending = false;
+            return;
+        }
+
+        Set<File> affectedViews = new HashSet<File>();
+        for (File changedFile : changedFiles) {
+            if (!deletedFiles.contains(changedFile) && isView(changedFile)) {
+                affectedViews.add(changedFile);
+            }
+            for (Map.Entry<File, Collection<File>> viewDependencies : dependenciesPerView.entrySet()) {
+                if (viewDependencies.getValue().contains(changedFile)) {
+                    affectedViews.add(viewDependencies.getKey());
+                }
+            }
+        }
+        for (File deletedView : deletedFiles) {
+            if (failuresPerView.remove(deletedView) != null) {
+                output.println(">>> WATCH: " + deletedView + " deleted");
+            }
+            dependenciesPerView.remove(deletedView);
+            affectedViews.remove(deletedView);
+        }
+        revalidate(affectedViews, false);
+    }
+
+    private void revalidate(Collection<File> views, boolean allViews) {
+        Map<File, Map<String, String>> previousFailures = new HashMap<File, Map<String, String>>(failuresPerView);
+        long start = System.currentTimeMillis();
+        DeltaCollector delta = new DeltaCollector();
+        if (allViews) {
+            failuresPerView.clear();
+            dependenciesPerView.clear();
+            getSession().validateAllViews(delta);
+        } else if (!views.isEmpty()) {
+            getSession().validateViews(views, delta);
+        }
+
+        int newFailures = 0;
+        int fixedFailures = 0;
+        Set<File> reportedViews = new HashSet<File>(delta.validatedViews);
+        if (allViews) {
+            reportedViews.addAll(previousFailures.keySet());
+        }
+        for (File view : reportedViews) {
+            Map<String, String> before = previousFailures.get(view);
+            Map<String, String> after = failuresPerView.get(view);
+            before = (before == null)? new HashMap<String, String>() : before;
+            after = (after == null)? new HashMap<String, String>() : after;
+            for (Map.Entry<String, String> failure : after.entrySet()) {
+                if (!before.containsKey(failure.getKey())) {
+                    output.println("NEW FAILURE " + failure.getValue());
+                    newFailures++;
+                }
+            }
+            for (Map.Entry<String, String> failure : before.entrySet()) {
+                if (!after.containsKey(failure.getKey())) {
+                    output.println("FIXED " + failure.getValue());
+                    fixedFailures++;
+                }
+            }
+        }
+        output.println(">>> WATCH: re-validated " + delta.validatedViews.size() + " views in "
+                + (System.currentTimeMillis() - start) + "ms: " + newFailures + " new failures, "
+                + fixedFailures + " fixed, " + countFailures() + " failures in total");
+    }
+
+    /**
+     * The current state of the watched files.
+     * @return file -&gt; its size and last modification time
+     */
+    Map<File, String> takeSnapshot() {
+        Map<File, String> snapshot = new HashMap<File, String>();
+        addToSnapshot(snapshot, viewFilesRoot);
+        if (!isUnder(webInfDir, viewFilesRoot)) {
+            addToSnapshot(snapshot, webInfDir);
+        }
+        return snapshot;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void addToSnapshot(Map<File, String> snapshot, File directory) {
+        if (!directory.isDirectory()) {
+            return;
+        }
+        for (File file : (Collection<File>) FileUtils.listFiles(directory, WATCHED_EXTENSIONS, true)) {
+            snapshot.put(file.getAbsoluteFile(), file.length() + "@" + file.lastModified());
+        }
+    }
+
+    private boolean isView(File file) {
+        return FilenameUtils.isExtension(file.getName(), VIEW_EXTENSIONS)
+                && isUnder(file, viewFilesRoot) && !isUnder(file, webInfDir);
+    }
+
+    /** Files read when the analyzer is initialized, such as faces-config, Spring XML files and taglibs. */
+    private boolean isConfiguration(File file) {
+        return isUnder(file, webInfDir) && FilenameUtils.isExtension(file.getName(), new String[] {"xml", "tld"});
+    }
+
+    private static boolean isUnder(File file, File directory) {
+        return file.getAbsolutePath().startsWith(directory.getAbsolutePath() + File.separator);
+    }
+
+    private int countFailures() {
+        int failures = 0;
+        for (Map<String, String> viewFailures : failuresPerView.values()) {
+            failures += viewFailures.size();
+        }
+        return failures;
+    }
+
+    private ValidationSession getSession() {
+        if (session == null) {
+            session = analyzer.openSession(webappRoot, viewFilesRoot);
+        }
+        return session;
+    }
+
+    /** Records the failures and dependencies of each validated view. */
+    private class DeltaCollector implements ValidatedViewListener {
+
+        private final List<File> validatedViews = new ArrayList<File>();
+
+        public void viewValidated(String view, CollectedValidationResultsImpl viewResults,
+                Collection<String> viewDependencies) {
+            File viewFile = new File(viewFilesRoot, view.startsWith("/")? view.substring(1) : view)
+                    .getAbsoluteFile();
+            validatedViews.add(viewFile);
+
+            Map<String, String> failures = new LinkedHashMap<String, String>();
+            for (FailedValidationResult failure : viewResults.failures()) {
+                String message = (failure.getFailure() == null)? "" : failure.getFailure().getMessage();
+                // Line numbers are not part of the key so that editing above an old failure doesn't report it anew
+                failures.put(failure.getElExpression() + " - " + message
+                        , view + ":" + failure.getExpressionDescriptor().getTagLineNumber() + " "
+                            + failure.getElExpression() + " - " + message);
+            }
+            failuresPerView.put(viewFile, failures);
+
+            Collection<File> dependencies = new ArrayList<File>(viewDependencies.size());
+            for (String dependency : viewDependencies) {
+                dependencies.add(getSession().resolveDependency(dependency).getAbsoluteFile());
+            }
+            dependenciesPerView.put(viewFile, dependencies);
+        }
+    }
+
+}
@@ -0,0 +1,152 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.jakubholy.jeeutils.jsfelcheck.expressionfinder.impl;
+
+import net.jakubholy.jeeutils.jsfelcheck.expressionfinder.impl.jasper.CollectedValidationResultsImpl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * Validates views in multiple worker threads by splitting them into contiguous shards,
+ * one per worker, and merging the results of the shards in their original order so that
+ * the output is the same as if the views have been processed sequentially.
+ * <p>
+ *     Every shard is processed by a {@link ShardValidator}, which must use its own
+ * validator, local variable registry and parser as those are not thread-safe.
+ * </p>
+ *
+ * @param <V> the type representing a view, f.ex. a File
+ */
+public class ParallelViewValidationExecutor<V> {
+
+    private static final Logger LOG = Logger.getLogger(ParallelViewValidationExecutor.class.getName());
+
+    /**
+     * Validates a shard of views in the current (worker) thread.
+     * @param <V> the type representing a view
+     */
+    public interface ShardValidator<V> {
+        /**
+         * Validate the given views.
+         * @param viewShard (required) the views to validate, never empty
+         * @return results of validating the views in the shard (never null)
+         * @throws Exception any failure will abort the whole validation
+         */
+        CollectedValidationResultsImpl validate(List<V> viewShard) throws Exception;
+    }
+
+    private final int workerThreads;
+
+    /**
+     * @param workerThreads (required) the maximal number of threads to use, >= 1
+     */
+    public ParallelViewValidationExecutor(int workerThreads) {
+        if (workerThreads < 1) {
+            throw new IllegalArgumentException("workerThreads: int must be at least 1, is " + workerThreads);
+        }
+        this.workerThreads = workerThreads;
+    }
+
+    /**
+     * Validate all the views using the shard validator and collect the results.
+     * @param views (required) all the views to validate, in the order their results shall be reported
+     * @param shardValidator (required)
+     * @return merged results of all the shards, in the order of the views
+     */
+    public CollectedValidationResultsImpl execute(List<V> views, final ShardValidator<V> shardValidator) {
+        List<List<V>> shards = partition(views, workerThreads);
+        LOG.info("Validating " + views.size() + " views in " + shards.size() + " parallel shards");
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, shards.size()), new WorkerThreadFactory());
+        try {
+            List<Future<CollectedValidationResultsImpl>> shardResults =
+                    new ArrayList<Future<CollectedValidationResultsImpl>>(shards.size());
+            for (final List<V> shard : shards) {
+                shardResults.add(executor.submit(new Callable<CollectedValidationResultsImpl>() {
+                    public CollectedValidationResultsImpl call() throws Exception {
+                        return shardValidator.validate(shard);
+                    }
+                }));
+            }
+
+            CollectedValidationResultsImpl allResults = new CollectedValidationResultsImpl();
+            for (Future<CollectedValidationResultsImpl> shardResult : shardResults) {
+                allResults.addAllFrom(awaitResult(shardResult));
+            }
+            return allResults;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private CollectedValidationResultsImpl awaitResult(Future<CollectedValidationResultsImpl> shardResult) {
+        try {
+            return shardResult.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for the views to be validated", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new RuntimeException("Validation of views failed in a worker thread: " + cause, cause);
+        }
+    }
+
+    /**
+     * Split the items into at most <code>shardCount</code> contiguous, non-empty shards of (nearly) equal size.
+     * @param items (required)
+     * @param shardCount (required) >= 1
+     * @return the shards, whose concatenation equals to the items
+     */
+    static <T> List<List<T>> partition(List<T> items, int shardCount) {
+        int shards = Math.min(shardCount, items.size());
+        List<List<T>> result = new ArrayList<List<T>>(shards);
+        int start = 0;
+        for (int shard = 0; shard < shards; shard++) {
+            int size = items.size() / shards + ((shard < items.size() % shards) ? 1 : 0);
+            result.add(new ArrayList<T>(items.subList(start, start + size)));
+            start += size;
+        }
+        return result;
+    }
+
+    private static class WorkerThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger threadCounter = new AtomicInteger();
+
+        public Thread newThread(Runnable runnable) {
+            Thread worker = new Thread(runnable, "jsfelcheck-worker-" + threadCounter.incrementAndGet());
+            worker.setDaemon(true);
+            return worker;
+        }
+    }
+
+}
@@ -14,34 +14,124 @@
  * See the License for the specific language governing permissions and
  * limitations under the License.
  */
-
 package net.jakubholy.jeeutils.jsfelcheck.expressionfinder.impl.facelets;
 
 import net.jakubholy.jeeutils.jsfelcheck.expressionfinder.pagenodes.PageNodeListener;
+import net.jakubholy.jeeutils.jsfelcheck.util.Checksums;
 
 import java.io.File;
+import java.io.IOException;
+import java.net.URL;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 
 import static net.jakubholy.jeeutils.jsfelcheck.util.ArgumentAssert.assertNotNull;
 
+/**
+ * {@inheritDoc}
+ * <p>
+ *     The parser may be shared by multiple threads each validating different views with its own
+ * {@link PageNodeListener}, see {@link #validateExpressionsInView(URL, String, PageNodeListener)}. The expensive
+ * JSF bootstrap and the compiler with its tag libraries are thus created only once. The taglibs cannot be
+ * changed once the first view has been compiled.
+ * </p>
+ */
 public abstract class AbstractValidatingFaceletsParser implements JsfElValidatingFaceletsParser {
 
 	protected final File webappRoot;
 	protected final PageNodeListener pageNodeValidator;
-	protected Collection<File> taglibs = Collections.emptyList();
+	private Collection<File> taglibs = Collections.emptyList();
+	private boolean taglibsFrozen = false;
+
+	private final Object compilerInitializationLock = new Object();
+	private volatile boolean compilerInitialized = false;
 
 	/**
 	 * @param webappRoot (required) The folder that contains the webapp's resources folder as per the JSF 2.0 specification
-	 * @param pageNodeValidator (required) The actual validator that reacts to tags found and checks them
+	 * @param pageNodeValidator (required) The actual validator that reacts to tags found and checks them,
+	 * used unless another one is passed to {@link #validateExpressionsInView(URL, String, PageNodeListener)}
 	 */
 	public AbstractValidatingFaceletsParser(File webappRoot, PageNodeListener pageNodeValidator) {
 		this.webappRoot = assertNotNull(webappRoot, "webappRoot", File.class);
 		this.pageNodeValidator = assertNotNull(pageNodeValidator, "pageNodeValidator", PageNodeListener.class);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 *     Registering the same taglibs again after the first view has been compiled is ignored, registering
+	 * different ones fails with IllegalStateException.
+	 * </p>
+	 */
 	@Override
-	public void registerTaglibs(Collection<File> taglibs) {
+	public synchronized void registerTaglibs(Collection<File> taglibs) {
+		assertNotNull(taglibs, "taglibs", Collection.class);
+		if (taglibsFrozen) {
+			if (!new HashSet<File>(this.taglibs).equals(new HashSet<File>(taglibs))) {
+				throw new IllegalStateException("Cannot change the registered taglibs once the compiler has been "
+						+ "created; registered: " + this.taglibs + ", new: " + taglibs);
+			}
+			return;
+		}
 		this.taglibs = taglibs;
 	}
+
+	/**
+	 * Key under which to cache the parsed taglib so that it is re-parsed only if it changes.
+	 * @param taglib (required) the taglib.xml file
+	 * @return the absolute path of the file and its checksum
+	 */
+	protected static String toTaglibCacheKey(File taglib) {
+		return taglib.getAbsolutePath() + "@" + Checksums.checksumOf(taglib);
+	}
+
+	/**
+	 * Get the taglibs to register with the compiler, preventing any further changes to them.
+	 * @return the registered taglibs (never null)
+	 */
+	protected synchronized Collection<File> freezeTaglibs() {
+		taglibsFrozen = true;
+		return Collections.unmodifiableCollection(taglibs);
+	}
+
+	@Override
+	public void validateExpressionsInView(URL xhtmlUrl, String shortName) throws IOException {
+		validateExpressionsInView(xhtmlUrl, shortName, pageNodeValidator);
+	}
+
+	@Override
+	public void validateExpressionsInView(URL xhtmlUrl, String shortName, PageNodeListener pageNodeListener)
+			throws IOException {
+		assertNotNull(pageNodeListener, "pageNodeListener", PageNodeListener.class);
+		bindFacesContextToCurrentThread();
+
+		if (!compilerInitialized) {
+			// The first compilation lazily initializes the compiler and its tag libraries, which isn't thread-safe
+			synchronized (compilerInitializationLock) {
+				if (!compilerInitialized) {
+					compile(xhtmlUrl, shortName, pageNodeListener);
+					compilerInitialized = true;
+					return;
+				}
+			}
+		}
+		compile(xhtmlUrl, shortName, pageNodeListener);
+	}
+
+	/**
+	 * Make sure that the current thread has a FacesContext for the compiler to use, based on the
+	 * configuration created when constructing the parser. Called before every compilation.
+	 */
+	protected abstract void bindFacesContextToCurrentThread();
+
+	/**
+	 * Compile the view, notifying the given listener about its tags.
+	 * @param xhtmlUrl (required) URL of the XHTML view file to check
+	 * @param shortName (required) Short name of the XHTML file, usually webroot-relative
+	 * @param pageNodeListener (required) the listener to notify
+	 * @throws IOException Problem accessing the file to be parsed
+	 */
+	protected abstract void compile(URL xhtmlUrl, String shortName, PageNodeListener pageNodeListener)
+			throws IOException;
 }
@@ -17,6 +17,8 @@
 
 package net.jakubholy.jeeutils.jsfelcheck.expressionfinder.impl.facelets;
 
+import net.jakubholy.jeeutils.jsfelcheck.expressionfinder.pagenodes.PageNodeListener;
+
 import java.io.File;
 import java.io.IOException;
 import java.net.URL;
@@ -35,6 +37,17 @@ public interface JsfElValidatingFaceletsParser {
 	 */
 	void validateExpressionsInView(URL xhtmlUrl, String shortName) throws IOException;
 
+	/**
+	 * Validate the view, notifying the given listener instead of the parser's own one so that a single parser
+	 * may be shared by multiple threads, each with its own listener.
+	 * @param xhtmlUrl (required) URL of the XHTML view file to check
+	 * @param shortName (required) Short name of the XHTML file, usually webroot-relative - for location reporting etc.
+	 * @param pageNodeListener (required) The validator that reacts to the tags found in this view
+	 * @throws IOException Problem accessing the file to be parsed
+	 */
+	void validateExpressionsInView(URL xhtmlUrl, String shortName, PageNodeListener pageNodeListener)
+			throws IOException;
+
 	/**
 	 * Register custom taglib files with the parser.
 	 * @param taglibs (required) (may be mepty)
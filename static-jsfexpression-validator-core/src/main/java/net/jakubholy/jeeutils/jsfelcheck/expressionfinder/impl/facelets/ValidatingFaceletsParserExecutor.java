@@ -17,11 +17,15 @@
 
 package net.jakubholy.jeeutils.jsfelcheck.expressionfinder.impl.facelets;
 
+import net.jakubholy.jeeutils.jsfelcheck.expressionfinder.pagenodes.PageNodeListener;
+import net.jakubholy.jeeutils.jsfelcheck.util.MetricsRegistry;
 import org.apache.commons.io.FileUtils;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.logging.Logger;
 
 import static net.jakubholy.jeeutils.jsfelcheck.util.ArgumentAssert.assertNotNull;
@@ -38,6 +42,8 @@ public class ValidatingFaceletsParserExecutor {
 	private final File webappRoot;
 
 	private final JsfElValidatingFaceletsParser validatingParser;
+	private MetricsRegistry metricsRegistry = null;
+	private PageNodeListener pageNodeListener = null;
 
 	/**
 	 * @param viewFilesRoot (required) Where to search for .xhtml files to validate
@@ -51,12 +57,28 @@ public class ValidatingFaceletsParserExecutor {
 	}
 
 	public void execute() {
+		execute(findViewFiles(viewFilesRoot));
+	}
+
+	/**
+	 * Validate only the given views, f.ex. a subset of all views processed in parallel by multiple executors.
+	 * @param views (required) the view files to validate, usually obtained via {@link #findViewFiles(File)}
+	 */
+	public void execute(Collection<File> views) {
+		long taglibRegistrationStart = System.nanoTime();
 		validatingParser.registerTaglibs(findTaglibFiles());
-		
-		Collection<File> allViews = findViewFiles();
-		for (File view : allViews) {
+		if (metricsRegistry != null) {
+			metricsRegistry.stopTimer(MetricsRegistry.TAGLIB_REGISTRATION, taglibRegistrationStart);
+		}
+
+		for (File view : views) {
 			try {
-				validatingParser.validateExpressionsInView(view.toURI().toURL(), toRootRelativePath(view));
+				if (pageNodeListener == null) {
+					validatingParser.validateExpressionsInView(view.toURI().toURL(), toRootRelativePath(view));
+				} else {
+					validatingParser.validateExpressionsInView(view.toURI().toURL(), toRootRelativePath(view),
+							pageNodeListener);
+				}
 			} catch (IOException e) {
 				// Highly unlikely but let's not ignore it anyway
 				throw new RuntimeException("Failed to access the view file " + view.getAbsolutePath(), e);
@@ -64,15 +86,41 @@ public class ValidatingFaceletsParserExecutor {
 		}
 	}
 
+	/**
+	 * Record the time of registering taglibs in the given registry.
+	 * @param metricsRegistry (optional) null not to record anything
+	 * @return this
+	 */
+	public ValidatingFaceletsParserExecutor withMetricsRegistry(MetricsRegistry metricsRegistry) {
+		this.metricsRegistry = metricsRegistry;
+		return this;
+	}
+
+	/**
+	 * Notify the given listener instead of the parser's own one, f.ex. when the parser is shared by multiple
+	 * executors running in parallel.
+	 * @param pageNodeListener (optional) null to use the parser's listener
+	 * @return this
+	 */
+	public ValidatingFaceletsParserExecutor withPageNodeListener(PageNodeListener pageNodeListener) {
+		this.pageNodeListener = pageNodeListener;
+		return this;
+	}
+
 	private String toRootRelativePath(File view) {
 		return view.getAbsolutePath().substring(
 				viewFilesRoot.getAbsolutePath().length()
 		);
 	}
 
+	/**
+	 * Find all the view files under the given directory, in the order they are processed.
+	 * @param viewFilesRoot (required) where to search for .xhtml files
+	 * @return the views found (never null)
+	 */
 	@SuppressWarnings("unchecked")
-	private Collection<File> findViewFiles() {
-        return FileUtils.listFiles(viewFilesRoot, new String[] {"xhtml"}, true);
+	public static List<File> findViewFiles(File viewFilesRoot) {
+        return new ArrayList<File>(FileUtils.listFiles(viewFilesRoot, new String[] {"xhtml"}, true));
     }
 
 	@SuppressWarnings("unchecked")
@@ -30,9 +30,16 @@ public class PublishablePageNode extends PageNode {
 	private static final class FakeFaceletHandler {}
 
 	private boolean publishedToListener = false;
+	private final String namespaceUrl;
 
 	public PublishablePageNode(TagRepresentation tag, Map<String, String> attributeMap) {
 		super(tag.getQName(), FakeFaceletHandler.class, tag.getLocationLine(), attributeMap);
+		this.namespaceUrl = tag.getNamespaceUrl();
+	}
+
+	/** The resolved namespace of the tag, see {@link TagRepresentation#getNamespaceUrl()}. */
+	public String getNamespaceUrl() {
+		return namespaceUrl;
 	}
 
 	public boolean isPublishedToListener() {
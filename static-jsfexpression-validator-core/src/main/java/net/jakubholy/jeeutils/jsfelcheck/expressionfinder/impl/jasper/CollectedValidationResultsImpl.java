@@ -36,9 +36,13 @@ public class CollectedValidationResultsImpl extends MultipleValidationResults im
     private final List<MissingLocalVariableTypeDeclarationException> variablesNeedingTypeDeclaration =
         new LinkedList<MissingLocalVariableTypeDeclarationException>();
     private String currentJspFile;
+    private boolean preserveDescriptors = false;
 
     @Override
     protected void postAddSingleResult(ValidationResult singleResult) {
+        if (preserveDescriptors) {
+            return;
+        }
         JsfExpressionDescriptor descriptor = singleResult.getExpressionDescriptor();
         if (descriptor == null) {
             descriptor = new JsfExpressionDescriptor(null);
@@ -60,6 +64,33 @@ public class CollectedValidationResultsImpl extends MultipleValidationResults im
 
     }
 
+    /**
+     * Add all results collected by another instance, f.ex. for another set of views, keeping their
+     * file and line information intact (contrary to {@link #add(MultipleValidationResults)}). Results that the other
+     * instance has not retained are counted.
+     * @param otherResults (required) the results to merge into this
+     */
+    public void addAllFrom(CollectedValidationResultsImpl otherResults) {
+        addAllPreservingDescriptors(otherResults);
+        addUnretainedCountsOf(otherResults);
+        variablesNeedingTypeDeclaration.addAll(otherResults.getVariablesNeedingTypeDeclaration());
+    }
+
+    /**
+     * Add the results keeping their file and line information intact, contrary to {@link #addAll(Collection)}.
+     * @param allResults (required) the results to add
+     */
+    public void addAllPreservingDescriptors(Iterable<ValidationResult> allResults) {
+        preserveDescriptors = true;
+        try {
+            for (ValidationResult singleResult : allResults) {
+                add(singleResult);
+            }
+        } finally {
+            preserveDescriptors = false;
+        }
+    }
+
     /**
      * Report a local variable for which there was no type declaration.
      * @param e (required)
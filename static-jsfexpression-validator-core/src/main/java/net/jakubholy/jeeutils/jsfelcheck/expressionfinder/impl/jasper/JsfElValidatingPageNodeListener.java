@@ -24,9 +24,12 @@ import net.jakubholy.jeeutils.jsfelcheck.expressionfinder.pagenodes.PageNode;
 import net.jakubholy.jeeutils.jsfelcheck.expressionfinder.pagenodes.PageNodeListener;
 import net.jakubholy.jeeutils.jsfelcheck.expressionfinder.variables.ContextVariableRegistry;
 import net.jakubholy.jeeutils.jsfelcheck.expressionfinder.variables.MissingLocalVariableTypeDeclarationException; // SUPPRESS CHECKSTYLE
+import net.jakubholy.jeeutils.jsfelcheck.util.MetricsRegistry;
 import net.jakubholy.jeeutils.jsfelcheck.validator.JsfElValidator;
 import net.jakubholy.jeeutils.jsfelcheck.validator.exception.InternalValidatorFailureException;
 import net.jakubholy.jeeutils.jsfelcheck.validator.results.JsfExpressionDescriptor;
+import net.jakubholy.jeeutils.jsfelcheck.validator.results.ValidationResult;
+import net.jakubholy.jeeutils.jsfelcheck.validator.results.ValidationResultSink;
 
 /**
  * The main processing class for the Jasper-based implementation: retrieves information about
@@ -43,6 +46,15 @@ public class JsfElValidatingPageNodeListener implements PageNodeListener {
     private Stack<String> jspFileInclusionStack = new Stack<String>();
     private String currentJspFile;
 
+    private ValidatedViewListener validatedViewListener;
+    private ValidationResultSink resultSink;
+    private MetricsRegistry metricsRegistry;
+    private String currentTimedView;
+    private long currentViewStart;
+    private String currentView;
+    private CollectedValidationResultsImpl currentViewResults;
+    private ViewDependencyTracker dependencyTracker = new ViewDependencyTracker("");
+
     /**
      * New listener using the given validator and resolving local variables via the given registry.
      * @param expressionValidator (required)
@@ -61,6 +73,10 @@ public class JsfElValidatingPageNodeListener implements PageNodeListener {
                 + ", class: " + jspTag.getTagHandlerClass().getName()
                 + ", attrs: " + jspTag.getAttributes());
 
+        if (currentViewResults != null) {
+            dependencyTracker.nodeEntered(jspTag);
+        }
+
         try {
 
             AttributesValidationResult resolvedJsfExpressions = nodeValidator.validateJsfExpressions(
@@ -69,12 +85,26 @@ public class JsfElValidatingPageNodeListener implements PageNodeListener {
             validationResults.addAllFromTagLineNr(
                 jspTag.getLineNumber()
                 , resolvedJsfExpressions.getAllResults());
+            if (currentViewResults != null) {
+                currentViewResults.addAllPreservingDescriptors(resolvedJsfExpressions.getAllResults());
+            }
+            if (resultSink != null) {
+                for (ValidationResult result : resolvedJsfExpressions.getAllResults()) {
+                    resultSink.resultProduced(result);
+                }
+            }
 
             contextVarRegistry.extractContextVariables(jspTag, resolvedJsfExpressions);
         } catch (MissingLocalVariableTypeDeclarationException e) {
             e.setTagLineNumber(jspTag.getLineNumber());
             e.setJspFile(currentJspFile);
             validationResults.reportContextVariableNeedingTypeDeclaration(e);
+            if (currentViewResults != null) {
+                currentViewResults.reportContextVariableNeedingTypeDeclaration(e);
+            }
+            if (resultSink != null) {
+                resultSink.variableNeedingTypeDeclarationFound(e);
+            }
         } catch (InternalValidatorFailureException e) {
             e.setExpressionDescriptor(new JsfExpressionDescriptor(jspTag.getLineNumber(), currentJspFile));
             throw e;
@@ -89,10 +119,75 @@ public class JsfElValidatingPageNodeListener implements PageNodeListener {
 
     /** {@inheritDoc} */
     public void fileEntered(String newJspFile) {
+        finishCurrentView();
+        if (metricsRegistry != null) {
+            currentTimedView = newJspFile;
+            currentViewStart = metricsRegistry.startTimer();
+        }
+        currentView = newJspFile;
+        if (validatedViewListener != null) {
+            currentViewResults = new CollectedValidationResultsImpl();
+            dependencyTracker.viewEntered(newJspFile);
+        }
         setCurrentJspFile(newJspFile);
+        contextVarRegistry.clearContext();
         LOG.info(">>> STARTED FOR '" + newJspFile + " #############################################");
     }
 
+    /**
+     * Notify the {@link ValidatedViewListener}, if any, about the view processed last. Call this once all the files
+     * have been processed; the previous views are finished automatically when a new file is entered.
+     */
+    public void finishCurrentView() {
+        if (metricsRegistry != null && currentTimedView != null) {
+            metricsRegistry.recordView(currentTimedView, System.nanoTime() - currentViewStart);
+        }
+        currentTimedView = null;
+        if (currentView != null && currentViewResults != null) {
+            validatedViewListener.viewValidated(
+                    currentView, currentViewResults, dependencyTracker.getDependencies());
+        }
+        currentView = null;
+        currentViewResults = null;
+    }
+
+    /**
+     * Register a listener to be notified about the results of each view.
+     * Must be set before the first file is entered.
+     * @param validatedViewListener (optional) null to unregister
+     */
+    public void setValidatedViewListener(ValidatedViewListener validatedViewListener) {
+        this.validatedViewListener = validatedViewListener;
+    }
+
+    /**
+     * Register a sink to push all results to as soon as they are produced.
+     * @param resultSink (optional) null to unregister
+     */
+    public void setValidationResultSink(ValidationResultSink resultSink) {
+        this.resultSink = resultSink;
+    }
+
+    /**
+     * Record the time of processing each view and validating each expression in the given registry.
+     * Must be set before the first file is entered.
+     * @param metricsRegistry (optional) null not to record anything
+     */
+    public void setMetricsRegistry(MetricsRegistry metricsRegistry) {
+        this.metricsRegistry = metricsRegistry;
+        this.nodeValidator.setMetricsRegistry(metricsRegistry);
+    }
+
+    /**
+     * Where the views are relative to the context (webapp) root, needed to resolve the dependencies of views
+     * reported to the {@link ValidatedViewListener}. Must be set before the first file is entered.
+     * @param viewRootContextPath (required) ex.: "" (the default) if the views are directly in the context root
+     * or <code>/pages</code>
+     */
+    public void setViewRootContextPath(String viewRootContextPath) {
+        this.dependencyTracker = new ViewDependencyTracker(viewRootContextPath);
+    }
+
     public CollectedValidationResultsImpl getValidationResults() {
         return validationResults;
     }
@@ -101,11 +196,13 @@ public class JsfElValidatingPageNodeListener implements PageNodeListener {
     public void includedFileEntered(String includedFileName) {
         jspFileInclusionStack.push(currentJspFile);
         setCurrentJspFile(includedFileName);
+        dependencyTracker.includedFileEntered(includedFileName);
     }
 
     /** {@inheritDoc} */
     public void includedFileLeft(String includedFileName) {
         setCurrentJspFile(jspFileInclusionStack.pop());
+        dependencyTracker.includedFileLeft();
     }
 
     private void setCurrentJspFile(String currentJspFile) {
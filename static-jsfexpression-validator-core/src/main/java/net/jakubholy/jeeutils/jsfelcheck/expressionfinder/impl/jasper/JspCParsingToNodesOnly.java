@@ -17,14 +17,155 @@
 
 package net.jakubholy.jeeutils.jsfelcheck.expressionfinder.impl.jasper;
 
+import net.jakubholy.jeeutils.jsfelcheck.expressionfinder.pagenodes.PageNodeListener;
+import net.jakubholy.jeeutils.jsfelcheck.util.Checksums;
+import net.jakubholy.jeeutils.jsfelcheck.util.LruCache;
+import org.apache.commons.io.FileUtils;
 import org.apache.jasper.JspC;
 import org.apache.jasper.compiler.OnlyReadingJspPseudoCompiler;
 
+import javax.servlet.jsp.tagext.TagLibraryInfo;
+import java.io.File;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+
+import static net.jakubholy.jeeutils.jsfelcheck.util.ArgumentAssert.assertNotNull;
+
 /**
  * Extends JspC to use the compiler of our choice; Jasper version 6.0.29.
+ * <p>
+ *     Each instance carries the listener to notify of the nodes in the pages it processes; the compiler
+ * finds it via its compilation context's options, which is this JspC. Multiple instances can thus
+ * process different pages concurrently.
+ * </p>
+ * <p>
+ *     The tag libraries parsed by Jasper are shared by all instances processing the same webapp with the same
+ * context class loader in the JVM, f.ex. parallel workers or repeated runs, as long as the webapp's TLDs and
+ * jars do not change. The parsed TagLibraryInfos reference the JspC, its compilation context and class loader
+ * that parsed them so they are only softly reachable from the cache: they live at most until the JVM runs
+ * low on memory or until they are evicted by taglibs of 16 newer webapp/class loader combinations, and they
+ * never keep a class loader alive longer than that.
+ * </p>
  */
 public class JspCParsingToNodesOnly extends JspC {
 
+    /**
+     * Jasper's caches of parsed tag libraries (taglib URI -> TagLibraryInfo), keyed by the webapp root,
+     * a fingerprint of its TLDs and jars and the identity of the context class loader.
+     */
+    private static final LruCache<String, ParsedTaglibs> PARSED_TAGLIBS =
+            new LruCache<String, ParsedTaglibs>("parsed JSP taglibs", 16);
+
+    private final PageNodeListener pageNodeListener;
+    private File webappRoot;
+    private Map<String, TagLibraryInfo> parsedTaglibs;
+
+    /**
+     * @param pageNodeListener (required) the listener to notify of nodes (tags) found in the pages
+     */
+    public JspCParsingToNodesOnly(PageNodeListener pageNodeListener) {
+        this.pageNodeListener = assertNotNull(pageNodeListener, "pageNodeListener", PageNodeListener.class);
+    }
+
+    /**
+     * The listener to notify of nodes (tags) found in the pages processed by this JspC.
+     * @return the listener (never null)
+     */
+    public PageNodeListener getPageNodeListener() {
+        return pageNodeListener;
+    }
+
+    @Override
+    public void setUriroot(String uriRoot) {
+        super.setUriroot(uriRoot);
+        this.webappRoot = (uriRoot == null)? null : new File(uriRoot);
+        this.parsedTaglibs = null;
+    }
+
+    /**
+     * {@inheritDoc}
+     * Overriden to share the taglibs parsed by Jasper with other instances processing the same,
+     * unchanged webapp with the same context class loader (that JspC uses as the parent of its own one).
+     */
+    @Override
+    public synchronized Map<String, TagLibraryInfo> getCache() {
+        if (parsedTaglibs == null) {
+            if (webappRoot == null) {
+                return super.getCache();
+            }
+            ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+            String cacheKey = webappRoot.getAbsolutePath() + "@" + fingerprintTaglibsOf(webappRoot)
+                    + "@" + System.identityHashCode(contextClassLoader);
+            synchronized (PARSED_TAGLIBS) {
+                ParsedTaglibs cached = PARSED_TAGLIBS.get(cacheKey);
+                parsedTaglibs = (cached == null)? null : cached.getIfParsedWith(contextClassLoader);
+                if (parsedTaglibs == null) {
+                    parsedTaglibs = Collections.synchronizedMap(new HashMap<String, TagLibraryInfo>());
+                    PARSED_TAGLIBS.put(cacheKey, new ParsedTaglibs(parsedTaglibs, contextClassLoader));
+                }
+            }
+        }
+        return parsedTaglibs;
+    }
+
+    /**
+     * Fingerprint of the webapp's TLDs and jars (that may contain TLDs); the TLDs found on the class path
+     * do not change during the JVM's life.
+     */
+    @SuppressWarnings("unchecked")
+    private static String fingerprintTaglibsOf(File webappRoot) {
+        File webInfDir = new File(webappRoot, "WEB-INF");
+        if (!webInfDir.isDirectory()) {
+            return "";
+        }
+        StringBuilder fingerprint = new StringBuilder();
+        Collection<File> files = new TreeSet<File>(
+                FileUtils.listFiles(webInfDir, new String[] {"tld", "tag", "tagx", "jar"}, true));
+        for (File file : files) {
+            fingerprint.append(file.getPath()).append('=');
+            if (file.getName().endsWith(".jar")) {
+                // Checksumming large jars would cost more than parsing the TLDs they contain
+                fingerprint.append(file.length()).append('/').append(file.lastModified());
+            } else {
+                fingerprint.append(Checksums.checksumOf(file));
+            }
+            fingerprint.append('\n');
+        }
+        return Checksums.checksumOf(fingerprint.toString());
+    }
+
+    /**
+     * The cache of parsed JSP taglibs shared by all instances, for reporting its statistics.
+     * @return the cache (never null)
+     */
+    public static LruCache<?, ?> getParsedTaglibsCache() {
+        return PARSED_TAGLIBS;
+    }
+
+    /**
+     * Taglibs parsed with a context class loader, held softly so that the cache never pins the class loaders
+     * the TagLibraryInfos reference; the loader itself is held weakly only to tell identity hash collisions apart.
+     */
+    private static final class ParsedTaglibs extends SoftReference<Map<String, TagLibraryInfo>> {
+
+        private final WeakReference<ClassLoader> contextClassLoader;
+
+        ParsedTaglibs(Map<String, TagLibraryInfo> taglibs, ClassLoader contextClassLoader) {
+            super(taglibs);
+            this.contextClassLoader = new WeakReference<ClassLoader>(contextClassLoader);
+        }
+
+        /** The taglibs, unless collected or parsed with another class loader. */
+        Map<String, TagLibraryInfo> getIfParsedWith(ClassLoader classLoader) {
+            return (contextClassLoader.get() == classLoader)? get() : null;
+        }
+    }
+
     /**
      * {@inheritDoc}
      * Overriden to return the class of ours (default = null => JdtCompiler.
@@ -18,6 +18,7 @@
 package net.jakubholy.jeeutils.jsfelcheck.expressionfinder.impl.jasper;
 
 import net.jakubholy.jeeutils.jsfelcheck.util.BeanPropertyUtils;
+import net.jakubholy.jeeutils.jsfelcheck.util.MetricsRegistry;
 import net.jakubholy.jeeutils.jsfelcheck.validator.AttributeInfo;
 import net.jakubholy.jeeutils.jsfelcheck.validator.JsfElValidator;
 import net.jakubholy.jeeutils.jsfelcheck.validator.results.JsfExpressionDescriptor;
@@ -36,6 +37,7 @@ public class PageNodeAttributesElValidator {
     private static final String IMMEDIATE_EVALUATION_EL_START_MARKER = "${";
 
     private final JsfElValidator expressionValidator;
+    private MetricsRegistry metricsRegistry = null;
 
     /**
      * New node helper using the given EL validator.
@@ -88,7 +90,14 @@ public class PageNodeAttributesElValidator {
 
             String elExpression = jsfElAttribute.getValue();
 
-	        ValidationResult result = expressionValidator.validateElExpression(elExpression, attributeInfo);
+	        ValidationResult result;
+	        if (metricsRegistry == null) {
+		        result = expressionValidator.validateElExpression(elExpression, attributeInfo);
+	        } else {
+		        long start = metricsRegistry.startTimer();
+		        result = expressionValidator.validateElExpression(elExpression, attributeInfo);
+		        metricsRegistry.stopTimer(MetricsRegistry.EXPRESSION_VALIDATION, start);
+	        }
 
             result.setExpressionDescriptor(new JsfExpressionDescriptor(elExpression));
 
@@ -100,6 +109,14 @@ public class PageNodeAttributesElValidator {
 
     }
 
+	/**
+	 * Record the time of validating each expression in the given registry.
+	 * @param metricsRegistry (optional) null not to record anything
+	 */
+	public void setMetricsRegistry(MetricsRegistry metricsRegistry) {
+		this.metricsRegistry = metricsRegistry;
+	}
+
 	private Class<?> determineAttributeType(String attributeName, BeanPropertyUtils tagHandlerAttributes) {
 		final Class<?> defaultType = String.class;
 		final Class<?> typeFromAttributes = tagHandlerAttributes.getPropertyTypeOf(attributeName);
@@ -0,0 +1,38 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.jakubholy.jeeutils.jsfelcheck.expressionfinder.impl.jasper;
+
+import java.util.Collection;
+
+/**
+ * Notified by {@link JsfElValidatingPageNodeListener} with the results of each view
+ * (including its statically included files) once the view has been completely processed.
+ */
+public interface ValidatedViewListener {
+
+    /**
+     * The view has been validated.
+     * @param view (required) the name of the view as reported by the parser, usually root-relative
+     * @param viewResults (required) results of only this view
+     * @param viewDependencies (required) files the view includes or uses as a template or a composite component,
+     * relative to the context root (ex.: <code>/WEB-INF/templates/main.xhtml</code>); may contain files that do
+     * not exist
+     */
+    void viewValidated(String view, CollectedValidationResultsImpl viewResults, Collection<String> viewDependencies);
+
+}
@@ -0,0 +1,182 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.jakubholy.jeeutils.jsfelcheck.expressionfinder.impl.jasper;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.Set;
+import java.util.Stack;
+
+import net.jakubholy.jeeutils.jsfelcheck.expressionfinder.impl.facelets.compiler.PublishablePageNode;
+import net.jakubholy.jeeutils.jsfelcheck.expressionfinder.pagenodes.PageNode;
+
+/**
+ * Records the files the current view depends on: JSP static includes and Facelets includes, templates
+ * and composite components. The dependencies are paths relative to the context (webapp) root,
+ * with forward slashes and a leading slash, f.ex. <code>/WEB-INF/templates/main.xhtml</code>.
+ * <p>
+ *     References that cannot be resolved statically (containing an EL expression) are ignored.
+ * </p>
+ */
+class ViewDependencyTracker {
+
+    private static final String[] FACELETS_NAMESPACES = {
+            "http://java.sun.com/jsf/facelets", "http://xmlns.jcp.org/jsf/facelets"};
+    private static final String[] COMPOSITE_LIBRARY_NAMESPACE_PREFIXES = {
+            "http://java.sun.com/jsf/composite/", "http://xmlns.jcp.org/jsf/composite/"};
+
+    private final String viewRootContextPath;
+    private final Stack<String> currentFiles = new Stack<String>();
+    private final Set<String> dependencies = new LinkedHashSet<String>();
+
+    /**
+     * @param viewRootContextPath (required) path of the directory with the views relative to the context root,
+     * ex.: "" if the views are directly in the context root
+     */
+    ViewDependencyTracker(String viewRootContextPath) {
+        this.viewRootContextPath = normalizePath(viewRootContextPath);
+    }
+
+    /**
+     * Start tracking a new view, forgetting the dependencies of the previous one.
+     * @param view (required) path of the view relative to the view root
+     */
+    void viewEntered(String view) {
+        currentFiles.clear();
+        dependencies.clear();
+        currentFiles.push(normalizePath(viewRootContextPath + "/" + view.replace('\\', '/')));
+    }
+
+    /**
+     * A file has been statically included into the current one.
+     * @param includedFileName (required) the path as written in the include, relative or context-root-relative
+     */
+    void includedFileEntered(String includedFileName) {
+        String includedFile = resolve(includedFileName);
+        if (includedFile != null) {
+            dependencies.add(includedFile);
+        }
+        currentFiles.push((includedFile == null)? currentFile() : includedFile);
+    }
+
+    /** Inverse of {@link #includedFileEntered(String)}. */
+    void includedFileLeft() {
+        if (currentFiles.size() > 1) {
+            currentFiles.pop();
+        }
+    }
+
+    /**
+     * Record the file the tag refers to if it is a Facelets include, template or composite component.
+     * @param tag (required)
+     */
+    void nodeEntered(PageNode tag) {
+        if (!(tag instanceof PublishablePageNode) || currentFiles.isEmpty()) {
+            return;
+        }
+        String namespace = ((PublishablePageNode) tag).getNamespaceUrl();
+        if (namespace == null) {
+            return;
+        }
+
+        String localName = tag.getQName().substring(tag.getQName().indexOf(':') + 1);
+        String referencedFile = null;
+        if (startsWithAny(namespace, FACELETS_NAMESPACES, true)) {
+            referencedFile = getReferencedFaceletsFile(localName, tag.getAttributes());
+        } else if (startsWithAny(namespace, COMPOSITE_LIBRARY_NAMESPACE_PREFIXES, false)) {
+            String library = namespace.substring(namespace.indexOf("/composite/") + "/composite/".length());
+            referencedFile = "/resources/" + library + "/" + localName + ".xhtml";
+        }
+
+        if (referencedFile != null) {
+            String resolvedFile = resolve(referencedFile);
+            if (resolvedFile != null) {
+                dependencies.add(resolvedFile);
+            }
+        }
+    }
+
+    /** The dependencies of the current view found so far. */
+    Collection<String> getDependencies() {
+        return new LinkedList<String>(dependencies);
+    }
+
+    private static String getReferencedFaceletsFile(String localName, Map<String, String> attributes) {
+        if ("include".equals(localName)) {
+            return attributes.get("src");
+        } else if ("composition".equals(localName) || "decorate".equals(localName)) {
+            return attributes.get("template");
+        }
+        return null;
+    }
+
+    private static boolean startsWithAny(String namespace, String[] candidates, boolean exactMatch) {
+        for (String candidate : candidates) {
+            if (exactMatch? namespace.equals(candidate) : namespace.startsWith(candidate)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String currentFile() {
+        return currentFiles.isEmpty()? "/" : currentFiles.peek();
+    }
+
+    /** Resolve the reference against the current file; null if it isn't a static path. */
+    private String resolve(String reference) {
+        if (reference == null || reference.trim().length() == 0
+                || reference.contains("#{") || reference.contains("${")) {
+            return null;
+        }
+        String path = reference.trim().replace('\\', '/');
+        if (!path.startsWith("/")) {
+            String currentFile = currentFile();
+            path = currentFile.substring(0, currentFile.lastIndexOf('/') + 1) + path;
+        }
+        return normalizePath(path);
+    }
+
+    /**
+     * Normalize the path to start with a slash and to contain no "." and ".." segments.
+     * @param path (required) f.ex. <code>dir/sub/../page.jsp</code>
+     * @return f.ex. <code>/dir/page.jsp</code>; "" for the root
+     */
+    static String normalizePath(String path) {
+        LinkedList<String> segments = new LinkedList<String>();
+        for (String segment : path.replace('\\', '/').split("/")) {
+            if (segment.length() == 0 || ".".equals(segment)) {
+                continue;
+            } else if ("..".equals(segment)) {
+                if (!segments.isEmpty()) {
+                    segments.removeLast();
+                }
+            } else {
+                segments.add(segment);
+            }
+        }
+
+        StringBuilder normalized = new StringBuilder();
+        for (String segment : segments) {
+            normalized.append('/').append(segment);
+        }
+        return normalized.toString();
+    }
+
+}
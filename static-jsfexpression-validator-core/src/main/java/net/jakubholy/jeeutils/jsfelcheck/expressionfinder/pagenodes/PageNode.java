@@ -18,13 +18,15 @@
 package net.jakubholy.jeeutils.jsfelcheck.expressionfinder.pagenodes;
 
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 /** Represents a tag in a JSP/JSF page, in other words a node of the page. */
 public class PageNode {
 
-    private static long counter = 0;
+    /** Shared by all analyzers in the JVM, which may be running concurrently, so that the ids are unique. */
+    private static final AtomicLong COUNTER = new AtomicLong();
 
-    private final long id = counter++;
+    private final long id = COUNTER.getAndIncrement();
     private final String qName;
     private final Map<String, String> attributes;
     private final Class<?> tagHandlerClass;
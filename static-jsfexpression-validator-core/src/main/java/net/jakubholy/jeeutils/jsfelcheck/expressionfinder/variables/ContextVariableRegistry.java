@@ -17,9 +17,9 @@
 
 package net.jakubholy.jeeutils.jsfelcheck.expressionfinder.variables;
 
+import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Hashtable;
-import java.util.LinkedList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -33,6 +33,16 @@ import net.jakubholy.jeeutils.jsfelcheck.validator.ElVariableResolver;
  *
  * It delegates the actual resolution to individual tag resolversIn respecting the current
  * context (scope) starting from the innermost context and proceeding upwards.
+ * <p>
+ * The variables in scope are kept as a symbol table: each name maps to a stack of its definitions, the innermost
+ * one shadowing the others, and an undo log records which tag has defined which name so that the definitions
+ * of a tag can be discarded when it is closed. Lookup, definition and discarding thus take constant time
+ * regardless of the nesting depth and the number of variables in scope.
+ * <p>
+ * Variables of {@link ScopedTagJsfVariableResolver}s may outlive their tag: they are then recorded as defined by
+ * the enclosing tag or kept until the end of the view, see {@link #clearContext()}.
+ * <p>
+ * The registry isn't thread-safe, use {@link #copyWithEmptyContext()} to get one for each thread.
  */
 public class ContextVariableRegistry implements ElVariableResolver {
 
@@ -42,28 +52,42 @@ public class ContextVariableRegistry implements ElVariableResolver {
      */
     public static class Error_YouMustDelcareTypeForThisVariable {}  // SUPPRESS CHECKSTYLE
 
-    private static class VariableContex {
+    private static final int INITIAL_NESTING_CAPACITY = 32;
+
+    /** Entry of the undo log: the tag has defined a variable of the name. */
+    private static class VariableDefinition {
         private final long tagId;
-        private final VariableInfo variable;
+        private final String variableName;
 
-        public VariableContex(long tagId, VariableInfo variableInfo) {
+        public VariableDefinition(long tagId, String variableName) {
             this.tagId = tagId;
-            this.variable = variableInfo;
+            this.variableName = variableName;
         }
 
         public long getTagId() {
             return tagId;
         }
 
-        public VariableInfo getVariable() {
-            return variable;
+        public String getVariableName() {
+            return variableName;
         }
 
     }
 
-    private final Map<String, TagJsfVariableResolver> resolvers = new Hashtable<String, TagJsfVariableResolver>();
+    private final Map<String, TagJsfVariableResolver> resolvers = new HashMap<String, TagJsfVariableResolver>();
+
+    /** Variable name -&gt; its definitions in scope, the innermost last. */
+    private final Map<String, List<VariableInfo>> variablesInScope = new HashMap<String, List<VariableInfo>>();
+
+    /** The definitions in the order they were made, the innermost last. */
+    private final List<VariableDefinition> undoLog = new ArrayList<VariableDefinition>();
 
-    private final List<VariableContex> contextStack = new LinkedList<VariableContex>();
+    /** Variables available until the end of the view, shadowed by those of any tag. */
+    private final Map<String, VariableInfo> pageVariables = new HashMap<String, VariableInfo>();
+
+    /** Ids of the tags entered but not left yet, the innermost last. */
+    private long[] openTagIds = new long[INITIAL_NESTING_CAPACITY];
+    private int openTags = 0;
 
     /**
      * Register a new "resolver," which is able to extract local variables from tags of the
@@ -79,16 +103,25 @@ public class ContextVariableRegistry implements ElVariableResolver {
         return this;
     }
 
+    /**
+     * Create a new registry with the same tag resolvers but an empty context, f.ex. to be able to
+     * process views concurrently in multiple threads (the context stack is specific to the view being processed).
+     * @return new registry (never null)
+     */
+    public ContextVariableRegistry copyWithEmptyContext() {
+        ContextVariableRegistry copy = new ContextVariableRegistry();
+        copy.resolvers.putAll(resolvers);
+        return copy;
+    }
+
     @Override
     public Class<?> resolveVariable(String name) {
-        for (VariableContex varContext : contextStack) {
-            VariableInfo contextVariable = varContext.getVariable();
-            if (contextVariable.getVariableName().equals(name)) {
-                return contextVariable.getDeclaredVariableType();
-            }
+        List<VariableInfo> definitions = variablesInScope.get(name);
+        if (definitions == null || definitions.isEmpty()) {
+            VariableInfo pageVariable = pageVariables.get(name);
+            return (pageVariable == null)? null : pageVariable.getDeclaredVariableType();
         }
-
-        return null;
+        return definitions.get(definitions.size() - 1).getDeclaredVariableType();
     }
 
     /**
@@ -102,19 +135,23 @@ public class ContextVariableRegistry implements ElVariableResolver {
     public void extractContextVariables(PageNode jspTag,
             AttributesValidationResult resolvedJsfExpressions) throws MissingLocalVariableTypeDeclarationException {
 
+        enterTag(jspTag);
         TagJsfVariableResolver resolverForTag = resolvers.get(jspTag.getQName());
 
         if (resolverForTag != null) {
+            ScopedTagJsfVariableResolver.Scope scope = (resolverForTag instanceof ScopedTagJsfVariableResolver)?
+                    ((ScopedTagJsfVariableResolver) resolverForTag).getVariableScope()
+                    : ScopedTagJsfVariableResolver.Scope.TAG_BODY;
             try {
                 VariableInfo variable = resolverForTag.extractContextVariables(
                         jspTag.getAttributes(), resolvedJsfExpressions);
                 // if not null => create new context & store it
-                storeNewContextVariable(jspTag, variable);
+                storeNewContextVariable(jspTag, variable, scope);
             } catch (MissingLocalVariableTypeDeclarationException e) {
                 // Add a fake context variable to make the error messages clearer
                 // (instead of unknown variable)
                 storeNewContextVariable(jspTag, new VariableInfo(
-                        e.getVariableName(), Error_YouMustDelcareTypeForThisVariable.class));
+                        e.getVariableName(), Error_YouMustDelcareTypeForThisVariable.class), scope);
                 throw e;
             } catch (RuntimeException e) {
 	            throw new RuntimeException("Failed to extract local variables from " + jspTag + ":" + e
@@ -123,10 +160,42 @@ public class ContextVariableRegistry implements ElVariableResolver {
         }
     }
 
-    private void storeNewContextVariable(PageNode jspTag, VariableInfo variable) {
-        if (variable != null) {
-            contextStack.add(0, new VariableContex(jspTag.getId(), variable));
+    private void enterTag(PageNode jspTag) {
+        if (openTags == openTagIds.length) {
+            long[] grownTagIds = new long[openTags * 2];
+            System.arraycopy(openTagIds, 0, grownTagIds, 0, openTags);
+            openTagIds = grownTagIds;
+        }
+        openTagIds[openTags++] = jspTag.getId();
+    }
+
+    private void storeNewContextVariable(PageNode jspTag, VariableInfo variable,
+            ScopedTagJsfVariableResolver.Scope scope) {
+        if (variable == null) {
+            return;
+        }
+        long scopeTagId = jspTag.getId();
+        if (scope == ScopedTagJsfVariableResolver.Scope.ENCLOSING_TAG) {
+            boolean hasParent = openTags >= 2 && openTagIds[openTags - 1] == jspTag.getId();
+            if (!hasParent) {
+                scope = ScopedTagJsfVariableResolver.Scope.PAGE;    // a top-level tag
+            } else {
+                scopeTagId = openTagIds[openTags - 2];
+            }
+        }
+        if (scope == ScopedTagJsfVariableResolver.Scope.PAGE) {
+            pageVariables.put(variable.getVariableName(), variable);
+            return;
         }
+
+        String name = variable.getVariableName();
+        List<VariableInfo> definitions = variablesInScope.get(name);
+        if (definitions == null) {
+            definitions = new ArrayList<VariableInfo>(2);
+            variablesInScope.put(name, definitions);
+        }
+        definitions.add(variable);
+        undoLog.add(new VariableDefinition(scopeTagId, name));
     }
 
     /**
@@ -134,10 +203,25 @@ public class ContextVariableRegistry implements ElVariableResolver {
      * @param jspTag (required)
      */
     public void discardContextFor(PageNode jspTag) {
-        if (!contextStack.isEmpty() && contextStack.get(0).getTagId() == jspTag.getId()) {
-            contextStack.remove(0);
+        while (!undoLog.isEmpty() && undoLog.get(undoLog.size() - 1).getTagId() == jspTag.getId()) {
+            VariableDefinition definition = undoLog.remove(undoLog.size() - 1);
+            List<VariableInfo> definitions = variablesInScope.get(definition.getVariableName());
+            definitions.remove(definitions.size() - 1);
+        }
+        if (openTags > 0 && openTagIds[openTags - 1] == jspTag.getId()) {
+            openTags--;
         }
+    }
 
+    /**
+     * Forget all the variables, including those available until the end of the view; called when a new view
+     * is started.
+     */
+    public void clearContext() {
+        variablesInScope.clear();
+        undoLog.clear();
+        pageVariables.clear();
+        openTags = 0;
     }
 
     /** *For testing only* */
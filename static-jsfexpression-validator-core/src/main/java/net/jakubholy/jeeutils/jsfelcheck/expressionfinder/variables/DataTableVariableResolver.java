@@ -17,8 +17,11 @@
 
 package net.jakubholy.jeeutils.jsfelcheck.expressionfinder.variables;
 
+import java.lang.reflect.Proxy;
+import java.lang.reflect.Type;
 import java.sql.ResultSet;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Hashtable;
 import java.util.Map;
 import java.util.logging.Level;
@@ -29,6 +32,7 @@ import java.util.regex.Pattern;
 import javax.faces.model.DataModel;
 
 import net.jakubholy.jeeutils.jsfelcheck.expressionfinder.impl.jasper.AttributesValidationResult;
+import net.jakubholy.jeeutils.jsfelcheck.util.GenericTypes;
 import net.jakubholy.jeeutils.jsfelcheck.validator.results.SuccessfulValidationResult;
 import net.jakubholy.jeeutils.jsfelcheck.validator.results.ValidationResult;
 
@@ -43,7 +47,8 @@ import net.jakubholy.jeeutils.jsfelcheck.validator.results.ValidationResult;
  * For anything but an array of a single value it is not possible to derive the type (for element type of
  * collections is not known or only at the compile time) and therefore the
  * type of the dataTable value's elements must be declared up-front
- * via {@link #declareTypeFor(String, Class)}.
+ * via {@link #declareTypeFor(String, Class)} - unless the validator knows the static, generic type of the value
+ * expression, such as <code>List&lt;Item&gt;</code> (see {@link SuccessfulValidationResult#getExpressionType()}).
  * <p>
  * We know that the name of the variable produced is stored in the
  * attribute 'var' and that its values will be set based on the value
@@ -63,7 +68,8 @@ public class DataTableVariableResolver implements TagJsfVariableResolver {
      * Ex: org.opentravel.www.OTA._2003._05.RailReservationTypeItinerary$$EnhancerByMockitoWithCGLIB$$1b4c48fc
      * $javax.faces.model.DataModel$$EnhancerByMockitoWithCGLIB$$773ae086
      */
-    private Pattern mockitoGeneratedClassRE = Pattern.compile("\\$?(.*?)\\$\\$EnhancerByMockitoWithCGLIB.*");;
+    private static final Pattern MOCKITO_GENERATED_CLASS_RE =
+            Pattern.compile("\\$?(.*?)\\$\\$EnhancerByMockitoWithCGLIB.*");
 
     /** New resolver. */
     public DataTableVariableResolver() {
@@ -88,6 +94,14 @@ public class DataTableVariableResolver implements TagJsfVariableResolver {
         return this;
     }
 
+    /**
+     * The types declared via {@link #declareTypeFor(String, Class)}.
+     * @return unmodifiable map of source EL expressions to types of elements
+     */
+    public Map<String, Class<?>> getDeclaredTypes() {
+        return Collections.unmodifiableMap(declaredTypes);
+    }
+
     /** {@inheritDoc} */
     public VariableInfo extractContextVariables(Map<String, String> tagAttributes,
             AttributesValidationResult resolvedJsfExpressions) throws MissingLocalVariableTypeDeclarationException {
@@ -144,6 +158,10 @@ public class DataTableVariableResolver implements TagJsfVariableResolver {
         Class<?> result = declaredVariableType;
 
         if (declaredVariableType == null && sourceModel instanceof SuccessfulValidationResult) {
+            result = elementClassOf(((SuccessfulValidationResult) sourceModel).getExpressionType());
+        }
+
+        if (result == null && sourceModel instanceof SuccessfulValidationResult) {
 
             Object sourceValue = ((SuccessfulValidationResult) sourceModel).getExpressionResult();
 
@@ -172,12 +190,33 @@ public class DataTableVariableResolver implements TagJsfVariableResolver {
         return result;
     }
 
+    /**
+     * The class of the elements of the source's static type, if known, f.ex. Item for <code>List&lt;Item&gt;</code>
+     * or <code>DataModel&lt;Item&gt;</code> (JSF 2).
+     * @param sourceType (optional) the static type of the source expression, see
+     * {@link SuccessfulValidationResult#getExpressionType()}
+     * @return the class or null if not known
+     */
+    static Class<?> elementClassOf(Type sourceType) {
+        Type elementType = GenericTypes.elementTypeOf(sourceType);
+        if (elementType == null) {
+            elementType = GenericTypes.typeArgumentOf(sourceType, DataModel.class, 0);
+        }
+        Class<?> elementClass = GenericTypes.rawClassOf(elementType);
+        return Object.class.equals(elementClass)? null : elementClass;
+    }
+
     /**
      * Avoid mocked classes like $javax.faces.model.DataModel$$EnhancerByMockitoWithCGLIB$$773ae086 by
      * extracting the original class name, in this case javax.faces.model.DataModel.
+     * Dynamic proxies (see {@link net.jakubholy.jeeutils.jsfelcheck.validator.LightweightFakeValueStrategy})
+     * are replaced with the interface they implement.
      */
-    private Class<?> stripMockitoSubclass(Class<?> sourceValueType) {
-        Matcher matcher = mockitoGeneratedClassRE.matcher(sourceValueType.getName());
+    static Class<?> stripMockitoSubclass(Class<?> sourceValueType) {
+        if (Proxy.isProxyClass(sourceValueType) && sourceValueType.getInterfaces().length > 0) {
+            return sourceValueType.getInterfaces()[0];
+        }
+        Matcher matcher = MOCKITO_GENERATED_CLASS_RE.matcher(sourceValueType.getName());
         if (matcher.find()) {
             String mockedClass = matcher.group(1);
             try {
@@ -197,11 +236,20 @@ public class DataTableVariableResolver implements TagJsfVariableResolver {
         return sourceValueType;
     }
 
-    private String normalizeExpression(String expression) {
+    /** Strip the #{..} or ${..} from the expression. */
+    static String normalizeExpression(String expression) {
         if (expression == null) {
             return null;
         }
-        return expression.replaceFirst("^\\s*#\\{\\s*", "").replaceAll("\\s*\\}\\s*$", "");
+        return expression.replaceFirst("^\\s*[#$]\\{\\s*", "").replaceAll("\\s*\\}\\s*$", "");
+    }
+
+    /**
+     * Whether the attribute value contains an EL expression (deferred #{..} or immediate ${..}) rather than
+     * being a literal. Only the deferred ones are validated and thus have a validation result.
+     */
+    static boolean containsElExpression(String attributeValue) {
+        return attributeValue != null && (attributeValue.contains("#{") || attributeValue.contains("${"));
     }
 
 }
@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.jakubholy.jeeutils.jsfelcheck.expressionfinder.variables;
+
+import java.util.Collection;
+import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.logging.Logger;
+
+import net.jakubholy.jeeutils.jsfelcheck.expressionfinder.impl.jasper.AttributesValidationResult;
+import net.jakubholy.jeeutils.jsfelcheck.validator.results.SuccessfulValidationResult;
+import net.jakubholy.jeeutils.jsfelcheck.validator.results.ValidationResult;
+
+/**
+ * Extract the <code>var</code> of JSTL <code>c:forEach</code>, its type being that of the elements of the
+ * <code>items</code>: inferred from the static, generic type of the items expression if the validator knows it
+ * (f.ex. Item for <code>List&lt;Item&gt;</code>), from the fake value of arrays, Strings (comma-separated tokens)
+ * and Maps (Map.Entry), or taken from the declared local variable types (see
+ * {@link net.jakubholy.jeeutils.jsfelcheck.config.LocalVariableConfiguration#withLocalVariable(String, Class)}).
+ * Literal items (comma-separated tokens) are Strings and without items the variable is the Integer index between
+ * begin and end. Immediate <code>${..}</code> items aren't validated and their type must thus be declared
+ * (as that of the same expression in <code>#{..}</code>).
+ */
+public class ForEachVariableResolver implements TagJsfVariableResolver {
+
+    private static final Logger LOG = Logger.getLogger(ForEachVariableResolver.class.getName());
+
+    private final Map<String, Class<?>> declaredTypes;
+
+    /**
+     * @param declaredTypes (required) source EL expression (without #{}) -&gt; the type of its elements; may be
+     * modified later, the current content is always used
+     */
+    public ForEachVariableResolver(Map<String, Class<?>> declaredTypes) {
+        if (declaredTypes == null) {
+            throw new IllegalArgumentException("declaredTypes: Map must not be null");
+        }
+        this.declaredTypes = declaredTypes;
+    }
+
+    /** {@inheritDoc} */
+    public VariableInfo extractContextVariables(Map<String, String> tagAttributes,
+            AttributesValidationResult resolvedJsfExpressions) throws MissingLocalVariableTypeDeclarationException {
+
+        String variableName = tagAttributes.get("var");
+        if (variableName == null) {
+            return null;
+        }
+        String itemsAttribute = tagAttributes.get("items");
+        if (itemsAttribute == null) {
+            return new VariableInfo(variableName, Integer.class);
+        } else if (!DataTableVariableResolver.containsElExpression(itemsAttribute)) {
+            return new VariableInfo(variableName, String.class);    // a literal such as "a,b,c"
+        }
+
+        String itemsExpression = DataTableVariableResolver.normalizeExpression(itemsAttribute);
+        Class<?> variableType = declaredTypes.get(itemsExpression);
+        ValidationResult items = resolvedJsfExpressions.get("items");
+        if (variableType == null && items instanceof SuccessfulValidationResult) {
+            variableType = DataTableVariableResolver.elementClassOf(
+                    ((SuccessfulValidationResult) items).getExpressionType());
+            if (variableType == null) {
+                variableType = elementClassOfValue(((SuccessfulValidationResult) items).getExpressionResult());
+            }
+        }
+
+        if (variableType == null) {
+            throw new MissingLocalVariableTypeDeclarationException(variableName, itemsExpression);
+        }
+        LOG.fine("Variable extracted: name=" + variableName + ", type " + variableType);
+        return new VariableInfo(variableName, variableType);
+    }
+
+    /** The type of the elements of the fake items value, if it can be found out. */
+    private Class<?> elementClassOfValue(Object items) {
+        if (items == null) {
+            return null;
+        }
+        Class<?> itemsClass = items.getClass();
+        if (itemsClass.isArray()) {
+            return itemsClass.getComponentType();
+        } else if (items instanceof String) {
+            return String.class;
+        } else if (items instanceof Map<?, ?>) {
+            return Map.Entry.class;
+        } else if (items instanceof Collection<?> || items instanceof Iterator<?> || items instanceof Enumeration<?>) {
+            return null;    // the element type is unknown at runtime
+        } else {
+            return DataTableVariableResolver.stripMockitoSubclass(itemsClass);    // c:forEach over a single object
+        }
+    }
+
+}
@@ -0,0 +1,42 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.jakubholy.jeeutils.jsfelcheck.expressionfinder.variables;
+
+/**
+ * Resolver for a tag whose variable isn't limited to the tag's body, such as <code>c:set</code>, whose variable
+ * is available in the rest of the page, or <code>ui:param</code>, whose variable is available in the rest of the
+ * enclosing <code>ui:composition</code> or <code>ui:include</code>.
+ */
+public interface ScopedTagJsfVariableResolver extends TagJsfVariableResolver {
+
+    /** Where is a variable defined by a tag available. */
+    enum Scope {
+        /** Inside the tag only (as with all plain {@link TagJsfVariableResolver}s). */
+        TAG_BODY,
+        /** In the rest of the tag's parent, i.e. in its following siblings and their content. */
+        ENCLOSING_TAG,
+        /** In the rest of the view (and its included files). */
+        PAGE
+    }
+
+    /**
+     * Where are the variables extracted by this resolver available.
+     * @return the scope (never null)
+     */
+    Scope getVariableScope();
+
+}
@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.jakubholy.jeeutils.jsfelcheck.expressionfinder.variables;
+
+import java.util.Map;
+import java.util.logging.Logger;
+
+import net.jakubholy.jeeutils.jsfelcheck.expressionfinder.impl.jasper.AttributesValidationResult;
+import net.jakubholy.jeeutils.jsfelcheck.util.GenericTypes;
+import net.jakubholy.jeeutils.jsfelcheck.validator.MockObjectOfUnknownType;
+import net.jakubholy.jeeutils.jsfelcheck.validator.results.SuccessfulValidationResult;
+import net.jakubholy.jeeutils.jsfelcheck.validator.results.ValidationResult;
+
+/**
+ * Extract a variable set to the value of the tag's <code>value</code> attribute, such as that of JSTL
+ * <code>c:set</code> or Facelets <code>ui:param</code>, its type being the declared type of the value expression
+ * (see {@link net.jakubholy.jeeutils.jsfelcheck.config.LocalVariableConfiguration#withLocalVariable(String, Class)})
+ * or the type the validator found for it. Literal values and the body content of c:set are Strings.
+ * Immediate <code>${..}</code> values aren't validated and their type must thus be declared.
+ * If the type of a validated value cannot be determined, f.ex. because the value expression itself is invalid,
+ * the variable is still defined, as {@link MockObjectOfUnknownType}, so that it isn't reported as unknown
+ * everywhere it is used.
+ */
+public class ValueVariableResolver implements ScopedTagJsfVariableResolver {
+
+    private static final Logger LOG = Logger.getLogger(ValueVariableResolver.class.getName());
+
+    private final String nameAttribute;
+    private final Scope variableScope;
+    private final Map<String, Class<?>> declaredTypes;
+
+    /**
+     * Resolver for JSTL <code>&lt;c:set var="name" value="..."/&gt;</code>, whose variable is available in the
+     * rest of the page. (c:set with target and property sets a property and defines no variable.)
+     * @param declaredTypes (required) see {@link #ValueVariableResolver(String, Scope, Map)}
+     * @return new resolver
+     */
+    public static ValueVariableResolver forJstlSet(Map<String, Class<?>> declaredTypes) {
+        return new ValueVariableResolver("var", Scope.PAGE, declaredTypes);
+    }
+
+    /**
+     * Resolver for Facelets <code>&lt;ui:param name="name" value="..."/&gt;</code>, whose variable is available
+     * in the rest of the enclosing tag such as ui:composition, ui:decorate or ui:include.
+     * @param declaredTypes (required) see {@link #ValueVariableResolver(String, Scope, Map)}
+     * @return new resolver
+     */
+    public static ValueVariableResolver forFaceletsParam(Map<String, Class<?>> declaredTypes) {
+        return new ValueVariableResolver("name", Scope.ENCLOSING_TAG, declaredTypes);
+    }
+
+    /**
+     * @param nameAttribute (required) the attribute holding the name of the variable
+     * @param variableScope (required) where is the variable available
+     * @param declaredTypes (required) value EL expression (without #{} or ${}) -&gt; its type; may be
+     * modified later, the current content is always used
+     */
+    public ValueVariableResolver(String nameAttribute, Scope variableScope, Map<String, Class<?>> declaredTypes) {
+        if (nameAttribute == null || variableScope == null || declaredTypes == null) {
+            throw new IllegalArgumentException("nameAttribute, variableScope and declaredTypes must not be null");
+        }
+        this.nameAttribute = nameAttribute;
+        this.variableScope = variableScope;
+        this.declaredTypes = declaredTypes;
+    }
+
+    /** {@inheritDoc} */
+    public Scope getVariableScope() {
+        return variableScope;
+    }
+
+    /** {@inheritDoc} */
+    public VariableInfo extractContextVariables(Map<String, String> tagAttributes,
+            AttributesValidationResult resolvedJsfExpressions) throws MissingLocalVariableTypeDeclarationException {
+
+        String variableName = tagAttributes.get(nameAttribute);
+        if (variableName == null) {
+            return null;
+        }
+
+        String valueAttribute = tagAttributes.get("value");
+        if (!DataTableVariableResolver.containsElExpression(valueAttribute)) {
+            return new VariableInfo(variableName, String.class);    // a literal or the body content
+        }
+
+        String valueExpression = DataTableVariableResolver.normalizeExpression(valueAttribute);
+        Class<?> variableType = declaredTypes.get(valueExpression);
+        ValidationResult value = resolvedJsfExpressions.get("value");
+        if (variableType == null && value == null) {
+            // ${..} isn't validated and we've no idea about its type
+            throw new MissingLocalVariableTypeDeclarationException(variableName, valueExpression);
+        } else if (variableType == null) {
+            variableType = (value instanceof SuccessfulValidationResult)?
+                    typeOf((SuccessfulValidationResult) value) : MockObjectOfUnknownType.class;
+        }
+
+        LOG.fine("Variable extracted: name=" + variableName + ", type " + variableType);
+        return new VariableInfo(variableName, variableType);
+    }
+
+    private Class<?> typeOf(SuccessfulValidationResult value) {
+        Class<?> staticClass = GenericTypes.rawClassOf(value.getExpressionType());
+        if (staticClass != null && !Object.class.equals(staticClass)) {
+            return staticClass;
+        }
+        Object fakeValue = value.getExpressionResult();
+        if (fakeValue == null) {
+            return MockObjectOfUnknownType.class;
+        }
+        Class<?> valueClass = DataTableVariableResolver.stripMockitoSubclass(fakeValue.getClass());
+        return (valueClass == null)? MockObjectOfUnknownType.class : valueClass;
+    }
+
+}
@@ -0,0 +1,278 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.jakubholy.jeeutils.jsfelcheck.report;
+
+import net.jakubholy.jeeutils.jsfelcheck.expressionfinder.variables.MissingLocalVariableTypeDeclarationException; // SUPPRESS CHECKSTYLE
+import net.jakubholy.jeeutils.jsfelcheck.validator.results.ExpressionRejectedByFilterResult;
+import net.jakubholy.jeeutils.jsfelcheck.validator.results.FailedValidationResult;
+import net.jakubholy.jeeutils.jsfelcheck.validator.results.JsfExpressionDescriptor;
+import net.jakubholy.jeeutils.jsfelcheck.validator.results.SuccessfulValidationResult;
+import net.jakubholy.jeeutils.jsfelcheck.validator.results.ValidationResult;
+import net.jakubholy.jeeutils.jsfelcheck.validator.results.ValidationResultSink;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+
+/**
+ * Base for sinks writing a machine-readable report to a file incrementally, as the results are produced, so that
+ * the memory needed doesn't grow with the number of expressions. Subclasses only format the individual entries.
+ * <p>
+ *     The writer can be reused for multiple validations (f.ex. repeated runs or validation sessions), each producing
+ *     a complete report: a file is then rewritten, an output stream gets one report after another.
+ * </p>
+ * <p>
+ *     Thread-safe: the writing is synchronized.
+ * </p>
+ */
+public abstract class AbstractStreamingReportWriter implements ValidationResultSink {
+
+    /** Encoding of the report files. */
+    protected static final String ENCODING = "UTF-8";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /** Kind of a reported entry. */
+    protected static enum Kind {
+        /** A successfully validated expression. */
+        VALID,
+        /** An invalid expression. */
+        FAILED,
+        /** An expression rejected by a filter. */
+        EXCLUDED,
+        /** A local variable without a type declaration. */
+        UNDECLARED_VARIABLE
+    }
+
+    /** A single entry of the report. */
+    protected static class Entry {
+
+        private final Kind kind;
+        private final String file;
+        private final int line;
+        private final String expression;
+        private final String message;
+
+        Entry(Kind kind, String file, int line, String expression, String message) {
+            this.kind = kind;
+            this.file = file;
+            this.line = line;
+            this.expression = expression;
+            this.message = message;
+        }
+
+        public Kind getKind() {
+            return kind;
+        }
+
+        /** @return the view or included file (may be null) */
+        public String getFile() {
+            return file;
+        }
+
+        /** @return the line where the tag starts, -1 if unknown */
+        public int getLine() {
+            return line;
+        }
+
+        /** @return the expression (may be null) */
+        public String getExpression() {
+            return expression;
+        }
+
+        /** @return the failure message, the filter or the variable name; empty for valid expressions */
+        public String getMessage() {
+            return message;
+        }
+    }
+
+    private final File outputFile;
+    private final boolean includeCorrectExpressions;
+    private final boolean closeOutputWhenFinished;
+    private Writer output;
+    private boolean entryWritten = false;
+    private boolean headerWritten = false;
+
+    /**
+     * Writer to the given file, replacing its content.
+     * @param outputFile (required) the file to write to
+     * @param includeCorrectExpressions true to report also the successfully validated expressions
+     */
+    protected AbstractStreamingReportWriter(File outputFile, boolean includeCorrectExpressions) {
+        this.outputFile = outputFile;
+        this.includeCorrectExpressions = includeCorrectExpressions;
+        this.closeOutputWhenFinished = true;
+    }
+
+    /**
+     * Writer to an already open output, f.ex. a socket; it is only flushed, not closed, when finished.
+     * @param output (required) where to write to
+     * @param includeCorrectExpressions true to report also the successfully validated expressions
+     */
+    protected AbstractStreamingReportWriter(Writer output, boolean includeCorrectExpressions) {
+        this.outputFile = null;
+        this.output = output;
+        this.includeCorrectExpressions = includeCorrectExpressions;
+        this.closeOutputWhenFinished = false;
+    }
+
+    /** {@inheritDoc} */
+    public void resultProduced(ValidationResult result) {
+        Kind kind;
+        String expression;
+        String message;
+        if (result instanceof SuccessfulValidationResult) {
+            if (!includeCorrectExpressions) {
+                return;
+            }
+            kind = Kind.VALID;
+            expression = ((SuccessfulValidationResult) result).getElExpression();
+            message = "";
+        } else if (result instanceof ExpressionRejectedByFilterResult) {
+            ExpressionRejectedByFilterResult exclusion = (ExpressionRejectedByFilterResult) result;
+            kind = Kind.EXCLUDED;
+            expression = (exclusion.getDetails() == null)? null : exclusion.getDetails().getExpression();
+            message = String.valueOf(exclusion.getFilter());
+        } else {
+            FailedValidationResult failure = (FailedValidationResult) result;
+            kind = Kind.FAILED;
+            expression = failure.getElExpression();
+            message = (failure.getFailure() == null)? "" : failure.getFailure().getMessage();
+        }
+
+        JsfExpressionDescriptor descriptor = result.getExpressionDescriptor();
+        if (descriptor == null) {
+            write(new Entry(kind, null, -1, expression, message));
+        } else {
+            write(new Entry(kind, descriptor.getJspFile(), descriptor.getTagLineNumber(), expression, message));
+        }
+    }
+
+    /** {@inheritDoc} */
+    public void variableNeedingTypeDeclarationFound(MissingLocalVariableTypeDeclarationException variable) {
+        write(new Entry(Kind.UNDECLARED_VARIABLE, variable.getJspFile(), variable.getTagLineNumber()
+                , variable.getSourceExpression(), variable.getVariableName()));
+    }
+
+    private synchronized void write(Entry entry) {
+        try {
+            ensureStarted();
+            writeEntry(output, entry, !entryWritten);
+            entryWritten = true;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to write to the report " + describeOutput(), e);
+        }
+    }
+
+    private void ensureStarted() throws IOException {
+        if (!headerWritten) {
+            if (output == null) {
+                output = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(outputFile), ENCODING)
+                        , BUFFER_SIZE);
+            }
+            writeHeader(output);
+            headerWritten = true;
+        }
+    }
+
+    private String describeOutput() {
+        return (outputFile == null)? "output stream" : outputFile.toString();
+    }
+
+    /** {@inheritDoc} */
+    public synchronized void validationFinished() {
+        try {
+            ensureStarted();
+            writeFooter(output);
+            if (closeOutputWhenFinished) {
+                output.close();
+            } else {
+                output.flush();
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to finish the report " + describeOutput(), e);
+        } finally {
+            // Ready for the next validation, which starts a new report
+            if (closeOutputWhenFinished) {
+                output = null;
+            }
+            headerWritten = false;
+            entryWritten = false;
+        }
+    }
+
+    /**
+     * Write whatever precedes the entries.
+     * @param output (required)
+     * @throws IOException writing failed
+     */
+    protected abstract void writeHeader(Writer output) throws IOException;
+
+    /**
+     * Write a single entry.
+     * @param output (required)
+     * @param entry (required)
+     * @param first true if this is the first entry
+     * @throws IOException writing failed
+     */
+    protected abstract void writeEntry(Writer output, Entry entry, boolean first) throws IOException;
+
+    /**
+     * Write whatever follows the entries.
+     * @param output (required)
+     * @throws IOException writing failed
+     */
+    protected abstract void writeFooter(Writer output) throws IOException;
+
+    /**
+     * Format the value as a JSON string literal.
+     * @param value (optional)
+     * @return the quoted and escaped value or <code>null</code>
+     */
+    protected static String toJsonString(String value) {
+        if (value == null) {
+            return "null";
+        }
+        StringBuilder json = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char character = value.charAt(i);
+            switch (character) {
+                case '"': json.append("\\\""); break;
+                case '\\': json.append("\\\\"); break;
+                case '\n': json.append("\\n"); break;
+                case '\r': json.append("\\r"); break;
+                case '\t': json.append("\\t"); break;
+                default:
+                    if (character < ' ') {
+                        json.append(String.format("\\u%04x", (int) character));
+                    } else {
+                        json.append(character);
+                    }
+            }
+        }
+        return json.append('"').toString();
+    }
+
+    /** @return the file written to; null if writing to an output given to the constructor */
+    public File getOutputFile() {
+        return outputFile;
+    }
+
+}
@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.jakubholy.jeeutils.jsfelcheck.report;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes the results as a JUnit XML report so that CI servers can show the failures per view. Every expression
+ * is a test case whose class name is derived from the view (<code>/dir/page.xhtml</code> becomes
+ * <code>dir.page_xhtml</code>) and name contains the line and the expression; invalid expressions and
+ * local variables without a type declaration are failures, excluded expressions are skipped.
+ * <p>
+ *     As the report is written while the views are being validated, the test suite has no summary attributes
+ * (number of tests etc.); CI servers compute them from the test cases.
+ * </p>
+ */
+public class JUnitXmlReportWriter extends AbstractStreamingReportWriter {
+
+    /**
+     * Writer to the given file, replacing its content.
+     * @param outputFile (required) the file to write to
+     * @param includeCorrectExpressions true to report also the successfully validated expressions (as passed tests)
+     */
+    public JUnitXmlReportWriter(File outputFile, boolean includeCorrectExpressions) {
+        super(outputFile, includeCorrectExpressions);
+    }
+
+    @Override
+    protected void writeHeader(Writer output) throws IOException {
+        output.write("<?xml version=\"1.0\" encoding=\"" + ENCODING + "\"?>\n"
+                + "<testsuites name=\"jsfelcheck\">\n<testsuite name=\"jsfelcheck\">\n");
+    }
+
+    @Override
+    protected void writeEntry(Writer output, Entry entry, boolean first) throws IOException {
+        output.write("<testcase classname=\"");
+        output.write(toXml(toClassName(entry.getFile())));
+        output.write("\" name=\"");
+        output.write(toXml("line " + entry.getLine() + ": " + entry.getExpression()));
+        output.write('"');
+        switch (entry.getKind()) {
+            case FAILED:
+                writeFailure(output, "InvalidExpression", entry.getMessage());
+                break;
+            case UNDECLARED_VARIABLE:
+                writeFailure(output, "UndeclaredLocalVariableType", "Declare the type of the local variable '"
+                        + entry.getMessage() + "' defined by " + entry.getExpression());
+                break;
+            case EXCLUDED:
+                output.write("><skipped message=\"");
+                output.write(toXml("Excluded by " + entry.getMessage()));
+                output.write("\"/></testcase>\n");
+                break;
+            default:
+                output.write("/>\n");
+        }
+    }
+
+    private void writeFailure(Writer output, String type, String message) throws IOException {
+        output.write("><failure type=\"");
+        output.write(type);
+        output.write("\" message=\"");
+        output.write(toXml(message));
+        output.write("\">");
+        output.write(toXml(message));
+        output.write("</failure></testcase>\n");
+    }
+
+    private static String toClassName(String file) {
+        if (file == null) {
+            return "unknown";
+        }
+        String path = file.replace('\\', '/');
+        if (path.startsWith("/")) {
+            path = path.substring(1);
+        }
+        return path.replace('.', '_').replace('/', '.');
+    }
+
+    private static String toXml(String value) {
+        if (value == null) {
+            return "";
+        }
+        StringBuilder xml = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char character = value.charAt(i);
+            switch (character) {
+                case '<': xml.append("&lt;"); break;
+                case '>': xml.append("&gt;"); break;
+                case '&': xml.append("&amp;"); break;
+                case '"': xml.append("&quot;"); break;
+                case '\n': xml.append("&#10;"); break;
+                default:
+                    if (character < ' ' && character != '\t' && character != '\r') {
+                        xml.append(' ');
+                    } else {
+                        xml.append(character);
+                    }
+            }
+        }
+        return xml.toString();
+    }
+
+    @Override
+    protected void writeFooter(Writer output) throws IOException {
+        output.write("</testsuite>\n</testsuites>\n");
+    }
+
+}
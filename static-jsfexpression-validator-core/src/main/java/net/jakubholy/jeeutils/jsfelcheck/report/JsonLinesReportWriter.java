@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.jakubholy.jeeutils.jsfelcheck.report;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes the results in the <a href="https://jsonlines.org/">JSON Lines</a> format, one JSON object per result
+ * and line. Example:
+ * <pre>
+ * {"kind":"FAILED","file":"/page.xhtml","line":5,"expression":"#{bean.wrong}","message":"Invalid EL ..."}
+ * </pre>
+ * The kind is one of VALID, FAILED, EXCLUDED (the message is the filter) and UNDECLARED_VARIABLE (the message is
+ * the variable name and the expression its source expression).
+ */
+public class JsonLinesReportWriter extends AbstractStreamingReportWriter {
+
+    /**
+     * Writer to the given file, replacing its content.
+     * @param outputFile (required) the file to write to
+     * @param includeCorrectExpressions true to report also the successfully validated expressions
+     */
+    public JsonLinesReportWriter(File outputFile, boolean includeCorrectExpressions) {
+        super(outputFile, includeCorrectExpressions);
+    }
+
+    /**
+     * Writer to an already open output, which is flushed but not closed when the validation is finished.
+     * @param output (required) the output to write to
+     * @param includeCorrectExpressions true to report also the successfully validated expressions
+     */
+    public JsonLinesReportWriter(Writer output, boolean includeCorrectExpressions) {
+        super(output, includeCorrectExpressions);
+    }
+
+    @Override
+    protected void writeHeader(Writer output) { }
+
+    @Override
+    protected void writeEntry(Writer output, Entry entry, boolean first) throws IOException {
+        output.write("{\"kind\":");
+        output.write(toJsonString(entry.getKind().name()));
+        output.write(",\"file\":");
+        output.write(toJsonString(entry.getFile()));
+        output.write(",\"line\":");
+        output.write(String.valueOf(entry.getLine()));
+        output.write(",\"expression\":");
+        output.write(toJsonString(entry.getExpression()));
+        output.write(",\"message\":");
+        output.write(toJsonString(entry.getMessage()));
+        output.write("}\n");
+    }
+
+    @Override
+    protected void writeFooter(Writer output) { }
+
+}
@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.jakubholy.jeeutils.jsfelcheck.report;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes the problems found - invalid expressions, local variables without a type declaration and, as notes,
+ * excluded expressions - as a <a href="https://sarifweb.azurewebsites.net/">SARIF 2.1.0</a> log, which can be
+ * uploaded to code scanning tools to show them directly in the views' source.
+ * <p>
+ *     The locations are the view paths as reported by the analyzer, relative to the directory of the views
+ * (the leading slash is removed), with the base id <code>VIEWROOT</code>.
+ * </p>
+ */
+public class SarifReportWriter extends AbstractStreamingReportWriter {
+
+    private static final String INVALID_EXPRESSION_RULE = "invalid-el-expression";
+    private static final String UNDECLARED_VARIABLE_RULE = "undeclared-local-variable-type";
+    private static final String EXCLUDED_EXPRESSION_RULE = "excluded-el-expression";
+
+    /**
+     * Writer to the given file, replacing its content.
+     * @param outputFile (required) the file to write to
+     */
+    public SarifReportWriter(File outputFile) {
+        super(outputFile, false);
+    }
+
+    @Override
+    protected void writeHeader(Writer output) throws IOException {
+        output.write("{\"$schema\":\"https://json.schemastore.org/sarif-2.1.0.json\",\"version\":\"2.1.0\","
+                + "\"runs\":[{\"tool\":{\"driver\":{\"name\":\"jsfelcheck\","
+                + "\"informationUri\":\"https://github.com/jakubholynet/static-jsfexpression-validator\","
+                + "\"rules\":[");
+        writeRule(output, INVALID_EXPRESSION_RULE, "The JSF EL expression is invalid");
+        output.write(',');
+        writeRule(output, UNDECLARED_VARIABLE_RULE, "The type of the local variable must be declared");
+        output.write(',');
+        writeRule(output, EXCLUDED_EXPRESSION_RULE, "The JSF EL expression has not been checked");
+        output.write("]}},\"results\":[\n");
+    }
+
+    private void writeRule(Writer output, String id, String description) throws IOException {
+        output.write("{\"id\":");
+        output.write(toJsonString(id));
+        output.write(",\"shortDescription\":{\"text\":");
+        output.write(toJsonString(description));
+        output.write("}}");
+    }
+
+    @Override
+    protected void writeEntry(Writer output, Entry entry, boolean first) throws IOException {
+        String ruleId;
+        String level;
+        String message;
+        switch (entry.getKind()) {
+            case FAILED:
+                ruleId = INVALID_EXPRESSION_RULE;
+                level = "error";
+                message = entry.getMessage();
+                break;
+            case UNDECLARED_VARIABLE:
+                ruleId = UNDECLARED_VARIABLE_RULE;
+                level = "error";
+                message = "Declare the type of the local variable '" + entry.getMessage()
+                        + "' defined by " + entry.getExpression();
+                break;
+            case EXCLUDED:
+                ruleId = EXCLUDED_EXPRESSION_RULE;
+                level = "note";
+                message = "The expression " + entry.getExpression() + " has been excluded by " + entry.getMessage();
+                break;
+            default:
+                return;
+        }
+
+        if (!first) {
+            output.write(",\n");
+        }
+        output.write("{\"ruleId\":");
+        output.write(toJsonString(ruleId));
+        output.write(",\"level\":");
+        output.write(toJsonString(level));
+        output.write(",\"message\":{\"text\":");
+        output.write(toJsonString(message));
+        output.write('}');
+        if (entry.getFile() != null) {
+            output.write(",\"locations\":[{\"physicalLocation\":{\"artifactLocation\":{\"uri\":");
+            output.write(toJsonString(toRelativeUri(entry.getFile())));
+            output.write(",\"uriBaseId\":\"VIEWROOT\"}");
+            if (entry.getLine() > 0) {
+                output.write(",\"region\":{\"startLine\":");
+                output.write(String.valueOf(entry.getLine()));
+                output.write('}');
+            }
+            output.write("}}]");
+        }
+        output.write('}');
+    }
+
+    private static String toRelativeUri(String file) {
+        String path = file.replace('\\', '/');
+        return path.startsWith("/")? path.substring(1) : path;
+    }
+
+    @Override
+    protected void writeFooter(Writer output) throws IOException {
+        output.write("\n]}]}\n");
+    }
+
+}
@@ -20,10 +20,24 @@ package net.jakubholy.jeeutils.jsfelcheck.util;
 import org.apache.commons.beanutils.PropertyUtils;
 
 import java.beans.PropertyDescriptor;
+import java.lang.ref.SoftReference;
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * Utility to determine property type from its name and class.
+ * <p>
+ *     The property descriptors of each class are introspected only once and cached in a thread-safe cache shared
+ * by all instances. The classes are held weakly and the descriptor maps softly (they reference the property types
+ * and thus likely also the class loader of the class) so that the cache doesn't prevent class loaders from being
+ * garbage collected. Properties of interfaces include those inherited from their super-interfaces.
+ * </p>
  */
 public class BeanPropertyUtils {
 
@@ -31,7 +45,11 @@ public class BeanPropertyUtils {
 
 	private static final Logger LOG = Logger.getLogger(BeanPropertyUtils.class.getName());
 
+	private static final Map<Class<?>, SoftReference<Map<String, PropertyDescriptor>>> PROPERTY_DESCRIPTORS_CACHE =
+			Collections.synchronizedMap(new WeakHashMap<Class<?>, SoftReference<Map<String, PropertyDescriptor>>>());
+
 	private final Class<?> type;
+	private final Map<String, PropertyDescriptor> propertyDescriptors;
 
 	/**
 	 * New instance to work on properties of the given class.
@@ -45,6 +63,34 @@ public class BeanPropertyUtils {
 
 	private BeanPropertyUtils(Class<?> type) {
 		this.type = (type == null)? No_Class_Specified.class : type;
+		this.propertyDescriptors = propertyDescriptorsOf(this.type);
+	}
+
+	/** Get the property name to descriptor index of the class from the cache, creating it if not there yet. */
+	private static Map<String, PropertyDescriptor> propertyDescriptorsOf(Class<?> type) {
+		SoftReference<Map<String, PropertyDescriptor>> cachedReference = PROPERTY_DESCRIPTORS_CACHE.get(type);
+		Map<String, PropertyDescriptor> descriptors = (cachedReference == null)? null : cachedReference.get();
+		if (descriptors == null) {
+			// Concurrent threads may both introspect the class but the result is the same
+			descriptors = new HashMap<String, PropertyDescriptor>();
+			for (PropertyDescriptor descriptor : PropertyUtils.getPropertyDescriptors(type)) {
+				descriptors.put(descriptor.getName(), descriptor);
+			}
+			if (type.isInterface()) {
+				// The Introspector ignores properties declared by super-interfaces
+				for (Class<?> superInterface : type.getInterfaces()) {
+					for (Map.Entry<String, PropertyDescriptor> inherited
+							: propertyDescriptorsOf(superInterface).entrySet()) {
+						if (!descriptors.containsKey(inherited.getKey())) {
+							descriptors.put(inherited.getKey(), inherited.getValue());
+						}
+					}
+				}
+			}
+			descriptors = Collections.unmodifiableMap(descriptors);
+			PROPERTY_DESCRIPTORS_CACHE.put(type, new SoftReference<Map<String, PropertyDescriptor>>(descriptors));
+		}
+		return descriptors;
 	}
 
 	/**
@@ -53,16 +99,39 @@ public class BeanPropertyUtils {
 	 * @return the type of the property or null if not found
 	 */
 	public Class<?> getPropertyTypeOf(String propertyName) {
-		PropertyDescriptor[] descriptors = PropertyUtils.getPropertyDescriptors(type);
-		for (PropertyDescriptor descriptor : descriptors) {
-			if (descriptor.getName().equals(propertyName)) {
-				return descriptor.getPropertyType();
-			}
+		PropertyDescriptor descriptor = getPropertyDescriptorOf(propertyName);
+		return (descriptor == null)? null : descriptor.getPropertyType();
+	}
+
+	/**
+	 * Find the generic type of the given property, i.e. including type arguments such as in
+	 * <code>List&lt;String&gt;</code>, as declared by its getter (or the raw type if there is no getter).
+	 * @param propertyName (required)
+	 * @return the type of the property or null if not found
+	 * @see GenericTypes
+	 */
+	public Type getGenericPropertyTypeOf(String propertyName) {
+		PropertyDescriptor descriptor = getPropertyDescriptorOf(propertyName);
+		if (descriptor == null) {
+			return null;
 		}
+		Method getter = descriptor.getReadMethod();
+		return (getter == null)? descriptor.getPropertyType() : getter.getGenericReturnType();
+	}
 
-		LOG.fine("No property '" + propertyName + "' found on the class " + type.getName());
+	/**
+	 * Find the descriptor of the given property.
+	 * @param propertyName (required)
+	 * @return the descriptor or null if not found
+	 */
+	public PropertyDescriptor getPropertyDescriptorOf(String propertyName) {
+		PropertyDescriptor descriptor = propertyDescriptors.get(propertyName);
+
+		if (descriptor == null && LOG.isLoggable(Level.FINE)) {
+			LOG.fine("No property '" + propertyName + "' found on the class " + type.getName());
+		}
 
-		return null;
+		return descriptor;
 	}
 
 }
@@ -0,0 +1,219 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.jakubholy.jeeutils.jsfelcheck.util;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.GenericDeclaration;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Utility for working with generic types, f.ex. to find out that the elements of a
+ * <code>MyList extends ArrayList&lt;Item&gt;</code> are <code>Item</code>s.
+ * Type arguments that cannot be determined, such as those of raw types, are returned as null.
+ */
+public final class GenericTypes {
+
+    /** Type with type arguments resolved from a context. */
+    private static final class ResolvedParameterizedType implements ParameterizedType {
+
+        private final Class<?> rawType;
+        private final Type ownerType;
+        private final Type[] typeArguments;
+
+        ResolvedParameterizedType(Class<?> rawType, Type ownerType, Type[] typeArguments) {
+            this.rawType = rawType;
+            this.ownerType = ownerType;
+            this.typeArguments = typeArguments;
+        }
+
+        public Type[] getActualTypeArguments() {
+            return typeArguments.clone();
+        }
+
+        public Type getRawType() {
+            return rawType;
+        }
+
+        public Type getOwnerType() {
+            return ownerType;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof ParameterizedType)) {
+                return false;
+            }
+            ParameterizedType that = (ParameterizedType) other;
+            return rawType.equals(that.getRawType())
+                    && Arrays.equals(typeArguments, that.getActualTypeArguments());
+        }
+
+        @Override
+        public int hashCode() {
+            return rawType.hashCode() ^ Arrays.hashCode(typeArguments);
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder name = new StringBuilder(rawType.getName()).append('<');
+            for (int i = 0; i < typeArguments.length; i++) {
+                name.append((i == 0)? "" : ", ").append(typeArguments[i]);
+            }
+            return name.append('>').toString();
+        }
+    }
+
+    private GenericTypes() { }
+
+    /**
+     * The class corresponding to the type, f.ex. List for <code>List&lt;String&gt;</code> or the upper bound
+     * for type variables and wildcards.
+     * @param type (optional)
+     * @return the class or null if type is null
+     */
+    public static Class<?> rawClassOf(Type type) {
+        if (type == null || type instanceof Class<?>) {
+            return (Class<?>) type;
+        } else if (type instanceof ParameterizedType) {
+            return (Class<?>) ((ParameterizedType) type).getRawType();
+        } else if (type instanceof GenericArrayType) {
+            Class<?> componentClass = rawClassOf(((GenericArrayType) type).getGenericComponentType());
+            return Array.newInstance(componentClass, 0).getClass();
+        } else if (type instanceof TypeVariable<?>) {
+            return rawClassOf(((TypeVariable<?>) type).getBounds()[0]);
+        } else if (type instanceof WildcardType) {
+            return rawClassOf(((WildcardType) type).getUpperBounds()[0]);
+        } else {
+            return Object.class;
+        }
+    }
+
+    /**
+     * Find the actual type argument of a generic supertype of the type, f.ex. String for
+     * (MyList extends ArrayList&lt;String&gt;, Collection.class, 0) or Integer for
+     * (Map&lt;String, Integer&gt;, Map.class, 1).
+     * @param type (required) the type to inspect
+     * @param genericSuperType (required) the generic class or interface whose type argument to find
+     * @param index (required) index of the type argument
+     * @return the type argument or null if the type doesn't extend genericSuperType or its type argument
+     * is not known (raw type, unresolved type variable)
+     */
+    public static Type typeArgumentOf(Type type, Class<?> genericSuperType, int index) {
+        Class<?> rawClass = rawClassOf(type);
+        if (rawClass == null || !genericSuperType.isAssignableFrom(rawClass)) {
+            return null;
+        }
+
+        if (rawClass.equals(genericSuperType)) {
+            if (!(type instanceof ParameterizedType)) {
+                return null;
+            }
+            Type argument = ((ParameterizedType) type).getActualTypeArguments()[index];
+            return (argument instanceof TypeVariable<?>)? null : argument;
+        }
+
+        if (rawClass.getGenericSuperclass() != null
+                && genericSuperType.isAssignableFrom(rawClassOf(rawClass.getGenericSuperclass()))) {
+            return typeArgumentOf(resolve(rawClass.getGenericSuperclass(), type), genericSuperType, index);
+        }
+        for (Type superInterface : rawClass.getGenericInterfaces()) {
+            if (genericSuperType.isAssignableFrom(rawClassOf(superInterface))) {
+                return typeArgumentOf(resolve(superInterface, type), genericSuperType, index);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The type of the elements of a value of the given type when iterated over as by JSTL c:forEach,
+     * f.ex. Item for <code>List&lt;Item&gt;</code> or <code>Item[]</code> and Map.Entry for a Map.
+     * @param type (optional) the type of the iterated value
+     * @return the element type or null if it cannot be determined (raw collections) or the type isn't iterable
+     */
+    public static Type elementTypeOf(Type type) {
+        Class<?> rawClass = rawClassOf(type);
+        if (rawClass == null) {
+            return null;
+        } else if (type instanceof GenericArrayType) {
+            return ((GenericArrayType) type).getGenericComponentType();
+        } else if (rawClass.isArray()) {
+            return rawClass.getComponentType();
+        } else if (Iterable.class.isAssignableFrom(rawClass)) {
+            return typeArgumentOf(type, Iterable.class, 0);
+        } else if (Iterator.class.isAssignableFrom(rawClass)) {
+            return typeArgumentOf(type, Iterator.class, 0);
+        } else if (Enumeration.class.isAssignableFrom(rawClass)) {
+            return typeArgumentOf(type, Enumeration.class, 0);
+        } else if (Map.class.isAssignableFrom(rawClass)) {
+            return Map.Entry.class;
+        } else {
+            return null;
+        }
+    }
+
+    /**
+     * Replace type variables in the type with the actual type arguments of the context type, f.ex.
+     * <code>List&lt;T&gt;</code> declared in <code>Holder&lt;T&gt;</code> becomes <code>List&lt;String&gt;</code>
+     * in the context of <code>Holder&lt;String&gt;</code> or of <code>StringHolder extends Holder&lt;String&gt;</code>.
+     * @param type (optional) the type to resolve, typically the generic type of a property or method
+     * @param context (optional) the type on which the property or method has been accessed
+     * @return the resolved type; type variables that cannot be resolved are kept
+     */
+    public static Type resolve(Type type, Type context) {
+        if (context == null) {
+            return type;
+        }
+        if (type instanceof TypeVariable<?>) {
+            TypeVariable<?> variable = (TypeVariable<?>) type;
+            GenericDeclaration declaration = variable.getGenericDeclaration();
+            if (declaration instanceof Class<?>) {
+                int index = Arrays.asList(declaration.getTypeParameters()).indexOf(variable);
+                Type argument = typeArgumentOf(context, (Class<?>) declaration, index);
+                return (argument == null)? variable : argument;
+            }
+            return variable;
+        } else if (type instanceof ParameterizedType) {
+            ParameterizedType parameterized = (ParameterizedType) type;
+            Type[] arguments = parameterized.getActualTypeArguments();
+            Type[] resolvedArguments = new Type[arguments.length];
+            boolean changed = false;
+            for (int i = 0; i < arguments.length; i++) {
+                resolvedArguments[i] = resolve(arguments[i], context);
+                changed |= (resolvedArguments[i] != arguments[i]);
+            }
+            return changed? new ResolvedParameterizedType((Class<?>) parameterized.getRawType()
+                    , parameterized.getOwnerType(), resolvedArguments) : type;
+        } else if (type instanceof GenericArrayType) {
+            Type component = resolve(((GenericArrayType) type).getGenericComponentType(), context);
+            return Array.newInstance(rawClassOf(component), 0).getClass();
+        } else if (type instanceof WildcardType) {
+            // ? extends Item => Item, ? super Item => Object
+            return resolve(((WildcardType) type).getUpperBounds()[0], context);
+        } else {
+            return type;
+        }
+    }
+
+}
@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.jakubholy.jeeutils.jsfelcheck.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Thread-safe cache of a bounded size, evicting the least recently used entries, which counts
+ * its hits and misses. Null values are not supported.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+public class LruCache<K, V> {
+
+    private final String name;
+    private final int maxSize;
+    private final Map<K, V> entries;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * New, empty cache.
+     * @param name (required) name of the cache for reporting, f.ex. "parsed expressions"
+     * @param maxSize (required) the maximal number of entries, at least 1
+     */
+    @SuppressWarnings("serial")
+    public LruCache(String name, final int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize: int must be at least 1, is " + maxSize);
+        }
+        this.name = name;
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<K, V>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Get the cached value, counting a hit or a miss.
+     * @param key (required)
+     * @return the value or null if not cached
+     */
+    public V get(K key) {
+        V value;
+        synchronized (entries) {
+            value = entries.get(key);
+        }
+        if (value == null) {
+            misses.incrementAndGet();
+        } else {
+            hits.incrementAndGet();
+        }
+        return value;
+    }
+
+    /**
+     * Cache the value, evicting the least recently used entry if the cache is full.
+     * @param key (required)
+     * @param value (required)
+     */
+    public void put(K key, V value) {
+        synchronized (entries) {
+            entries.put(key, value);
+        }
+    }
+
+    /** Remove all the entries, the statistics are kept. */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    /** The current number of entries. */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /** Number of {@link #get(Object)} calls that found a value. */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /** Number of {@link #get(Object)} calls that found no value. */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /** Summary of the statistics, such as "parsed expressions: 90 hits, 10 misses (90% hits), 10/1000 entries". */
+    @Override
+    public String toString() {
+        long hitCount = getHits();
+        long lookups = hitCount + getMisses();
+        long hitPercent = (lookups == 0)? 0 : (100 * hitCount / lookups);
+        return name + ": " + hitCount + " hits, " + getMisses() + " misses (" + hitPercent + "% hits), "
+                + size() + "/" + maxSize + " entries";
+    }
+
+}
@@ -0,0 +1,232 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.jakubholy.jeeutils.jsfelcheck.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Records the number of occurrences and the time spent in the individual phases of the validation (bean discovery,
+ * taglib registration, views, expressions, fake value creation) and in each view, to find out what to optimize.
+ * Phases may be nested - f.ex. the time of a view includes the time of validating its expressions, which includes
+ * the time of creating fake values.
+ * <p>
+ *     Thread-safe.
+ * </p>
+ */
+public class MetricsRegistry {
+
+    /** Reading managed beans from faces-config. */
+    public static final String BEAN_DISCOVERY_FACES_CONFIG = "bean discovery: faces-config";
+    /** Reading managed beans from Spring configuration. */
+    public static final String BEAN_DISCOVERY_SPRING = "bean discovery: Spring";
+    /** Scanning the class path for annotated managed beans. */
+    public static final String BEAN_DISCOVERY_ANNOTATED = "bean discovery: annotated classes";
+    /** Creating a Facelets parser, including its JSF environment. */
+    public static final String FACELETS_PARSER_INITIALIZATION = "Facelets parser initialization";
+    /** Registering the local Facelets taglibs. */
+    public static final String TAGLIB_REGISTRATION = "taglib registration";
+    /** Processing of a single view, i.e. parsing it and validating its expressions (JSP: incl. included files). */
+    public static final String VIEW = "view (parsing and validation)";
+    /** Validating a single expression. */
+    public static final String EXPRESSION_VALIDATION = "expression validation";
+    /** Creating a fake value (mock) of a type. */
+    public static final String FAKE_VALUE_CREATION = "fake value creation";
+
+    /** Count and durations of a single metric. */
+    public static final class Metric {
+
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong totalNanos = new AtomicLong();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        void record(long nanos) {
+            count.incrementAndGet();
+            totalNanos.addAndGet(nanos);
+            long currentMax;
+            do {
+                currentMax = maxNanos.get();
+            } while (nanos > currentMax && !maxNanos.compareAndSet(currentMax, nanos));
+        }
+
+        public long getCount() {
+            return count.get();
+        }
+
+        public long getTotalNanos() {
+            return totalNanos.get();
+        }
+
+        public long getMaxNanos() {
+            return maxNanos.get();
+        }
+
+        /** @return the average duration, 0 if nothing recorded */
+        public long getAverageNanos() {
+            long currentCount = count.get();
+            return (currentCount == 0)? 0 : totalNanos.get() / currentCount;
+        }
+
+        @Override
+        public String toString() {
+            return "Metric[count=" + getCount() + ", total=" + toMillis(getTotalNanos()) + "ms, max="
+                    + toMillis(getMaxNanos()) + "ms]";
+        }
+    }
+
+    private final Map<String, Metric> metrics = new LinkedHashMap<String, Metric>();
+    private final ConcurrentMap<String, AtomicLong> viewNanos = new ConcurrentHashMap<String, AtomicLong>();
+
+    /**
+     * Start measuring the duration of something.
+     * @return the start time to pass to {@link #stopTimer(String, long)}
+     */
+    public long startTimer() {
+        return System.nanoTime();
+    }
+
+    /**
+     * Record the duration of something measured since {@link #startTimer()}.
+     * @param metric (required) the name of the metric, f.ex. {@link #EXPRESSION_VALIDATION}
+     * @param startNanos (required) the value returned by {@link #startTimer()}
+     */
+    public void stopTimer(String metric, long startNanos) {
+        record(metric, System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Record an occurrence of the metric and its duration.
+     * @param metric (required) the name of the metric
+     * @param nanos (required) the duration, >= 0
+     */
+    public void record(String metric, long nanos) {
+        Metric existing;
+        synchronized (metrics) {
+            existing = metrics.get(metric);
+            if (existing == null) {
+                existing = new Metric();
+                metrics.put(metric, existing);
+            }
+        }
+        existing.record(nanos);
+    }
+
+    /**
+     * Record the processing of a view, both as an occurrence of {@link #VIEW} and per view.
+     * @param view (required) the view, f.ex. /dir/page.xhtml
+     * @param nanos (required) the duration of processing it, >= 0
+     */
+    public void recordView(String view, long nanos) {
+        record(VIEW, nanos);
+        AtomicLong previous = viewNanos.putIfAbsent(view, new AtomicLong(nanos));
+        if (previous != null) {
+            previous.addAndGet(nanos);
+        }
+    }
+
+    /**
+     * The metric of the given name.
+     * @param metric (required)
+     * @return the metric or null if nothing has been recorded for it
+     */
+    public Metric getMetric(String metric) {
+        synchronized (metrics) {
+            return metrics.get(metric);
+        }
+    }
+
+    /**
+     * All the metrics, in the order they have been first recorded.
+     * @return unmodifiable copy (never null)
+     */
+    public Map<String, Metric> getMetrics() {
+        synchronized (metrics) {
+            return Collections.unmodifiableMap(new LinkedHashMap<String, Metric>(metrics));
+        }
+    }
+
+    /**
+     * The views that took the longest to process.
+     * @param maxViews (required) how many views to return at most
+     * @return view -> duration in nanoseconds, ordered by the duration, descending (never null)
+     */
+    public Map<String, Long> getSlowestViews(int maxViews) {
+        List<Map.Entry<String, AtomicLong>> views = new ArrayList<Map.Entry<String, AtomicLong>>(viewNanos.entrySet());
+        Collections.sort(views, new Comparator<Map.Entry<String, AtomicLong>>() {
+            public int compare(Map.Entry<String, AtomicLong> first, Map.Entry<String, AtomicLong> second) {
+                long firstNanos = first.getValue().get();
+                long secondNanos = second.getValue().get();
+                return (firstNanos < secondNanos)? 1 : ((firstNanos == secondNanos)? 0 : -1);
+            }
+        });
+        Map<String, Long> slowest = new LinkedHashMap<String, Long>();
+        for (Map.Entry<String, AtomicLong> view : views.subList(0, Math.min(maxViews, views.size()))) {
+            slowest.put(view.getKey(), view.getValue().get());
+        }
+        return slowest;
+    }
+
+    /** Forget everything recorded so far. */
+    public void reset() {
+        synchronized (metrics) {
+            metrics.clear();
+        }
+        viewNanos.clear();
+    }
+
+    /**
+     * Format the metrics as a table, followed by the slowest views.
+     * @param maxSlowestViews (required) how many of the slowest views to include, may be 0
+     * @return the table (never null)
+     */
+    public String formatSummary(int maxSlowestViews) {
+        StringBuilder summary = new StringBuilder(String.format("%-40s %10s %12s %10s %10s%n"
+                , "PHASE", "COUNT", "TOTAL [ms]", "AVG [ms]", "MAX [ms]"));
+        for (Map.Entry<String, Metric> metric : getMetrics().entrySet()) {
+            Metric value = metric.getValue();
+            summary.append(String.format("%-40s %10d %12d %10.3f %10d%n", metric.getKey(), value.getCount()
+                    , toMillis(value.getTotalNanos()), value.getAverageNanos() / 1e6, toMillis(value.getMaxNanos())));
+        }
+
+        Map<String, Long> slowestViews = getSlowestViews(maxSlowestViews);
+        if (!slowestViews.isEmpty()) {
+            summary.append(String.format("%nSLOWEST VIEWS [ms]:%n"));
+            for (Map.Entry<String, Long> view : slowestViews.entrySet()) {
+                summary.append(String.format("%10d %s%n", toMillis(view.getValue()), view.getKey()));
+            }
+        }
+        return summary.toString();
+    }
+
+    private static long toMillis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    @Override
+    public String toString() {
+        return "MetricsRegistry" + getMetrics();
+    }
+
+}
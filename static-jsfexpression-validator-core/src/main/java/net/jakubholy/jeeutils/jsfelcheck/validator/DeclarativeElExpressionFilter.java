@@ -0,0 +1,247 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.jakubholy.jeeutils.jsfelcheck.validator;
+
+import org.apache.commons.io.FileUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Excludes the expressions matching any of a set of declarative rules, compiled into a single trie of the
+ * expression parts so that the cost of the filter doesn't grow with the number of rules; most expressions
+ * are accepted after a single hash lookup of their variable.
+ * <p>
+ * Each rule is a dot-separated chain of parts and excludes all the expressions that start with these parts:
+ * </p>
+ * <ul>
+ *     <li><code>legacyBean</code> - any expression using the variable legacyBean</li>
+ *     <li><code>cc.attrs</code> or <code>cc.attrs.*</code> - any expression starting with cc.attrs (a trailing
+ *     <code>.*</code> is optional)</li>
+ *     <li><code>*.password</code>, <code>bean.*Internal</code> - <code>*</code> and <code>?</code> in a part are
+ *     wildcards matching any characters / a single character within the part</li>
+ * </ul>
+ * <p>
+ * The rules file has one or more comma-separated rules per line; empty lines and lines starting with # are
+ * ignored. The number of expressions excluded by each rule is counted, see {@link #getRuleHits()}, to find
+ * rules that never match anything.
+ * </p>
+ * <p>
+ * Add all the rules before the filter is used; it may then be shared by several threads.
+ * </p>
+ */
+public class DeclarativeElExpressionFilter implements ElExpressionFilter {
+
+    private static final String COMMENT_PREFIX = "#";
+
+    /** One part of the rules. */
+    private static final class Node {
+
+        private final Map<String, Node> exactChildren = new HashMap<String, Node>();
+        private final List<String> wildcardParts = new ArrayList<String>();
+        private final List<Node> wildcardChildren = new ArrayList<Node>();
+        /** The rule ending with this part, if any. */
+        private String rule;
+        private AtomicLong hits;
+
+        private Node getOrAddChild(String part) {
+            boolean wildcard = part.indexOf('*') >= 0 || part.indexOf('?') >= 0;
+            if (!wildcard) {
+                Node child = exactChildren.get(part);
+                if (child == null) {
+                    child = new Node();
+                    exactChildren.put(part, child);
+                }
+                return child;
+            }
+            int index = wildcardParts.indexOf(part);
+            if (index >= 0) {
+                return wildcardChildren.get(index);
+            }
+            Node child = new Node();
+            wildcardParts.add(part);
+            wildcardChildren.add(child);
+            return child;
+        }
+    }
+
+    private final Node root = new Node();
+    private final Map<String, AtomicLong> ruleHits = new LinkedHashMap<String, AtomicLong>();
+    private String source = "rules added programmatically";
+
+    /**
+     * Create a filter with the rules from the file, see the class description for the format.
+     * @param rulesFile (required) UTF-8 encoded
+     * @return the filter
+     */
+    @SuppressWarnings("unchecked")
+    public static DeclarativeElExpressionFilter fromFile(File rulesFile) {
+        List<String> lines;
+        try {
+            lines = FileUtils.readLines(rulesFile, "UTF-8");
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read the EL expression filter rules from " + rulesFile, e);
+        }
+        DeclarativeElExpressionFilter filter = new DeclarativeElExpressionFilter();
+        filter.source = rulesFile.getPath();
+        for (String line : lines) {
+            line = line.trim();
+            if (line.length() == 0 || line.startsWith(COMMENT_PREFIX)) {
+                continue;
+            }
+            for (String rule : line.split(",")) {
+                if (rule.trim().length() > 0) {
+                    filter.withRule(rule);
+                }
+            }
+        }
+        return filter;
+    }
+
+    /**
+     * Exclude all the expressions matching the rule.
+     * @param rule (required) ex.: <code>cc.attrs.*</code>, see the class description
+     * @return this
+     * @throws IllegalArgumentException the rule is empty or already defined
+     */
+    public DeclarativeElExpressionFilter withRule(String rule) throws IllegalArgumentException {
+        String normalizedRule = normalize(rule);
+        if (normalizedRule.length() == 0) {
+            throw new IllegalArgumentException("The EL expression filter rule '" + rule + "' is empty");
+        }
+        if (ruleHits.containsKey(normalizedRule)) {
+            throw new IllegalArgumentException("The EL expression filter rule '" + normalizedRule
+                    + "' is defined twice in " + this);
+        }
+        Node node = root;
+        for (String part : normalizedRule.split("\\.")) {
+            node = node.getOrAddChild(part);
+        }
+        node.rule = normalizedRule;
+        node.hits = new AtomicLong();
+        ruleHits.put(normalizedRule, node.hits);
+        return this;
+    }
+
+    /** Strip whitespace, #{..} and the optional trailing ".*". */
+    private static String normalize(String rule) {
+        String normalized = rule.trim();
+        if ((normalized.startsWith("#{") || normalized.startsWith("${")) && normalized.endsWith("}")) {
+            normalized = normalized.substring(2, normalized.length() - 1).trim();
+        }
+        if (normalized.endsWith(".*") && normalized.length() > 2) {
+            normalized = normalized.substring(0, normalized.length() - 2);
+        }
+        return normalized;
+    }
+
+    /** {@inheritDoc} */
+    public boolean accept(ParsedElExpression expression) {
+        Node matchingRule = findMatchingRule(root, expression, 0);
+        if (matchingRule == null) {
+            return true;
+        }
+        matchingRule.hits.incrementAndGet();
+        return false;
+    }
+
+    private static Node findMatchingRule(Node node, ParsedElExpression expression, int partIndex) {
+        if (node.rule != null) {
+            return node;
+        }
+        if (partIndex >= expression.size()) {
+            return null;
+        }
+        String part = expression.getPart(partIndex);
+        Node exactChild = node.exactChildren.get(part);
+        if (exactChild != null) {
+            Node match = findMatchingRule(exactChild, expression, partIndex + 1);
+            if (match != null) {
+                return match;
+            }
+        }
+        for (int i = 0; i < node.wildcardParts.size(); i++) {
+            if (wildcardMatches(node.wildcardParts.get(i), part)) {
+                Node match = findMatchingRule(node.wildcardChildren.get(i), expression, partIndex + 1);
+                if (match != null) {
+                    return match;
+                }
+            }
+        }
+        return null;
+    }
+
+    /** Does the text match the pattern with * (any characters) and ? (a single character)? */
+    static boolean wildcardMatches(String pattern, String text) {
+        int patternIndex = 0;
+        int textIndex = 0;
+        int lastStar = -1;
+        int textIndexAtLastStar = 0;
+        while (textIndex < text.length()) {
+            if (patternIndex < pattern.length()
+                    && (pattern.charAt(patternIndex) == '?' || pattern.charAt(patternIndex) == text.charAt(textIndex))) {
+                patternIndex++;
+                textIndex++;
+            } else if (patternIndex < pattern.length() && pattern.charAt(patternIndex) == '*') {
+                lastStar = patternIndex++;
+                textIndexAtLastStar = textIndex;
+            } else if (lastStar >= 0) {
+                patternIndex = lastStar + 1;
+                textIndex = ++textIndexAtLastStar;
+            } else {
+                return false;
+            }
+        }
+        while (patternIndex < pattern.length() && pattern.charAt(patternIndex) == '*') {
+            patternIndex++;
+        }
+        return patternIndex == pattern.length();
+    }
+
+    /**
+     * How many expressions has each rule excluded so far. With result memoization, repeated expressions are
+     * not filtered again and thus counted only once, see {@link MemoizingElValidator}.
+     * @return rule -&gt; hits, in the order the rules were added
+     */
+    public Map<String, Long> getRuleHits() {
+        Map<String, Long> hits = new LinkedHashMap<String, Long>();
+        for (Map.Entry<String, AtomicLong> rule : ruleHits.entrySet()) {
+            hits.put(rule.getKey(), rule.getValue().get());
+        }
+        return hits;
+    }
+
+    /**
+     * Describe the rules, f.ex. for detecting that they have changed.
+     * @return the rules, in the order they were added
+     */
+    public List<String> getRules() {
+        return new ArrayList<String>(ruleHits.keySet());
+    }
+
+    @Override
+    public String toString() {
+        return "DeclarativeElExpressionFilter[" + ruleHits.size() + " rules from " + source + "]";
+    }
+
+}
@@ -26,6 +26,10 @@ public interface ElExpressionFilter {
 
 	/**
 	 * Should this EL expression be accepted for further processing, i.e. for validation?
+	 * <p>
+	 * Called after each part of every expression is resolved, so inspect the expression via
+	 * {@link ParsedElExpression#size()} and {@link ParsedElExpression#getPart(int)} rather than via its iterator
+	 * or string form, and don't keep a reference to it - it is reused.
 	 * @param expression (required) representation of the EL expression found in a source view file
 	 * @return true if the EL expression should be validated, false if it should not be validated
 	 * (it will be added to a list of excluded expressions that can be checked later)
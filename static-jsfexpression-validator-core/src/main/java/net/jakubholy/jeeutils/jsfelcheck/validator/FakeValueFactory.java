@@ -17,20 +17,62 @@
 
 package net.jakubholy.jeeutils.jsfelcheck.validator;
 
+import net.jakubholy.jeeutils.jsfelcheck.util.MetricsRegistry;
+
 import java.lang.reflect.Array;
 import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
 import java.util.Arrays;
 import java.util.List;
-
-import org.mockito.Mockito;
-import org.mockito.exceptions.base.MockitoException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * Create 'fake' instances of classes (or interfaces). Being fake mean that they can be just
  * mocks not really supporting the behavior of the class.
+ * <p>
+ *     Creating mocks is expensive so by default a mock created for a type is reused for other properties/variables
+ * of the same type; the mocks are never stubbed and thus behave the same. (A mock is replaced after it has been
+ * handed out {@link #MAX_REUSES_OF_CACHED_MOCK} times because Mockito records all invocations on it.)
+ * The reuse can be disabled via {@link #setFakeValueReuseEnabled(boolean)} to get a new mock named after the
+ * property it is for, which is then visible in error messages.
+ * </p>
+ * <p>
+ *     The fake instances of classes and interfaces are created by a {@link FakeValueStrategy}, by default
+ * by {@link MockitoFakeValueStrategy}; see {@link #setFakeValueStrategy(FakeValueStrategy)}.
+ * </p>
  */
 public class FakeValueFactory {
 
+    /** How many times a cached mock can be reused before it is replaced with a new one. */
+    static final int MAX_REUSES_OF_CACHED_MOCK = 1000;
+
+    /** A reusable fake value and how many times it has been used. */
+    private static final class CachedFakeValue {
+        private final Object value;
+        private final AtomicInteger uses = new AtomicInteger();
+
+        CachedFakeValue(Object value) {
+            this.value = value;
+        }
+    }
+
+    private static final ConcurrentMap<Class<?>, CachedFakeValue> FAKE_VALUE_CACHE =
+            new ConcurrentHashMap<Class<?>, CachedFakeValue>();
+
+    private static final Pattern PROXY_CLASS_NAME = Pattern.compile("(?:[\\w.]+\\.)?\\$Proxy\\d+");
+
+    /** Names of generated fake value classes -> names of the types they fake, for error messages. */
+    private static final ConcurrentMap<String, String> FAKED_TYPE_NAMES = new ConcurrentHashMap<String, String>();
+
+    private static volatile boolean fakeValueReuseEnabled = true;
+    private static volatile FakeValueStrategy fakeValueStrategy = new MockitoFakeValueStrategy();
+    /** The registry of the validation running in the thread, if any, see {@link #setMetricsRegistry}. */
+    private static final ThreadLocal<MetricsRegistry> METRICS_REGISTRY = new ThreadLocal<MetricsRegistry>();
+
 	protected FakeValueFactory() { }
 
 	/**
@@ -41,7 +83,7 @@ public class FakeValueFactory {
 
         private static final long serialVersionUID = 1L;
 
-        private UnableToCreateFakeValueException(String arg0, Throwable arg1) {
+        public UnableToCreateFakeValueException(String arg0, Throwable arg1) {
             super(arg0, arg1);
         }
 
@@ -52,15 +94,30 @@ public class FakeValueFactory {
             , Integer.class, Long.class, Double.class, Float.class
     });
 
+    private static Object getOrCreatePropertMock(final Object property, final Class<?> type) {
+        if (!fakeValueReuseEnabled) {
+            return createPropertMock(property, type);
+        }
+
+        CachedFakeValue cached = FAKE_VALUE_CACHE.get(type);
+        if (cached == null || cached.uses.incrementAndGet() > MAX_REUSES_OF_CACHED_MOCK) {
+            // Concurrent threads may create more mocks at once, any of them is fine
+            cached = new CachedFakeValue(createPropertMock(null, type));
+            FAKE_VALUE_CACHE.put(type, cached);
+        }
+        return cached.value;
+    }
+
     private static Object createPropertMock(final Object property, final Class<?> type) {
-        // TBD Mock MockObjectOfUnknownType or just instantiate it?
+        MetricsRegistry metrics = METRICS_REGISTRY.get();
+        if (metrics == null) {
+            return fakeValueStrategy.createFakeValue(type, property);
+        }
+        long start = metrics.startTimer();
         try {
-            return Mockito.mock(type, "Mocked_class_" + type.getName() + "_for_property_" + property);
-        } catch (MockitoException e) {
-            throw new UnableToCreateFakeValueException("Failed to create a mock for the property " + property
-                    + " with guessed type " + type.getName()
-                    + ": " + e.getMessage()
-                    , e);
+            return fakeValueStrategy.createFakeValue(type, property);
+        } finally {
+            metrics.stopTimer(MetricsRegistry.FAKE_VALUE_CREATION, start);
         }
     }
 
@@ -99,8 +156,123 @@ public class FakeValueFactory {
                     // last part of an expression but is a problem in the middle of it
                     return new MockObjectOfUnknownType(propertyToFake);
                 } else {
-                    return createPropertMock(propertyToFake, type);
+                    return getOrCreatePropertMock(propertyToFake, type);
                 }
             }
 
+    /**
+     * Enable or disable the reuse of fake values (mocks) of the same type, enabled by default.
+     * It is a global setting affecting all validators.
+     * @param enabled false to create a new mock, named after the property, for every faked value
+     */
+    public static void setFakeValueReuseEnabled(boolean enabled) {
+        fakeValueReuseEnabled = enabled;
+        if (!enabled) {
+            clearFakeValueCache();
+        }
+    }
+
+    /**
+     * Set how to create fake values of classes and interfaces. It is a global setting affecting all validators;
+     * the cached fake values are discarded.
+     * @param strategy (required) f.ex. {@link MockitoFakeValueStrategy} (default) or
+     * {@link LightweightFakeValueStrategy}
+     */
+    public static void setFakeValueStrategy(FakeValueStrategy strategy) {
+        if (strategy == null) {
+            throw new IllegalArgumentException("strategy: FakeValueStrategy is required");
+        }
+        fakeValueStrategy = strategy;
+        clearFakeValueCache();
+    }
+
+    /** @see #setFakeValueStrategy(FakeValueStrategy) */
+    public static FakeValueStrategy getFakeValueStrategy() {
+        return fakeValueStrategy;
+    }
+
+    /**
+     * Record the creation of fake values in the current thread in the given registry, so that concurrent
+     * validations (f.ex. by different analyzers) each record into their own one. The caller should restore
+     * the previous registry when done, typically in a finally block.
+     * @param registry (optional) null to stop recording
+     * @return the registry used by the thread until now (may be null)
+     */
+    public static MetricsRegistry setMetricsRegistry(MetricsRegistry registry) {
+        MetricsRegistry previous = METRICS_REGISTRY.get();
+        if (registry == null) {
+            METRICS_REGISTRY.remove();
+        } else {
+            METRICS_REGISTRY.set(registry);
+        }
+        return previous;
+    }
+
+    /**
+     * Remember what type a generated class of fake values (such as a dynamic proxy) stands for,
+     * see {@link #withFakedTypeNames(String)}.
+     * @param fakeValueClass (required) the generated class
+     * @param fakedType (required) the type it fakes
+     */
+    public static void registerFakeValueClass(Class<?> fakeValueClass, Class<?> fakedType) {
+        FAKED_TYPE_NAMES.put(fakeValueClass.getName(), fakedType.getName());
+    }
+
+    /**
+     * Replace names of dynamic proxy classes registered via {@link #registerFakeValueClass(Class, Class)}
+     * with the names of the types they fake, f.ex. in the message "Property 'x' not found on type $Proxy12".
+     * @param message (optional)
+     * @return the message with the names replaced
+     */
+    public static String withFakedTypeNames(String message) {
+        if (message == null || FAKED_TYPE_NAMES.isEmpty() || message.indexOf("$Proxy") < 0) {
+            return message;
+        }
+        Matcher proxyClassNames = PROXY_CLASS_NAME.matcher(message);
+        StringBuffer result = new StringBuffer();
+        while (proxyClassNames.find()) {
+            String fakedTypeName = FAKED_TYPE_NAMES.get(proxyClassNames.group());
+            proxyClassNames.appendReplacement(result, Matcher.quoteReplacement(
+                    (fakedTypeName == null)? proxyClassNames.group() : fakedTypeName));
+        }
+        proxyClassNames.appendTail(result);
+        return result.toString();
+    }
+
+    /**
+     * The type a (usually faked) value stands for, i.e. its class without any Mockito or dynamic proxy
+     * generated subclass.
+     * @param value (optional)
+     * @return the mocked class or (the first) interface for generated classes, the class of the value otherwise;
+     * null for null
+     */
+    public static Class<?> typeOfFakeValue(Object value) {
+        if (value == null) {
+            return null;
+        }
+        Class<?> type = value.getClass();
+        if (Proxy.isProxyClass(type)) {
+            return (type.getInterfaces().length > 0)? type.getInterfaces()[0] : type;
+        } else if (type.getName().contains("$$")) {
+            if (type.getSuperclass() != null && !Object.class.equals(type.getSuperclass())) {
+                return type.getSuperclass();
+            } else if (type.getInterfaces().length > 0) {
+                return type.getInterfaces()[0];
+            }
+        }
+        return type;
+    }
+
+    /** @see #setFakeValueReuseEnabled(boolean) */
+    public static boolean isFakeValueReuseEnabled() {
+        return fakeValueReuseEnabled;
+    }
+
+    /**
+     * Forget all the cached fake values, f.ex. to let the classes of the mocks be garbage collected.
+     */
+    public static void clearFakeValueCache() {
+        FAKE_VALUE_CACHE.clear();
+    }
+
 }
\ No newline at end of file
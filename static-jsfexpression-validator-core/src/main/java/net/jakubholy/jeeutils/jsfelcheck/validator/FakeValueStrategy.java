@@ -0,0 +1,41 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.jakubholy.jeeutils.jsfelcheck.validator;
+
+import net.jakubholy.jeeutils.jsfelcheck.validator.FakeValueFactory.UnableToCreateFakeValueException;
+
+/**
+ * How {@link FakeValueFactory} creates fake instances of (non-final) classes and interfaces
+ * that it cannot produce by other means (such as "" for a String).
+ *
+ * @see MockitoFakeValueStrategy
+ * @see LightweightFakeValueStrategy
+ */
+public interface FakeValueStrategy {
+
+    /**
+     * Create a fake instance of the type; it is only used to find out the types of its properties
+     * and its methods should return some default values if called.
+     * @param type (required) a class or an interface, not a primitive, array, String or a number
+     * @param property (optional) the property or variable the value is for, to be used f.ex. in the mock's name;
+     * null if the value is shared by all properties of the type
+     * @return the fake value (never null)
+     * @throws UnableToCreateFakeValueException if it is impossible to fake the type
+     */
+    Object createFakeValue(Class<?> type, Object property) throws UnableToCreateFakeValueException;
+
+}
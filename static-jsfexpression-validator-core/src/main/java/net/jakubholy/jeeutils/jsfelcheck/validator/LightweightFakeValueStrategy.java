@@ -0,0 +1,156 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.jakubholy.jeeutils.jsfelcheck.validator;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import net.jakubholy.jeeutils.jsfelcheck.validator.FakeValueFactory.UnableToCreateFakeValueException;
+
+import org.objenesis.Objenesis;
+import org.objenesis.ObjenesisException;
+import org.objenesis.ObjenesisStd;
+
+/**
+ * Creates fake values without generating a new class for each type, where possible:
+ * <ol>
+ *     <li>interfaces are faked by a plain {@link Proxy} whose methods return default values similar to Mockito's
+ *     (0, false, empty collections, null)</li>
+ *     <li>concrete non-JDK classes are instantiated via Objenesis without calling any constructor</li>
+ *     <li>anything else (abstract classes, JDK classes) is mocked by Mockito, see {@link MockitoFakeValueStrategy}</li>
+ * </ol>
+ * <p>
+ *     Beware: Methods of instances created by Objenesis run their real code on fields that haven't been
+ * initialized, which may fail if an expression calls them, f.ex. when <code>toString()</code> is called to
+ * coerce the value to a String.
+ * </p>
+ */
+public class LightweightFakeValueStrategy implements FakeValueStrategy {
+
+    private static final Logger LOG = Logger.getLogger(LightweightFakeValueStrategy.class.getName());
+
+    /** Answers calls on interface fakes similarly to Mockito mocks. */
+    private static final class DefaultValuesInvocationHandler implements InvocationHandler {
+
+        private final String name;
+
+        DefaultValuesInvocationHandler(String name) {
+            this.name = name;
+        }
+
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if ("toString".equals(method.getName()) && method.getParameterTypes().length == 0) {
+                return name;
+            } else if ("hashCode".equals(method.getName()) && method.getParameterTypes().length == 0) {
+                return System.identityHashCode(proxy);
+            } else if ("equals".equals(method.getName()) && method.getParameterTypes().length == 1) {
+                return proxy == args[0];
+            }
+            return defaultValueOf(method.getReturnType());
+        }
+
+        private static Object defaultValueOf(Class<?> type) {
+            if (type == boolean.class || type == Boolean.class) {
+                return Boolean.FALSE;
+            } else if (type == char.class || type == Character.class) {
+                return Character.valueOf((char) 0);
+            } else if (type == byte.class || type == Byte.class) {
+                return Byte.valueOf((byte) 0);
+            } else if (type == short.class || type == Short.class) {
+                return Short.valueOf((short) 0);
+            } else if (type == int.class || type == Integer.class) {
+                return Integer.valueOf(0);
+            } else if (type == long.class || type == Long.class) {
+                return Long.valueOf(0);
+            } else if (type == float.class || type == Float.class) {
+                return Float.valueOf(0);
+            } else if (type == double.class || type == Double.class) {
+                return Double.valueOf(0);
+            } else if (type == SortedSet.class) {
+                return new TreeSet<Object>();
+            } else if (type == Set.class) {
+                return new HashSet<Object>();
+            } else if (type == SortedMap.class) {
+                return new TreeMap<Object, Object>();
+            } else if (type == Map.class) {
+                return new HashMap<Object, Object>();
+            } else if (type == List.class || type == Collection.class) {
+                return new LinkedList<Object>();
+            }
+            return null;
+        }
+    }
+
+    private final Objenesis objenesis = new ObjenesisStd(true);
+    private final FakeValueStrategy fallbackStrategy = new MockitoFakeValueStrategy();
+
+    /** {@inheritDoc} */
+    public Object createFakeValue(Class<?> type, Object property) throws UnableToCreateFakeValueException {
+        if (type.isInterface()) {
+            return createInterfaceProxy(type, property);
+        } else if (!Modifier.isAbstract(type.getModifiers()) && !isJdkClass(type)) {
+            try {
+                return objenesis.newInstance(type);
+            } catch (ObjenesisException e) {
+                LOG.log(Level.FINE, "Failed to instantiate " + type + " via Objenesis, falling back to Mockito", e);
+            }
+        }
+        return fallbackStrategy.createFakeValue(type, property);
+    }
+
+    private Object createInterfaceProxy(Class<?> type, Object property) {
+        String name = "Fake_" + type.getName() + ((property == null)? "" : "_for_property_" + property);
+        ClassLoader classLoader = (type.getClassLoader() == null)?
+                LightweightFakeValueStrategy.class.getClassLoader() : type.getClassLoader();
+        try {
+            Object proxy = Proxy.newProxyInstance(classLoader, new Class<?>[] {type},
+                    new DefaultValuesInvocationHandler(name));
+            FakeValueFactory.registerFakeValueClass(proxy.getClass(), type);
+            return proxy;
+        } catch (IllegalArgumentException e) {
+            // F.ex. a non-public interface not visible from the class loader
+            LOG.log(Level.FINE, "Failed to create a proxy for " + type + ", falling back to Mockito", e);
+            return fallbackStrategy.createFakeValue(type, property);
+        }
+    }
+
+    /** JDK classes usually rely on their constructor-initialized state too much to be usable uninitialized. */
+    private static boolean isJdkClass(Class<?> type) {
+        String name = type.getName();
+        return name.startsWith("java.") || name.startsWith("javax.");
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName();
+    }
+}
@@ -0,0 +1,207 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.jakubholy.jeeutils.jsfelcheck.validator;
+
+import net.jakubholy.jeeutils.jsfelcheck.util.LruCache;
+import net.jakubholy.jeeutils.jsfelcheck.validator.results.ExpressionRejectedByFilterResult;
+import net.jakubholy.jeeutils.jsfelcheck.validator.results.FailedValidationResult;
+import net.jakubholy.jeeutils.jsfelcheck.validator.results.SuccessfulValidationResult;
+import net.jakubholy.jeeutils.jsfelcheck.validator.results.ValidationResult;
+
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Validator that remembers the results of validating expressions and returns a copy of the remembered result
+ * when the same expression is validated again in the same situation, instead of validating it again.
+ * Expressions such as <code>#{userSession.locale}</code> are often repeated on thousands of pages.
+ * <p>
+ *     The result of validating an expression depends only on the global configuration (declared variables,
+ * type overrides, filters), the type of the attribute it is assigned to and the types of the local variables
+ * it references - these types are therefore part of the key under which the result is remembered.
+ * The local variables are resolved via the supplied resolver, typically the
+ * {@link net.jakubholy.jeeutils.jsfelcheck.expressionfinder.variables.ContextVariableRegistry} of the current view.
+ * </p>
+ * <p>
+ *     Changing the configuration via this validator forgets all the remembered results.
+ * </p>
+ * <p>
+ *     A remembered result is returned without consulting the delegate's {@link ElExpressionFilter}s, the filters
+ * are thus only invoked for the first occurrence of an expression and statistics they gather, such as
+ * {@link DeclarativeElExpressionFilter#getRuleHits()}, exclude the memoized results.
+ * </p>
+ */
+public class MemoizingElValidator implements JsfElValidator {
+
+    private final JsfElValidator delegate;
+    private final ElVariableResolver localVariableResolver;
+    private final LruCache<String, ValidationResult> memoizedResults;
+    private boolean attributeNameSignificant = false;
+
+    /**
+     * New memoizing validator.
+     * @param delegate (required) the validator doing the actual validation
+     * @param localVariableResolver (required) resolves the type of a local variable or returns null if the variable
+     * isn't a local one
+     * @param memoizedResults (required) where to remember the results; may be shared by multiple validators
+     * configured in the same way, f.ex. those of worker threads
+     */
+    public MemoizingElValidator(JsfElValidator delegate, ElVariableResolver localVariableResolver,
+            LruCache<String, ValidationResult> memoizedResults) {
+        this.delegate = delegate;
+        this.localVariableResolver = localVariableResolver;
+        this.memoizedResults = memoizedResults;
+    }
+
+    /**
+     * Whether the delegate decides how to validate an expression based on the name of the attribute and not only
+     * its type (as the JSF 1.1 validator does); the name is then included in the key. Default: false.
+     * @param attributeNameSignificant true to include the attribute name in the key
+     * @return this
+     */
+    public MemoizingElValidator withAttributeNameSignificant(boolean attributeNameSignificant) {
+        this.attributeNameSignificant = attributeNameSignificant;
+        return this;
+    }
+
+    /** {@inheritDoc} */
+    public ValidationResult validateElExpression(String elExpression, AttributeInfo attributeInfo) {
+        String key = memoizationKeyOf(elExpression, attributeInfo);
+        ValidationResult memoized = memoizedResults.get(key);
+        if (memoized != null) {
+            return copyOf(memoized);
+        }
+
+        ValidationResult result = delegate.validateElExpression(elExpression, attributeInfo);
+        if (isCopyable(result)) {
+            memoizedResults.put(key, copyOf(result));
+        }
+        return result;
+    }
+
+    String memoizationKeyOf(String elExpression, AttributeInfo attributeInfo) {
+        StringBuilder key = new StringBuilder(elExpression.length() + 64);
+        Class<?> attributeType = attributeInfo.getAttributeType();
+        key.append((attributeType == null)? null : attributeType.getName());
+        if (attributeNameSignificant) {
+            key.append('#').append(attributeInfo.getAttributeName());
+        }
+        key.append('|').append(elExpression);
+
+        for (String identifier : rootIdentifiersIn(elExpression)) {
+            Class<?> localVariableType = localVariableResolver.resolveVariable(identifier);
+            if (localVariableType != null) {
+                key.append('|').append(identifier).append('=').append(localVariableType.getName());
+            }
+        }
+        return key.toString();
+    }
+
+    /**
+     * Find all identifiers that may refer to a variable, i.e. those outside of string literals
+     * and not following a dot. It may include some other identifiers such as function prefixes,
+     * which doesn't matter.
+     */
+    static Set<String> rootIdentifiersIn(String elExpression) {
+        Set<String> identifiers = new TreeSet<String>();
+        final int length = elExpression.length();
+        char previousSignificant = ' ';
+        int position = 0;
+        while (position < length) {
+            char current = elExpression.charAt(position);
+            if (current == '\'' || current == '"') {
+                position = skipStringLiteral(elExpression, position);
+                previousSignificant = current;
+            } else if (Character.isJavaIdentifierStart(current)) {
+                int start = position;
+                while (position < length && Character.isJavaIdentifierPart(elExpression.charAt(position))) {
+                    position++;
+                }
+                if (previousSignificant != '.') {
+                    identifiers.add(elExpression.substring(start, position));
+                }
+                previousSignificant = 'a';
+            } else {
+                if (!Character.isWhitespace(current)) {
+                    previousSignificant = current;
+                }
+                position++;
+            }
+        }
+        return identifiers;
+    }
+
+    /** @return position after the end of the literal starting at the given position */
+    private static int skipStringLiteral(String elExpression, int literalStart) {
+        char quote = elExpression.charAt(literalStart);
+        int position = literalStart + 1;
+        while (position < elExpression.length()) {
+            char current = elExpression.charAt(position);
+            if (current == '\\') {
+                position += 2;
+            } else if (current == quote) {
+                return position + 1;
+            } else {
+                position++;
+            }
+        }
+        return position;
+    }
+
+    private static boolean isCopyable(ValidationResult result) {
+        Class<?> resultClass = result.getClass();
+        return resultClass == SuccessfulValidationResult.class
+                || resultClass == FailedValidationResult.class
+                || resultClass == ExpressionRejectedByFilterResult.class;
+    }
+
+    /**
+     * Copy of the result without its expression descriptor so that the copy can be assigned a new one.
+     * @param result (required) result of one of the types accepted by {@link #isCopyable(ValidationResult)}
+     */
+    private static ValidationResult copyOf(ValidationResult result) {
+        if (result instanceof SuccessfulValidationResult) {
+            SuccessfulValidationResult good = (SuccessfulValidationResult) result;
+            return new SuccessfulValidationResult(good.getElExpression(), good.getExpressionResult())
+                    .withFunctionsInExpression(good.getFunctionsInExpression())
+                    .withExpressionType(good.getExpressionType());
+        } else if (result instanceof FailedValidationResult) {
+            return new FailedValidationResult(((FailedValidationResult) result).getFailure());
+        } else {
+            return new ExpressionRejectedByFilterResult(((ExpressionRejectedByFilterResult) result).getDetails());
+        }
+    }
+
+    /** {@inheritDoc} */
+    public JsfElValidator declareVariable(String name, Object value) {
+        memoizedResults.clear();
+        delegate.declareVariable(name, value);
+        return this;
+    }
+
+    /** {@inheritDoc} */
+    public JsfElValidator definePropertyTypeOverride(String mapJsfExpression, Class<?> newType) {
+        memoizedResults.clear();
+        delegate.definePropertyTypeOverride(mapJsfExpression, newType);
+        return this;
+    }
+
+    public LruCache<String, ValidationResult> getMemoizedResults() {
+        return memoizedResults;
+    }
+
+}
@@ -24,9 +24,7 @@ import net.jakubholy.jeeutils.jsfelcheck.validator.exception.InternalValidatorFa
 import net.jakubholy.jeeutils.jsfelcheck.validator.exception.PropertyNotFoundException;
 
 import java.util.Collection;
-import java.util.Hashtable;
 import java.util.LinkedList;
-import java.util.Map;
 import java.util.logging.Logger;
 
 /**
@@ -58,8 +56,8 @@ public final class MockingPropertyResolver implements PredefinedVariableResolver
 
     private final Logger log = Logger.getLogger(getClass().getName());
     private PropertyTypeResolver typeResolver;
-    private ParsedElExpression currentExpression = new ParsedElExpression();
-    private Map<String, Class<?>> typeOverrides = new Hashtable<String, Class<?>>();
+    private final PropertyTypeOverrides typeOverrides = new PropertyTypeOverrides();
+    private ParsedElExpression currentExpression = new ParsedElExpression(typeOverrides);
     private final Collection<ElExpressionFilter> filters = new LinkedList<ElExpressionFilter>();
 
     /** Constructor. */
@@ -90,17 +88,7 @@ public final class MockingPropertyResolver implements PredefinedVariableResolver
      * @param newType (required)
      */
     public void definePropertyTypeOverride(final String elExpression, final Class<?> newType) {
-        if (newType == null) {
-            throw new IllegalArgumentException("The overriding type for property '" + elExpression
-            		+ "' must not be null.");
-        }
-        Class<?> currentOverride = typeOverrides.get(elExpression);
-        if (currentOverride != null) {
-            throw new IllegalArgumentException("The property override for '"
-                    + elExpression + "' is already defined; current: "
-                    + currentOverride + ", new: " + newType);
-        }
-        typeOverrides.put(elExpression, newType);
+        typeOverrides.define(elExpression, newType);
     }
 
     private void appendCurrentPropertyToExpression(final String property) {
@@ -216,18 +204,8 @@ public final class MockingPropertyResolver implements PredefinedVariableResolver
         	return null; // should not happen?!
         }
 
-        // Check property override first, it has higher priority
-        Class<?> propertyOverride = typeOverrides.get(currentExpression + "." + property);
-        if (propertyOverride != null) {
-            return propertyOverride;
-        }
-
-        Class<?> componentOverride = typeOverrides.get(currentExpression + ".*");
-        if (componentOverride != null) {
-            return componentOverride;
-        }
-
-        return null;
+        // The property override has higher priority than the component one
+        return currentExpression.getTypeOverride(property);
     }
 
     /** {@inheritDoc} */
@@ -0,0 +1,48 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.jakubholy.jeeutils.jsfelcheck.validator;
+
+import net.jakubholy.jeeutils.jsfelcheck.validator.FakeValueFactory.UnableToCreateFakeValueException;
+
+import org.mockito.Mockito;
+import org.mockito.exceptions.base.MockitoException;
+
+/**
+ * Fake values are Mockito mocks; works for any non-final type but generates a class for each type.
+ * This is the default strategy.
+ */
+public class MockitoFakeValueStrategy implements FakeValueStrategy {
+
+    /** {@inheritDoc} */
+    public Object createFakeValue(Class<?> type, Object property) throws UnableToCreateFakeValueException {
+        // TBD Mock MockObjectOfUnknownType or just instantiate it?
+        try {
+            return Mockito.mock(type, "Mocked_class_" + type.getName()
+                    + ((property == null)? "" : "_for_property_" + property));
+        } catch (MockitoException e) {
+            throw new UnableToCreateFakeValueException("Failed to create a mock for the property " + property
+                    + " with guessed type " + type.getName()
+                    + ": " + e.getMessage()
+                    , e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName();
+    }
+}
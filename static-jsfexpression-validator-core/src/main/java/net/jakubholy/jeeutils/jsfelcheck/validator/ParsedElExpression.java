@@ -17,9 +17,8 @@
 
 package net.jakubholy.jeeutils.jsfelcheck.validator;
 
-import java.util.Collection;
 import java.util.Iterator;
-import java.util.LinkedList;
+import java.util.NoSuchElementException;
 
 /**
  * Represents a JSF EL expression from a source view file.
@@ -29,17 +28,65 @@ import java.util.LinkedList;
  * corresponding to one dot-separated segment of the EL.
  * Example: EL bean.property1.nestedProperty will become
  * three parts: ["bean", "property1", "nestedProperty"].
+ * <p>
+ * Filters are applied after each part is added, so the parts are kept in a reused array that can be
+ * inspected via {@link #size()} and {@link #getPart(int)} without allocating anything, and the hash
+ * code and the string form are only computed when needed and then cached until the next change.
  */
 public class ParsedElExpression implements Iterable<String> {
 
-    private final Collection<String> expressionParts = new LinkedList<String>();
+    private static final int INITIAL_CAPACITY = 8;
+
+    private String[] expressionParts = new String[INITIAL_CAPACITY];
+    private int size = 0;
+    /** Cached hash code, 0 if not computed yet. */
+    private int hash = 0;
+    /** Cached string form, null if not built yet. */
+    private String string;
+    private final PropertyTypeOverrides typeOverrides;
+    /** The node of this expression in the typeOverrides, valid if the version matches. */
+    private PropertyTypeOverrides.Node overridesNode;
+    private int overridesNodeVersion = -1;
+
+    /** An expression not used for looking up type overrides. */
+    public ParsedElExpression() {
+        this(null);
+    }
+
+    /**
+     * An expression that tracks its position among the type overrides as its parts are added, see
+     * {@link #getTypeOverride(Object)}.
+     * @param typeOverrides (optional) the overrides to look up
+     */
+    public ParsedElExpression(PropertyTypeOverrides typeOverrides) {
+        this.typeOverrides = typeOverrides;
+    }
 
     /**
      * Iterates over the (ordered) parts of the EL ("bean", "property1", ..).
-     * @return never null
+     * Prefer {@link #getPart(int)} in filters, which doesn't allocate an iterator.
+     * @return never null, doesn't support removal
      */
     public Iterator<String> iterator() {
-        return expressionParts.iterator();
+        return new Iterator<String>() {
+
+            private int next = 0;
+
+            public boolean hasNext() {
+                return next < size;
+            }
+
+            public String next() {
+                if (next >= size) {
+                    throw new NoSuchElementException();
+                }
+                return expressionParts[next++];
+            }
+
+            public void remove() {
+                throw new UnsupportedOperationException("ParsedElExpression parts cannot be removed");
+            }
+        };
     }
 
     /**
@@ -47,7 +94,28 @@ public class ParsedElExpression implements Iterable<String> {
      * @return 0 or more
      */
     public int size() {
-        return expressionParts.size();
+        return size;
+    }
+
+    /**
+     * The part at the given position, 0 being the variable.
+     * @param index 0 .. size() - 1
+     * @return the part (never null)
+     * @throws IndexOutOfBoundsException the index is out of bounds
+     */
+    public String getPart(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+        }
+        return expressionParts[index];
+    }
+
+    /**
+     * The variable, i.e. the first part.
+     * @return the variable or null if not set yet
+     */
+    public String getVariable() {
+        return (size == 0)? null : expressionParts[0];
     }
 
     /**
@@ -55,30 +123,105 @@ public class ParsedElExpression implements Iterable<String> {
      * @param variable (required) ex.: "bean"
      */
     public void setVariable(String variable) {
-        expressionParts.clear();
-        expressionParts.add(variable);
+        size = 0;
+        append(variable);
+        if (typeOverrides != null) {
+            overridesNode = typeOverrides.getRoot().child(variable);
+            overridesNodeVersion = typeOverrides.getVersion();
+        }
     }
 
     /**
      * Add a property part to the expression to the end of the list of parts.
      * @param property (required)
      */
-    void addProperty(String property) {
-        expressionParts.add(property);
+    public void addProperty(String property) {
+        append(property);
+        if (overridesNode != null) {
+            overridesNode = overridesNode.descendant(property);
+        }
+    }
+
+    private void append(String part) {
+        if (size == expressionParts.length) {
+            String[] grownParts = new String[size * 2];
+            System.arraycopy(expressionParts, 0, grownParts, 0, size);
+            expressionParts = grownParts;
+        }
+        expressionParts[size++] = part;
+        hash = 0;
+        string = null;
+    }
+
+    /**
+     * The type override of the given property of this expression, i.e. of this expression with the property
+     * appended, or of all the sub-properties of this expression (<code>expression.*</code>).
+     * @param property (required) the property name or key
+     * @return the override or null if none or this expression isn't bound to any type overrides
+     */
+    public Class<?> getTypeOverride(Object property) {
+        if (typeOverrides == null) {
+            return null;
+        }
+        if (overridesNodeVersion != typeOverrides.getVersion()) {
+            // Overrides defined after the parts were added, find the node anew
+            overridesNodeVersion = typeOverrides.getVersion();
+            overridesNode = (size == 0)? null : typeOverrides.getRoot();
+            for (int i = 0; i < size && overridesNode != null; i++) {
+                overridesNode = overridesNode.descendant(expressionParts[i]);
+            }
+        }
+        return PropertyTypeOverrides.typeOverrideOf(overridesNode, property);
     }
 
     @Override
-    public String toString() {
-        StringBuilder expression = new StringBuilder();
+    public int hashCode() {
+        if (hash == 0) {
+            int result = 1;
+            for (int i = 0; i < size; i++) {
+                result = 31 * result + expressionParts[i].hashCode();
+            }
+            hash = result;
+        }
+        return hash;
+    }
 
-        for (String part : expressionParts) {
-            if (expression.length() > 0) {
-                expression.append('.');
+    /** Expressions with the same parts are equal, regardless of the type overrides they are bound to. */
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof ParsedElExpression)) {
+            return false;
+        }
+        ParsedElExpression otherExpression = (ParsedElExpression) other;
+        if (size != otherExpression.size || hashCode() != otherExpression.hashCode()) {
+            return false;
+        }
+        for (int i = 0; i < size; i++) {
+            if (!expressionParts[i].equals(otherExpression.expressionParts[i])) {
+                return false;
             }
-            expression.append(part);
         }
+        return true;
+    }
 
-        return expression.toString();
+    @Override
+    public String toString() {
+        if (string == null) {
+            StringBuilder expression = new StringBuilder();
+
+            for (int i = 0; i < size; i++) {
+                if (i > 0) {
+                    expression.append('.');
+                }
+                expression.append(expressionParts[i]);
+            }
+
+            string = expression.toString();
+        }
+        return string;
     }
 
 }
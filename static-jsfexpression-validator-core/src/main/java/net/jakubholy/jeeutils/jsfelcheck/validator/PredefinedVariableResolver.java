@@ -17,8 +17,10 @@
 
 package net.jakubholy.jeeutils.jsfelcheck.validator;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.logging.Logger;
 
@@ -50,6 +52,10 @@ public final class PredefinedVariableResolver {
     	"pageScope", "requestScope", "sessionScope", "applicationScope", "param"
         , "paramValues", "header", "headerValues", "cookie", "initParam" };
 
+    /** Names of the JSP implicit objects of the type Map such as requestScope. */
+    public static final List<String> IMPLICIT_MAP_OBJECT_NAMES =
+            Collections.unmodifiableList(Arrays.asList(IMPLICIT_MAP_OBJECTS));
+
     private final Logger log = Logger.getLogger(getClass().getName());
 
     private boolean includeKnownVariablesInException = true;
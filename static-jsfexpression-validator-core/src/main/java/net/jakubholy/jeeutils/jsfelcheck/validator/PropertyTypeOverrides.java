@@ -0,0 +1,149 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.jakubholy.jeeutils.jsfelcheck.validator;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The type overrides of properties and collection components, see
+ * {@link MockingPropertyResolver#definePropertyTypeOverride(String, Class)}.
+ * <p>
+ * The overrides are stored as a trie of the dot-separated parts of the overridden expression, with the component
+ * type override being simply the child "*". A {@link ParsedElExpression} bound to the overrides keeps its current
+ * node as its parts are added so that finding the override of the next property is a single map lookup, with
+ * no strings built.
+ * <p>
+ * Overrides may be defined at any time but should be defined before the validation starts, the lookups do not
+ * synchronize with the definitions.
+ */
+public final class PropertyTypeOverrides {
+
+    /** The last part of a collection component type override such as <code>bean.mapProperty.*</code>. */
+    public static final String ANY_PROPERTY = "*";
+
+    /** One part of the overridden expressions. */
+    static final class Node {
+
+        private Map<String, Node> children;
+        private Class<?> type;
+
+        Node child(String part) {
+            return (children == null)? null : children.get(part);
+        }
+
+        /**
+         * The node of the given part, which may be a Map key containing dots and thus correspond to several
+         * nodes.
+         */
+        Node descendant(String part) {
+            if (part.indexOf('.') < 0) {
+                return child(part);
+            }
+            Node node = this;
+            int start = 0;
+            while (node != null && start <= part.length()) {
+                int end = part.indexOf('.', start);
+                if (end < 0) {
+                    end = part.length();
+                }
+                node = node.child(part.substring(start, end));
+                start = end + 1;
+            }
+            return node;
+        }
+
+        private Node getOrAddChild(String part) {
+            if (children == null) {
+                children = new HashMap<String, Node>();
+            }
+            Node child = children.get(part);
+            if (child == null) {
+                child = new Node();
+                children.put(part, child);
+            }
+            return child;
+        }
+    }
+
+    private final Node root = new Node();
+    private volatile int version = 0;
+
+    /**
+     * Define an override.
+     * @param elExpression (required) the property chain, see
+     * {@link MockingPropertyResolver#definePropertyTypeOverride(String, Class)}
+     * @param newType (required)
+     * @throws IllegalArgumentException the type is null or an override for the expression already exists
+     */
+    public synchronized void define(String elExpression, Class<?> newType) throws IllegalArgumentException {
+        if (newType == null) {
+            throw new IllegalArgumentException("The overriding type for property '" + elExpression
+                    + "' must not be null.");
+        }
+        Node node = root;
+        for (String part : elExpression.split("\\.", -1)) {
+            node = node.getOrAddChild(part);
+        }
+        if (node.type != null) {
+            throw new IllegalArgumentException("The property override for '"
+                    + elExpression + "' is already defined; current: "
+                    + node.type + ", new: " + newType);
+        }
+        node.type = newType;
+        version++;
+    }
+
+    /**
+     * The override defined for exactly the given expression.
+     * @param elExpression (required) ex.: bean.property or bean.mapProperty.*
+     * @return the type or null
+     */
+    public Class<?> get(String elExpression) {
+        Node node = root.descendant(elExpression);
+        return (node == null)? null : node.type;
+    }
+
+    /**
+     * The type override for the property of the expression - the override of exactly this property has higher
+     * priority than that of all sub-properties of the expression.
+     * @param expressionNode (optional) the node of the expression, null if no override starts with it
+     * @param property (required) the property name or key
+     * @return the type or null
+     */
+    static Class<?> typeOverrideOf(Node expressionNode, Object property) {
+        if (expressionNode == null) {
+            return null;
+        }
+        Node propertyNode = expressionNode.descendant(String.valueOf(property));
+        if (propertyNode != null && propertyNode.type != null) {
+            return propertyNode.type;
+        }
+        Node componentNode = expressionNode.child(ANY_PROPERTY);
+        return (componentNode == null)? null : componentNode.type;
+    }
+
+    Node getRoot() {
+        return root;
+    }
+
+    /** Incremented by each definition so that nodes looked up before it may be refreshed. */
+    int getVersion() {
+        return version;
+    }
+
+}
@@ -19,6 +19,8 @@ package net.jakubholy.jeeutils.jsfelcheck.validator.exception;
 
 import java.util.regex.Pattern;
 
+import net.jakubholy.jeeutils.jsfelcheck.validator.FakeValueFactory;
+
 /**
  * Used to pass on EL validation failures in a JSF implementation independent way.
  */
@@ -55,7 +57,7 @@ public class InvalidExpressionException extends Exception {
         String message = (defaultMessage.contains(expression))
             || causeInfo.contains(expression)? defaultMessage : "Invalid EL expression '"
             + expression + "': " + defaultMessage;
-        return withoutMockitoCglibSuffixInClassnames(message + causeInfo);
+        return FakeValueFactory.withFakedTypeNames(withoutMockitoCglibSuffixInClassnames(message + causeInfo));
     }
 
     /**
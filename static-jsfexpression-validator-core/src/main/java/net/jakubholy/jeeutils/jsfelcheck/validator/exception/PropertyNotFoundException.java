@@ -27,4 +27,8 @@ public class PropertyNotFoundException extends BaseEvaluationException {
 	public PropertyNotFoundException(Throwable cause) {
 		super(cause.getMessage(), cause);
 	}
+
+	public PropertyNotFoundException(String message) {
+		super(message);
+	}
 }
\ No newline at end of file
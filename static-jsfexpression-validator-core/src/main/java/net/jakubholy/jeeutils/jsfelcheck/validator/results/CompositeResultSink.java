@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.jakubholy.jeeutils.jsfelcheck.validator.results;
+
+import net.jakubholy.jeeutils.jsfelcheck.expressionfinder.variables.MissingLocalVariableTypeDeclarationException; // SUPPRESS CHECKSTYLE
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Sink passing everything to multiple other sinks, in order.
+ */
+public class CompositeResultSink implements ValidationResultSink {
+
+    private final List<ValidationResultSink> sinks;
+
+    /**
+     * Sink delegating to the given sinks.
+     * @param sinks (required) the sinks, none of them null
+     */
+    public CompositeResultSink(List<ValidationResultSink> sinks) {
+        this.sinks = Collections.unmodifiableList(new ArrayList<ValidationResultSink>(sinks));
+    }
+
+    /**
+     * Combine the sinks, ignoring nulls.
+     * @param sinks (optional) the sinks, may contain nulls
+     * @return null if there are no sinks, the sink itself if there is just one, a composite otherwise
+     */
+    public static ValidationResultSink combine(ValidationResultSink... sinks) {
+        List<ValidationResultSink> nonNullSinks = new ArrayList<ValidationResultSink>(Arrays.asList(sinks));
+        nonNullSinks.removeAll(Collections.singleton(null));
+        if (nonNullSinks.isEmpty()) {
+            return null;
+        } else if (nonNullSinks.size() == 1) {
+            return nonNullSinks.get(0);
+        }
+        return new CompositeResultSink(nonNullSinks);
+    }
+
+    /** {@inheritDoc} */
+    public void resultProduced(ValidationResult result) {
+        for (ValidationResultSink sink : sinks) {
+            sink.resultProduced(result);
+        }
+    }
+
+    /** {@inheritDoc} */
+    public void variableNeedingTypeDeclarationFound(MissingLocalVariableTypeDeclarationException variable) {
+        for (ValidationResultSink sink : sinks) {
+            sink.variableNeedingTypeDeclarationFound(variable);
+        }
+    }
+
+    /** {@inheritDoc} */
+    public void validationFinished() {
+        for (ValidationResultSink sink : sinks) {
+            sink.validationFinished();
+        }
+    }
+
+    public List<ValidationResultSink> getSinks() {
+        return sinks;
+    }
+
+}
@@ -0,0 +1,74 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.jakubholy.jeeutils.jsfelcheck.validator.results;
+
+import net.jakubholy.jeeutils.jsfelcheck.expressionfinder.variables.MissingLocalVariableTypeDeclarationException; // SUPPRESS CHECKSTYLE
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sink that only counts the results of each kind.
+ */
+public class CountingResultSink implements ValidationResultSink {
+
+    private final AtomicInteger goodResults = new AtomicInteger();
+    private final AtomicInteger failures = new AtomicInteger();
+    private final AtomicInteger exclusions = new AtomicInteger();
+    private final AtomicInteger variablesNeedingTypeDeclaration = new AtomicInteger();
+
+    /** {@inheritDoc} */
+    public void resultProduced(ValidationResult result) {
+        if (result instanceof SuccessfulValidationResult) {
+            goodResults.incrementAndGet();
+        } else if (result instanceof ExpressionRejectedByFilterResult) {
+            exclusions.incrementAndGet();
+        } else {
+            failures.incrementAndGet();
+        }
+    }
+
+    /** {@inheritDoc} */
+    public void variableNeedingTypeDeclarationFound(MissingLocalVariableTypeDeclarationException variable) {
+        variablesNeedingTypeDeclaration.incrementAndGet();
+    }
+
+    /** {@inheritDoc} */
+    public void validationFinished() { }
+
+    public int getGoodResults() {
+        return goodResults.get();
+    }
+
+    public int getFailures() {
+        return failures.get();
+    }
+
+    public int getExclusions() {
+        return exclusions.get();
+    }
+
+    public int getVariablesNeedingTypeDeclaration() {
+        return variablesNeedingTypeDeclaration.get();
+    }
+
+    @Override
+    public String toString() {
+        return "CountingResultSink[failures=" + failures + ",valid expressions=" + goodResults
+                + ",ignored expressions=" + exclusions
+                + ",local variables needing type declaration=" + variablesNeedingTypeDeclaration + "]";
+    }
+}
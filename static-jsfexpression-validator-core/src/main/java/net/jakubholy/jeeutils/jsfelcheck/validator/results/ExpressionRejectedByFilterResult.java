@@ -63,4 +63,9 @@ public class ExpressionRejectedByFilterResult extends ValidationResult {
         return filter;
     }
 
+    /** @return details of the rejection (may be null) */
+    public ExpressionRejectedByFilterException getDetails() {
+        return details;
+    }
+
 }
@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.jakubholy.jeeutils.jsfelcheck.validator.results;
+
+import net.jakubholy.jeeutils.jsfelcheck.expressionfinder.variables.MissingLocalVariableTypeDeclarationException; // SUPPRESS CHECKSTYLE
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Sink that keeps only the failures and the local variables needing a type declaration, i.e. what needs
+ * to be fixed, and ignores the successful and excluded expressions.
+ */
+public class FailuresOnlyResultSink implements ValidationResultSink {
+
+    private final List<FailedValidationResult> failures =
+            Collections.synchronizedList(new ArrayList<FailedValidationResult>());
+    private final List<MissingLocalVariableTypeDeclarationException> variablesNeedingTypeDeclaration =
+            Collections.synchronizedList(new ArrayList<MissingLocalVariableTypeDeclarationException>());
+
+    /** {@inheritDoc} */
+    public void resultProduced(ValidationResult result) {
+        if (result instanceof FailedValidationResult) {
+            failures.add((FailedValidationResult) result);
+        }
+    }
+
+    /** {@inheritDoc} */
+    public void variableNeedingTypeDeclarationFound(MissingLocalVariableTypeDeclarationException variable) {
+        variablesNeedingTypeDeclaration.add(variable);
+    }
+
+    /** {@inheritDoc} */
+    public void validationFinished() { }
+
+    /**
+     * The failures received so far.
+     * @return unmodifiable copy (never null)
+     */
+    public List<FailedValidationResult> getFailures() {
+        synchronized (failures) {
+            return Collections.unmodifiableList(new ArrayList<FailedValidationResult>(failures));
+        }
+    }
+
+    /**
+     * The local variables needing type declaration received so far.
+     * @return unmodifiable copy (never null)
+     */
+    public List<MissingLocalVariableTypeDeclarationException> getVariablesNeedingTypeDeclaration() {
+        synchronized (variablesNeedingTypeDeclaration) {
+            return Collections.unmodifiableList(
+                    new ArrayList<MissingLocalVariableTypeDeclarationException>(variablesNeedingTypeDeclaration));
+        }
+    }
+
+}
@@ -0,0 +1,132 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.jakubholy.jeeutils.jsfelcheck.validator.results;
+
+import net.jakubholy.jeeutils.jsfelcheck.expressionfinder.variables.MissingLocalVariableTypeDeclarationException; // SUPPRESS CHECKSTYLE
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+
+/**
+ * Sink that writes the results to a file as they come, one result per line with tab-separated columns:
+ * the kind of the result (FAILED, EXCLUDED, VALID or UNDECLARED_VARIABLE), the file, the line of the tag,
+ * the expression and details (the failure message, the filter, the variable name).
+ * Tabs and line breaks inside the values are replaced with spaces.
+ */
+public class FileWritingResultSink implements ValidationResultSink {
+
+    private static final String ENCODING = "UTF-8";
+
+    private final File outputFile;
+    private final boolean includeCorrectExpressions;
+    private final Writer output;
+
+    /**
+     * Sink writing to the given file, replacing its content.
+     * @param outputFile (required) the file to write to
+     * @param includeCorrectExpressions true to write also the successfully validated expressions
+     */
+    public FileWritingResultSink(File outputFile, boolean includeCorrectExpressions) {
+        this.outputFile = outputFile;
+        this.includeCorrectExpressions = includeCorrectExpressions;
+        try {
+            this.output = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(outputFile), ENCODING));
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to open the validation result file " + outputFile, e);
+        }
+    }
+
+    /** {@inheritDoc} */
+    public void resultProduced(ValidationResult result) {
+        String kind;
+        String expression;
+        String details;
+        if (result instanceof SuccessfulValidationResult) {
+            if (!includeCorrectExpressions) {
+                return;
+            }
+            kind = "VALID";
+            expression = ((SuccessfulValidationResult) result).getElExpression();
+            details = "";
+        } else if (result instanceof ExpressionRejectedByFilterResult) {
+            ExpressionRejectedByFilterResult exclusion = (ExpressionRejectedByFilterResult) result;
+            kind = "EXCLUDED";
+            expression = (exclusion.getDetails() == null)? null : exclusion.getDetails().getExpression();
+            details = String.valueOf(exclusion.getFilter());
+        } else {
+            FailedValidationResult failure = (FailedValidationResult) result;
+            kind = "FAILED";
+            expression = failure.getElExpression();
+            details = (failure.getFailure() == null)? "" : failure.getFailure().getMessage();
+        }
+
+        JsfExpressionDescriptor descriptor = result.getExpressionDescriptor();
+        if (descriptor == null) {
+            writeLine(kind, null, -1, expression, details);
+        } else {
+            writeLine(kind, descriptor.getJspFile(), descriptor.getTagLineNumber(), expression, details);
+        }
+    }
+
+    /** {@inheritDoc} */
+    public void variableNeedingTypeDeclarationFound(MissingLocalVariableTypeDeclarationException variable) {
+        writeLine("UNDECLARED_VARIABLE", variable.getJspFile(), variable.getTagLineNumber()
+                , variable.getSourceExpression(), variable.getVariableName());
+    }
+
+    private synchronized void writeLine(String kind, String file, int line, String expression, String details) {
+        try {
+            output.write(kind);
+            output.write('\t');
+            output.write(sanitize(file));
+            output.write('\t');
+            output.write(String.valueOf(line));
+            output.write('\t');
+            output.write(sanitize(expression));
+            output.write('\t');
+            output.write(sanitize(details));
+            output.write('\n');
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to write to the validation result file " + outputFile, e);
+        }
+    }
+
+    private static String sanitize(String value) {
+        if (value == null) {
+            return "";
+        }
+        return value.replace('\t', ' ').replace('\r', ' ').replace('\n', ' ');
+    }
+
+    /** {@inheritDoc} */
+    public synchronized void validationFinished() {
+        try {
+            output.close();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to close the validation result file " + outputFile, e);
+        }
+    }
+
+    public File getOutputFile() {
+        return outputFile;
+    }
+
+}
@@ -17,15 +17,34 @@
 
 package net.jakubholy.jeeutils.jsfelcheck.validator.results;
 
+import static net.jakubholy.jeeutils.jsfelcheck.util.ArgumentAssert.assertNotNull;
+
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.LinkedList;
 
 /**
  * Collection of validation results whose {@link #hasErrors()} is true if any of the contained results has it true.
+ * <p>
+ *     To save memory, only some of the results may be retained, see {@link #setRetention(Retention)}; all of them are
+ * counted though.
+ * </p>
  */
 public class MultipleValidationResults extends ValidationResult implements Iterable<ValidationResult> {
 
+    /** Which of the added results to keep. */
+    public static enum Retention {
+        /** Keep all the results (the default). */
+        ALL,
+        /** Keep only failures and excluded expressions, i.e. drop the (usually much more numerous) successful ones. */
+        PROBLEMS_ONLY,
+        /**
+         * Keep no results, only count them - use together with a
+         * {@link net.jakubholy.jeeutils.jsfelcheck.validator.results.ValidationResultSink}.
+         */
+        NONE
+    }
+
     private final Collection<ValidationResult> results = new LinkedList<ValidationResult>();
     private final Collection<SuccessfulValidationResult> goodResults =
         new LinkedList<SuccessfulValidationResult>();
@@ -35,6 +54,10 @@ public class MultipleValidationResults extends ValidationResult implements Itera
         new LinkedList<ExpressionRejectedByFilterResult>();
 
     private boolean errors = false;
+    private Retention retention = Retention.ALL;
+    private int goodCount = 0;
+    private int failureCount = 0;
+    private int exclusionCount = 0;
 
     @Override
     public boolean hasErrors() {
@@ -47,6 +70,18 @@ public class MultipleValidationResults extends ValidationResult implements Itera
      */
     public void add(MultipleValidationResults multipleResults) {
         addAll(multipleResults.results);
+        addUnretainedCountsOf(multipleResults);
+    }
+
+    /**
+     * Count also the results that the other collection has not retained, after its retained results have been added.
+     * @param otherResults (required)
+     */
+    protected final void addUnretainedCountsOf(MultipleValidationResults otherResults) {
+        errors |= otherResults.errors;
+        goodCount += otherResults.goodCount - otherResults.goodResults.size();
+        failureCount += otherResults.failureCount - otherResults.failures.size();
+        exclusionCount += otherResults.exclusionCount - otherResults.exclusions.size();
     }
 
     /**
@@ -59,13 +94,24 @@ public class MultipleValidationResults extends ValidationResult implements Itera
 
     private void addSingleResult(ValidationResult singleResult) {
         errors |= singleResult.hasErrors();
-        results.add(singleResult);
         if (singleResult instanceof SuccessfulValidationResult) {
-            goodResults.add((SuccessfulValidationResult) singleResult);
+            goodCount++;
+            if (retention == Retention.ALL) {
+                results.add(singleResult);
+                goodResults.add((SuccessfulValidationResult) singleResult);
+            }
         } else if (singleResult instanceof ExpressionRejectedByFilterResult) {
-            exclusions.add((ExpressionRejectedByFilterResult) singleResult);
+            exclusionCount++;
+            if (retention != Retention.NONE) {
+                results.add(singleResult);
+                exclusions.add((ExpressionRejectedByFilterResult) singleResult);
+            }
         } else {
-            failures.add((FailedValidationResult) singleResult);
+            failureCount++;
+            if (retention != Retention.NONE) {
+                results.add(singleResult);
+                failures.add((FailedValidationResult) singleResult);
+            }
         }
         postAddSingleResult(singleResult);
     }
@@ -93,17 +139,17 @@ public class MultipleValidationResults extends ValidationResult implements Itera
 
     /** {@inheritDoc} */
     public ResultsIterable<SuccessfulValidationResult> goodResults() {
-        return new ResultsIterable<SuccessfulValidationResult>(goodResults);
+        return new ResultsIterable<SuccessfulValidationResult>(goodResults, goodCount);
     }
 
     /** {@inheritDoc} */
     public ResultsIterable<FailedValidationResult> failures() {
-        return new ResultsIterable<FailedValidationResult>(failures);
+        return new ResultsIterable<FailedValidationResult>(failures, failureCount);
     }
 
     /** {@inheritDoc} */
     public ResultsIterable<ExpressionRejectedByFilterResult> excluded() {
-        return new ResultsIterable<ExpressionRejectedByFilterResult>(exclusions);
+        return new ResultsIterable<ExpressionRejectedByFilterResult>(exclusions, exclusionCount);
     }
 
     @Override
@@ -112,9 +158,21 @@ public class MultipleValidationResults extends ValidationResult implements Itera
     }
 
     protected final String getResultsSummary() {
-        return "failures=" + failures.size()
-                		+ ",valid expressions=" + goodResults.size()
-                		+ ",ignored expressions=" + exclusions.size();
+        return "failures=" + failureCount
+                		+ ",valid expressions=" + goodCount
+                		+ ",ignored expressions=" + exclusionCount;
+    }
+
+    /**
+     * Set which results to keep; it only affects results added afterwards.
+     * @param retention (required)
+     */
+    public void setRetention(Retention retention) {
+        this.retention = assertNotNull(retention, "retention", Retention.class);
+    }
+
+    public Retention getRetention() {
+        return retention;
     }
 
 }
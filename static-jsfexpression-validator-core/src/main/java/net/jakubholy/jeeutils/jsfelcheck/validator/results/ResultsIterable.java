@@ -28,9 +28,11 @@ import java.util.Iterator;
 public class ResultsIterable<T> implements Iterable<T> {
 
     private final Collection<T> results;
+    private final int totalCount;
 
-    ResultsIterable(Collection<T> results) {
+    ResultsIterable(Collection<T> results, int totalCount) {
         this.results = results;
+        this.totalCount = totalCount;
     }
 
     /** {@inheritDoc} */
@@ -46,6 +48,16 @@ public class ResultsIterable<T> implements Iterable<T> {
         return results.size();
     }
 
+    /**
+     * Number of all the results of this kind that have been produced, including those that have not been retained
+     * and thus are not in this iterable.
+     * @return >= {@link #size()}
+     * @see MultipleValidationResults#setRetention(MultipleValidationResults.Retention)
+     */
+    public int getTotalCount() {
+        return totalCount;
+    }
+
     @Override
     public String toString() {
         StringBuilder resultList = new StringBuilder("RESULTS [").append(size()).append("]:\n");
@@ -17,6 +17,7 @@
 
 package net.jakubholy.jeeutils.jsfelcheck.validator.results;
 
+import java.lang.reflect.Type;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.Set;
@@ -29,6 +30,7 @@ public class SuccessfulValidationResult extends ValidationResult {
     private final Object expressionResult;
     private final String elExpression;
     private final Set<String> functionsInExpression = new HashSet<String>();
+    private Type expressionType;
 
     /**
      * Result for EL expression whose evaluation produced the given value.
@@ -97,4 +99,25 @@ public class SuccessfulValidationResult extends ValidationResult {
     public Set<String> getFunctionsInExpression() {
         return functionsInExpression;
     }
+
+    /**
+     * Record the static type of the expression's result, including its type arguments, if the validator knows it.
+     * The fake result value loses them so that f.ex. the elements of a <code>List&lt;Item&gt;</code> can only
+     * be found to be Items thanks to this type.
+     * @param expressionType (optional) ex.: <code>List&lt;Item&gt;</code>
+     * @return this
+     */
+    public SuccessfulValidationResult withExpressionType(Type expressionType) {
+        this.expressionType = expressionType;
+        return this;
+    }
+
+    /**
+     * The static, possibly generic type of the expression's result.
+     * @return the type or null if unknown
+     * @see #withExpressionType(Type)
+     */
+    public Type getExpressionType() {
+        return expressionType;
+    }
 }
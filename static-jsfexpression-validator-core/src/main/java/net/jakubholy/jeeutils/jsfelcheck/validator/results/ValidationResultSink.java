@@ -0,0 +1,52 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.jakubholy.jeeutils.jsfelcheck.validator.results;
+
+import net.jakubholy.jeeutils.jsfelcheck.expressionfinder.variables.MissingLocalVariableTypeDeclarationException; // SUPPRESS CHECKSTYLE
+
+/**
+ * Receives validation results as soon as they are produced, while the views are being processed, so that they
+ * can be processed (counted, written to a file, ...) without keeping them all in memory. Use it together with
+ * {@link MultipleValidationResults.Retention} to limit the results kept by the analyzer.
+ * <p>
+ *     When views are validated in multiple threads, the sink is called concurrently from all of them,
+ * so implementations must be thread-safe.
+ * </p>
+ *
+ * @see net.jakubholy.jeeutils.jsfelcheck.AbstractJsfStaticAnalyzer#withResultSink(ValidationResultSink)
+ */
+public interface ValidationResultSink {
+
+    /**
+     * A result has been produced.
+     * @param result (required) the result, with its {@link ValidationResult#getExpressionDescriptor()} including
+     * the file and line
+     */
+    void resultProduced(ValidationResult result);
+
+    /**
+     * A local variable without a type declaration has been found.
+     * @param variable (required) the variable, including the file and line
+     */
+    void variableNeedingTypeDeclarationFound(MissingLocalVariableTypeDeclarationException variable);
+
+    /**
+     * All the views have been validated, no more results will follow; flush and release any resources.
+     */
+    void validationFinished();
+
+}
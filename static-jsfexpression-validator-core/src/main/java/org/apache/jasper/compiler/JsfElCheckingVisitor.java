@@ -81,36 +81,29 @@ public final class JsfElCheckingVisitor extends Visitor {
 
     }
 
-    private static PageNodeListener nodeListener = new NullPageNodeListener();
+    private final PageNodeListener nodeListener;
 
     /**
      * Create a new visitor for the given JSP file.
-     * @param jspFile (required) the name of the file that will be processed by this visitor
-     * @return the visitor
-     */
-    public static JsfElCheckingVisitor forFile(final String jspFile) {
-        return new JsfElCheckingVisitor(jspFile);
-    }
-
-    /**
-     * Set the listeners that should be notified of nodes (tags) as they are found and processed.
      * <p>
-     *     This is *static* because of Japser API limitations - we can only instruct it what
-     *     Compiler class it should use but it instantiates it itself. The
-     *     OnlyReadingJspPseudoCompiler in turn instantiates the JsfElCheckingVisitor and
-     *     therefore there is no way how to pass arguments from the JsfElValidator to the visitor
-     *     instance so we just set it on the visitor's class.
-     *     (Alternatively we could use a factory that would locate an existing instance
-     *     on demand but still we will need to use either a static singleton or the new
-     *     version of thereof called Spring.)
+     *     Jasper instantiates the OnlyReadingJspPseudoCompiler itself so the listener cannot be passed to it
+     *     directly; the compiler gets it from the JspC that is processing the file, which is its
+     *     compilation context's options, see
+     *     {@link net.jakubholy.jeeutils.jsfelcheck.expressionfinder.impl.jasper.JspCParsingToNodesOnly}.
+     *     There is thus no global state and multiple JspC instances may run concurrently.
      * </p>
-     * @param nodeListener the listener
+     * @param jspFile (required) the name of the file that will be processed by this visitor
+     * @param nodeListener (optional) the listener to notify of nodes (tags) as they are found and processed;
+     * nothing is notified if null
+     * @return the visitor
      */
-    public static void setNodeListener(PageNodeListener nodeListener) {
-        JsfElCheckingVisitor.nodeListener = nodeListener;
+    public static JsfElCheckingVisitor forFile(final String jspFile, PageNodeListener nodeListener) {
+        return new JsfElCheckingVisitor(jspFile,
+                (nodeListener == null)? new NullPageNodeListener() : nodeListener);
     }
 
-    private JsfElCheckingVisitor(final String jspFile) {
+    private JsfElCheckingVisitor(final String jspFile, PageNodeListener nodeListener) {
+        this.nodeListener = nodeListener;
         nodeListener.fileEntered(jspFile);
     }
 
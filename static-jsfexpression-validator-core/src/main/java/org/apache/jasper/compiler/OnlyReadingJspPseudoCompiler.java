@@ -17,14 +17,19 @@
 
 package org.apache.jasper.compiler;
 
+import net.jakubholy.jeeutils.jsfelcheck.expressionfinder.impl.jasper.JspCParsingToNodesOnly;
+import net.jakubholy.jeeutils.jsfelcheck.expressionfinder.pagenodes.PageNodeListener;
+
 import org.apache.jasper.JasperException;
+import org.apache.jasper.Options;
 
 import java.io.FileNotFoundException;
 
 // CHECKSTYLE:OFF (copied from Jasper's source code)
 /**
  * A simple Compiler subclass that overrides {@link #generateJava()} to invoke
- * the Visitor of our choice.
+ * the Visitor of our choice, notifying the PageNodeListener of the {@link JspCParsingToNodesOnly}
+ * that processes the page.
  */
 public class OnlyReadingJspPseudoCompiler extends Compiler {
 
@@ -86,7 +91,7 @@ public class OnlyReadingJspPseudoCompiler extends Compiler {
             // JH - my own code starts here
             // Validate and process attributes - don't re-validate the
             // directives we validated in pass 1
-            pageNodes.visit(JsfElCheckingVisitor.forFile(ctxt.getJspFile()));
+            pageNodes.visit(JsfElCheckingVisitor.forFile(ctxt.getJspFile(), getPageNodeListener()));
 
         } catch (JasperException e) {
             System.err.println(getClass().getSimpleName() + ".generateJava failed to parse "
@@ -96,6 +101,18 @@ public class OnlyReadingJspPseudoCompiler extends Compiler {
         return null;
     }
 
+    /**
+     * The listener to notify of the nodes found, provided by the JspC that has created our compilation context.
+     * @return the listener or null if not running within {@link JspCParsingToNodesOnly}
+     */
+    private PageNodeListener getPageNodeListener() {
+        Options options = ctxt.getOptions();
+        if (options instanceof JspCParsingToNodesOnly) {
+            return ((JspCParsingToNodesOnly) options).getPageNodeListener();
+        }
+        return null;
+    }
+
     /**
      * The parent's implementation, in our case, checks whether the target file
      * exists and returns true if it doesn't. However it is expensive so
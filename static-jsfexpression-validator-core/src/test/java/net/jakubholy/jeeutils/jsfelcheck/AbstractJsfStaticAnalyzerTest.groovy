@@ -18,11 +18,16 @@
 package net.jakubholy.jeeutils.jsfelcheck
 
 import net.jakubholy.jeeutils.jsfelcheck.TestJsfStaticAnalyzerImpl.RecordingDummyElResolver
+import net.jakubholy.jeeutils.jsfelcheck.beanfinder.InputResource
+import net.jakubholy.jeeutils.jsfelcheck.beanfinder.ManagedBeanFinder
+import net.jakubholy.jeeutils.jsfelcheck.validator.results.ValidationResultSink
 import net.jakubholy.jeeutils.jsfelcheck.config.LocalVariableConfiguration
 import net.jakubholy.jeeutils.jsfelcheck.config.ManagedBeansAndVariablesConfiguration
 import org.junit.Before
 import org.junit.Test
 import static net.jakubholy.jeeutils.jsfelcheck.config.ManagedBeansAndVariablesConfiguration.forExtraVariables
+import static net.jakubholy.jeeutils.jsfelcheck.config.ManagedBeansAndVariablesConfiguration.fromFacesConfigFiles
+import static org.mockito.Mockito.*
 import static net.jakubholy.jeeutils.jsfelcheck.config.ManagedBeansAndVariablesConfiguration.fromSpringConfigFiles
 
 public class AbstractJsfStaticAnalyzerTest {
@@ -111,4 +116,31 @@ public class AbstractJsfStaticAnalyzerTest {
                 .findSpringManagedBeans().find { it.name == "beanInImportedFile" }
     }
 
+    @Test
+    public void should_finish_result_sink_also_when_validation_fails() throws Exception {
+        def webappRoot = File.createTempFile("jsfelcheck-webapp", "")
+        assert webappRoot.delete() && webappRoot.mkdir()
+        def facesConfig = new File(webappRoot, "faces-config.xml")
+        facesConfig.text = "<faces-config/>"
+        def failingAnalyzer = new TestJsfStaticAnalyzerImpl() {
+            @Override
+            protected ManagedBeanFinder createManagedBeanFinder(Collection<InputResource> facesConfigFilesToRead) {
+                throw new IllegalStateException("Broken faces-config")
+            }
+        }
+        def sink = mock(ValidationResultSink)
+        failingAnalyzer.withResultSink(sink)
+        failingAnalyzer.withManagedBeansAndVariablesConfiguration(fromFacesConfigFiles(facesConfig))
+
+        try {
+            failingAnalyzer.validateElExpressions(webappRoot)
+            assert false : "The validation should have failed"
+        } catch (IllegalStateException e) {
+            assert e.message == "Broken faces-config"
+        } finally {
+            webappRoot.deleteDir()
+        }
+        verify(sink).validationFinished()
+    }
+
 }
@@ -64,6 +64,10 @@ public class TestJsfStaticAnalyzerImpl extends AbstractJsfStaticAnalyzer<TestJsf
 
         @Override
         public JsfElValidator declareVariable(String name, Object value) {
+            // As the real validators
+            if (extraVariables.containsKey(name)) {
+                throw new IllegalArgumentException("The variable '" + name + "' is already defined");
+            }
             extraVariables.put(name, value);
             return this;
         }
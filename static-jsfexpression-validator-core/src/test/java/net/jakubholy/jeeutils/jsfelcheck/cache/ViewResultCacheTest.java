@@ -0,0 +1,167 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.jakubholy.jeeutils.jsfelcheck.cache;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import net.jakubholy.jeeutils.jsfelcheck.expressionfinder.impl.jasper.CollectedValidationResultsImpl;
+import net.jakubholy.jeeutils.jsfelcheck.expressionfinder.variables.MissingLocalVariableTypeDeclarationException;
+import net.jakubholy.jeeutils.jsfelcheck.validator.exception.InvalidExpressionException;
+import net.jakubholy.jeeutils.jsfelcheck.validator.results.FailedValidationResult;
+import net.jakubholy.jeeutils.jsfelcheck.validator.results.SuccessfulValidationResult;
+import net.jakubholy.jeeutils.jsfelcheck.validator.results.ValidationResult;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ViewResultCacheTest {
+
+    private File cacheFile;
+
+    @Before
+    public void setUp() throws Exception {
+        cacheFile = File.createTempFile("jsfelcheck-cache", ".ser");
+        assertTrue(cacheFile.delete());
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        cacheFile.delete();
+    }
+
+    private CollectedValidationResultsImpl someViewResults() {
+        CollectedValidationResultsImpl results = new CollectedValidationResultsImpl();
+        results.setCurrentJspFile("/dir/page.xhtml");
+        results.addAllFromTagLineNr(3, Arrays.<ValidationResult>asList(
+                new SuccessfulValidationResult("#{bean.ok}", "fake value")
+                        .withFunctionsInExpression(Collections.singleton("fn:length")),
+                new FailedValidationResult(new InvalidExpressionException("#{bean.wrong}", "No such property"))));
+        MissingLocalVariableTypeDeclarationException missingVariable =
+                new MissingLocalVariableTypeDeclarationException("item", "bean.items");
+        missingVariable.setJspFile("/dir/page.xhtml");
+        missingVariable.setTagLineNumber(5);
+        results.reportContextVariableNeedingTypeDeclaration(missingVariable);
+        return results;
+    }
+
+    @Test
+    public void should_restore_saved_results_for_unchanged_view() throws Exception {
+        ViewResultCache cache = ViewResultCache.open(cacheFile, "config1");
+        cache.update("dir\\page.xhtml", "checksum1", someViewResults());
+        cache.save();
+
+        CollectedValidationResultsImpl restored = ViewResultCache.open(cacheFile, "config1")
+                .getResultsIfUpToDate("/dir/page.xhtml", "checksum1");
+
+        assertNotNull(restored);
+        SuccessfulValidationResult good = restored.goodResults().iterator().next();
+        assertEquals("#{bean.ok}", good.getElExpression());
+        assertEquals(Collections.singleton("fn:length"), good.getFunctionsInExpression());
+        assertEquals("/dir/page.xhtml", good.getExpressionDescriptor().getJspFile());
+        assertEquals(3, good.getExpressionDescriptor().getTagLineNumber());
+
+        FailedValidationResult failure = restored.failures().iterator().next();
+        assertEquals("#{bean.wrong}", failure.getElExpression());
+        assertTrue(failure.getFailure().getMessage().contains("No such property"));
+
+        MissingLocalVariableTypeDeclarationException missingVariable =
+                restored.getVariablesNeedingTypeDeclaration().iterator().next();
+        assertEquals("item", missingVariable.getVariableName());
+        assertEquals(5, missingVariable.getTagLineNumber());
+    }
+
+    @Test
+    public void should_not_return_results_for_changed_view() throws Exception {
+        ViewResultCache cache = ViewResultCache.open(cacheFile, "config1");
+        cache.update("/dir/page.xhtml", "checksum1", someViewResults());
+
+        assertNull(cache.getResultsIfUpToDate("/dir/page.xhtml", "checksum2"));
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    public void should_discard_everything_when_configuration_changed() throws Exception {
+        ViewResultCache cache = ViewResultCache.open(cacheFile, "config1");
+        cache.update("/dir/page.xhtml", "checksum1", someViewResults());
+        cache.save();
+
+        assertNull(ViewResultCache.open(cacheFile, "config2").getResultsIfUpToDate("/dir/page.xhtml", "checksum1"));
+    }
+
+    @Test
+    public void should_forget_views_that_do_not_exist_anymore() throws Exception {
+        ViewResultCache cache = ViewResultCache.open(cacheFile, "config1");
+        cache.update("/deleted.xhtml", "checksum1", new CollectedValidationResultsImpl());
+        cache.update("/kept.xhtml", "checksum1", new CollectedValidationResultsImpl());
+
+        cache.retainOnly(Collections.singleton("kept.xhtml"));
+
+        assertEquals(Collections.singleton("/kept.xhtml"), cache.getCachedViews().keySet());
+    }
+
+    @Test
+    public void should_invalidate_transitive_dependents_of_changed_file() throws Exception {
+        ViewResultCache cache = ViewResultCache.open(cacheFile, "config1");
+        cache.update("/page.jsp", "page1", someViewResults(), Collections.singletonMap("/template.jsp", "template1"));
+        cache.update("/template.jsp", "template1", new CollectedValidationResultsImpl(),
+                Collections.singletonMap("file:/webapp/WEB-INF/header.jspf", "header1"));
+        cache.update("/other.jsp", "other1", new CollectedValidationResultsImpl());
+        cache.save();
+
+        cache = ViewResultCache.open(cacheFile, "config1");
+        Map<String, String> currentViewChecksums = new HashMap<String, String>();
+        currentViewChecksums.put("/page.jsp", "page1");
+        currentViewChecksums.put("/template.jsp", "template1");
+        currentViewChecksums.put("/other.jsp", "other1");
+        final Map<String, String> currentChecksums = new HashMap<String, String>(currentViewChecksums);
+        currentChecksums.put("file:/webapp/WEB-INF/header.jspf", "header2");
+
+        Set<String> invalidated = cache.invalidateDependentsOfChangedFiles(currentViewChecksums,
+                new ViewResultCache.ChecksumSource() {
+                    public String currentChecksumOf(String fileKey) {
+                        return currentChecksums.get(fileKey);
+                    }
+                });
+
+        assertEquals(new HashSet<String>(Arrays.asList("/page.jsp", "/template.jsp")), invalidated);
+        assertNull(cache.getResultsIfUpToDate("/page.jsp", "page1"));
+        assertNull(cache.getResultsIfUpToDate("/template.jsp", "template1"));
+        assertNotNull(cache.getResultsIfUpToDate("/other.jsp", "other1"));
+    }
+
+    @Test
+    public void should_forget_dependencies_of_views_that_do_not_exist_anymore() throws Exception {
+        ViewResultCache cache = ViewResultCache.open(cacheFile, "config1");
+        cache.update("/deleted.jsp", "checksum1", new CollectedValidationResultsImpl(),
+                Collections.singletonMap("/included.jspf", "checksum2"));
+
+        cache.retainOnly(Collections.<String>emptySet());
+
+        assertTrue(cache.getDependents().isEmpty());
+    }
+
+}
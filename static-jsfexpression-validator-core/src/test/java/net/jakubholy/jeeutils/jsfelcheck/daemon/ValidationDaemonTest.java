@@ -0,0 +1,146 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.jakubholy.jeeutils.jsfelcheck.daemon;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.Collections;
+
+import net.jakubholy.jeeutils.jsfelcheck.TestJsfStaticAnalyzerImpl;
+import net.jakubholy.jeeutils.jsfelcheck.ValidationSession;
+import net.jakubholy.jeeutils.jsfelcheck.expressionfinder.impl.jasper.CollectedValidationResultsImpl;
+import net.jakubholy.jeeutils.jsfelcheck.validator.exception.InvalidExpressionException;
+import net.jakubholy.jeeutils.jsfelcheck.validator.results.FailedValidationResult;
+import net.jakubholy.jeeutils.jsfelcheck.validator.results.SuccessfulValidationResult;
+import net.jakubholy.jeeutils.jsfelcheck.validator.results.ValidationResult;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ValidationDaemonTest {
+
+    private final File viewRoot = new File("/webapp");
+    private TestJsfStaticAnalyzerImpl analyzer;
+    private ValidationSession session;
+    private ValidationDaemon daemon;
+    private StringWriter responses;
+
+    @Before
+    public void setUp() throws Exception {
+        analyzer = mock(TestJsfStaticAnalyzerImpl.class);
+        session = mock(ValidationSession.class);
+        when(analyzer.openSession(viewRoot, viewRoot)).thenReturn(session);
+        daemon = new ValidationDaemon(analyzer, viewRoot, viewRoot);
+        responses = new StringWriter();
+    }
+
+    private boolean serve(String requests) throws Exception {
+        return daemon.serve(new BufferedReader(new StringReader(requests)), responses);
+    }
+
+    private String[] responseLines() {
+        return responses.toString().split("\n");
+    }
+
+    @Test
+    public void should_validate_requested_views_and_report_failures() throws Exception {
+        CollectedValidationResultsImpl results = new CollectedValidationResultsImpl();
+        results.setCurrentJspFile("/page.jsp");
+        results.addAllFromTagLineNr(3, Arrays.<ValidationResult>asList(
+                new SuccessfulValidationResult("#{bean.ok}", null),
+                new FailedValidationResult(new InvalidExpressionException("#{bean.wrong}", "No such property"))));
+        when(session.validateViews(Arrays.asList(new File(viewRoot, "page.jsp"), new File("/other/page2.jsp"))))
+                .thenReturn(results);
+
+        boolean shutdown = serve("validate page.jsp, /other/page2.jsp\n");
+
+        assertFalse(shutdown);
+        String[] lines = responseLines();
+        assertEquals(2, lines.length);
+        assertTrue(lines[0], lines[0].startsWith(
+                "{\"kind\":\"FAILED\",\"file\":\"/page.jsp\",\"line\":3,\"expression\":\"#{bean.wrong}\""));
+        assertTrue(lines[1], lines[1].startsWith("{\"kind\":\"DONE\",\"expressions\":2,\"failed\":1,\"millis\":"));
+    }
+
+    @Test
+    public void should_open_session_only_once_and_anew_on_reload() throws Exception {
+        when(session.validateViews(anyCollection())).thenReturn(new CollectedValidationResultsImpl());
+
+        serve("validate a.jsp\nvalidate b.jsp\nreload\nvalidate c.jsp\n");
+
+        verify(analyzer, times(2)).openSession(viewRoot, viewRoot);
+        verify(session).close();
+        assertEquals(3, responseLines().length);
+    }
+
+    @Test
+    public void should_reload_session_of_real_analyzer() throws Exception {
+        File webappRoot = File.createTempFile("jsfelcheck-daemon", "");
+        assertTrue(webappRoot.delete() && webappRoot.mkdir());
+        try {
+            TestJsfStaticAnalyzerImpl realAnalyzer = new TestJsfStaticAnalyzerImpl();
+            daemon = new ValidationDaemon(realAnalyzer, webappRoot, webappRoot);
+
+            serve("reload\nreload\n");
+
+            String[] lines = responseLines();
+            assertEquals(2, lines.length);
+            assertTrue(lines[0], lines[0].startsWith("{\"kind\":\"DONE\""));
+            assertTrue(lines[1], lines[1].startsWith("{\"kind\":\"DONE\""));
+            assertTrue(realAnalyzer.getResolver().getExtraVariables().containsKey("request"));
+        } finally {
+            FileUtils.deleteDirectory(webappRoot);
+        }
+    }
+
+    @Test
+    public void should_report_unknown_request_as_error_and_continue() throws Exception {
+        when(session.validateAllViews()).thenReturn(new CollectedValidationResultsImpl());
+
+        serve("nonsense\nvalidate-all\n");
+
+        String[] lines = responseLines();
+        assertTrue(lines[0], lines[0].startsWith("{\"kind\":\"ERROR\",\"message\":\"Unknown request 'nonsense'"));
+        assertTrue(lines[1], lines[1].startsWith("{\"kind\":\"DONE\""));
+    }
+
+    @Test
+    public void should_stop_on_shutdown() throws Exception {
+        assertTrue(serve("shutdown\nvalidate-all\n"));
+        assertFalse(serve("quit\n"));
+        verify(session, never()).validateAllViews();
+        assertEquals("", responses.toString());
+    }
+
+    @Test
+    public void should_report_exception_as_error() throws Exception {
+        when(session.validateViews(Collections.singletonList(new File(viewRoot, "a.jsp"))))
+                .thenThrow(new IllegalStateException("Cannot change the registered taglibs"));
+
+        serve("validate a.jsp\n");
+
+        assertTrue(responseLines()[0], responseLines()[0].contains("Cannot change the registered taglibs"));
+    }
+
+}
@@ -0,0 +1,174 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.jakubholy.jeeutils.jsfelcheck.daemon;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.*;
+import static org.mockito.Mockito.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+
+import net.jakubholy.jeeutils.jsfelcheck.TestJsfStaticAnalyzerImpl;
+import net.jakubholy.jeeutils.jsfelcheck.ValidationSession;
+import net.jakubholy.jeeutils.jsfelcheck.expressionfinder.impl.jasper.CollectedValidationResultsImpl;
+import net.jakubholy.jeeutils.jsfelcheck.expressionfinder.impl.jasper.ValidatedViewListener;
+import net.jakubholy.jeeutils.jsfelcheck.validator.exception.InvalidExpressionException;
+import net.jakubholy.jeeutils.jsfelcheck.validator.results.FailedValidationResult;
+import net.jakubholy.jeeutils.jsfelcheck.validator.results.ValidationResult;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+public class ViewWatcherTest {
+
+    private File webappRoot;
+    private File page;
+    private File template;
+    private File facesConfig;
+    private TestJsfStaticAnalyzerImpl analyzer;
+    private ValidationSession session;
+    private ViewWatcher watcher;
+    private ByteArrayOutputStream output;
+    private final Collection<File> revalidatedViews = new ArrayList<File>();
+    private boolean pageValid = false;
+
+    @Before
+    public void setUp() throws Exception {
+        webappRoot = File.createTempFile("jsfelcheck-watch", "");
+        assertTrue(webappRoot.delete() && webappRoot.mkdir());
+        page = new File(webappRoot, "page.xhtml").getAbsoluteFile();
+        template = new File(webappRoot, "WEB-INF/templates/main.xhtml").getAbsoluteFile();
+        facesConfig = new File(webappRoot, "WEB-INF/faces-config.xml").getAbsoluteFile();
+        FileUtils.writeStringToFile(page, "<ui:composition template='/WEB-INF/templates/main.xhtml'/>");
+        FileUtils.writeStringToFile(template, "<html/>");
+        FileUtils.writeStringToFile(facesConfig, "<faces-config/>");
+
+        analyzer = mock(TestJsfStaticAnalyzerImpl.class);
+        session = mock(ValidationSession.class);
+        when(analyzer.openSession(webappRoot, webappRoot)).thenReturn(session);
+        when(session.resolveDependency(anyString())).thenAnswer(new Answer<File>() {
+            public File answer(InvocationOnMock invocation) throws Throwable {
+                return new File(webappRoot, ((String) invocation.getArguments()[0]).substring(1));
+            }
+        });
+        when(session.validateAllViews(any(ValidatedViewListener.class))).thenAnswer(validatingPage(0));
+        when(session.validateViews(anyCollection(), any(ValidatedViewListener.class))).thenAnswer(validatingPage(1));
+
+        output = new ByteArrayOutputStream();
+        watcher = new ViewWatcher(analyzer, webappRoot, webappRoot).withOutput(new PrintStream(output, true));
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        FileUtils.deleteDirectory(webappRoot);
+    }
+
+    /** Report the page with its template as validated, valid or not according to {@link #pageValid}. */
+    private Answer<CollectedValidationResultsImpl> validatingPage(final int listenerArgumentIndex) {
+        return new Answer<CollectedValidationResultsImpl>() {
+            @SuppressWarnings("unchecked")
+            public CollectedValidationResultsImpl answer(InvocationOnMock invocation) throws Throwable {
+                if (listenerArgumentIndex > 0) {
+                    revalidatedViews.addAll((Collection<File>) invocation.getArguments()[0]);
+                }
+                CollectedValidationResultsImpl results = new CollectedValidationResultsImpl();
+                results.setCurrentJspFile("/page.xhtml");
+                if (!pageValid) {
+                    results.addAllFromTagLineNr(3, Arrays.<ValidationResult>asList(new FailedValidationResult(
+                            new InvalidExpressionException("#{bean.wrong}", "No such property"))));
+                }
+                ValidatedViewListener listener =
+                        (ValidatedViewListener) invocation.getArguments()[listenerArgumentIndex];
+                listener.viewValidated("/page.xhtml", results
+                        , Collections.singleton("/WEB-INF/templates/main.xhtml"));
+                return results;
+            }
+        };
+    }
+
+    @Test
+    public void should_revalidate_views_using_changed_template_and_report_fixed_failures() throws Exception {
+        watcher.validateAll();
+        pageValid = true;
+        FileUtils.writeStringToFile(template, "<html><body/></html>");
+
+        watcher.processChanges(watcher.takeSnapshot());
+
+        assertEquals(Collections.singletonList(page), revalidatedViews);
+        String report = output.toString();
+        assertTrue(report, report.contains("FIXED /page.xhtml:3 #{bean.wrong}"));
+        assertTrue(report, report.contains("0 new failures, 1 fixed, 0 failures in total"));
+        verify(analyzer, times(1)).openSession(webappRoot, webappRoot);
+    }
+
+    @Test
+    public void should_ignore_unchanged_files() throws Exception {
+        watcher.validateAll();
+
+        watcher.processChanges(watcher.takeSnapshot());
+
+        assertTrue(revalidatedViews.isEmpty());
+        verify(session, never()).validateViews(anyCollection(), any(ValidatedViewListener.class));
+    }
+
+    @Test
+    public void should_reload_configuration_and_revalidate_all_when_faces_config_changes() throws Exception {
+        watcher.validateAll();
+        FileUtils.writeStringToFile(facesConfig, "<faces-config><managed-bean/></faces-config>");
+
+        watcher.processChanges(watcher.takeSnapshot());
+
+        verify(session).close();
+        verify(analyzer, times(2)).openSession(webappRoot, webappRoot);
+        verify(session, times(2)).validateAllViews(any(ValidatedViewListener.class));
+        assertEquals(new HashSet<File>(Arrays.asList(page, template, facesConfig))
+                , watcher.takeSnapshot().keySet());
+    }
+
+    @Test
+    public void should_report_failed_reload_and_retry_it_with_next_change() throws Exception {
+        watcher.validateAll();
+        when(analyzer.openSession(webappRoot, webappRoot))
+                .thenThrow(new IllegalStateException("Invalid faces-config"))
+                .thenReturn(session);
+        FileUtils.writeStringToFile(facesConfig, "<faces-config><managed-bean></faces-config>");
+
+        watcher.processChanges(watcher.takeSnapshot());
+
+        String report = output.toString();
+        assertTrue(report, report.contains("processing the changes failed, watching continues"));
+        assertTrue(report, report.contains("Invalid faces-config"));
+
+        FileUtils.writeStringToFile(page, "<ui:composition template='/WEB-INF/templates/main.xhtml'></ui:composition>");
+        watcher.processChanges(watcher.takeSnapshot());
+
+        verify(session, times(2)).validateAllViews(any(ValidatedViewListener.class));
+        assertTrue(revalidatedViews.isEmpty());
+    }
+
+}
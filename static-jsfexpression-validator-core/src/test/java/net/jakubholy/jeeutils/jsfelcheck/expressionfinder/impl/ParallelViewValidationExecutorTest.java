@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.jakubholy.jeeutils.jsfelcheck.expressionfinder.impl;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import net.jakubholy.jeeutils.jsfelcheck.expressionfinder.impl.jasper.CollectedValidationResultsImpl;
+import net.jakubholy.jeeutils.jsfelcheck.validator.results.SuccessfulValidationResult;
+import net.jakubholy.jeeutils.jsfelcheck.validator.results.ValidationResult;
+
+import org.junit.Test;
+
+public class ParallelViewValidationExecutorTest {
+
+    /** Produces one successful result per view, with the view as the file, as if we validated it. */
+    private static class OneResultPerViewValidator implements ParallelViewValidationExecutor.ShardValidator<String> {
+        public CollectedValidationResultsImpl validate(List<String> viewShard) throws Exception {
+            CollectedValidationResultsImpl results = new CollectedValidationResultsImpl();
+            for (String view : viewShard) {
+                results.setCurrentJspFile(view);
+                results.addAllFromTagLineNr(1, Collections.<ValidationResult>singletonList(
+                        new SuccessfulValidationResult("#{" + view + "}", null)));
+            }
+            return results;
+        }
+    }
+
+    @Test
+    public void should_partition_into_contiguous_nearly_equal_shards() throws Exception {
+        List<List<Integer>> shards = ParallelViewValidationExecutor.partition(Arrays.asList(1, 2, 3, 4, 5), 3);
+        assertEquals(Arrays.asList(Arrays.asList(1, 2), Arrays.asList(3, 4), Arrays.asList(5)), shards);
+    }
+
+    @Test
+    public void should_not_create_empty_shards() throws Exception {
+        assertEquals(2, ParallelViewValidationExecutor.partition(Arrays.asList("a", "b"), 8).size());
+        assertTrue(ParallelViewValidationExecutor.partition(Collections.<String>emptyList(), 8).isEmpty());
+    }
+
+    @Test
+    public void should_merge_results_in_original_view_order_keeping_their_files() throws Exception {
+        List<String> views = new ArrayList<String>();
+        for (int i = 0; i < 20; i++) {
+            views.add("view" + i);
+        }
+
+        CollectedValidationResultsImpl results = new ParallelViewValidationExecutor<String>(4)
+                .execute(views, new OneResultPerViewValidator());
+
+        List<String> reportedFiles = new ArrayList<String>();
+        for (SuccessfulValidationResult result : results.goodResults()) {
+            reportedFiles.add(result.getExpressionDescriptor().getJspFile());
+        }
+        assertEquals(views, reportedFiles);
+    }
+
+    @Test
+    public void should_propagate_worker_failure() throws Exception {
+        final IllegalStateException failure = new IllegalStateException("parser failure");
+        try {
+            new ParallelViewValidationExecutor<String>(2).execute(Arrays.asList("a", "b"),
+                    new ParallelViewValidationExecutor.ShardValidator<String>() {
+                        public CollectedValidationResultsImpl validate(List<String> viewShard) {
+                            throw failure;
+                        }
+                    });
+            fail("Should have rethrown the worker's exception");
+        } catch (IllegalStateException e) {
+            assertSame(failure, e);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void should_reject_less_than_one_thread() throws Exception {
+        new ParallelViewValidationExecutor<String>(0);
+    }
+
+}
@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.jakubholy.jeeutils.jsfelcheck.expressionfinder.impl.facelets;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import net.jakubholy.jeeutils.jsfelcheck.expressionfinder.pagenodes.PageNodeListener;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class AbstractValidatingFaceletsParserTest {
+
+    /** Records the taglibs it has been created with and the listeners it has compiled views for. */
+    private static class RecordingParser extends AbstractValidatingFaceletsParser {
+
+        private Collection<File> compilerTaglibs;
+        private final List<PageNodeListener> compiledWith = new ArrayList<PageNodeListener>();
+
+        RecordingParser(PageNodeListener pageNodeValidator) {
+            super(new File("."), pageNodeValidator);
+        }
+
+        @Override
+        protected void bindFacesContextToCurrentThread() {
+            // NOOP
+        }
+
+        @Override
+        protected void compile(URL xhtmlUrl, String shortName, PageNodeListener pageNodeListener) throws IOException {
+            if (compilerTaglibs == null) {
+                compilerTaglibs = freezeTaglibs();
+            }
+            compiledWith.add(pageNodeListener);
+        }
+    }
+
+    private PageNodeListener defaultListener;
+    private RecordingParser parser;
+    private URL view;
+
+    @Before
+    public void setUp() throws Exception {
+        defaultListener = mock(PageNodeListener.class);
+        parser = new RecordingParser(defaultListener);
+        view = new URL("file:/webapp/view.xhtml");
+    }
+
+    @Test
+    public void should_compile_with_the_given_listener_or_the_default_one() throws Exception {
+        PageNodeListener workerListener = mock(PageNodeListener.class);
+
+        parser.validateExpressionsInView(view, "/view.xhtml");
+        parser.validateExpressionsInView(view, "/view.xhtml", workerListener);
+
+        assertEquals(Arrays.asList(defaultListener, workerListener), parser.compiledWith);
+    }
+
+    @Test
+    public void should_accept_same_taglibs_after_first_compilation() throws Exception {
+        parser.registerTaglibs(Arrays.asList(new File("a.taglib.xml"), new File("b.taglib.xml")));
+        parser.validateExpressionsInView(view, "/view.xhtml");
+
+        parser.registerTaglibs(Arrays.asList(new File("b.taglib.xml"), new File("a.taglib.xml")));
+
+        assertEquals(2, parser.compilerTaglibs.size());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void should_reject_different_taglibs_after_first_compilation() throws Exception {
+        parser.registerTaglibs(Arrays.asList(new File("a.taglib.xml")));
+        parser.validateExpressionsInView(view, "/view.xhtml");
+
+        parser.registerTaglibs(Arrays.asList(new File("other.taglib.xml")));
+    }
+
+}
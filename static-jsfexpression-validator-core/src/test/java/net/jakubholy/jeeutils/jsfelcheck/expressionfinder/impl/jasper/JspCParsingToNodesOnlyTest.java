@@ -0,0 +1,70 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.jakubholy.jeeutils.jsfelcheck.expressionfinder.impl.jasper;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+
+import java.io.File;
+import java.net.URL;
+import java.net.URLClassLoader;
+
+import net.jakubholy.jeeutils.jsfelcheck.expressionfinder.pagenodes.PageNodeListener;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class JspCParsingToNodesOnlyTest {
+
+    private File webappRoot;
+    private ClassLoader originalContextClassLoader;
+
+    @Before
+    public void setUp() throws Exception {
+        webappRoot = File.createTempFile("jspcParsingToNodesOnlyTest", "");
+        assertTrue(webappRoot.delete() && webappRoot.mkdir());
+        originalContextClassLoader = Thread.currentThread().getContextClassLoader();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        Thread.currentThread().setContextClassLoader(originalContextClassLoader);
+        webappRoot.delete();
+    }
+
+    @Test
+    public void should_share_taglibs_of_same_webapp_and_class_loader() throws Exception {
+        assertSame(parsedTaglibsOfWebapp(), parsedTaglibsOfWebapp());
+    }
+
+    @Test
+    public void should_not_share_taglibs_parsed_with_another_context_class_loader() throws Exception {
+        Object taglibsOfOriginalLoader = parsedTaglibsOfWebapp();
+        Thread.currentThread().setContextClassLoader(
+                new URLClassLoader(new URL[0], originalContextClassLoader));
+
+        assertNotSame(taglibsOfOriginalLoader, parsedTaglibsOfWebapp());
+    }
+
+    private Object parsedTaglibsOfWebapp() {
+        JspCParsingToNodesOnly jspc = new JspCParsingToNodesOnly(mock(PageNodeListener.class));
+        jspc.setUriroot(webappRoot.getAbsolutePath());
+        return jspc.getCache();
+    }
+
+}
@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.jakubholy.jeeutils.jsfelcheck.expressionfinder.impl.jasper;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import net.jakubholy.jeeutils.jsfelcheck.expressionfinder.impl.facelets.compiler.PublishablePageNode;
+import net.jakubholy.jeeutils.jsfelcheck.expressionfinder.impl.facelets.compiler.TagRepresentation;
+
+import org.junit.Test;
+
+public class ViewDependencyTrackerTest {
+
+    private static PublishablePageNode faceletsTag(final String namespace, final String qName,
+            final Map<String, String> attributes) {
+        TagRepresentation tag = new TagRepresentation() {
+            public String getQName() { return qName; }
+            public String getLocalName() { return qName.substring(qName.indexOf(':') + 1); }
+            public String getNamespaceUrl() { return namespace; }
+            public Object getLocation() { return null; }
+            public int getLocationLine() { return 1; }
+            public Map<String, String> attributes() { return attributes; }
+        };
+        return new PublishablePageNode(tag, attributes);
+    }
+
+    @Test
+    public void should_resolve_jsp_includes_relative_to_including_file() throws Exception {
+        ViewDependencyTracker tracker = new ViewDependencyTracker("");
+        tracker.viewEntered("/dir/page.jsp");
+
+        tracker.includedFileEntered("fragments/header.jspf");
+        tracker.includedFileEntered("../menu.jspf");
+        tracker.includedFileLeft();
+        tracker.includedFileLeft();
+        tracker.includedFileEntered("/WEB-INF/footer.jspf");
+
+        assertEquals(Arrays.asList("/dir/fragments/header.jspf", "/dir/menu.jspf", "/WEB-INF/footer.jspf"),
+                tracker.getDependencies());
+    }
+
+    @Test
+    public void should_record_facelets_templates_includes_and_composites() throws Exception {
+        ViewDependencyTracker tracker = new ViewDependencyTracker("/pages");
+        tracker.viewEntered("\\sub\\page.xhtml");
+
+        tracker.nodeEntered(faceletsTag("http://java.sun.com/jsf/facelets", "ui:composition",
+                Collections.singletonMap("template", "/WEB-INF/templates/main.xhtml")));
+        tracker.nodeEntered(faceletsTag("http://java.sun.com/jsf/facelets", "ui:include",
+                Collections.singletonMap("src", "part.xhtml")));
+        tracker.nodeEntered(faceletsTag("http://java.sun.com/jsf/composite/mycomps", "mc:panel",
+                Collections.<String, String>emptyMap()));
+
+        assertEquals(Arrays.asList("/WEB-INF/templates/main.xhtml", "/pages/sub/part.xhtml",
+                "/resources/mycomps/panel.xhtml"), tracker.getDependencies());
+    }
+
+    @Test
+    public void should_ignore_dynamic_references() throws Exception {
+        ViewDependencyTracker tracker = new ViewDependencyTracker("");
+        tracker.viewEntered("/page.xhtml");
+
+        tracker.nodeEntered(faceletsTag("http://java.sun.com/jsf/facelets", "ui:include",
+                Collections.singletonMap("src", "#{bean.page}")));
+
+        assertTrue(tracker.getDependencies().isEmpty());
+    }
+
+    @Test
+    public void should_forget_dependencies_of_previous_view() throws Exception {
+        ViewDependencyTracker tracker = new ViewDependencyTracker("");
+        tracker.viewEntered("/first.jsp");
+        tracker.includedFileEntered("first.jspf");
+        tracker.includedFileLeft();
+
+        tracker.viewEntered("/second.jsp");
+
+        assertTrue(tracker.getDependencies().isEmpty());
+    }
+
+}
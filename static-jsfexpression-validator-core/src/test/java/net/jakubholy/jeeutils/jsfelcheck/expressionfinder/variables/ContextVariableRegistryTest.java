@@ -0,0 +1,166 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.jakubholy.jeeutils.jsfelcheck.expressionfinder.variables;
+
+import static org.junit.Assert.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import net.jakubholy.jeeutils.jsfelcheck.expressionfinder.impl.jasper.AttributesValidationResult;
+import net.jakubholy.jeeutils.jsfelcheck.expressionfinder.pagenodes.PageNode;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class ContextVariableRegistryTest {
+
+    /** Defines the variable named by the attribute var with the type named by the attribute type. */
+    private static class VarAttributeResolver implements TagJsfVariableResolver {
+        public VariableInfo extractContextVariables(Map<String, String> tagAttributes,
+                AttributesValidationResult resolvedJsfExpressions) {
+            try {
+                return new VariableInfo(tagAttributes.get("var"), Class.forName(tagAttributes.get("type")));
+            } catch (ClassNotFoundException e) {
+                throw new IllegalArgumentException(e);
+            }
+        }
+    }
+
+    /** Like {@link VarAttributeResolver} but with the variable living in the given scope. */
+    private static class ScopedVarAttributeResolver extends VarAttributeResolver
+            implements ScopedTagJsfVariableResolver {
+        private final Scope scope;
+
+        public ScopedVarAttributeResolver(Scope scope) {
+            this.scope = scope;
+        }
+
+        public Scope getVariableScope() {
+            return scope;
+        }
+    }
+
+    private ContextVariableRegistry registry;
+
+    @Before
+    public void setUp() throws Exception {
+        registry = new ContextVariableRegistry()
+                .registerResolverForTag("ui:repeat", new VarAttributeResolver())
+                .registerResolverForTag("c:set"
+                        , new ScopedVarAttributeResolver(ScopedTagJsfVariableResolver.Scope.PAGE))
+                .registerResolverForTag("ui:param"
+                        , new ScopedVarAttributeResolver(ScopedTagJsfVariableResolver.Scope.ENCLOSING_TAG));
+    }
+
+    private PageNode openRepeat(String var, Class<?> type) {
+        return openTag("ui:repeat", var, type);
+    }
+
+    private PageNode openTag(String qName, String var, Class<?> type) {
+        Map<String, String> attributes = new HashMap<String, String>();
+        attributes.put("var", var);
+        attributes.put("type", type.getName());
+        PageNode tag = new PageNode(qName, Object.class, 1, attributes);
+        registry.extractContextVariables(tag, new AttributesValidationResult());
+        return tag;
+    }
+
+    @Test
+    public void should_resolve_innermost_definition_and_restore_outer_one_when_closed() throws Exception {
+        PageNode outer = openRepeat("item", String.class);
+        PageNode other = openRepeat("row", Long.class);
+        PageNode inner = openRepeat("item", Integer.class);
+
+        assertSame(Integer.class, registry.resolveVariable("item"));
+        assertSame(Long.class, registry.resolveVariable("row"));
+
+        registry.discardContextFor(inner);
+        assertSame(String.class, registry.resolveVariable("item"));
+
+        registry.discardContextFor(other);
+        registry.discardContextFor(outer);
+        assertNull(registry.resolveVariable("item"));
+        assertNull(registry.resolveVariable("row"));
+    }
+
+    @Test
+    public void should_ignore_closing_of_tag_not_being_innermost_scope() throws Exception {
+        PageNode outer = openRepeat("item", String.class);
+        openRepeat("row", Long.class);
+
+        registry.discardContextFor(outer);
+
+        assertSame(String.class, registry.resolveVariable("item"));
+        assertSame(Long.class, registry.resolveVariable("row"));
+    }
+
+    @Test
+    public void should_ignore_tags_without_resolver() throws Exception {
+        PageNode form = new PageNode("h:form", Object.class, 1, new HashMap<String, String>());
+        registry.extractContextVariables(form, new AttributesValidationResult());
+        registry.discardContextFor(form);
+
+        assertNull(registry.resolveVariable("item"));
+    }
+
+    @Test
+    public void should_keep_page_scoped_variable_until_context_cleared() throws Exception {
+        PageNode repeat = openRepeat("item", String.class);
+        registry.discardContextFor(openTag("c:set", "total", Long.class));
+        registry.discardContextFor(repeat);
+
+        assertSame(Long.class, registry.resolveVariable("total"));
+
+        registry.clearContext();
+        assertNull(registry.resolveVariable("total"));
+    }
+
+    @Test
+    public void should_shadow_page_scoped_variable_by_tag_variable() throws Exception {
+        registry.discardContextFor(openTag("c:set", "item", Long.class));
+        PageNode repeat = openRepeat("item", String.class);
+
+        assertSame(String.class, registry.resolveVariable("item"));
+
+        registry.discardContextFor(repeat);
+        assertSame(Long.class, registry.resolveVariable("item"));
+    }
+
+    @Test
+    public void should_keep_enclosing_tag_scoped_variable_until_parent_closed() throws Exception {
+        PageNode include = new PageNode("ui:include", Object.class, 1, new HashMap<String, String>());
+        registry.extractContextVariables(include, new AttributesValidationResult());
+        registry.discardContextFor(openTag("ui:param", "title", String.class));
+
+        assertSame(String.class, registry.resolveVariable("title"));
+
+        registry.discardContextFor(include);
+        assertNull(registry.resolveVariable("title"));
+    }
+
+    @Test
+    public void should_copy_resolvers_but_not_variables_in_scope() throws Exception {
+        openRepeat("item", String.class);
+
+        ContextVariableRegistry copy = registry.copyWithEmptyContext();
+
+        assertNull(copy.resolveVariable("item"));
+        assertEquals(registry.getRegisteredResolvers().keySet(), copy.getRegisteredResolvers().keySet());
+    }
+
+}
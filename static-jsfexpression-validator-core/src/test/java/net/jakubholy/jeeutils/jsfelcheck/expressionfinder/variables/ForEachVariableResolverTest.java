@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.jakubholy.jeeutils.jsfelcheck.expressionfinder.variables;
+
+import static org.junit.Assert.*;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import net.jakubholy.jeeutils.jsfelcheck.expressionfinder.impl.jasper.AttributesValidationResult;
+import net.jakubholy.jeeutils.jsfelcheck.validator.results.SuccessfulValidationResult;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class ForEachVariableResolverTest {
+
+    @SuppressWarnings("unused")
+    private static class Shop {
+        public List<Integer> getPrices() { return null; }
+    }
+
+    private Map<String, Class<?>> declaredTypes;
+    private ForEachVariableResolver resolver;
+    private Map<String, String> attributes;
+    private AttributesValidationResult resolvedExpressions;
+
+    @Before
+    public void setUp() throws Exception {
+        declaredTypes = new HashMap<String, Class<?>>();
+        resolver = new ForEachVariableResolver(declaredTypes);
+        attributes = new HashMap<String, String>();
+        attributes.put("var", "item");
+        resolvedExpressions = new AttributesValidationResult();
+    }
+
+    private void withItems(Object fakeValue, Type staticType) {
+        attributes.put("items", "#{shop.prices}");
+        resolvedExpressions.add("items", new SuccessfulValidationResult("#{shop.prices}", fakeValue)
+                .withExpressionType(staticType));
+    }
+
+    private Class<?> resolveType() {
+        return resolver.extractContextVariables(attributes, resolvedExpressions).getDeclaredVariableType();
+    }
+
+    @Test
+    public void should_infer_type_from_generic_element_type() throws Exception {
+        Method getter = Shop.class.getMethod("getPrices");
+        withItems(new ArrayList<Object>(), getter.getGenericReturnType());
+
+        assertSame(Integer.class, resolveType());
+    }
+
+    @Test
+    public void should_infer_type_from_fake_array_value() throws Exception {
+        withItems(new Long[0], Object.class);
+
+        assertSame(Long.class, resolveType());
+    }
+
+    @Test
+    public void should_prefer_declared_type() throws Exception {
+        declaredTypes.put("shop.prices", Short.class);
+        withItems(new Long[0], Long[].class);
+
+        assertSame(Short.class, resolveType());
+    }
+
+    @Test
+    public void should_use_index_type_without_items() throws Exception {
+        assertSame(Integer.class, resolveType());
+    }
+
+    @Test(expected = MissingLocalVariableTypeDeclarationException.class)
+    public void should_fail_for_raw_collection_without_declaration() throws Exception {
+        withItems(new ArrayList<Object>(), List.class);
+
+        resolveType();
+    }
+
+    @Test
+    public void should_treat_literal_items_as_strings() throws Exception {
+        attributes.put("items", "red,green,blue");
+
+        assertSame(String.class, resolveType());
+    }
+
+    @Test(expected = MissingLocalVariableTypeDeclarationException.class)
+    public void should_require_declaration_for_immediate_items() throws Exception {
+        attributes.put("items", "${shop.prices}");
+
+        resolveType();
+    }
+
+    @Test
+    public void should_use_declared_type_for_immediate_items() throws Exception {
+        declaredTypes.put("shop.prices", Short.class);
+        attributes.put("items", "${shop.prices}");
+
+        assertSame(Short.class, resolveType());
+    }
+
+    @Test
+    public void should_resolve_nothing_without_var() throws Exception {
+        attributes.remove("var");
+
+        assertNull(resolver.extractContextVariables(attributes, resolvedExpressions));
+    }
+
+}
@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.jakubholy.jeeutils.jsfelcheck.expressionfinder.variables;
+
+import static org.junit.Assert.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import net.jakubholy.jeeutils.jsfelcheck.expressionfinder.impl.jasper.AttributesValidationResult;
+import net.jakubholy.jeeutils.jsfelcheck.validator.MockObjectOfUnknownType;
+import net.jakubholy.jeeutils.jsfelcheck.validator.exception.InvalidExpressionException;
+import net.jakubholy.jeeutils.jsfelcheck.validator.results.FailedValidationResult;
+import net.jakubholy.jeeutils.jsfelcheck.validator.results.SuccessfulValidationResult;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class ValueVariableResolverTest {
+
+    private Map<String, Class<?>> declaredTypes;
+    private ValueVariableResolver resolver;
+    private Map<String, String> attributes;
+    private AttributesValidationResult resolvedExpressions;
+
+    @Before
+    public void setUp() throws Exception {
+        declaredTypes = new HashMap<String, Class<?>>();
+        resolver = ValueVariableResolver.forJstlSet(declaredTypes);
+        attributes = new HashMap<String, String>();
+        attributes.put("var", "total");
+        resolvedExpressions = new AttributesValidationResult();
+    }
+
+    private Class<?> resolveType() {
+        return resolver.extractContextVariables(attributes, resolvedExpressions).getDeclaredVariableType();
+    }
+
+    @Test
+    public void should_scope_jstl_set_to_page_and_facelets_param_to_enclosing_tag() throws Exception {
+        assertSame(ScopedTagJsfVariableResolver.Scope.PAGE, resolver.getVariableScope());
+        assertSame(ScopedTagJsfVariableResolver.Scope.ENCLOSING_TAG
+                , ValueVariableResolver.forFaceletsParam(declaredTypes).getVariableScope());
+    }
+
+    @Test
+    public void should_read_facelets_param_name_from_name_attribute() throws Exception {
+        attributes.clear();
+        attributes.put("name", "title");
+        attributes.put("value", "Welcome");
+
+        VariableInfo variable = ValueVariableResolver.forFaceletsParam(declaredTypes)
+                .extractContextVariables(attributes, resolvedExpressions);
+
+        assertEquals("title", variable.getVariableName());
+        assertSame(String.class, variable.getDeclaredVariableType());
+    }
+
+    @Test
+    public void should_treat_literal_value_and_body_content_as_string() throws Exception {
+        assertSame(String.class, resolveType());
+
+        attributes.put("value", "42");
+        assertSame(String.class, resolveType());
+    }
+
+    @Test
+    public void should_use_static_type_of_validated_value() throws Exception {
+        attributes.put("value", "#{shop.total}");
+        resolvedExpressions.add("value", new SuccessfulValidationResult("#{shop.total}", new Object())
+                .withExpressionType(Long.class));
+
+        assertSame(Long.class, resolveType());
+    }
+
+    @Test
+    public void should_use_class_of_fake_value_without_static_type() throws Exception {
+        attributes.put("value", "#{shop.total}");
+        resolvedExpressions.add("value", new SuccessfulValidationResult("#{shop.total}", Integer.valueOf(1)));
+
+        assertSame(Integer.class, resolveType());
+    }
+
+    @Test
+    public void should_define_variable_of_unknown_type_for_invalid_value() throws Exception {
+        attributes.put("value", "#{shop.wrong}");
+        resolvedExpressions.add("value", new FailedValidationResult(
+                new InvalidExpressionException("#{shop.wrong}", "No such property")));
+
+        assertSame(MockObjectOfUnknownType.class, resolveType());
+    }
+
+    @Test(expected = MissingLocalVariableTypeDeclarationException.class)
+    public void should_require_declaration_for_immediate_value() throws Exception {
+        attributes.put("value", "${shop.total}");
+
+        resolveType();
+    }
+
+    @Test
+    public void should_use_declared_type_for_immediate_value() throws Exception {
+        declaredTypes.put("shop.total", Long.class);
+        attributes.put("value", "${shop.total}");
+
+        assertSame(Long.class, resolveType());
+    }
+
+    @Test
+    public void should_resolve_nothing_without_var() throws Exception {
+        attributes.remove("var");
+
+        assertNull(resolver.extractContextVariables(attributes, resolvedExpressions));
+    }
+
+}
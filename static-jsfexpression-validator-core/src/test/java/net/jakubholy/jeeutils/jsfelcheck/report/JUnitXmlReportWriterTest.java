@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.jakubholy.jeeutils.jsfelcheck.report;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+
+import net.jakubholy.jeeutils.jsfelcheck.validator.exception.InvalidExpressionException;
+import net.jakubholy.jeeutils.jsfelcheck.validator.results.FailedValidationResult;
+import net.jakubholy.jeeutils.jsfelcheck.validator.results.JsfExpressionDescriptor;
+import net.jakubholy.jeeutils.jsfelcheck.validator.results.SuccessfulValidationResult;
+import net.jakubholy.jeeutils.jsfelcheck.validator.results.ValidationResult;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class JUnitXmlReportWriterTest {
+
+    private File outputFile;
+
+    @Before
+    public void setUp() throws Exception {
+        outputFile = File.createTempFile("jsfelcheck-report", ".xml");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        outputFile.delete();
+    }
+
+    private static ValidationResult located(ValidationResult result, int line) {
+        JsfExpressionDescriptor descriptor = new JsfExpressionDescriptor("ignored");
+        descriptor.setJspFile("/dir/page.xhtml");
+        descriptor.setTagLineNumber(line);
+        result.setExpressionDescriptor(descriptor);
+        return result;
+    }
+
+    @Test
+    public void should_write_test_case_per_expression() throws Exception {
+        JUnitXmlReportWriter writer = new JUnitXmlReportWriter(outputFile, true);
+        writer.resultProduced(located(new SuccessfulValidationResult("#{bean.ok}", null), 3));
+        writer.resultProduced(located(new FailedValidationResult(
+                new InvalidExpressionException("#{a < b}", "#{a < b} is \"wrong\"")), 5));
+        writer.validationFinished();
+
+        assertEquals("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+                + "<testsuites name=\"jsfelcheck\">\n<testsuite name=\"jsfelcheck\">\n"
+                + "<testcase classname=\"dir.page_xhtml\" name=\"line 3: #{bean.ok}\"/>\n"
+                + "<testcase classname=\"dir.page_xhtml\" name=\"line 5: #{a &lt; b}\">"
+                + "<failure type=\"InvalidExpression\" message=\"#{a &lt; b} is &quot;wrong&quot;\">"
+                + "#{a &lt; b} is &quot;wrong&quot;</failure></testcase>\n"
+                + "</testsuite>\n</testsuites>\n"
+                , FileUtils.readFileToString(outputFile, "UTF-8"));
+    }
+
+    @Test
+    public void should_write_complete_new_report_when_reused() throws Exception {
+        JUnitXmlReportWriter writer = new JUnitXmlReportWriter(outputFile, true);
+        writer.resultProduced(located(new SuccessfulValidationResult("#{bean.first}", null), 3));
+        writer.validationFinished();
+
+        writer.resultProduced(located(new SuccessfulValidationResult("#{bean.second}", null), 4));
+        writer.validationFinished();
+
+        assertEquals("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+                + "<testsuites name=\"jsfelcheck\">\n<testsuite name=\"jsfelcheck\">\n"
+                + "<testcase classname=\"dir.page_xhtml\" name=\"line 4: #{bean.second}\"/>\n"
+                + "</testsuite>\n</testsuites>\n"
+                , FileUtils.readFileToString(outputFile, "UTF-8"));
+    }
+
+}
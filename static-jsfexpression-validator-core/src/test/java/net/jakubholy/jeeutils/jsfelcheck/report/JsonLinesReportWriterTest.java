@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.jakubholy.jeeutils.jsfelcheck.report;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.util.Arrays;
+
+import net.jakubholy.jeeutils.jsfelcheck.expressionfinder.variables.MissingLocalVariableTypeDeclarationException;
+import net.jakubholy.jeeutils.jsfelcheck.validator.results.JsfExpressionDescriptor;
+import net.jakubholy.jeeutils.jsfelcheck.validator.results.SuccessfulValidationResult;
+import net.jakubholy.jeeutils.jsfelcheck.validator.results.ValidationResult;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class JsonLinesReportWriterTest {
+
+    private File outputFile;
+
+    @Before
+    public void setUp() throws Exception {
+        outputFile = File.createTempFile("jsfelcheck-report", ".jsonl");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        outputFile.delete();
+    }
+
+    @Test
+    public void should_write_one_json_object_per_line() throws Exception {
+        ValidationResult good = new SuccessfulValidationResult("#{bean[\"key\"]}", null);
+        JsfExpressionDescriptor descriptor = new JsfExpressionDescriptor("#{bean[\"key\"]}");
+        descriptor.setJspFile("/page.xhtml");
+        descriptor.setTagLineNumber(3);
+        good.setExpressionDescriptor(descriptor);
+        MissingLocalVariableTypeDeclarationException variable =
+                new MissingLocalVariableTypeDeclarationException("row", "#{bean.rows}");
+        variable.setJspFile("/page.xhtml");
+        variable.setTagLineNumber(7);
+
+        JsonLinesReportWriter writer = new JsonLinesReportWriter(outputFile, true);
+        writer.resultProduced(good);
+        writer.variableNeedingTypeDeclarationFound(variable);
+        writer.validationFinished();
+
+        assertEquals(Arrays.asList(
+                "{\"kind\":\"VALID\",\"file\":\"/page.xhtml\",\"line\":3,\"expression\":\"#{bean[\\\"key\\\"]}\""
+                        + ",\"message\":\"\"}"
+                , "{\"kind\":\"UNDECLARED_VARIABLE\",\"file\":\"/page.xhtml\",\"line\":7"
+                        + ",\"expression\":\"#{bean.rows}\",\"message\":\"row\"}")
+                , FileUtils.readLines(outputFile, "UTF-8"));
+    }
+
+    @Test
+    public void should_write_empty_file_when_no_results() throws Exception {
+        new JsonLinesReportWriter(outputFile, true).validationFinished();
+
+        assertEquals(0, outputFile.length());
+    }
+
+}
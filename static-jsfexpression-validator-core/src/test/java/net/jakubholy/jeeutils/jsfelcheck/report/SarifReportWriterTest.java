@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.jakubholy.jeeutils.jsfelcheck.report;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+
+import net.jakubholy.jeeutils.jsfelcheck.validator.exception.InvalidExpressionException;
+import net.jakubholy.jeeutils.jsfelcheck.validator.results.FailedValidationResult;
+import net.jakubholy.jeeutils.jsfelcheck.validator.results.JsfExpressionDescriptor;
+import net.jakubholy.jeeutils.jsfelcheck.validator.results.SuccessfulValidationResult;
+import net.jakubholy.jeeutils.jsfelcheck.validator.results.ValidationResult;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SarifReportWriterTest {
+
+    private File outputFile;
+
+    @Before
+    public void setUp() throws Exception {
+        outputFile = File.createTempFile("jsfelcheck-report", ".sarif");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        outputFile.delete();
+    }
+
+    private static ValidationResult located(ValidationResult result, int line) {
+        JsfExpressionDescriptor descriptor = new JsfExpressionDescriptor("ignored");
+        descriptor.setJspFile("/dir/page.xhtml");
+        descriptor.setTagLineNumber(line);
+        result.setExpressionDescriptor(descriptor);
+        return result;
+    }
+
+    @Test
+    public void should_write_failures_as_results_with_location() throws Exception {
+        SarifReportWriter writer = new SarifReportWriter(outputFile);
+        writer.resultProduced(located(new SuccessfulValidationResult("#{bean.ok}", null), 3));
+        writer.resultProduced(located(new FailedValidationResult(
+                new InvalidExpressionException("#{bean.first}", "#{bean.first} has no first")), 5));
+        writer.resultProduced(located(new FailedValidationResult(
+                new InvalidExpressionException("#{bean.second}", "#{bean.second} has no second")), 6));
+        writer.validationFinished();
+
+        String report = FileUtils.readFileToString(outputFile, "UTF-8");
+        assertTrue(report, report.startsWith("{\"$schema\":\"https://json.schemastore.org/sarif-2.1.0.json\""));
+        assertTrue(report, report.contains("\"results\":[\n{\"ruleId\":\"invalid-el-expression\",\"level\":\"error\""
+                + ",\"message\":{\"text\":\"#{bean.first} has no first\"},\"locations\":[{\"physicalLocation\":"
+                + "{\"artifactLocation\":{\"uri\":\"dir/page.xhtml\",\"uriBaseId\":\"VIEWROOT\"}"
+                + ",\"region\":{\"startLine\":5}}}]},\n{\"ruleId\""));
+        assertFalse(report, report.contains("bean.ok"));
+        assertTrue(report, report.endsWith("\n]}]}\n"));
+    }
+
+}
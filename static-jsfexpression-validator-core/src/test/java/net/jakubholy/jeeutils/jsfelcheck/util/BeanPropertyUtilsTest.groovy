@@ -19,6 +19,8 @@ package net.jakubholy.jeeutils.jsfelcheck.util
 
 import org.junit.Test
 
+import java.lang.reflect.ParameterizedType
+
 class BeanPropertyUtilsTest {
 
     private static class Parent {
@@ -31,6 +33,16 @@ class BeanPropertyUtilsTest {
         public void setIntegerValue(Integer v) {};
 
         public void setOnlySettableCharValue(char v) {};
+
+        public List<String> getStringList() {};
+    }
+
+    private static interface NamedThing {
+        String getName();
+    }
+
+    private static interface Person extends NamedThing {
+        int getAge();
     }
 
     @Test
@@ -47,4 +59,24 @@ class BeanPropertyUtilsTest {
     public void should_find_property_even_if_it_only_has_a_setter_and_no_getter() throws Exception {
         assert char.class == BeanPropertyUtils.forType(Child).getPropertyTypeOf("onlySettableCharValue")
     }
+
+    @Test
+    public void should_return_null_for_unknown_property_also_when_cached() throws Exception {
+        assert null == BeanPropertyUtils.forType(Child).getPropertyTypeOf("noSuchProperty")
+        assert null == BeanPropertyUtils.forType(Child).getPropertyTypeOf("noSuchProperty")
+        assert Integer == BeanPropertyUtils.forType(Child).getPropertyTypeOf("integerValue")
+    }
+
+    @Test
+    public void should_find_property_declared_in_super_interface() throws Exception {
+        assert String == BeanPropertyUtils.forType(Person).getPropertyTypeOf("name")
+        assert int.class == BeanPropertyUtils.forType(Person).getPropertyTypeOf("age")
+    }
+
+    @Test
+    public void should_return_generic_type_of_property() throws Exception {
+        def type = BeanPropertyUtils.forType(Child).getGenericPropertyTypeOf("stringList")
+        assert type instanceof ParameterizedType
+        assert [String] == ((ParameterizedType) type).actualTypeArguments as List
+    }
 }
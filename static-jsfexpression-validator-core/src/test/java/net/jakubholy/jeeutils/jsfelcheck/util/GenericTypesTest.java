@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.jakubholy.jeeutils.jsfelcheck.util;
+
+import static net.jakubholy.jeeutils.jsfelcheck.util.GenericTypes.*;
+import static org.junit.Assert.*;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+public class GenericTypesTest {
+
+    @SuppressWarnings("serial")
+    private static class StringList extends ArrayList<String> { }
+
+    @SuppressWarnings("serial")
+    private static class IntegerValuedMap<K> extends HashMap<K, Integer> { }
+
+    private static class Holder<T> {
+        public List<T> getItems() { return null; }
+        public T getItem() { return null; }
+    }
+
+    private static class StringHolder extends Holder<String> { }
+
+    @Test
+    public void should_find_element_type_of_subclass_of_generic_collection() throws Exception {
+        assertEquals(String.class, typeArgumentOf(StringList.class, Collection.class, 0));
+    }
+
+    @Test
+    public void should_find_value_type_of_partially_parametrized_map() throws Exception {
+        assertEquals(Integer.class, typeArgumentOf(IntegerValuedMap.class, Map.class, 1));
+        assertNull(typeArgumentOf(IntegerValuedMap.class, Map.class, 0));
+    }
+
+    @Test
+    public void should_return_null_for_raw_type() throws Exception {
+        assertNull(typeArgumentOf(ArrayList.class, Collection.class, 0));
+        assertNull(typeArgumentOf(String.class, Collection.class, 0));
+    }
+
+    @Test
+    public void should_resolve_type_variables_from_context() throws Exception {
+        Type itemsType = resolve(Holder.class.getMethod("getItems").getGenericReturnType(), StringHolder.class);
+        assertEquals(List.class, rawClassOf(itemsType));
+        assertEquals(String.class, typeArgumentOf(itemsType, Collection.class, 0));
+
+        assertEquals(String.class, resolve(Holder.class.getMethod("getItem").getGenericReturnType()
+                , StringHolder.class));
+    }
+
+    @Test
+    public void should_use_bound_as_raw_class_of_unresolved_type_variable() throws Exception {
+        Type itemType = resolve(Holder.class.getMethod("getItem").getGenericReturnType(), Holder.class);
+        assertEquals(Object.class, rawClassOf(itemType));
+    }
+
+}
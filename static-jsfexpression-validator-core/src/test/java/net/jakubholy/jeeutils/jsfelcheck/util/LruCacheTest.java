@@ -0,0 +1,52 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.jakubholy.jeeutils.jsfelcheck.util;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class LruCacheTest {
+
+    @Test
+    public void should_evict_least_recently_used_entry_when_full() throws Exception {
+        LruCache<String, Integer> cache = new LruCache<String, Integer>("test", 2);
+        cache.put("first", 1);
+        cache.put("second", 2);
+        cache.get("first");
+        cache.put("third", 3);
+
+        assertEquals(Integer.valueOf(1), cache.get("first"));
+        assertNull(cache.get("second"));
+        assertEquals(Integer.valueOf(3), cache.get("third"));
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void should_count_hits_and_misses() throws Exception {
+        LruCache<String, Integer> cache = new LruCache<String, Integer>("test", 10);
+        cache.get("key");
+        cache.put("key", 1);
+        cache.get("key");
+        cache.get("key");
+
+        assertEquals(2, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals("test: 2 hits, 1 misses (66% hits), 1/10 entries", cache.toString());
+    }
+
+}
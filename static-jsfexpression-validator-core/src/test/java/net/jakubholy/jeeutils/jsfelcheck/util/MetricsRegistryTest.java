@@ -0,0 +1,67 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.jakubholy.jeeutils.jsfelcheck.util;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.ArrayList;
+
+import org.junit.Test;
+
+public class MetricsRegistryTest {
+
+    private final MetricsRegistry registry = new MetricsRegistry();
+
+    @Test
+    public void should_record_count_total_and_max() throws Exception {
+        registry.record(MetricsRegistry.EXPRESSION_VALIDATION, 10);
+        registry.record(MetricsRegistry.EXPRESSION_VALIDATION, 30);
+
+        MetricsRegistry.Metric metric = registry.getMetric(MetricsRegistry.EXPRESSION_VALIDATION);
+        assertEquals(2, metric.getCount());
+        assertEquals(40, metric.getTotalNanos());
+        assertEquals(30, metric.getMaxNanos());
+        assertEquals(20, metric.getAverageNanos());
+        assertNull(registry.getMetric(MetricsRegistry.TAGLIB_REGISTRATION));
+    }
+
+    @Test
+    public void should_return_slowest_views_first() throws Exception {
+        registry.recordView("/fast.xhtml", 1000);
+        registry.recordView("/slow.xhtml", 3000);
+        registry.recordView("/medium.xhtml", 2000);
+
+        assertEquals(Arrays.asList("/slow.xhtml", "/medium.xhtml")
+                , new ArrayList<String>(registry.getSlowestViews(2).keySet()));
+        assertEquals(3, registry.getMetric(MetricsRegistry.VIEW).getCount());
+    }
+
+    @Test
+    public void should_format_summary_with_all_metrics_and_slowest_views() throws Exception {
+        registry.record(MetricsRegistry.BEAN_DISCOVERY_FACES_CONFIG, 5000000);
+        registry.recordView("/page.xhtml", 2000000);
+
+        String summary = registry.formatSummary(5);
+
+        assertTrue(summary, summary.contains(MetricsRegistry.BEAN_DISCOVERY_FACES_CONFIG));
+        assertTrue(summary, summary.contains(MetricsRegistry.VIEW));
+        assertTrue(summary, summary.contains("SLOWEST VIEWS"));
+        assertTrue(summary, summary.contains("2 /page.xhtml"));
+    }
+
+}
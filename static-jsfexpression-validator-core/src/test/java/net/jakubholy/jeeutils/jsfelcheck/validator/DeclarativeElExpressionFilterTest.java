@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.jakubholy.jeeutils.jsfelcheck.validator;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.util.Arrays;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Test;
+
+public class DeclarativeElExpressionFilterTest {
+
+    private static ParsedElExpression expression(String variable, String... properties) {
+        ParsedElExpression expression = new ParsedElExpression();
+        expression.setVariable(variable);
+        for (String property : properties) {
+            expression.addProperty(property);
+        }
+        return expression;
+    }
+
+    @Test
+    public void should_reject_expressions_starting_with_rule_parts() throws Exception {
+        DeclarativeElExpressionFilter filter = new DeclarativeElExpressionFilter()
+                .withRule("legacyBean")
+                .withRule("#{cc.attrs.*}");
+
+        assertFalse(filter.accept(expression("legacyBean")));
+        assertFalse(filter.accept(expression("legacyBean", "anything")));
+        assertFalse(filter.accept(expression("cc", "attrs")));
+        assertFalse(filter.accept(expression("cc", "attrs", "value")));
+        assertTrue(filter.accept(expression("cc")));
+        assertTrue(filter.accept(expression("cc", "clientId")));
+        assertTrue(filter.accept(expression("bean", "legacyBean")));
+    }
+
+    @Test
+    public void should_support_wildcards_within_parts() throws Exception {
+        DeclarativeElExpressionFilter filter = new DeclarativeElExpressionFilter()
+                .withRule("*.password")
+                .withRule("bean.*Internal")
+                .withRule("bean.item?.x");
+
+        assertFalse(filter.accept(expression("user", "password")));
+        assertFalse(filter.accept(expression("bean", "stateInternal")));
+        assertFalse(filter.accept(expression("bean", "item1", "x")));
+        assertTrue(filter.accept(expression("bean", "item12", "x")));
+        assertTrue(filter.accept(expression("bean", "internalState")));
+        assertTrue(filter.accept(expression("user", "name")));
+    }
+
+    @Test
+    public void should_count_hits_per_rule() throws Exception {
+        DeclarativeElExpressionFilter filter = new DeclarativeElExpressionFilter()
+                .withRule("legacyBean")
+                .withRule("*.password")
+                .withRule("unusedBean");
+
+        filter.accept(expression("legacyBean", "a"));
+        filter.accept(expression("legacyBean", "b"));
+        filter.accept(expression("user", "password"));
+        filter.accept(expression("user", "name"));
+
+        assertEquals(Arrays.asList("legacyBean", "*.password", "unusedBean"), filter.getRules());
+        assertEquals(Long.valueOf(2), filter.getRuleHits().get("legacyBean"));
+        assertEquals(Long.valueOf(1), filter.getRuleHits().get("*.password"));
+        assertEquals(Long.valueOf(0), filter.getRuleHits().get("unusedBean"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void should_reject_duplicate_rule() throws Exception {
+        new DeclarativeElExpressionFilter().withRule("cc.attrs").withRule("cc.attrs.*");
+    }
+
+    @Test
+    public void should_load_rules_from_file_ignoring_comments_and_empty_lines() throws Exception {
+        File rulesFile = File.createTempFile("jsfelcheck-filter", ".txt");
+        try {
+            FileUtils.writeStringToFile(rulesFile, "# legacy stuff\n\nlegacyBean, oldBean\n  cc.attrs.*  \n", "UTF-8");
+
+            DeclarativeElExpressionFilter filter = DeclarativeElExpressionFilter.fromFile(rulesFile);
+
+            assertEquals(Arrays.asList("legacyBean", "oldBean", "cc.attrs"), filter.getRules());
+            assertFalse(filter.accept(expression("oldBean", "x")));
+        } finally {
+            rulesFile.delete();
+        }
+    }
+
+    @Test
+    public void should_match_wildcards() throws Exception {
+        assertTrue(DeclarativeElExpressionFilter.wildcardMatches("*", ""));
+        assertTrue(DeclarativeElExpressionFilter.wildcardMatches("a*b*c", "aXXbYbc"));
+        assertTrue(DeclarativeElExpressionFilter.wildcardMatches("?b", "ab"));
+        assertFalse(DeclarativeElExpressionFilter.wildcardMatches("a*b", "aXc"));
+        assertFalse(DeclarativeElExpressionFilter.wildcardMatches("ab", "abc"));
+    }
+
+}
@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.jakubholy.jeeutils.jsfelcheck.validator;
+
+import static org.junit.Assert.*;
+
+import java.util.Collection;
+import java.util.List;
+
+import net.jakubholy.jeeutils.jsfelcheck.util.MetricsRegistry;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class FakeValueFactoryTest {
+
+    @After
+    public void tearDown() throws Exception {
+        FakeValueFactory.setFakeValueReuseEnabled(true);
+        FakeValueFactory.setMetricsRegistry(null);
+    }
+
+    @Test
+    public void should_reuse_mock_of_same_type() throws Exception {
+        Object first = FakeValueFactory.fakeValueOfType(Collection.class, "first");
+        Object second = FakeValueFactory.fakeValueOfType(Collection.class, "second");
+
+        assertTrue(first instanceof Collection);
+        assertSame(first, second);
+    }
+
+    @Test
+    public void should_replace_mock_after_max_reuses() throws Exception {
+        FakeValueFactory.clearFakeValueCache();
+        Object first = FakeValueFactory.fakeValueOfType(Collection.class, "property");
+        for (int i = 0; i < FakeValueFactory.MAX_REUSES_OF_CACHED_MOCK; i++) {
+            FakeValueFactory.fakeValueOfType(Collection.class, "property");
+        }
+
+        assertNotSame(first, FakeValueFactory.fakeValueOfType(Collection.class, "property"));
+    }
+
+    @Test
+    public void should_create_new_named_mock_when_reuse_disabled() throws Exception {
+        FakeValueFactory.setFakeValueReuseEnabled(false);
+
+        Object first = FakeValueFactory.fakeValueOfType(Collection.class, "myProperty");
+        Object second = FakeValueFactory.fakeValueOfType(Collection.class, "myProperty");
+
+        assertNotSame(first, second);
+        assertTrue(first.toString().contains("myProperty"));
+    }
+
+    @Test
+    public void should_record_fake_value_creation_only_in_registry_of_current_thread() throws Exception {
+        FakeValueFactory.setFakeValueReuseEnabled(false);
+        MetricsRegistry mine = new MetricsRegistry();
+        final MetricsRegistry other = new MetricsRegistry();
+        assertNull(FakeValueFactory.setMetricsRegistry(mine));
+
+        Thread otherValidation = new Thread() {
+            @Override
+            public void run() {
+                FakeValueFactory.setMetricsRegistry(other);
+                FakeValueFactory.fakeValueOfType(List.class, "other");
+                FakeValueFactory.setMetricsRegistry(null);
+            }
+        };
+        otherValidation.start();
+        otherValidation.join();
+        FakeValueFactory.fakeValueOfType(Collection.class, "mine");
+
+        assertEquals(1, mine.getMetric(MetricsRegistry.FAKE_VALUE_CREATION).getCount());
+        assertEquals(1, other.getMetric(MetricsRegistry.FAKE_VALUE_CREATION).getCount());
+        assertSame(mine, FakeValueFactory.setMetricsRegistry(null));
+    }
+
+}
@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.jakubholy.jeeutils.jsfelcheck.validator;
+
+import static org.junit.Assert.*;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Map;
+
+import javax.faces.model.DataModel;
+
+import org.junit.Test;
+
+public class LightweightFakeValueStrategyTest {
+
+    public static interface Bean {
+        int getCount();
+        Map<String, String> getMap();
+        String getName();
+    }
+
+    public static class ConcreteBean {
+        private String name;
+
+        public ConcreteBean() {
+            throw new IllegalStateException("The constructor must not be called");
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+
+    private final LightweightFakeValueStrategy strategy = new LightweightFakeValueStrategy();
+
+    @Test
+    public void should_fake_interface_with_proxy_returning_default_values() throws Exception {
+        Bean fake = (Bean) strategy.createFakeValue(Bean.class, "myBean");
+
+        assertTrue(Proxy.isProxyClass(fake.getClass()));
+        assertEquals(0, fake.getCount());
+        assertTrue(fake.getMap().isEmpty());
+        assertNull(fake.getName());
+        assertEquals("Fake_" + Bean.class.getName() + "_for_property_myBean", fake.toString());
+        assertEquals(fake, fake);
+    }
+
+    @Test
+    public void should_instantiate_concrete_class_without_calling_constructor() throws Exception {
+        Object fake = strategy.createFakeValue(ConcreteBean.class, null);
+
+        assertSame(ConcreteBean.class, fake.getClass());
+        assertNull(((ConcreteBean) fake).getName());
+    }
+
+    @Test
+    public void should_mock_abstract_class() throws Exception {
+        Object fake = strategy.createFakeValue(DataModel.class, null);
+
+        assertTrue(fake instanceof DataModel);
+    }
+
+    @Test
+    public void should_show_faked_interface_instead_of_proxy_class_in_messages() throws Exception {
+        Object fake = strategy.createFakeValue(List.class, null);
+
+        assertEquals("Property 'x' not found on type java.util.List",
+                FakeValueFactory.withFakedTypeNames("Property 'x' not found on type " + fake.getClass().getName()));
+    }
+
+}
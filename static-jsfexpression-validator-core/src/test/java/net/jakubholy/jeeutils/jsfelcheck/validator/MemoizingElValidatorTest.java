@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.jakubholy.jeeutils.jsfelcheck.validator;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import net.jakubholy.jeeutils.jsfelcheck.util.LruCache;
+import net.jakubholy.jeeutils.jsfelcheck.validator.exception.InvalidExpressionException;
+import net.jakubholy.jeeutils.jsfelcheck.validator.results.FailedValidationResult;
+import net.jakubholy.jeeutils.jsfelcheck.validator.results.JsfExpressionDescriptor;
+import net.jakubholy.jeeutils.jsfelcheck.validator.results.SuccessfulValidationResult;
+import net.jakubholy.jeeutils.jsfelcheck.validator.results.ValidationResult;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+public class MemoizingElValidatorTest {
+
+    private static final AttributeInfo VALUE_ATTRIBUTE = new AttributeInfo("value", String.class);
+
+    @Mock private JsfElValidator delegate;
+    @Mock private ElVariableResolver localVariables;
+    private MemoizingElValidator validator;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        validator = new MemoizingElValidator(delegate, localVariables,
+                new LruCache<String, ValidationResult>("test", 100));
+    }
+
+    @Test
+    public void should_return_copy_of_remembered_result_for_repeated_expression() throws Exception {
+        SuccessfulValidationResult original = new SuccessfulValidationResult("#{bean.property}", "value")
+                .withFunctionsInExpression(Collections.singleton("fn:length"));
+        when(delegate.validateElExpression("#{bean.property}", VALUE_ATTRIBUTE)).thenReturn(original);
+        validator.validateElExpression("#{bean.property}", VALUE_ATTRIBUTE)
+                .setExpressionDescriptor(new JsfExpressionDescriptor("#{bean.property}"));
+
+        ValidationResult repeated = validator.validateElExpression("#{bean.property}", VALUE_ATTRIBUTE);
+
+        verify(delegate, times(1)).validateElExpression("#{bean.property}", VALUE_ATTRIBUTE);
+        assertNotSame(original, repeated);
+        assertEquals(original, repeated);
+        assertNull(repeated.getExpressionDescriptor());
+        assertEquals(Collections.singleton("fn:length"), ((SuccessfulValidationResult) repeated).getFunctionsInExpression());
+        assertEquals(1, validator.getMemoizedResults().getHits());
+    }
+
+    @Test
+    public void should_validate_again_when_type_of_referenced_local_variable_differs() throws Exception {
+        when(delegate.validateElExpression("#{row.name}", VALUE_ATTRIBUTE)).thenReturn(
+                new FailedValidationResult(new InvalidExpressionException("#{row.name}", "no name")));
+        doReturn(String.class).when(localVariables).resolveVariable("row");
+        validator.validateElExpression("#{row.name}", VALUE_ATTRIBUTE);
+
+        doReturn(Integer.class).when(localVariables).resolveVariable("row");
+        validator.validateElExpression("#{row.name}", VALUE_ATTRIBUTE);
+
+        verify(delegate, times(2)).validateElExpression("#{row.name}", VALUE_ATTRIBUTE);
+    }
+
+    @Test
+    public void should_validate_again_for_different_attribute_type() throws Exception {
+        when(delegate.validateElExpression(eq("#{bean.action}"), any(AttributeInfo.class))).thenReturn(
+                new SuccessfulValidationResult("#{bean.action}", null));
+        validator.validateElExpression("#{bean.action}", VALUE_ATTRIBUTE);
+        validator.validateElExpression("#{bean.action}", new AttributeInfo("value", Object.class));
+
+        verify(delegate, times(2)).validateElExpression(eq("#{bean.action}"), any(AttributeInfo.class));
+    }
+
+    @Test
+    public void should_forget_results_when_configuration_changes() throws Exception {
+        when(delegate.validateElExpression("#{bean}", VALUE_ATTRIBUTE)).thenReturn(
+                new SuccessfulValidationResult("#{bean}", null));
+        validator.validateElExpression("#{bean}", VALUE_ATTRIBUTE);
+
+        validator.definePropertyTypeOverride("bean.*", String.class);
+        validator.validateElExpression("#{bean}", VALUE_ATTRIBUTE);
+
+        verify(delegate, times(2)).validateElExpression("#{bean}", VALUE_ATTRIBUTE);
+    }
+
+    @Test
+    public void should_find_root_identifiers_outside_of_string_literals() throws Exception {
+        assertEquals(new HashSet<String>(Arrays.asList("bean", "fn", "length", "row", "or", "empty"))
+                , MemoizingElValidator.rootIdentifiersIn(
+                        "#{bean.map['row.key'].size + fn:length(row . items) > 0 or empty \"x\\\"y\"}"));
+    }
+
+}
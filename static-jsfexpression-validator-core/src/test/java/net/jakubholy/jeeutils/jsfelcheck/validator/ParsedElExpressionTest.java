@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.jakubholy.jeeutils.jsfelcheck.validator;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+public class ParsedElExpressionTest {
+
+    private ParsedElExpression expression(String variable, String... properties) {
+        ParsedElExpression expression = new ParsedElExpression();
+        expression.setVariable(variable);
+        for (String property : properties) {
+            expression.addProperty(property);
+        }
+        return expression;
+    }
+
+    @Test
+    public void should_expose_parts_by_index_and_via_iterator() throws Exception {
+        ParsedElExpression expression = expression("bean", "p1", "p2");
+
+        assertEquals(3, expression.size());
+        assertEquals("bean", expression.getVariable());
+        assertEquals("p2", expression.getPart(2));
+        List<String> iterated = new ArrayList<String>();
+        for (String part : expression) {
+            iterated.add(part);
+        }
+        assertEquals(Arrays.asList("bean", "p1", "p2"), iterated);
+    }
+
+    @Test
+    public void should_grow_beyond_initial_capacity() throws Exception {
+        ParsedElExpression expression = expression("a", "b", "c", "d", "e", "f", "g", "h", "i", "j");
+
+        assertEquals(10, expression.size());
+        assertEquals("a.b.c.d.e.f.g.h.i.j", expression.toString());
+    }
+
+    @Test
+    public void should_update_cached_string_and_hash_when_changed() throws Exception {
+        ParsedElExpression expression = expression("bean", "property");
+        assertEquals("bean.property", expression.toString());
+        int hashBefore = expression.hashCode();
+
+        expression.addProperty("nested");
+        assertEquals("bean.property.nested", expression.toString());
+        assertEquals(expression("bean", "property", "nested").hashCode(), expression.hashCode());
+        assertFalse(hashBefore == expression.hashCode());
+
+        expression.setVariable("other");
+        assertEquals("other", expression.toString());
+        assertEquals(1, expression.size());
+    }
+
+    @Test
+    public void should_be_equal_when_parts_are_equal() throws Exception {
+        assertEquals(expression("bean", "property"), expression("bean", "property"));
+        assertFalse(expression("bean", "property").equals(expression("bean", "other")));
+        assertFalse(expression("bean", "property").equals(expression("bean")));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void should_reject_part_index_beyond_size() throws Exception {
+        expression("bean").getPart(1);
+    }
+
+    @Test
+    public void should_have_no_variable_when_empty() throws Exception {
+        assertNull(new ParsedElExpression().getVariable());
+        assertEquals("", new ParsedElExpression().toString());
+    }
+
+}
@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.jakubholy.jeeutils.jsfelcheck.validator;
+
+import static org.junit.Assert.*;
+
+import java.net.URL;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class PropertyTypeOverridesTest {
+
+    private PropertyTypeOverrides overrides;
+
+    @Before
+    public void setUp() throws Exception {
+        overrides = new PropertyTypeOverrides();
+        overrides.define("bean.map.*", Integer.class);
+        overrides.define("bean.map.special", URL.class);
+        overrides.define("bean.map.my.key", Long.class);
+    }
+
+    private ParsedElExpression expression(String variable, String... properties) {
+        ParsedElExpression expression = new ParsedElExpression(overrides);
+        expression.setVariable(variable);
+        for (String property : properties) {
+            expression.addProperty(property);
+        }
+        return expression;
+    }
+
+    @Test
+    public void should_prefer_property_override_over_component_override() throws Exception {
+        assertSame(URL.class, expression("bean", "map").getTypeOverride("special"));
+        assertSame(Integer.class, expression("bean", "map").getTypeOverride("other"));
+        assertSame(Integer.class, expression("bean", "map").getTypeOverride(123));
+    }
+
+    @Test
+    public void should_find_override_of_map_key_containing_dots() throws Exception {
+        assertSame(Long.class, expression("bean", "map").getTypeOverride("my.key"));
+    }
+
+    @Test
+    public void should_return_null_when_no_override_applies() throws Exception {
+        assertNull(expression("bean").getTypeOverride("map"));
+        assertNull(expression("bean", "map", "special").getTypeOverride("x"));
+        assertNull(expression("otherBean", "map").getTypeOverride("special"));
+        assertNull(new ParsedElExpression().getTypeOverride("special"));
+    }
+
+    @Test
+    public void should_find_override_defined_after_the_expression_was_built() throws Exception {
+        ParsedElExpression expression = expression("late", "list");
+        assertNull(expression.getTypeOverride("x"));
+
+        overrides.define("late.list.*", Double.class);
+
+        assertSame(Double.class, expression.getTypeOverride("x"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void should_reject_duplicate_override() throws Exception {
+        overrides.define("bean.map.*", String.class);
+    }
+
+    @Test
+    public void should_get_exactly_defined_override() throws Exception {
+        assertSame(Integer.class, overrides.get("bean.map.*"));
+        assertNull(overrides.get("bean.map"));
+    }
+
+}
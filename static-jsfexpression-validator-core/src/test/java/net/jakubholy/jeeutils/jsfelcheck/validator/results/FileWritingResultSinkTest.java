@@ -0,0 +1,74 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.jakubholy.jeeutils.jsfelcheck.validator.results;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.util.Arrays;
+
+import net.jakubholy.jeeutils.jsfelcheck.validator.exception.InvalidExpressionException;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class FileWritingResultSinkTest {
+
+    private File outputFile;
+
+    @Before
+    public void setUp() throws Exception {
+        outputFile = File.createTempFile("jsfelcheck-results", ".txt");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        outputFile.delete();
+    }
+
+    private static ValidationResult located(ValidationResult result, String file, int line) {
+        JsfExpressionDescriptor descriptor = new JsfExpressionDescriptor("ignored");
+        descriptor.setJspFile(file);
+        descriptor.setTagLineNumber(line);
+        result.setExpressionDescriptor(descriptor);
+        return result;
+    }
+
+    @Test
+    public void should_write_one_line_per_failure_and_skip_correct_expressions() throws Exception {
+        FileWritingResultSink sink = new FileWritingResultSink(outputFile, false);
+        sink.resultProduced(located(new SuccessfulValidationResult("#{bean.ok}", null), "/page.xhtml", 3));
+        sink.resultProduced(located(new FailedValidationResult(
+                new InvalidExpressionException("#{bean.wrong}", "No such\tproperty")), "/page.xhtml", 5));
+        sink.validationFinished();
+
+        assertEquals(Arrays.asList("FAILED\t/page.xhtml\t5\t#{bean.wrong}\tInvalid EL expression '#{bean.wrong}': No such property")
+                , FileUtils.readLines(outputFile, "UTF-8"));
+    }
+
+    @Test
+    public void should_write_also_correct_expressions_if_requested() throws Exception {
+        FileWritingResultSink sink = new FileWritingResultSink(outputFile, true);
+        sink.resultProduced(located(new SuccessfulValidationResult("#{bean.ok}", null), "/page.xhtml", 3));
+        sink.validationFinished();
+
+        assertEquals(Arrays.asList("VALID\t/page.xhtml\t3\t#{bean.ok}\t"), FileUtils.readLines(outputFile, "UTF-8"));
+    }
+
+}
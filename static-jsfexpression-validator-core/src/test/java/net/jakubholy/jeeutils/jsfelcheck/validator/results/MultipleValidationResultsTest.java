@@ -172,4 +172,34 @@ public class MultipleValidationResultsTest {
 
     }
 
+    @Test
+    public void should_keep_only_problems_but_count_all_with_problems_only_retention() throws Exception {
+        FailedValidationResult failure = new FailedValidationResult(null);
+        multipleValidationResults.setRetention(MultipleValidationResults.Retention.PROBLEMS_ONLY);
+        multipleValidationResults.add(new SuccessfulValidationResult("dummyEl", null));
+        multipleValidationResults.add(failure);
+
+        assertThat(multipleValidationResults, contains((ValidationResult) failure));
+        assertEquals(0, multipleValidationResults.goodResults().size());
+        assertEquals(1, multipleValidationResults.goodResults().getTotalCount());
+        assertEquals(1, multipleValidationResults.failures().getTotalCount());
+    }
+
+    @Test
+    public void should_count_unretained_results_when_merging() throws Exception {
+        MultipleValidationResults resultsToMerge = new MultipleValidationResults();
+        resultsToMerge.setRetention(MultipleValidationResults.Retention.NONE);
+        resultsToMerge.add(new SuccessfulValidationResult("dummyEl", null));
+        resultsToMerge.add(new FailedValidationResult(null));
+
+        multipleValidationResults.add(new SuccessfulValidationResult("dummyEl", null));
+        multipleValidationResults.add(resultsToMerge);
+
+        assertTrue(multipleValidationResults.hasErrors());
+        assertEquals(1, multipleValidationResults.goodResults().size());
+        assertEquals(2, multipleValidationResults.goodResults().getTotalCount());
+        assertEquals(0, multipleValidationResults.failures().size());
+        assertEquals(1, multipleValidationResults.failures().getTotalCount());
+    }
+
 }
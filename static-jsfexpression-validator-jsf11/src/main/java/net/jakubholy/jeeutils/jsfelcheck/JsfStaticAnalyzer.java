@@ -164,6 +164,12 @@ public class JsfStaticAnalyzer extends AbstractJsfStaticAnalyzer<JsfStaticAnalyz
         return new Jsf11ValidatingElResolver();
     }
 
+    /** Jsf11ValidatingElResolver recognizes method bindings by the attribute name. */
+    @Override
+    protected boolean isAttributeNameSignificantForValidation() {
+        return true;
+    }
+
 	@Override
 	protected JsfElValidatingFaceletsParser createValidatingFaceletsParser(File webappRoot, PageNodeListener pageNodeValidator) {
 		throw new UnsupportedOperationException("Sorry, we haven't implemented support for Facelets in the JSF 1.1 "
@@ -25,6 +25,7 @@ import net.jakubholy.jeeutils.jsfelcheck.expressionfinder.impl.facelets.jsf12.My
 import net.jakubholy.jeeutils.jsfelcheck.expressionfinder.pagenodes.PageNodeListener;
 import net.jakubholy.jeeutils.jsfelcheck.validator.ValidatingElResolver;
 import net.jakubholy.jeeutils.jsfelcheck.validator.jsf12.Jsf12ValidatingElResolver;
+import net.jakubholy.jeeutils.jsfelcheck.validator.jsf12.TypeOnlyValidatingElResolver;
 import org.apache.el.parser.AstAnd;
 
 import java.io.File;
@@ -138,6 +139,8 @@ import java.util.Collection;
  */
 public class JsfStaticAnalyzer extends AbstractJsfStaticAnalyzer<JsfStaticAnalyzer> {
 
+	private boolean typeOnlyElEvaluation;
+
 	/** Instance for validation of JSP pages. */
 	public static JsfStaticAnalyzer forJsp() {
 		return new JsfStaticAnalyzer(ViewType.JSP);
@@ -164,12 +167,37 @@ public class JsfStaticAnalyzer extends AbstractJsfStaticAnalyzer<JsfStaticAnalyz
 
     @Override
     protected ValidatingElResolver createValidatingElResolver() {
+        if (typeOnlyElEvaluation) {
+            return new TypeOnlyValidatingElResolver();
+        }
         if (! new AstAnd(0).toString().startsWith("HACKED BY JSFELCHECK ")) {
             handleUnhackedElImplementationLoaded("jasper-el");  // JSF 2.0: tomcat-jasper-el
         }
         return new Jsf12ValidatingElResolver();
     }
 
+    /**
+     * Validate the expressions with {@link TypeOnlyValidatingElResolver}, which determines the types of variables,
+     * properties and methods from the class metadata (including generic type arguments) instead of evaluating the
+     * expressions with fake values (mocks) of them, which is faster. The results should be the same; you can
+     * use it to compare the two implementations on your application. Default: false.
+     *
+     * @param typeOnlyElEvaluation true to use the type-only validator, false for {@link Jsf12ValidatingElResolver}
+     * @return this
+     */
+    public JsfStaticAnalyzer withTypeOnlyElEvaluation(boolean typeOnlyElEvaluation) {
+        if (this.typeOnlyElEvaluation != typeOnlyElEvaluation) {
+            this.typeOnlyElEvaluation = typeOnlyElEvaluation;
+            recreateValidatingElResolver();
+        }
+        return this;
+    }
+
+    /** @see #withTypeOnlyElEvaluation(boolean) */
+    public boolean isTypeOnlyElEvaluation() {
+        return typeOnlyElEvaluation;
+    }
+
 	@Override
 	protected JsfElValidatingFaceletsParser createValidatingFaceletsParser(File webappRoot, PageNodeListener pageNodeValidator) {
 		return new MyFaces12ValidatingFaceletsParser(webappRoot, pageNodeValidator);
@@ -30,15 +30,18 @@ import com.sun.facelets.tag.ui.UILibrary;
 import net.jakubholy.jeeutils.jsfelcheck.expressionfinder.impl.facelets.AbstractValidatingFaceletsParser;
 import net.jakubholy.jeeutils.jsfelcheck.expressionfinder.impl.facelets.StandaloneExternalContext;
 import net.jakubholy.jeeutils.jsfelcheck.expressionfinder.pagenodes.PageNodeListener;
+import net.jakubholy.jeeutils.jsfelcheck.util.CacheStatisticsProvider;
+import net.jakubholy.jeeutils.jsfelcheck.util.LruCache;
 import org.apache.myfaces.config.FacesConfigurator;
 import org.apache.myfaces.context.ReleaseableExternalContext;
 import org.apache.myfaces.context.servlet.StartupFacesContextImpl;
 
-import javax.faces.context.ExternalContext;
 import javax.faces.context.FacesContext;
 import java.io.File;
 import java.io.IOException;
 import java.net.URL;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Map;
 
 /**
@@ -46,7 +49,15 @@ import java.util.Map;
  *
  * Implementation for JSF 1.2 based on MyFaces 1.2.10.
  */
-public class MyFaces12ValidatingFaceletsParser extends AbstractValidatingFaceletsParser {
+public class MyFaces12ValidatingFaceletsParser extends AbstractValidatingFaceletsParser
+		implements CacheStatisticsProvider {
+
+	/**
+	 * Parsed local taglibs, shared by all parsers in the JVM, keyed by the taglib file and its checksum.
+	 * The libraries are immutable once created, just as when Facelets shares them by all requests.
+	 */
+	private static final LruCache<String, TagLibrary> PARSED_TAGLIBS =
+			new LruCache<String, TagLibrary>("parsed Facelets taglibs", 256);
 
 	private static class StandaloneReleaseableExternalContext extends StandaloneExternalContext implements ReleaseableExternalContext {
 
@@ -60,8 +71,8 @@ public class MyFaces12ValidatingFaceletsParser extends AbstractValidatingFacelet
 		}
 	}
 
-	private final ExternalContext externalContext;
-	private Compiler compiler;
+	private final StandaloneReleaseableExternalContext externalContext;
+	private JsfelcheckSAXCompiler compiler;
 
 	/**
 	 * @param webappRoot (required) The folder that contains the webapp's resources folder as per the JSF 2.0 specification
@@ -73,14 +84,26 @@ public class MyFaces12ValidatingFaceletsParser extends AbstractValidatingFacelet
 	}
 
 	@Override
-	public void validateExpressionsInView(URL xhtmlUrl, String shortName) throws IOException {
-		getCompiler().compile(xhtmlUrl, shortName);
+	protected void compile(URL xhtmlUrl, String shortName, PageNodeListener pageNodeListener) throws IOException {
+		getCompiler().compile(xhtmlUrl, shortName, pageNodeListener);
+	}
+
+	/**
+	 * Worker threads get their own FacesContext; it is cheap because the configuration
+	 * (factories, application) has been done only once, in {@link #initializeFacesContext()}.
+	 */
+	@Override
+	protected void bindFacesContextToCurrentThread() {
+		if (FacesContext.getCurrentInstance() == null) {
+			// The constructor sets FacesContext.getCurrentInstance()
+			new StartupFacesContextImpl(externalContext, externalContext, true);
+		}
 	}
 
 	/**
 	 * Initialize FacesContext for use by the compiler (so that it is aware of available tag libraries etc.)
 	 */
-	private ExternalContext initializeFacesContext() {
+	private StandaloneReleaseableExternalContext initializeFacesContext() {
 
 		// We need a "real" external context to be able to f.ex. locate resources such as facelet composites
 		// + enable the Development mode so that location info is attached to tags when compiling a view page
@@ -103,8 +126,8 @@ public class MyFaces12ValidatingFaceletsParser extends AbstractValidatingFacelet
 		return externalContext;
 	}
 
-	private Compiler createCompiler() {
-		Compiler compiler = new JsfelcheckSAXCompiler(pageNodeValidator);
+	private JsfelcheckSAXCompiler createCompiler() {
+		JsfelcheckSAXCompiler compiler = new JsfelcheckSAXCompiler(pageNodeValidator);
 
 		// BEGIN Copied from ..myfaces...FaceletViewDeclarationLanguage.createCompiler() w/ little inlining
 		compiler.addTagLibrary(new CoreLibrary());
@@ -125,18 +148,28 @@ public class MyFaces12ValidatingFaceletsParser extends AbstractValidatingFacelet
 	}
 
 	private void registerLocalTaglibs(Compiler compiler) {
-		for (File taglib : taglibs) {
-			try {
-				URL taglibUrl = taglib.toURI().toURL();
-				TagLibrary tagLib = TagLibraryConfig.create(taglibUrl);
-				compiler.addTagLibrary(tagLib);
-			} catch (IOException e) {
-				throw new RuntimeException("Taglib parsing failed", e);
+		for (File taglib : freezeTaglibs()) {
+			String cacheKey = toTaglibCacheKey(taglib);
+			TagLibrary tagLib = PARSED_TAGLIBS.get(cacheKey);
+			if (tagLib == null) {
+				try {
+					URL taglibUrl = taglib.toURI().toURL();
+					tagLib = TagLibraryConfig.create(taglibUrl);
+				} catch (IOException e) {
+					throw new RuntimeException("Taglib parsing failed", e);
+				}
+				PARSED_TAGLIBS.put(cacheKey, tagLib);
 			}
+			compiler.addTagLibrary(tagLib);
 		}
 	}
 
-	private Compiler getCompiler() {
+	@Override
+	public Collection<LruCache<?, ?>> getCaches() {
+		return Collections.<LruCache<?, ?>>singletonList(PARSED_TAGLIBS);
+	}
+
+	private synchronized JsfelcheckSAXCompiler getCompiler() {
 		if (compiler == null) {
 			compiler = createCompiler();
 		}
@@ -17,6 +17,8 @@
 
 package net.jakubholy.jeeutils.jsfelcheck.validator.jsf12;
 
+import net.jakubholy.jeeutils.jsfelcheck.util.CacheStatisticsProvider;
+import net.jakubholy.jeeutils.jsfelcheck.util.LruCache;
 import net.jakubholy.jeeutils.jsfelcheck.validator.AttributeInfo;
 import net.jakubholy.jeeutils.jsfelcheck.validator.ElExpressionFilter;
 import net.jakubholy.jeeutils.jsfelcheck.validator.ElVariableResolver;
@@ -47,6 +49,9 @@ import javax.el.ValueExpression;
 import javax.faces.context.ExternalContext;
 import javax.faces.context.FacesContext;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Map;
 import java.util.logging.Level;
@@ -59,9 +64,13 @@ import static org.mockito.Mockito.*;
 /** {@inheritDoc}
  *
  * JSF 1.2 implementation based on MyFaces.
+ * <p>
+ *     The parsed expressions are cached and shared by all instances as the same expressions tend to appear
+ * in many views.
+ * </p>
  *
  */
-public class Jsf12ValidatingElResolver implements ValidatingElResolver {
+public class Jsf12ValidatingElResolver implements ValidatingElResolver, CacheStatisticsProvider {
 
 	private static final Logger LOG = Logger.getLogger(Jsf12ValidatingElResolver.class.getName());
 
@@ -73,6 +82,32 @@ public class Jsf12ValidatingElResolver implements ValidatingElResolver {
 	 */
 	public static final Pattern RE_LAST_EL_PROPERTY = Pattern.compile("\\.(?!\\d)((?:\\p{L}|[0-9_$])+)\\s*\\}");
 
+	/** How many parsed expressions of each kind (value, method) to cache. */
+	static final int PARSED_EXPRESSIONS_CACHE_SIZE = 10000;
+
+	/**
+	 * A parsed expression and the functions it uses. The expressions don't depend on the instance that has
+	 * created them - they only reference the static methods of {@link MethodFakingFunctionMapper} - and so can
+	 * be shared.
+	 */
+	private static final class ParsedExpression<E> {
+		private final E expression;
+		private final Collection<String> functionQNames;
+
+		ParsedExpression(E expression, Collection<String> functionQNames) {
+			this.expression = expression;
+			this.functionQNames = new ArrayList<String>(functionQNames);
+		}
+	}
+
+	private static final LruCache<String, ParsedExpression<ValueExpression>> PARSED_VALUE_EXPRESSIONS =
+			new LruCache<String, ParsedExpression<ValueExpression>>(
+					"parsed EL value expressions", PARSED_EXPRESSIONS_CACHE_SIZE);
+
+	private static final LruCache<String, ParsedExpression<MethodExpression>> PARSED_METHOD_EXPRESSIONS =
+			new LruCache<String, ParsedExpression<MethodExpression>>(
+					"parsed EL method expressions", PARSED_EXPRESSIONS_CACHE_SIZE);
+
 	private final MethodFakingFunctionMapper functionMapper = new MethodFakingFunctionMapper();
     private ValidatingFakeValueResolver validatingResolver;
     private ExpressionFactory expressionFactory;
@@ -167,14 +202,12 @@ public class Jsf12ValidatingElResolver implements ValidatingElResolver {
 	}
 
 	private ValidationResult validateValueElExpression(String elExpression) {
-        functionMapper.setCurrentExpression(elExpression);
-        final ValueExpression valueExpression = expressionFactory.createValueExpression(
-                elContext, elExpression, Object.class);
+        final ParsedExpression<ValueExpression> valueExpression = parseValueExpression(elExpression);
         try {
-            final Object resolvedMockedValue = valueExpression.getValue(elContext);
+            final Object resolvedMockedValue = valueExpression.expression.getValue(elContext);
             // if (resolvedMockedValue == null ) - do somethin? is it possible at all?
             return new SuccessfulValidationResult(elExpression, resolvedMockedValue)
-                    .withFunctionsInExpression(functionMapper.getLastExpressionsFunctionQNames());
+                    .withFunctionsInExpression(valueExpression.functionQNames);
         } catch (ELException e) {
             return ValidationResultHelper.produceFailureResult(elExpression, e);
         } catch (BaseEvaluationException e) {
@@ -186,13 +219,11 @@ public class Jsf12ValidatingElResolver implements ValidatingElResolver {
     }
 
     private ValidationResult validateMethodElExpression(String elExpression, boolean ignoreAssertFailure) {
-        functionMapper.setCurrentExpression(elExpression);      // most likely absolutely unnecessary
         try {
-            final MethodExpression methodExpression = expressionFactory.createMethodExpression(
-                    elContext, elExpression, Object.class, NO_PARAMS);
+            final ParsedExpression<MethodExpression> methodExpression = parseMethodExpression(elExpression);
 	        assertMethodExists(elExpression, ignoreAssertFailure);
-            return new SuccessfulValidationResult(elExpression, methodExpression)
-                    .withFunctionsInExpression(functionMapper.getLastExpressionsFunctionQNames());
+            return new SuccessfulValidationResult(elExpression, methodExpression.expression)
+                    .withFunctionsInExpression(methodExpression.functionQNames);
         } catch (ELException e) {
             return ValidationResultHelper.produceFailureResult(elExpression, e);
         } catch (BaseEvaluationException e) {
@@ -203,6 +234,32 @@ public class Jsf12ValidatingElResolver implements ValidatingElResolver {
 
     }
 
+    /** Get the parsed expression from the cache or parse and cache it. */
+    private ParsedExpression<ValueExpression> parseValueExpression(String elExpression) {
+        ParsedExpression<ValueExpression> parsed = PARSED_VALUE_EXPRESSIONS.get(elExpression);
+        if (parsed == null) {
+            functionMapper.setCurrentExpression(elExpression);
+            parsed = new ParsedExpression<ValueExpression>(
+                    expressionFactory.createValueExpression(elContext, elExpression, Object.class)
+                    , functionMapper.getLastExpressionsFunctionQNames());
+            PARSED_VALUE_EXPRESSIONS.put(elExpression, parsed);
+        }
+        return parsed;
+    }
+
+    /** Get the parsed expression from the cache or parse and cache it. */
+    private ParsedExpression<MethodExpression> parseMethodExpression(String elExpression) {
+        ParsedExpression<MethodExpression> parsed = PARSED_METHOD_EXPRESSIONS.get(elExpression);
+        if (parsed == null) {
+            functionMapper.setCurrentExpression(elExpression);
+            parsed = new ParsedExpression<MethodExpression>(
+                    expressionFactory.createMethodExpression(elContext, elExpression, Object.class, NO_PARAMS)
+                    , functionMapper.getLastExpressionsFunctionQNames());
+            PARSED_METHOD_EXPRESSIONS.put(elExpression, parsed);
+        }
+        return parsed;
+    }
+
 	/**
 	 * Assert that the method actually exists.
 	 * We cannot use {@link MethodExpression#getMethodInfo(javax.el.ELContext)}
@@ -243,8 +300,7 @@ public class Jsf12ValidatingElResolver implements ValidatingElResolver {
 		String targetObjectEl = targetObjectElAndMethod[0];
 		String methodName = targetObjectElAndMethod[1];
 
-		ValueExpression targetObjectValueExpr = expressionFactory.createValueExpression(
-				elContext, targetObjectEl, Object.class);
+		ValueExpression targetObjectValueExpr = parseValueExpression(targetObjectEl).expression;
 		final Class<? extends Object> targetClass = targetObjectValueExpr.getValue(elContext).getClass();
 
 		final Method[] methods = targetClass.getMethods();
@@ -304,4 +360,10 @@ public class Jsf12ValidatingElResolver implements ValidatingElResolver {
         validatingResolver.getPropertyResolver().addElExpressionFilter(elExpressionFilter);
     }
 
+    /** {@inheritDoc} */
+    public Collection<LruCache<?, ?>> getCaches() {
+        return Arrays.<LruCache<?, ?>>asList(PARSED_VALUE_EXPRESSIONS, PARSED_METHOD_EXPRESSIONS
+                , MethodFakingFunctionMapper.getFunctionAritiesCache());
+    }
+
 }
@@ -17,6 +17,7 @@
 
 package net.jakubholy.jeeutils.jsfelcheck.validator.jsf12;
 
+import net.jakubholy.jeeutils.jsfelcheck.util.LruCache;
 import org.apache.el.parser.AstFunction;
 import org.apache.el.parser.ELParser;
 import org.apache.el.parser.Node;
@@ -37,6 +38,8 @@ import java.util.TreeSet;
  * generic method taking the expected number of parameters.
  * <p>
  * In the future I may implement/reuse a true function mapper.
+ * <p>
+ * The arities of the functions in an expression are cached, shared by all instances.
  */
 public class MethodFakingFunctionMapper extends FunctionMapper {
 
@@ -79,7 +82,13 @@ public class MethodFakingFunctionMapper extends FunctionMapper {
     };
     // CHECKSTYLE:ON
 
-    private final Map<String, Integer> functionToAritiesCache = new HashMap<String, Integer>();
+    /** How many expressions to cache the function arities of. */
+    static final int FUNCTION_ARITIES_CACHE_SIZE = 10000;
+
+    /** Expression -> function QName -> arity. */
+    private static final LruCache<String, Map<String, Integer>> FUNCTION_ARITIES_CACHE =
+            new LruCache<String, Map<String, Integer>>("EL function arities", FUNCTION_ARITIES_CACHE_SIZE);
+
     private final Set<String> currentExpressionsFunctions = new TreeSet<String>();
     private String currentExpression;
 
@@ -118,15 +127,10 @@ public class MethodFakingFunctionMapper extends FunctionMapper {
 
         final String resolvedFunctionQName = prefix + ":" + name;
 
-        // FIXME The code below allows for a function name to have just one number of parameters, i.e. no f(1), f(1,2)
-        // What does the specification say?
+        // FIXME The code below allows for a function name to have just one number of parameters within an EL,
+        // i.e. no f(1) + f(1,2). What does the specification say?
 
-        Integer arity = functionToAritiesCache.get(resolvedFunctionQName);
-        if (arity == null) {
-            Map<String, Integer> functionsAndAritiesInCurrentEL = extractFunctionArities();
-            arity = functionsAndAritiesInCurrentEL.get(resolvedFunctionQName);
-            functionToAritiesCache.putAll(functionsAndAritiesInCurrentEL);
-        }
+        Integer arity = getFunctionAritiesOfCurrentExpression().get(resolvedFunctionQName);
 
         if (arity == null) {
             throw new IllegalStateException("Couldn't determine the arity of the function " + resolvedFunctionQName
@@ -140,6 +144,21 @@ public class MethodFakingFunctionMapper extends FunctionMapper {
         }
     }
 
+    /** Get the arities of all functions in the current EL expression from the cache or extract them. */
+    private Map<String, Integer> getFunctionAritiesOfCurrentExpression() {
+        Map<String, Integer> functionArities = FUNCTION_ARITIES_CACHE.get(getCurrentExpressionOrFail());
+        if (functionArities == null) {
+            functionArities = extractFunctionArities();
+            FUNCTION_ARITIES_CACHE.put(getCurrentExpressionOrFail(), functionArities);
+        }
+        return functionArities;
+    }
+
+    /** The cache of function arities, for statistics. */
+    static LruCache<String, Map<String, Integer>> getFunctionAritiesCache() {
+        return FUNCTION_ARITIES_CACHE;
+    }
+
     /**
      * Extract all arities of all functions in the current EL expression.
      */
@@ -0,0 +1,615 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.jakubholy.jeeutils.jsfelcheck.validator.jsf12;
+
+import net.jakubholy.jeeutils.jsfelcheck.util.BeanPropertyUtils;
+import net.jakubholy.jeeutils.jsfelcheck.util.CacheStatisticsProvider;
+import net.jakubholy.jeeutils.jsfelcheck.util.GenericTypes;
+import net.jakubholy.jeeutils.jsfelcheck.util.LruCache;
+import net.jakubholy.jeeutils.jsfelcheck.validator.AttributeInfo;
+import net.jakubholy.jeeutils.jsfelcheck.validator.ElExpressionFilter;
+import net.jakubholy.jeeutils.jsfelcheck.validator.ElVariableResolver;
+import net.jakubholy.jeeutils.jsfelcheck.validator.FakeValueFactory;
+import net.jakubholy.jeeutils.jsfelcheck.validator.FakeValueFactory.UnableToCreateFakeValueException;
+import net.jakubholy.jeeutils.jsfelcheck.validator.JsfElValidator;
+import net.jakubholy.jeeutils.jsfelcheck.validator.MockObjectOfUnknownType;
+import net.jakubholy.jeeutils.jsfelcheck.validator.ParsedElExpression;
+import net.jakubholy.jeeutils.jsfelcheck.validator.PredefinedVariableResolver;
+import net.jakubholy.jeeutils.jsfelcheck.validator.PropertyTypeOverrides;
+import net.jakubholy.jeeutils.jsfelcheck.validator.ValidatingElResolver;
+import net.jakubholy.jeeutils.jsfelcheck.validator.ValidationResultHelper;
+import net.jakubholy.jeeutils.jsfelcheck.validator.exception.BaseEvaluationException;
+import net.jakubholy.jeeutils.jsfelcheck.validator.exception.ExpressionRejectedByFilterException;
+import net.jakubholy.jeeutils.jsfelcheck.validator.exception.InvalidExpressionException;
+import net.jakubholy.jeeutils.jsfelcheck.validator.exception.MethodNotFoundException;
+import net.jakubholy.jeeutils.jsfelcheck.validator.exception.PropertyNotFoundException;
+import net.jakubholy.jeeutils.jsfelcheck.validator.exception.VariableNotFoundException;
+import net.jakubholy.jeeutils.jsfelcheck.validator.results.FailedValidationResult;
+import net.jakubholy.jeeutils.jsfelcheck.validator.results.SuccessfulValidationResult;
+import net.jakubholy.jeeutils.jsfelcheck.validator.results.ValidationResult;
+import org.apache.el.parser.AstAnd;
+import org.apache.el.parser.AstBracketSuffix;
+import org.apache.el.parser.AstChoice;
+import org.apache.el.parser.AstCompositeExpression;
+import org.apache.el.parser.AstDeferredExpression;
+import org.apache.el.parser.AstDiv;
+import org.apache.el.parser.AstDotSuffix;
+import org.apache.el.parser.AstDynamicExpression;
+import org.apache.el.parser.AstEmpty;
+import org.apache.el.parser.AstEqual;
+import org.apache.el.parser.AstFalse;
+import org.apache.el.parser.AstFloatingPoint;
+import org.apache.el.parser.AstFunction;
+import org.apache.el.parser.AstGreaterThan;
+import org.apache.el.parser.AstGreaterThanEqual;
+import org.apache.el.parser.AstIdentifier;
+import org.apache.el.parser.AstInteger;
+import org.apache.el.parser.AstLessThan;
+import org.apache.el.parser.AstLessThanEqual;
+import org.apache.el.parser.AstLiteralExpression;
+import org.apache.el.parser.AstMinus;
+import org.apache.el.parser.AstMod;
+import org.apache.el.parser.AstMult;
+import org.apache.el.parser.AstNegative;
+import org.apache.el.parser.AstNot;
+import org.apache.el.parser.AstNotEqual;
+import org.apache.el.parser.AstNull;
+import org.apache.el.parser.AstOr;
+import org.apache.el.parser.AstPlus;
+import org.apache.el.parser.AstString;
+import org.apache.el.parser.AstTrue;
+import org.apache.el.parser.AstValue;
+import org.apache.el.parser.ELParser;
+import org.apache.el.parser.Node;
+
+import javax.el.ELException;
+import javax.el.MethodExpression;
+import javax.el.ValueExpression;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.ResourceBundle;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/** {@inheritDoc}
+ *
+ * Type-only implementation: contrary to {@link Jsf12ValidatingElResolver}, which evaluates the expression with
+ * a real EL implementation and fake values (mocks) of all the variables and properties, it walks the parsed
+ * expression and determines the type of each variable, property and method purely from the class metadata -
+ * the (cached) property descriptors and generic type arguments (so f.ex. the type of the elements of a
+ * <code>List&lt;Item&gt;</code> property is known). Thus no fake values are created except for the
+ * result of the whole expression, which is only produced so that the validation results are the same as those
+ * of the other implementation.
+ * <p>
+ *     Differences from {@link Jsf12ValidatingElResolver}: The operators are not evaluated, only the types of their
+ * results are determined, and thus coercion failures (such as "abc" > 1) are not detected. Methods with parameters
+ * (EL 2.2) are checked by name and number of arguments.
+ * </p>
+ * <p>
+ *     The parsed expressions are cached and shared by all instances as the same expressions tend to appear
+ * in many views.
+ * </p>
+ */
+public class TypeOnlyValidatingElResolver implements ValidatingElResolver, CacheStatisticsProvider {
+
+    private static final Logger LOG = Logger.getLogger(TypeOnlyValidatingElResolver.class.getName());
+
+    /** How many parsed expressions to cache. */
+    static final int PARSED_EXPRESSIONS_CACHE_SIZE = 10000;
+
+    /** Expression -> its syntax tree; the nodes are not modified after parsing and so can be shared. */
+    private static final LruCache<String, Node> PARSED_EXPRESSIONS =
+            new LruCache<String, Node>("parsed EL expression trees", PARSED_EXPRESSIONS_CACHE_SIZE);
+
+    /** The result of EL functions, see {@link MethodFakingFunctionMapper}. */
+    private static final String FUNCTION_RESULT = "";
+
+    /** Types whose fake values are simple constants, see {@link FakeValueFactory#fakeValueOfType(Class, Object)}. */
+    private static final Set<Class<?>> SIMPLE_TYPES = new HashSet<Class<?>>(Arrays.<Class<?>>asList(
+            String.class, Boolean.class, boolean.class
+            , Integer.class, Long.class, Double.class, Float.class
+            , int.class, long.class, double.class, float.class));
+
+    /**
+     * The static type of (a part of) an expression and also its value if known, namely for literals
+     * and declared variables.
+     */
+    private static final class TypedValue {
+
+        private final Type type;
+        private final Object value;
+        private final boolean valueKnown;
+
+        private TypedValue(Type type, Object value, boolean valueKnown) {
+            this.type = type;
+            this.value = value;
+            this.valueKnown = valueKnown;
+        }
+
+        static TypedValue ofType(Type type) {
+            return new TypedValue(type, null, false);
+        }
+
+        static TypedValue ofValue(Type type, Object value) {
+            return new TypedValue(type, value, true);
+        }
+
+        Class<?> getRawClass() {
+            Class<?> rawClass = GenericTypes.rawClassOf(type);
+            return (rawClass == null)? Object.class : rawClass;
+        }
+
+        /** The known value or, for simple types such as boolean, the value their fake would have; null if unknown. */
+        Object getValueOrSimpleFake() {
+            if (valueKnown) {
+                return value;
+            } else if (SIMPLE_TYPES.contains(getRawClass())) {
+                return FakeValueFactory.fakeValueOfType(getRawClass(), null);
+            } else {
+                return null;
+            }
+        }
+
+        boolean isFloatingPoint() {
+            Class<?> rawClass = getRawClass();
+            return Double.class.equals(rawClass) || double.class.equals(rawClass)
+                    || Float.class.equals(rawClass) || float.class.equals(rawClass)
+                    || BigDecimal.class.equals(rawClass);
+        }
+    }
+
+    /** State of validating a single expression. */
+    private final class Evaluation {
+
+        private final Set<String> functions = new TreeSet<String>();
+        private Object lastProperty;
+
+        TypedValue evaluate(Node node) {
+            if (node instanceof AstCompositeExpression || node instanceof AstDeferredExpression
+                    || node instanceof AstDynamicExpression) {
+                if (node.jjtGetNumChildren() == 1) {
+                    return evaluate(node.jjtGetChild(0));
+                }
+                evaluateChildren(node);
+                return TypedValue.ofType(String.class);
+            } else if (node instanceof AstLiteralExpression) {
+                return TypedValue.ofValue(String.class, node.getImage());
+            } else if (node instanceof AstString) {
+                return TypedValue.ofValue(String.class, ((AstString) node).getString());
+            } else if (node instanceof AstInteger) {
+                return integerLiteral(node.getImage());
+            } else if (node instanceof AstFloatingPoint) {
+                return TypedValue.ofValue(Double.class, Double.valueOf(node.getImage()));
+            } else if (node instanceof AstTrue) {
+                return TypedValue.ofValue(Boolean.class, Boolean.TRUE);
+            } else if (node instanceof AstFalse) {
+                return TypedValue.ofValue(Boolean.class, Boolean.FALSE);
+            } else if (node instanceof AstNull) {
+                return TypedValue.ofValue(Object.class, null);
+            } else if (node instanceof AstIdentifier) {
+                ParsedElExpression expression = new ParsedElExpression(typeOverrides);
+                return resolveVariable(node.getImage(), expression);
+            } else if (node instanceof AstValue) {
+                return evaluateValue(node, node.jjtGetNumChildren());
+            } else if (node instanceof AstFunction) {
+                AstFunction function = (AstFunction) node;
+                evaluateChildren(node);
+                functions.add(function.getPrefix() + ":" + function.getLocalName());
+                return TypedValue.ofValue(String.class, FUNCTION_RESULT);
+            } else if (node instanceof AstNot) {
+                Object operand = evaluate(node.jjtGetChild(0)).getValueOrSimpleFake();
+                return (operand instanceof Boolean)? TypedValue.ofValue(Boolean.class, !((Boolean) operand))
+                        : TypedValue.ofType(Boolean.class);
+            } else if (node instanceof AstNegative) {
+                TypedValue operand = evaluate(node.jjtGetChild(0));
+                if (operand.valueKnown && operand.value instanceof Long) {
+                    return TypedValue.ofValue(Long.class, -((Long) operand.value));   // such as array[-1]
+                }
+                return TypedValue.ofType(operand.isFloatingPoint()? Double.class : Long.class);
+            } else if (node instanceof AstChoice) {
+                Object condition = evaluate(node.jjtGetChild(0)).getValueOrSimpleFake();
+                TypedValue whenTrue = evaluate(node.jjtGetChild(1));
+                TypedValue whenFalse = evaluate(node.jjtGetChild(2));
+                return Boolean.FALSE.equals(condition)? whenFalse : whenTrue;
+            } else if (node instanceof AstEmpty || node instanceof AstAnd || node instanceof AstOr
+                    || node instanceof AstEqual || node instanceof AstNotEqual
+                    || node instanceof AstLessThan || node instanceof AstLessThanEqual
+                    || node instanceof AstGreaterThan || node instanceof AstGreaterThanEqual) {
+                evaluateChildren(node);
+                return TypedValue.ofType(Boolean.class);
+            } else if (node instanceof AstDiv) {
+                evaluateChildren(node);
+                return TypedValue.ofType(Double.class);
+            } else if (node instanceof AstPlus || node instanceof AstMinus || node instanceof AstMult
+                    || node instanceof AstMod) {
+                boolean floatingPoint = false;
+                for (int i = 0; i < node.jjtGetNumChildren(); i++) {
+                    floatingPoint |= evaluate(node.jjtGetChild(i)).isFloatingPoint();
+                }
+                return TypedValue.ofType(floatingPoint? Double.class : Long.class);
+            } else {
+                // An unknown (newer EL) construct, check at least its sub-expressions
+                evaluateChildren(node);
+                return TypedValue.ofType(Object.class);
+            }
+        }
+
+        private void evaluateChildren(Node node) {
+            for (int i = 0; i < node.jjtGetNumChildren(); i++) {
+                evaluate(node.jjtGetChild(i));
+            }
+        }
+
+        private TypedValue integerLiteral(String image) {
+            try {
+                return TypedValue.ofValue(Long.class, Long.valueOf(image));
+            } catch (NumberFormatException e) {
+                return TypedValue.ofValue(BigInteger.class, new BigInteger(image));
+            }
+        }
+
+        /**
+         * Evaluate the variable or expression and the given number of the following properties and method calls.
+         * @param valueNode (required) an AstValue
+         * @param childrenToEvaluate how many of its children to evaluate, i.e. the prefix and then suffixes
+         */
+        TypedValue evaluateValue(Node valueNode, int childrenToEvaluate) {
+            Node prefix = valueNode.jjtGetChild(0);
+            TypedValue current;
+            // The chain of property names for overrides and filters; unknown if not starting with a variable
+            ParsedElExpression expression = null;
+            if (prefix instanceof AstIdentifier) {
+                expression = new ParsedElExpression(typeOverrides);
+                current = resolveVariable(prefix.getImage(), expression);
+            } else {
+                current = evaluate(prefix);
+            }
+
+            for (int i = 1; i < childrenToEvaluate; i++) {
+                Object property = propertyOf(valueNode.jjtGetChild(i));
+                boolean followedByMethodParameters = (i + 1 < childrenToEvaluate)
+                        && isMethodParameters(valueNode.jjtGetChild(i + 1));
+                if (followedByMethodParameters) {
+                    Node parameters = valueNode.jjtGetChild(++i);
+                    evaluateChildren(parameters);
+                    current = invokeMethod(current, String.valueOf(property), parameters.jjtGetNumChildren());
+                    appendToExpression(expression, property);
+                } else {
+                    current = resolveProperty(current, property, expression);
+                }
+            }
+            return current;
+        }
+
+        /** The property name or key referenced by the suffix (.name or [key]). */
+        Object propertyOf(Node suffix) {
+            if (suffix instanceof AstDotSuffix) {
+                return suffix.getImage();
+            } else if (suffix instanceof AstBracketSuffix) {
+                TypedValue key = evaluate(suffix.jjtGetChild(0));
+                Object keyValue = key.getValueOrSimpleFake();
+                return (keyValue == null)? "*" : keyValue;
+            } else {
+                throw new IllegalStateException("Unexpected node " + suffix.getClass().getSimpleName()
+                        + " where a property was expected");
+            }
+        }
+
+        TypedValue resolveVariable(String name, ParsedElExpression expression) {
+            TypedValue variable;
+            Object declaredValue = variableResolver.getDeclaredVariables().get(name);
+            if (declaredValue != null) {
+                variable = TypedValue.ofValue(FakeValueFactory.typeOfFakeValue(declaredValue), declaredValue);
+            } else {
+                ElVariableResolver unknownVariableResolver = variableResolver.getUnknownVariableResolver();
+                Class<?> contextLocalVarType = (unknownVariableResolver == null)?
+                        null : unknownVariableResolver.resolveVariable(name);
+                if (contextLocalVarType == null) {
+                    throw new VariableNotFoundException("No variable '" + name + "' among the predefined ones"
+                            + (variableResolver.isIncludeKnownVariablesInException()?
+                            ": " + variableResolver.getDeclaredVariables().keySet() : "."));
+                }
+                variable = TypedValue.ofType(contextLocalVarType);
+            }
+
+            lastProperty = name;
+            expression.setVariable(name);
+            applyFilters(expression);
+            return variable;
+        }
+
+        TypedValue resolveProperty(TypedValue target, Object property, ParsedElExpression expression) {
+            if (target.valueKnown && target.value == null) {
+                return target;   // EL evaluates properties of null to null
+            }
+
+            Class<?> override = (expression == null)? null : expression.getTypeOverride(property);
+            Type type = (override == null)? typeOfProperty(target, property) : override;
+            if (type == null || Object.class.equals(GenericTypes.rawClassOf(type))) {
+                // Null is common for collections such as List where component type can't be determined
+                type = MockObjectOfUnknownType.class;
+            }
+
+            // Append property only after type has been determined
+            appendToExpression(expression, property);
+            lastProperty = property;
+            return TypedValue.ofType(type);
+        }
+
+        private Type typeOfProperty(TypedValue target, Object property) {
+            Class<?> targetClass = target.getRawClass();
+            if (targetClass.isArray()) {
+                return (target.type instanceof GenericArrayType)?
+                        ((GenericArrayType) target.type).getGenericComponentType() : targetClass.getComponentType();
+            } else if (Collection.class.isAssignableFrom(targetClass)) {
+                return GenericTypes.typeArgumentOf(target.type, Collection.class, 0);
+            } else if (Map.class.isAssignableFrom(targetClass)) {
+                if (target.valueKnown) {
+                    // As MapELResolver, use the type of the actual element
+                    return FakeValueFactory.typeOfFakeValue(((Map<?, ?>) target.value).get(property));
+                }
+                return GenericTypes.typeArgumentOf(target.type, Map.class, 1);
+            } else if (ResourceBundle.class.isAssignableFrom(targetClass)) {
+                return String.class;
+            }
+
+            Type propertyType = BeanPropertyUtils.forType(targetClass).getGenericPropertyTypeOf(String.valueOf(property));
+            if (propertyType == null) {
+                throw new PropertyNotFoundException("Property '" + property + "' not found on type "
+                        + targetClass.getName());
+            }
+            return GenericTypes.resolve(propertyType, target.type);
+        }
+
+        private TypedValue invokeMethod(TypedValue target, String methodName, int arity) {
+            Method method = findMethod(target.getRawClass(), methodName, arity);
+            lastProperty = methodName;
+            if (void.class.equals(method.getReturnType())) {
+                return TypedValue.ofValue(Object.class, null);
+            }
+            return TypedValue.ofType(GenericTypes.resolve(method.getGenericReturnType(), target.type));
+        }
+
+        private void appendToExpression(ParsedElExpression expression, Object property) {
+            if (expression != null) {
+                expression.addProperty(property.toString());
+                applyFilters(expression);
+            }
+        }
+
+        /** The value to return as the result of the expression: the known value or a fake one of its type. */
+        Object resultValueOf(TypedValue result) {
+            Object value = result.getValueOrSimpleFake();
+            if (value != null || result.valueKnown) {
+                return value;
+            }
+
+            Class<?> resultClass = result.getRawClass();
+            if (MockObjectOfUnknownType.class.equals(resultClass)) {
+                return new MockObjectOfUnknownType(lastProperty);
+            }
+            try {
+                return FakeValueFactory.fakeValueOfType(resultClass, lastProperty);
+            } catch (UnableToCreateFakeValueException e) {
+                LOG.log(Level.FINE, "Failed to fake the result of the type " + resultClass, e);
+                return null;
+            }
+        }
+    }
+
+    private final PredefinedVariableResolver variableResolver = new PredefinedVariableResolver(null);
+    private final PropertyTypeOverrides typeOverrides = new PropertyTypeOverrides();
+    private final Collection<ElExpressionFilter> filters = new LinkedList<ElExpressionFilter>();
+
+    /** New, configured resolver. */
+    public TypeOnlyValidatingElResolver() {
+        // Use the most coerceable type for elements of the JSP implicit Map objects, as MockingPropertyResolver
+        for (String mapImplicitObject : PredefinedVariableResolver.IMPLICIT_MAP_OBJECT_NAMES) {
+            definePropertyTypeOverride(mapImplicitObject + ".*", String.class);
+        }
+    }
+
+    /** {@inheritDoc} */
+    public ValidationResult validateElExpression(String elExpression, AttributeInfo attributeInfo) {
+
+        boolean attributeTypedAsMethod = MethodExpression.class.isAssignableFrom(attributeInfo.getAttributeType());
+        boolean attributeTypedAsValue = ValueExpression.class.isAssignableFrom(attributeInfo.getAttributeType());
+
+        if (attributeTypedAsMethod) {
+            return validateMethodElExpression(elExpression, true);
+        } else if (attributeTypedAsValue) {
+            return validateValueElExpression(elExpression);
+        } else {
+            /* EXPRESSION TYPE NOT SPECIFIED (=> FACELETS), TRY BOTH */
+            ValidationResult validationResult = validateValueElExpression(elExpression);
+
+            if (isPropertyNotFoundFailure(validationResult)) {
+                ValidationResult methodResult = validateMethodElExpression(elExpression, false);
+                if (!methodResult.hasErrors()) {
+                    return methodResult;
+                }
+                LOG.info("validateElExpression: '" + elExpression + "' is neither valid ValueExpression nor "
+                        + "MethodExpression. Method validation failure: " + methodResult);
+            }
+            return validationResult;
+        }
+    }
+
+    private boolean isPropertyNotFoundFailure(ValidationResult validationResult) {
+        if (validationResult instanceof FailedValidationResult) {
+            InvalidExpressionException failure = ((FailedValidationResult) validationResult).getFailure();
+            return failure.getCause() instanceof PropertyNotFoundException;
+        } else {
+            return false;
+        }
+    }
+
+    private ValidationResult validateValueElExpression(String elExpression) {
+        Evaluation evaluation = new Evaluation();
+        try {
+            TypedValue result = evaluation.evaluate(parse(elExpression));
+            return new SuccessfulValidationResult(elExpression, evaluation.resultValueOf(result))
+                    .withFunctionsInExpression(evaluation.functions)
+                    .withExpressionType(result.type);
+        } catch (ELException e) {
+            return ValidationResultHelper.produceFailureResult(elExpression, e);
+        } catch (BaseEvaluationException e) {
+            return ValidationResultHelper.produceFailureResult(elExpression, e);
+        } catch (RuntimeException e) {
+            throw ValidationResultHelper.wrapIfNeededAndAddContext(elExpression, e);
+        }
+    }
+
+    /**
+     * Validate an expression like #{bean.property.method}: check #{bean.property} and that its type has
+     * a public method named 'method' (with the given number of arguments, if any - EL 2.2).
+     * @param ignoreUnsupportedForm succeed if the expression isn't of the form above (f.ex. it is a literal) as
+     * we cannot verify it - for attributes known to take a method expression
+     */
+    private ValidationResult validateMethodElExpression(String elExpression, boolean ignoreUnsupportedForm) {
+        Evaluation evaluation = new Evaluation();
+        try {
+            Node expression = unwrapExpression(parse(elExpression));
+            Object result;
+
+            int targetChildren = (expression instanceof AstValue)? expression.jjtGetNumChildren() - 1 : 0;
+            int arity = -1;
+            if (targetChildren > 0 && isMethodParameters(expression.jjtGetChild(targetChildren))) {
+                arity = expression.jjtGetChild(targetChildren).jjtGetNumChildren();
+                evaluation.evaluateChildren(expression.jjtGetChild(targetChildren));
+                targetChildren--;
+            }
+            Object methodName = (targetChildren > 0)? evaluation.propertyOf(expression.jjtGetChild(targetChildren))
+                    : null;
+
+            if (methodName instanceof String && !"*".equals(methodName)) {
+                TypedValue target = evaluation.evaluateValue(expression, targetChildren);
+                result = findMethod(target.getRawClass(), (String) methodName, arity);
+            } else if (ignoreUnsupportedForm) {
+                LOG.fine("validateMethodElExpression: Cannot verify the method expression " + elExpression
+                        + ", it isn't of the form #{bean[.property*].method}");
+                result = evaluation.resultValueOf(evaluation.evaluate(expression));
+            } else {
+                throw new MethodNotFoundException("The expression " + elExpression
+                        + " isn't a method expression of the form #{bean[.property*].method}");
+            }
+
+            return new SuccessfulValidationResult(elExpression, result)
+                    .withFunctionsInExpression(evaluation.functions);
+        } catch (ELException e) {
+            return ValidationResultHelper.produceFailureResult(elExpression, e);
+        } catch (BaseEvaluationException e) {
+            return ValidationResultHelper.produceFailureResult(elExpression, e);
+        } catch (RuntimeException e) {
+            throw ValidationResultHelper.wrapIfNeededAndAddContext(elExpression, e);
+        }
+    }
+
+    /** Get the parsed expression from the cache or parse and cache it. */
+    private static Node parse(String elExpression) throws ELException {
+        Node parsed = PARSED_EXPRESSIONS.get(elExpression);
+        if (parsed == null) {
+            parsed = ELParser.parse(elExpression);
+            PARSED_EXPRESSIONS.put(elExpression, parsed);
+        }
+        return parsed;
+    }
+
+    /** Skip the nodes representing the whole #{..}, if it is the only content. */
+    private static Node unwrapExpression(Node expression) {
+        Node unwrapped = expression;
+        while ((unwrapped instanceof AstCompositeExpression || unwrapped instanceof AstDeferredExpression
+                || unwrapped instanceof AstDynamicExpression) && unwrapped.jjtGetNumChildren() == 1) {
+            unwrapped = unwrapped.jjtGetChild(0);
+        }
+        return unwrapped;
+    }
+
+    /** Parameters of a method call, supported since EL 2.2 (jasper-el 7). */
+    private static boolean isMethodParameters(Node node) {
+        return "AstMethodParameters".equals(node.getClass().getSimpleName());
+    }
+
+    /**
+     * Find a public method of the given name on the class.
+     * @param arity the number of arguments or -1 if unknown (the method is called with the arguments supplied
+     * by JSF, which we don't know)
+     */
+    private static Method findMethod(Class<?> targetClass, String methodName, int arity) {
+        for (Method method : targetClass.getMethods()) {
+            if (method.getName().equals(methodName)
+                    && (arity < 0 || method.isVarArgs() || method.getParameterTypes().length == arity)) {
+                return method;
+            }
+        }
+        throw new MethodNotFoundException("No method '" + methodName + "'"
+                + ((arity < 0)? "" : " with " + arity + " parameter(s)")
+                + " found in the target object's " + targetClass);
+    }
+
+    private void applyFilters(ParsedElExpression expression) throws ExpressionRejectedByFilterException {
+        for (ElExpressionFilter filter : filters) {
+            if (!filter.accept(expression)) {
+                throw new ExpressionRejectedByFilterException(expression.toString(), filter);
+            }
+        }
+    }
+
+    /** {@inheritDoc} */
+    public JsfElValidator declareVariable(String name, Object value) {
+        variableResolver.declareVariable(name, value);
+        return this;
+    }
+
+    /** {@inheritDoc} */
+    public JsfElValidator definePropertyTypeOverride(String mapJsfExpression, Class<?> newType) {
+        typeOverrides.define(mapJsfExpression, newType);
+        return this;
+    }
+
+    /** {@inheritDoc} */
+    public void setUnknownVariableResolver(ElVariableResolver unknownVariableResolver) {
+        variableResolver.setUnknownVariableResolver(unknownVariableResolver);
+    }
+
+    /** {@inheritDoc} */
+    public void setIncludeKnownVariablesInException(boolean includeKnownVariablesInException) {
+        variableResolver.setIncludeKnownVariablesInException(includeKnownVariablesInException);
+    }
+
+    /** {@inheritDoc} */
+    public void addElExpressionFilter(ElExpressionFilter elExpressionFilter) {
+        filters.add(elExpressionFilter);
+    }
+
+    /** {@inheritDoc} */
+    public Collection<LruCache<?, ?>> getCaches() {
+        return Collections.<LruCache<?, ?>>singletonList(PARSED_EXPRESSIONS);
+    }
+
+}
@@ -21,6 +21,7 @@ import net.jakubholy.jeeutils.jsfelcheck.validator.AttributeInfo;
 import net.jakubholy.jeeutils.jsfelcheck.validator.exception.MethodNotFoundException;
 import net.jakubholy.jeeutils.jsfelcheck.validator.exception.PropertyNotFoundException;
 import net.jakubholy.jeeutils.jsfelcheck.validator.exception.VariableNotFoundException;
+import net.jakubholy.jeeutils.jsfelcheck.validator.results.SuccessfulValidationResult;
 import net.jakubholy.jeeutils.jsfelcheck.validator.results.ValidationResult;
 import org.junit.Test;
 
@@ -28,6 +29,8 @@ import net.jakubholy.jeeutils.jsfelcheck.validator.ValidatingElResolver;
 import net.jakubholy.jeeutils.jsfelcheck.validator.ValidatingJsfElResolverAbstractTest;
 
 import javax.el.ValueExpression;
+import java.util.Arrays;
+import java.util.TreeSet;
 
 import static net.jakubholy.jeeutils.jsfelcheck.validator.jsf12.Jsf12ValidatingElResolver.splitAtLastProperty;
 import static org.junit.Assert.*;
@@ -74,6 +77,18 @@ public class Jsf12ValidatingElResolverTest extends ValidatingJsfElResolverAbstra
         // `- now fails, can't coerce "" -> int (NumberFormatException)
     }
 
+    @Test
+    public void should_report_functions_also_for_cached_expression() throws Exception {
+        String expression = "#{fake:cachedFunction(fake:otherFunction()) == 1}";
+        AttributeInfo valueAttribute = new AttributeInfo("value", ValueExpression.class);
+        elResolver.validateElExpression(expression, valueAttribute);
+
+        ValidationResult result = elResolver.validateElExpression(expression, valueAttribute);
+
+        assertEquals(new TreeSet<String>(Arrays.asList("fake:cachedFunction", "fake:otherFunction"))
+                , ((SuccessfulValidationResult) result).getFunctionsInExpression());
+    }
+
 	@Test
 	public void should_recognize_method_binding_attribute() throws Exception {
 		// See e.g. org.apache.myfaces.taglib.html.HtmlCommandButtonTag
@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.jakubholy.jeeutils.jsfelcheck.validator.jsf12;
+
+import net.jakubholy.jeeutils.jsfelcheck.validator.AttributeInfo;
+import net.jakubholy.jeeutils.jsfelcheck.validator.ValidatingElResolver;
+import net.jakubholy.jeeutils.jsfelcheck.validator.ValidatingJsfElResolverAbstractTest;
+import net.jakubholy.jeeutils.jsfelcheck.validator.exception.MethodNotFoundException;
+import net.jakubholy.jeeutils.jsfelcheck.validator.exception.PropertyNotFoundException;
+import net.jakubholy.jeeutils.jsfelcheck.validator.results.SuccessfulValidationResult;
+import net.jakubholy.jeeutils.jsfelcheck.validator.results.ValidationResult;
+import org.junit.Test;
+
+import javax.el.MethodExpression;
+import javax.el.ValueExpression;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class TypeOnlyValidatingElResolverTest extends ValidatingJsfElResolverAbstractTest {
+
+    public static class Item {
+        public String getName() { return null; }
+    }
+
+    public static class Order {
+        public List<Item> getItems() { return null; }
+        public Map<String, Item> getItemsByName() { return null; }
+        public Item[] getItemArray() { return null; }
+        public String submit() { return null; }
+    }
+
+    @Override
+    protected ValidatingElResolver setUpResolver() {
+        return new TypeOnlyValidatingElResolver();
+    }
+
+    @Test
+    public void should_resolve_type_of_list_elements_from_generics() throws Exception {
+        elResolver.declareVariable("order", new Order());
+        assertExpressionValid("#{order.items[0].name}");
+        assertFailureWithCause(elResolver.validateElExpression("#{order.items[0].noSuchProperty}"
+                , new AttributeInfo("value", ValueExpression.class)), PropertyNotFoundException.class);
+    }
+
+    @Test
+    public void should_resolve_type_of_map_values_from_generics() throws Exception {
+        elResolver.declareVariable("order", new Order());
+        ValidationResult result = elResolver.validateElExpression("#{order.itemsByName['first']}"
+                , new AttributeInfo("value", ValueExpression.class));
+        assertTrue(((SuccessfulValidationResult) result).getExpressionResult() instanceof Item);
+    }
+
+    @Test
+    public void should_resolve_type_of_array_elements() throws Exception {
+        elResolver.declareVariable("order", new Order());
+        assertExpressionValid("#{order.itemArray[1].name}");
+    }
+
+    @Test
+    public void should_check_method_of_method_binding() throws Exception {
+        elResolver.declareVariable("order", new Order());
+        assertResultValid(elResolver.validateElExpression("#{order.submit}"
+                , new AttributeInfo("action", MethodExpression.class)));
+        assertFailureWithCause(elResolver.validateElExpression("#{order.noSuchMethod}"
+                , new AttributeInfo("action", MethodExpression.class)), MethodNotFoundException.class);
+    }
+
+    @Test
+    public void should_fall_back_to_eval_as_method_expr_if_property_not_found() throws Exception {
+        elResolver.declareVariable("order", new Order());
+        assertResultValid(elResolver.validateElExpression("#{order.submit}", new AttributeInfo("action", String.class)));
+    }
+
+    @Test
+    public void should_collect_functions_in_expression() throws Exception {
+        ValidationResult result = elResolver.validateElExpression("#{fn:length(fn:trim('abc')) > 1}"
+                , new AttributeInfo("value", ValueExpression.class));
+        assertTrue(((SuccessfulValidationResult) result).getFunctionsInExpression().contains("fn:trim"));
+        assertTrue(((SuccessfulValidationResult) result).getFunctionsInExpression().contains("fn:length"));
+    }
+
+}
@@ -20,6 +20,8 @@ package net.jakubholy.jeeutils.jsfelcheck.expressionfinder.impl.facelets.jsf20;
 import net.jakubholy.jeeutils.jsfelcheck.expressionfinder.impl.facelets.AbstractValidatingFaceletsParser;
 import net.jakubholy.jeeutils.jsfelcheck.expressionfinder.impl.facelets.StandaloneExternalContext;
 import net.jakubholy.jeeutils.jsfelcheck.expressionfinder.pagenodes.PageNodeListener;
+import net.jakubholy.jeeutils.jsfelcheck.util.CacheStatisticsProvider;
+import net.jakubholy.jeeutils.jsfelcheck.util.LruCache;
 import org.apache.myfaces.config.FacesConfigurator;
 import org.apache.myfaces.config.RuntimeConfig;
 import org.apache.myfaces.context.servlet.StartupFacesContextImpl;
@@ -43,6 +45,7 @@ import javax.faces.view.facelets.FaceletHandler;
 import java.io.File;
 import java.io.IOException;
 import java.net.URL;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Map;
 
@@ -51,10 +54,18 @@ import java.util.Map;
  *
  * Implementation for JSF 2.1 based on MyFaces 2.1.1.
  */
-public class MyFaces21ValidatingFaceletsParser extends AbstractValidatingFaceletsParser {
+public class MyFaces21ValidatingFaceletsParser extends AbstractValidatingFaceletsParser
+		implements CacheStatisticsProvider {
+
+	/**
+	 * Parsed local taglibs, shared by all parsers in the JVM, keyed by the taglib file and its checksum.
+	 * The libraries are immutable once created, just as when Facelets shares them by all requests.
+	 */
+	private static final LruCache<String, TagLibrary> PARSED_TAGLIBS =
+			new LruCache<String, TagLibrary>("parsed Facelets taglibs", 256);
 
 	private final ExternalContext externalContext;
-	private org.apache.myfaces.view.facelets.compiler.Compiler compiler;
+	private JsfelcheckSAXCompiler compiler;
 
 	/**
 	 * @param webappRoot (required) The folder that contains the webapp's resources folder as per the JSF 2.0 specification
@@ -66,11 +77,23 @@ public class MyFaces21ValidatingFaceletsParser extends AbstractValidatingFacelet
 	}
 
 	@Override
-	public void validateExpressionsInView(URL xhtmlUrl, String shortName) throws IOException {
-		final FaceletHandler handler = getCompiler().compile(xhtmlUrl, shortName);
+	protected void compile(URL xhtmlUrl, String shortName, PageNodeListener pageNodeListener) throws IOException {
+		final FaceletHandler handler = getCompiler().compile(xhtmlUrl, shortName, pageNodeListener);
 		// If desired, we could actually render the pages - for example to generate a static view of our site
 	}
 
+	/**
+	 * Worker threads get their own FacesContext; it is cheap because the configuration
+	 * (factories, application) has been done only once, in {@link #initializeFacesContext()}.
+	 */
+	@Override
+	protected void bindFacesContextToCurrentThread() {
+		if (FacesContext.getCurrentInstance() == null) {
+			// The constructor sets FacesContext.getCurrentInstance()
+			new StartupFacesContextImpl(externalContext, null, null, true);
+		}
+	}
+
 	/**
 	 * Initialize FacesContext for use by the compiler (so that it is aware of available tag libraries etc.)
 	 */
@@ -97,8 +120,8 @@ public class MyFaces21ValidatingFaceletsParser extends AbstractValidatingFacelet
 		return externalContext;
 	}
 
-	private Compiler createCompiler() {
-		Compiler compiler = new JsfelcheckSAXCompiler(pageNodeValidator);
+	private JsfelcheckSAXCompiler createCompiler() {
+		JsfelcheckSAXCompiler compiler = new JsfelcheckSAXCompiler(pageNodeValidator);
 
 		// BEGIN Copied from ..myfaces...FaceletViewDeclarationLanguage.createCompiler() w/ little inlining
 		compiler.addTagLibrary(new CoreLibrary());
@@ -120,18 +143,28 @@ public class MyFaces21ValidatingFaceletsParser extends AbstractValidatingFacelet
 	}
 
 	private void registerLocalTaglibs(Compiler compiler) {
-		for (File taglib : taglibs) {
-			try {
-				URL taglibUrl = taglib.toURI().toURL();
-				TagLibrary tagLib = TagLibraryConfig.create(taglibUrl);
-				compiler.addTagLibrary(tagLib);
-			} catch (IOException e) {
-				throw new RuntimeException("Taglib parsing failed", e);
+		for (File taglib : freezeTaglibs()) {
+			String cacheKey = toTaglibCacheKey(taglib);
+			TagLibrary tagLib = PARSED_TAGLIBS.get(cacheKey);
+			if (tagLib == null) {
+				try {
+					URL taglibUrl = taglib.toURI().toURL();
+					tagLib = TagLibraryConfig.create(taglibUrl);
+				} catch (IOException e) {
+					throw new RuntimeException("Taglib parsing failed", e);
+				}
+				PARSED_TAGLIBS.put(cacheKey, tagLib);
 			}
+			compiler.addTagLibrary(tagLib);
 		}
 	}
 
-	Compiler getCompiler() {
+	@Override
+	public Collection<LruCache<?, ?>> getCaches() {
+		return Collections.<LruCache<?, ?>>singletonList(PARSED_TAGLIBS);
+	}
+
+	synchronized JsfelcheckSAXCompiler getCompiler() {
 		if (compiler == null) {
 			compiler = createCompiler();
 		}
@@ -61,7 +61,9 @@ import org.xml.sax.helpers.DefaultHandler;
  * The differences are: 1) it uses {@link JsfelcheckCompilationManager}/
  * {@link NotifyingCompilationManager} instead of the original {@link CompilationManager},
  * 2) It has a tagListener: PageNodeListener (shared w/ the C.M.) and uses it
- * to notify about page entering.
+ * to notify about page entering. The listener may be passed to {@link #compile(URL, String, PageNodeListener)}
+ * so that a single, fully configured compiler can be shared by multiple threads each compiling a different
+ * view with its own listener; the listener given to the constructor, if any, is used otherwise.
  *
  * <p>
  *     Notice we must be in the myfaces package to be able to see package-private classes that the
@@ -73,7 +75,8 @@ import org.xml.sax.helpers.DefaultHandler;
 public final class JsfelcheckSAXCompiler extends Compiler
 {
 
-	private final PageNodeListener tagListener;
+	private final PageNodeListener defaultTagListener;
+	private final ThreadLocal<PageNodeListener> currentTagListener = new ThreadLocal<PageNodeListener>();
 
     private final static Pattern XmlDeclaration = Pattern
             .compile("^<\\?xml.+?version=['\"](.+?)['\"](.+?encoding=['\"]((.+?))['\"])?.*?\\?>");
@@ -713,14 +716,56 @@ public final class JsfelcheckSAXCompiler extends Compiler
         }        
     }
 
+    /** Compiler without a default listener, the listener must be passed to each compile call. */
+    public JsfelcheckSAXCompiler()
+    {
+        this(null);
+    }
+
+    /**
+     * @param tagListener (optional) the listener to use when none is passed to
+     * {@link #compile(URL, String, PageNodeListener)}
+     */
     public JsfelcheckSAXCompiler(PageNodeListener tagListener)
     {
-	    this.tagListener = tagListener;
+	    this.defaultTagListener = tagListener;
     }
 
+	/**
+	 * Compile the given page, notifying the given listener (instead of the default one) about its tags.
+	 * Thread-safe provided that the compiler has been already initialized, i.e. something has been already
+	 * compiled with it.
+	 * @param src (required) the page to compile
+	 * @param alias (required) the page's name, normally web-root relative
+	 * @param tagListener (required) the listener to notify about the page and its tags
+	 * @return the compiled page
+	 */
+	public FaceletHandler compile(URL src, String alias, PageNodeListener tagListener) throws IOException,
+			FaceletException, ELException, FacesException {
+		currentTagListener.set(tagListener);
+		try {
+			return compile(src, alias);
+		} finally {
+			currentTagListener.remove();
+		}
+	}
+
+	private PageNodeListener getTagListener() {
+		PageNodeListener tagListener = currentTagListener.get();
+		if (tagListener == null) {
+			tagListener = defaultTagListener;
+		}
+		if (tagListener == null) {
+			throw new IllegalStateException("No PageNodeListener: either pass one to compile(URL, String, "
+					+ "PageNodeListener) or to the constructor");
+		}
+		return tagListener;
+	}
+
     public FaceletHandler doCompile(URL src, String alias) throws IOException, FaceletException, ELException,
             FacesException
     {
+	    PageNodeListener tagListener = getTagListener();
 	    tagListener.fileEntered(alias); // Alias is normally web-root relative file name
         JsfelcheckCompilationManager mngr = null;
         InputStream is = null;
@@ -728,7 +773,7 @@ public final class JsfelcheckSAXCompiler extends Compiler
         try
         {
             is = new BufferedInputStream(src.openStream(), 1024);
-            mngr = new NotifyingCompilationManager(alias, this, getFaceletsProcessingInstructions(src, alias), tagListener);
+            mngr = new NotifyingCompilationManager(alias, this, getFaceletsProcessingInstructions(src, alias), getTagListener());
             encoding = writeXmlDecl(is, mngr);
             CompilationHandler handler = new CompilationHandler(mngr, alias);
             SAXParser parser = this.createSAXParser(handler);
@@ -765,7 +810,7 @@ public final class JsfelcheckSAXCompiler extends Compiler
         try
         {
             is = new BufferedInputStream(src.openStream(), 1024);
-            mngr = new NotifyingCompilationManager(alias, this, getFaceletsProcessingInstructions(src, alias), tagListener);
+            mngr = new NotifyingCompilationManager(alias, this, getFaceletsProcessingInstructions(src, alias), getTagListener());
             encoding = getXmlDecl(is, mngr);
             ViewMetadataHandler handler = new ViewMetadataHandler(mngr, alias);
             SAXParser parser = this.createSAXParser(handler);
@@ -802,7 +847,7 @@ public final class JsfelcheckSAXCompiler extends Compiler
         try
         {
             is = new BufferedInputStream(src.openStream(), 1024);
-            mngr = new NotifyingCompilationManager(alias, this, getFaceletsProcessingInstructions(src, alias), tagListener);
+            mngr = new NotifyingCompilationManager(alias, this, getFaceletsProcessingInstructions(src, alias), getTagListener());
             encoding = getXmlDecl(is, mngr);
             CompositeComponentMetadataHandler handler = new CompositeComponentMetadataHandler(mngr, alias);
             SAXParser parser = this.createSAXParser(handler);